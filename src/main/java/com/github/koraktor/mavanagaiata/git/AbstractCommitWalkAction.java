@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2012-2018, Sebastian Staudt
+ * Copyright (c) 2012-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.git;
@@ -15,8 +15,36 @@ package com.github.koraktor.mavanagaiata.git;
  */
 public abstract class AbstractCommitWalkAction {
 
+    /**
+     * The details of the commits an action needs
+     * <p>
+     * Only the details of the requested level are decoded, {@link #MESSAGE}
+     * includes all details. Details not included are not available from the
+     * commits passed to an action, they will be {@code null}.
+     */
+    public enum CommitDetail {
+        /**
+         * Only the ID, the parents, the commit time and the author of commits
+         * are needed
+         */
+        AUTHOR,
+
+        /**
+         * Only the ID, the parents, the commit time and the subject of the
+         * commit messages are needed
+         */
+        SUBJECT,
+
+        /**
+         * All details including the full commit messages are needed
+         */
+        MESSAGE
+    }
+
     protected GitCommit currentCommit;
 
+    private boolean stopped;
+
     /**
      * Executes this action for the given commit
      *
@@ -28,6 +56,55 @@ public abstract class AbstractCommitWalkAction {
         run();
     }
 
+    /**
+     * Returns the details of the commits needed by this action
+     * <p>
+     * Actions should only request the details they need, so commit walks can
+     * release the raw data of each commit early.
+     *
+     * @return The details of the commits needed by this action
+     */
+    public CommitDetail getCommitDetail() {
+        return CommitDetail.MESSAGE;
+    }
+
+    /**
+     * Returns the filter for the commits passed to this action
+     * <p>
+     * Commits not matching the filter are skipped by the repository before
+     * they are decoded, so this is more efficient than skipping commits in
+     * the action itself.
+     *
+     * @return The filter for commits passed to this action
+     */
+    public CommitFilter getCommitFilter() {
+        return CommitFilter.ALL;
+    }
+
+    /**
+     * Returns whether this action does not need any more commits
+     * <p>
+     * Repositories end the commit walk as soon as the action has been
+     * stopped.
+     *
+     * @return {@code true} if the commit walk should end
+     * @see #stop
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Stops this action, so the commit walk ends after the current commit
+     * <p>
+     * Actions only interested in the newest part of the history should stop
+     * as soon as possible, so the rest of the history does not have to be
+     * walked at all.
+     */
+    protected void stop() {
+        stopped = true;
+    }
+
     /**
      * The code of the action that should be executed for each commit during a
      * commit walk
@@ -2,11 +2,22 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2012-2018, Sebastian Staudt
+ * Copyright (c) 2012-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.git;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 /**
  * An abstract implementation of a Git repository that provides basic and
  * common functionality
@@ -17,12 +28,15 @@ public abstract class AbstractGitRepository implements GitRepository {
 
     protected String headRef;
     MailMap mailMap;
+    private final Set<CompletableFuture<Boolean>> backgroundChecks = new HashSet<>();
+    private ExecutorService backgroundExecutor;
+    private GitRepositorySnapshot snapshot;
 
     public String getAbbreviatedCommitId() throws GitRepositoryException {
         return getAbbreviatedCommitId(getHeadCommit());
     }
 
-    public MailMap getMailMap() throws GitRepositoryException {
+    public synchronized MailMap getMailMap() throws GitRepositoryException {
         if (mailMap == null) {
             mailMap = new MailMap(this);
             mailMap.parseMailMap();
@@ -31,6 +45,91 @@ public abstract class AbstractGitRepository implements GitRepository {
         return mailMap;
     }
 
+    public synchronized GitRepositorySnapshot getSnapshot() {
+        if (snapshot == null) {
+            snapshot = new GitRepositorySnapshot(this);
+        }
+
+        return snapshot;
+    }
+
+    public GitTag getTag(GitCommit commit) throws GitRepositoryException {
+        return getTags().get(commit.getId());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Checks are run one after another on a single background thread of
+     * this repository. Pending checks are cancelled and a running check is
+     * awaited when the repository is closed.
+     *
+     * @see #close
+     */
+    public synchronized CompletableFuture<Boolean> isDirtyAsync(DirtyCheckOptions options) {
+        if (backgroundExecutor == null) {
+            backgroundExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "mavanagaiata-dirty-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        CompletableFuture<Boolean> dirtyState = CompletableFuture.supplyAsync(() -> {
+            try {
+                return isDirty(options);
+            } catch (GitRepositoryException e) {
+                throw new CompletionException(e);
+            }
+        }, backgroundExecutor);
+        backgroundChecks.add(dirtyState);
+        dirtyState.whenComplete((dirty, error) -> {
+            synchronized (this) {
+                backgroundChecks.remove(dirtyState);
+            }
+        });
+
+        return dirtyState;
+    }
+
+    /**
+     * Stops all checks running in the background
+     * <p>
+     * Checks that have not been started yet are cancelled. A check that is
+     * already running is cancelled, too, but this waits until it is
+     * finished, so it does not read from the repository after it has been
+     * closed.
+     */
+    public void close() {
+        ExecutorService executor;
+        List<CompletableFuture<Boolean>> checks;
+        synchronized (this) {
+            executor = backgroundExecutor;
+            backgroundExecutor = null;
+            checks = new ArrayList<>(backgroundChecks);
+        }
+
+        if (executor == null) {
+            return;
+        }
+
+        checks.forEach(check -> check.cancel(false));
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Wait for the running check
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void loadTags(Collection<GitTag> tags) throws GitRepositoryException {
+        for (GitTag tag : tags) {
+            loadTag(tag);
+        }
+    }
+
     public void setHeadRef(String headRef) {
         this.headRef = headRef;
     }
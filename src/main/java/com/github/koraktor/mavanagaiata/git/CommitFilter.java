@@ -0,0 +1,254 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static java.util.Collections.*;
+
+/**
+ * Specifies which commits should be passed to an action during a commit walk
+ * <p>
+ * Commits not matching the filter are skipped by the repository before they
+ * are decoded. Skipped commits are still used to find older commits, i.e.
+ * the filter does not limit the history being walked, unless the history of
+ * a ref is excluded, only first parents are followed or a time limit is set.
+ * Instances are immutable.
+ *
+ * @author Sebastian Staudt
+ * @see AbstractCommitWalkAction#getCommitFilter
+ */
+public final class CommitFilter {
+
+    /**
+     * A filter matching all commits
+     */
+    public static final CommitFilter ALL = new CommitFilter(null, false, emptyList(), false, null, null);
+
+    private final String excludedRef;
+
+    private final boolean firstParent;
+
+    private final List<String> paths;
+
+    private final boolean skipMerges;
+
+    private final Pattern skipMessagePattern;
+
+    private final Date since;
+
+    private CommitFilter(String excludedRef, boolean firstParent,
+                         List<String> paths, boolean skipMerges,
+                         Pattern skipMessagePattern, Date since) {
+        this.excludedRef = excludedRef;
+        this.firstParent = firstParent;
+        this.paths = paths;
+        this.skipMerges = skipMerges;
+        this.skipMessagePattern = skipMessagePattern;
+        this.since = since;
+    }
+
+    /**
+     * Returns the ref whose history should be excluded
+     *
+     * @return The name of the ref whose history is excluded or {@code null}
+     *         if the whole history should be walked
+     */
+    public String getExcludedRef() {
+        return excludedRef;
+    }
+
+    /**
+     * Returns the paths commits have to change
+     *
+     * @return The paths relative to the worktree or an empty list if
+     *         commits should not be limited to some paths
+     */
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * Returns the pattern of messages of commits that should be skipped
+     *
+     * @return The pattern for the messages to skip or {@code null} if no
+     *         commits should be skipped because of their message
+     */
+    public Pattern getSkipMessagePattern() {
+        return skipMessagePattern;
+    }
+
+    /**
+     * Returns the time of the oldest commit to include
+     *
+     * @return The time of the oldest commit or {@code null} if the history
+     *         should not be limited
+     */
+    public Date getSince() {
+        return since;
+    }
+
+    /**
+     * Returns whether this filter matches all commits
+     *
+     * @return {@code true} if no commits are skipped
+     */
+    public boolean isAll() {
+        return excludedRef == null && !firstParent && paths.isEmpty() &&
+            !skipMerges && skipMessagePattern == null && since == null;
+    }
+
+    /**
+     * Returns whether only the first parents of merge commits should be
+     * followed
+     *
+     * @return {@code true} if only the first parents should be followed
+     */
+    public boolean isFirstParent() {
+        return firstParent;
+    }
+
+    /**
+     * Returns whether merge commits should be skipped
+     *
+     * @return {@code true} if merge commits should be skipped
+     */
+    public boolean isSkipMerges() {
+        return skipMerges;
+    }
+
+    /**
+     * Returns whether the given commit matches this filter
+     * <p>
+     * Repositories may use a more efficient implementation of the same rules.
+     * The paths changed by a commit and the history it belongs to are not
+     * known here, so they are not checked.
+     *
+     * @param commit The commit to check
+     * @return {@code true} if the commit should be passed to the action
+     */
+    public boolean matches(GitCommit commit) {
+        if (skipMerges && commit.isMergeCommit()) {
+            return false;
+        }
+
+        if (since != null && commit.getCommitterDate().before(since)) {
+            return false;
+        }
+
+        return skipMessagePattern == null ||
+            !skipMessagePattern.matcher(commit.getMessage()).find();
+    }
+
+    /**
+     * Returns a filter that additionally skips commits older than the given
+     * time
+     * <p>
+     * Like {@code git log --since}, walking the history stops at the first
+     * commit older than {@code since}.
+     *
+     * @param since The time of the oldest commit to include or {@code null}
+     * @return A filter for commits newer than the given time
+     */
+    public CommitFilter withSince(Date since) {
+        return new CommitFilter(excludedRef, firstParent, paths, skipMerges,
+            skipMessagePattern, since);
+    }
+
+    /**
+     * Returns a filter that additionally only follows the first parents of
+     * merge commits
+     * <p>
+     * Like {@code git log --first-parent}, the history merged from other
+     * parents is neither passed to the action nor walked, so on a mainline
+     * merging all changes there is one commit for each merged change.
+     *
+     * @return A filter only following the first parents
+     */
+    public CommitFilter withFirstParent() {
+        return new CommitFilter(excludedRef, true, paths, skipMerges,
+            skipMessagePattern, since);
+    }
+
+    /**
+     * Returns a filter that additionally requires commits to change at least
+     * one of the given paths
+     * <p>
+     * Like {@code git log -- <path>...}, paths are relative to the root of
+     * the worktree and match files and whole directories. An empty path
+     * matches the whole worktree, so commits are not limited in that case.
+     * As with {@code git log}, a merge commit not changing any of the paths
+     * compared to one of its parents is skipped together with the history
+     * merged from the other parents.
+     *
+     * @param paths The paths commits have to change
+     * @return A filter for commits changing the given paths
+     */
+    public CommitFilter withPaths(Collection<String> paths) {
+        List<String> normalizedPaths = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            String normalizedPath = path.replace('\\', '/').replaceAll("^/+|/+$", "");
+            if (normalizedPath.isEmpty()) {
+                normalizedPaths.clear();
+                break;
+            }
+            normalizedPaths.add(normalizedPath);
+        }
+
+        return new CommitFilter(excludedRef, firstParent,
+            unmodifiableList(normalizedPaths), skipMerges, skipMessagePattern,
+            since);
+    }
+
+    /**
+     * Returns a filter that additionally skips merge commits
+     *
+     * @return A filter skipping merge commits
+     */
+    public CommitFilter withoutMerges() {
+        return new CommitFilter(excludedRef, firstParent, paths, true,
+            skipMessagePattern, since);
+    }
+
+    /**
+     * Returns a filter that additionally excludes the history of the given
+     * ref
+     * <p>
+     * Like {@code git log <ref>..HEAD}, commits reachable from the ref are
+     * neither passed to the action nor walked, so the walk ends as soon as
+     * only these commits are left.
+     *
+     * @param ref The name of the ref, e.g. a tag, whose history should be
+     *        excluded
+     * @return A filter for commits not reachable from the given ref
+     */
+    public CommitFilter withoutHistoryOf(String ref) {
+        return new CommitFilter(ref, firstParent, paths, skipMerges,
+            skipMessagePattern, since);
+    }
+
+    /**
+     * Returns a filter that additionally skips commits with a message
+     * matching the given pattern
+     * <p>
+     * Commits are skipped if the pattern is found anywhere in their full
+     * message.
+     *
+     * @param pattern The pattern of messages to skip
+     * @return A filter skipping commits with matching messages
+     */
+    public CommitFilter withoutMessages(Pattern pattern) {
+        return new CommitFilter(excludedRef, firstParent, paths, skipMerges,
+            pattern, since);
+    }
+
+}
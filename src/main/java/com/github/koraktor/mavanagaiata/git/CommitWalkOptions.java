@@ -0,0 +1,87 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git;
+
+import java.util.Objects;
+
+/**
+ * Specifies how the commit history of a repository should be walked
+ * <p>
+ * These options never change which commits are passed to an action, only
+ * how they are read. Which commits are passed is specified by the
+ * {@link CommitFilter} of the action. Instances are immutable.
+ *
+ * @author Sebastian Staudt
+ * @see GitRepository#walkCommits
+ */
+public final class CommitWalkOptions {
+
+    /**
+     * Options walking the history using a plain {@code RevWalk}
+     */
+    public static final CommitWalkOptions DEFAULT = new CommitWalkOptions(false, false);
+
+    private final boolean commitCache;
+
+    private final boolean streaming;
+
+    /**
+     * Creates new options for walking the commit history
+     *
+     * @param commitCache If {@code true}, the metadata of commits is stored
+     *        in the Git directory, so later walks do not have to read the
+     *        commits again. Only walks of actions that do not need the full
+     *        commit messages use the cache.
+     * @param streaming If {@code true}, visited commits are released, so
+     *        the memory use of walks does not grow with the length of the
+     *        history. This works best if the repository has a commit-graph.
+     */
+    public CommitWalkOptions(boolean commitCache, boolean streaming) {
+        this.commitCache = commitCache;
+        this.streaming = streaming;
+    }
+
+    /**
+     * Returns whether the metadata of commits should be cached in the Git
+     * directory
+     *
+     * @return {@code true} if the commit cache should be used
+     */
+    public boolean isCommitCache() {
+        return commitCache;
+    }
+
+    /**
+     * Returns whether visited commits should be released during the walk
+     *
+     * @return {@code true} if visited commits should be released
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof CommitWalkOptions)) {
+            return false;
+        }
+
+        CommitWalkOptions options = (CommitWalkOptions) object;
+        return commitCache == options.commitCache && streaming == options.streaming;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(commitCache, streaming);
+    }
+
+    @Override
+    public String toString() {
+        return "CommitWalkOptions{commitCache=" + commitCache + ", streaming=" + streaming + "}";
+    }
+}
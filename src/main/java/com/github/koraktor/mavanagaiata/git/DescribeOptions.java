@@ -0,0 +1,87 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git;
+
+import java.util.Objects;
+
+/**
+ * Specifies how the {@code HEAD} commit of a repository should be described
+ * <p>
+ * Instances are immutable and can be compared, so descriptions created with
+ * equal options can be reused.
+ *
+ * @author Sebastian Staudt
+ * @see GitRepository#describe
+ */
+public final class DescribeOptions {
+
+    /**
+     * Options describing the {@code HEAD} commit like {@code git describe}
+     * without caching the description
+     */
+    public static final DescribeOptions DEFAULT = new DescribeOptions(false, false);
+
+    private final boolean cache;
+
+    private final boolean firstParent;
+
+    /**
+     * Creates new options for describing the {@code HEAD} commit
+     *
+     * @param firstParent If {@code true}, only the first parents of merge
+     *        commits are followed, like {@code git describe --first-parent}
+     * @param cache If {@code true}, the description is stored in the Git
+     *        directory and reused as long as {@code HEAD} and the tags of
+     *        the repository do not change
+     */
+    public DescribeOptions(boolean firstParent, boolean cache) {
+        this.cache = cache;
+        this.firstParent = firstParent;
+    }
+
+    /**
+     * Returns whether the description should be cached in the Git directory
+     *
+     * @return {@code true} if the description should be cached
+     */
+    public boolean isCache() {
+        return cache;
+    }
+
+    /**
+     * Returns whether only the first parents of merge commits should be
+     * followed
+     * <p>
+     * This ignores tags on branches merged into the mainline.
+     *
+     * @return {@code true} if only first parents should be followed
+     */
+    public boolean isFirstParent() {
+        return firstParent;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof DescribeOptions)) {
+            return false;
+        }
+
+        DescribeOptions options = (DescribeOptions) object;
+        return cache == options.cache && firstParent == options.firstParent;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cache, firstParent);
+    }
+
+    @Override
+    public String toString() {
+        return "DescribeOptions{cache=" + cache + ", firstParent=" + firstParent + "}";
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static java.util.Collections.*;
+
+/**
+ * Specifies which changes should be considered when checking whether the
+ * worktree of a repository is dirty and how the worktree should be checked
+ * <p>
+ * Instances are immutable and can be compared, so results of dirty checks
+ * with equal options can be reused.
+ *
+ * @author Sebastian Staudt
+ * @see GitRepository#isDirty
+ */
+public final class DirtyCheckOptions {
+
+    /**
+     * The changes of submodules that should be ignored, like
+     * {@code git status --ignore-submodules}
+     */
+    public enum IgnoreSubmodules {
+        /**
+         * Submodules are dirty if they have untracked or modified files or if
+         * their {@code HEAD} differs from the commit recorded in the index
+         */
+        NONE,
+
+        /**
+         * Submodules are not dirty if they only contain untracked files
+         */
+        UNTRACKED,
+
+        /**
+         * Only the commit recorded in the index is compared with the
+         * {@code HEAD} of the submodules, their worktrees are not checked
+         */
+        DIRTY,
+
+        /**
+         * All changes to submodules are ignored
+         */
+        ALL
+    }
+
+    private final boolean cache;
+
+    private final IgnoreSubmodules ignoreSubmodules;
+
+    private final boolean ignoreUntracked;
+
+    private final Set<String> paths;
+
+    private final int threads;
+
+    /**
+     * Creates new options for checking the whole worktree
+     *
+     * @param ignoreUntracked If {@code true}, untracked files in the
+     *        repository will be ignored
+     */
+    public DirtyCheckOptions(boolean ignoreUntracked) {
+        this(ignoreUntracked, emptySet());
+    }
+
+    /**
+     * Creates new options for checking the given paths of the worktree
+     * <p>
+     * An empty collection of paths or an empty path will check the whole
+     * worktree.
+     *
+     * @param ignoreUntracked If {@code true}, untracked files in the
+     *        repository will be ignored
+     * @param paths The paths to check relative to the worktree using
+     *        {@code /} as separator
+     */
+    public DirtyCheckOptions(boolean ignoreUntracked, Collection<String> paths) {
+        this(ignoreUntracked, paths, null);
+    }
+
+    /**
+     * Creates new options for checking the given paths of the worktree
+     * ignoring the given changes of submodules
+     * <p>
+     * An empty collection of paths or an empty path will check the whole
+     * worktree.
+     *
+     * @param ignoreUntracked If {@code true}, untracked files in the
+     *        repository will be ignored
+     * @param paths The paths to check relative to the worktree using
+     *        {@code /} as separator
+     * @param ignoreSubmodules The changes of submodules to ignore or
+     *        {@code null} to use the {@code ignore} setting of each
+     *        submodule
+     */
+    public DirtyCheckOptions(boolean ignoreUntracked, Collection<String> paths,
+                             IgnoreSubmodules ignoreSubmodules) {
+        this(ignoreUntracked, paths, ignoreSubmodules, false, 1);
+    }
+
+    private DirtyCheckOptions(boolean ignoreUntracked, Collection<String> paths,
+                              IgnoreSubmodules ignoreSubmodules,
+                              boolean cache, int threads) {
+        this.cache = cache;
+        this.ignoreSubmodules = ignoreSubmodules;
+        this.threads = threads;
+        this.ignoreUntracked = ignoreUntracked;
+
+        Set<String> normalizedPaths = new TreeSet<>();
+        for (String path : paths) {
+            String normalizedPath = path.replace('\\', '/').replaceAll("^/+|/+$", "");
+            if (normalizedPath.isEmpty()) {
+                normalizedPaths.clear();
+                break;
+            }
+            normalizedPaths.add(normalizedPath);
+        }
+        this.paths = unmodifiableSet(normalizedPaths);
+    }
+
+    /**
+     * Returns the changes of submodules that should be ignored
+     *
+     * @return The changes of submodules to ignore or {@code null} if the
+     *         {@code ignore} setting of each submodule should be used
+     */
+    public IgnoreSubmodules getIgnoreSubmodules() {
+        return ignoreSubmodules;
+    }
+
+    /**
+     * Returns the paths to check
+     *
+     * @return The paths relative to the worktree or an empty set if the whole
+     *         worktree should be checked
+     */
+    public Set<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * Returns the number of threads to use when checking the worktree
+     *
+     * @return The number of threads to use
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns whether the result of the check should be stored in the Git
+     * directory and reused as long as the repository does not change
+     *
+     * @return {@code true} if the result should be cached
+     */
+    public boolean isCache() {
+        return cache;
+    }
+
+    /**
+     * Returns whether untracked files should be ignored
+     *
+     * @return {@code true} if untracked files should be ignored
+     */
+    public boolean isIgnoreUntracked() {
+        return ignoreUntracked;
+    }
+
+    /**
+     * Returns options that differ from these only in caching the result
+     *
+     * @param cache If {@code true}, the result of the check will be stored
+     *        in the Git directory and reused as long as the repository does
+     *        not change
+     * @return Options with the given caching of the result
+     */
+    public DirtyCheckOptions withCache(boolean cache) {
+        if (cache == this.cache) {
+            return this;
+        }
+
+        return new DirtyCheckOptions(ignoreUntracked, paths, ignoreSubmodules, cache, threads);
+    }
+
+    /**
+     * Returns options that differ from these only in handling untracked
+     * files
+     *
+     * @param ignoreUntracked If {@code true}, untracked files in the
+     *        repository will be ignored
+     * @return Options with the given handling of untracked files
+     */
+    public DirtyCheckOptions withIgnoreUntracked(boolean ignoreUntracked) {
+        if (ignoreUntracked == this.ignoreUntracked) {
+            return this;
+        }
+
+        return new DirtyCheckOptions(ignoreUntracked, paths, ignoreSubmodules, cache, threads);
+    }
+
+    /**
+     * Returns options that differ from these only in the number of threads
+     * <p>
+     * This does not change the result of the check, but may speed it up for
+     * large worktrees.
+     *
+     * @param threads The number of threads to use when checking the
+     *        worktree
+     * @return Options with the given number of threads
+     */
+    public DirtyCheckOptions withThreads(int threads) {
+        if (threads == this.threads) {
+            return this;
+        }
+
+        return new DirtyCheckOptions(ignoreUntracked, paths, ignoreSubmodules, cache, threads);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof DirtyCheckOptions)) {
+            return false;
+        }
+
+        DirtyCheckOptions options = (DirtyCheckOptions) object;
+        return cache == options.cache &&
+            ignoreSubmodules == options.ignoreSubmodules &&
+            ignoreUntracked == options.ignoreUntracked &&
+            paths.equals(options.paths) &&
+            threads == options.threads;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cache, ignoreSubmodules, ignoreUntracked, paths, threads);
+    }
+
+    @Override
+    public String toString() {
+        return "DirtyCheckOptions{cache=" + cache +
+            ", ignoreSubmodules=" + ignoreSubmodules +
+            ", ignoreUntracked=" + ignoreUntracked + ", paths=" + paths +
+            ", threads=" + threads + "}";
+    }
+}
@@ -2,13 +2,16 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2012-2018, Sebastian Staudt
+ * Copyright (c) 2012-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.git;
 
 import java.io.File;
+import java.util.Collection;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This interface specifies the basic properties needed for the mojos to access
@@ -33,10 +36,13 @@ public interface GitRepository extends AutoCloseable {
     /**
      * Describes the current Git commit like {@code git describe} does
      *
+     * @param options The options specifying how the commit should be
+     *        described
      * @return The description of the current {@code HEAD} commit
      * @throws GitRepositoryException if the description cannot be created
      */
-    GitTagDescription describe() throws GitRepositoryException;
+    GitTagDescription describe(DescribeOptions options)
+        throws GitRepositoryException;
 
     /**
      * Returns the abbreviated commit SHA ID of the current Git commit
@@ -93,6 +99,31 @@ public interface GitRepository extends AutoCloseable {
      */
     MailMap getMailMap() throws GitRepositoryException;
 
+    /**
+     * Returns a snapshot of this repository's state at the current
+     * {@code HEAD}
+     * <p>
+     * The same snapshot is returned on every call, so information requested
+     * from the snapshot is only retrieved once.
+     *
+     * @return The snapshot of this repository
+     */
+    GitRepositorySnapshot getSnapshot();
+
+    /**
+     * Returns the annotated tag referencing the given commit
+     * <p>
+     * This is more efficient than looking up the ID of the commit in the map
+     * returned by {@link #getTags()}.
+     *
+     * @param commit The commit to get the tag for
+     * @return The tag referencing the commit or {@code null} if the commit is
+     *         not tagged
+     * @throws GitRepositoryException if an error occurs while determining the
+     *         tags in this repository
+     */
+    GitTag getTag(GitCommit commit) throws GitRepositoryException;
+
     /**
      * Returns a map of tags available in this repository
      * <p>
@@ -108,6 +139,18 @@ public interface GitRepository extends AutoCloseable {
      */
     Map<String, GitTag> getTags() throws GitRepositoryException;
 
+    /**
+     * Returns a fingerprint of the tags available in this repository
+     * <p>
+     * The fingerprint changes whenever a tag is added, removed or changed,
+     * but it can be determined without reading the tags themselves.
+     *
+     * @return The fingerprint of the tags in this repository
+     * @throws GitRepositoryException if an error occurs while determining the
+     *         tags in this repository
+     */
+    String getTagsFingerprint() throws GitRepositoryException;
+
     /**
      * Returns the worktree of the repository
      *
@@ -115,6 +158,30 @@ public interface GitRepository extends AutoCloseable {
      */
     File getWorkTree();
 
+    /**
+     * Returns whether the given commit is part of the history of the
+     * current {@code HEAD} commit
+     *
+     * @param commitId The ID of the commit to check
+     * @return {@code true} if the commit is {@code HEAD} or one of its
+     *         ancestors, {@code false} if it is not or if it does not exist
+     *         in the repository
+     * @throws GitRepositoryException if the history cannot be read
+     */
+    boolean isAncestorOfHead(String commitId) throws GitRepositoryException;
+
+    /**
+     * Returns the ID of the commit the given ref points to
+     * <p>
+     * Annotated tags are peeled to the commit they point to.
+     *
+     * @param ref The name of the ref, e.g. a branch, a tag or a commit ID
+     * @return The ID of the commit the ref points to
+     * @throws GitRepositoryException if the ref cannot be resolved to a
+     *         commit
+     */
+    String resolveCommitId(String ref) throws GitRepositoryException;
+
     /**
      * Returns whether this repository instance has been checked
      *
@@ -126,14 +193,30 @@ public interface GitRepository extends AutoCloseable {
     /**
      * Returns whether the worktree of the repository is in a clean state
      *
-     * @param ignoreUntracked If {@code true}, untracked files in the
-     *        repository will be ignored
+     * @param options The options for checking the worktree, i.e. which
+     *        changes should be considered and how the worktree should be
+     *        checked
      * @return {@code true} if there are modified files in the repository's
      *         worktree
      * @throws GitRepositoryException if an error occurs while checking the
      *         worktree state
      */
-    boolean isDirty(boolean ignoreUntracked) throws GitRepositoryException;
+    boolean isDirty(DirtyCheckOptions options) throws GitRepositoryException;
+
+    /**
+     * Checks whether the worktree of the repository is in a clean state in
+     * the background
+     * <p>
+     * This allows to overlap the possibly slow check of the worktree with
+     * other work.
+     *
+     * @param options The options for checking the worktree
+     * @return A future completing with {@code true} if there are modified
+     *         files in the repository's worktree or with a
+     *         {@link GitRepositoryException} if the check fails
+     * @see #isDirty
+     */
+    CompletableFuture<Boolean> isDirtyAsync(DirtyCheckOptions options);
 
     /**
      * Returns whether this repository is currently on an “unborn” branch
@@ -163,14 +246,73 @@ public interface GitRepository extends AutoCloseable {
      */
     void loadTag(GitTag tag) throws GitRepositoryException;
 
+    /**
+     * Load the meta data of multiple tags at once
+     * <p>
+     * This is more efficient than loading each tag separately.
+     *
+     * @param tags The tags to load information for
+     * @throws GitRepositoryException if tag metadata cannot be loaded
+     * @see #loadTag
+     */
+    void loadTags(Collection<GitTag> tags) throws GitRepositoryException;
+
+    /**
+     * Loads information previously stored using {@link #storeCache}
+     * <p>
+     * Cached information is shared by all builds using the same Git
+     * repository. It is not validated, so callers have to store everything
+     * needed to decide whether it can be reused, e.g. the {@code HEAD}
+     * commit it has been computed for.
+     *
+     * @param name The name of the cache, it may only contain word
+     *        characters, dots and dashes
+     * @return The cached information or empty properties if nothing has
+     *         been cached yet
+     * @throws GitRepositoryException if the cache cannot be read
+     */
+    Properties loadCache(String name) throws GitRepositoryException;
+
+    /**
+     * Stores the given information, so it can be reused by later builds
+     *
+     * @param name The name of the cache, it may only contain word
+     *        characters, dots and dashes
+     * @param properties The information to store
+     * @throws GitRepositoryException if the cache cannot be written
+     * @see #loadCache
+     */
+    void storeCache(String name, Properties properties) throws GitRepositoryException;
+
     /**
      * Runs the given action for all commits reachable from the current
      * {@code HEAD} commit
+     * <p>
+     * Only commits matching the filter of the action are passed to it. The
+     * walk ends early once the action has been stopped.
      *
      * @param action The action to execute for each commit found
+     * @param options The options specifying how the history should be
+     *        walked
      * @throws GitRepositoryException if an error occurs during walking through
      *         the commits
      */
-    void walkCommits(AbstractCommitWalkAction action) throws GitRepositoryException;
+    void walkCommits(AbstractCommitWalkAction action, CommitWalkOptions options)
+        throws GitRepositoryException;
+
+    /**
+     * Writes the commit-graph of the repository
+     * <p>
+     * The commit-graph speeds up later walks of the commit history. It is
+     * only written if the existing commit-graph does not already contain the
+     * {@code HEAD} commit and all tagged commits.
+     *
+     * @param changedPaths If {@code true}, changed-path Bloom filters will be
+     *        written, too
+     * @return {@code true} if the commit-graph has been written,
+     *         {@code false} if it was already up-to-date
+     * @throws GitRepositoryException if the commit-graph cannot be written
+     */
+    boolean writeCommitGraph(boolean changedPaths) throws GitRepositoryException;
 
 }
@@ -0,0 +1,283 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A snapshot of the state of a Git repository at its current {@code HEAD}
+ * <p>
+ * Each piece of information is retrieved from the repository lazily on
+ * first access and will never change afterwards. So expensive operations
+ * like describing the {@code HEAD} commit or checking the worktree state are
+ * done at most once, no matter how many goals request them.
+ * <p>
+ * Snapshots may be shared by goals running in parallel. Describing the
+ * {@code HEAD} commit and checking the worktree are done without holding
+ * the lock of the snapshot, so they do not block other requests. Goals
+ * requesting the same information wait for the first request instead of
+ * repeating it.
+ *
+ * @author Sebastian Staudt
+ * @see GitRepository#getSnapshot
+ */
+public class GitRepositorySnapshot {
+
+    private String abbreviatedCommitId;
+
+    private String branch;
+
+    private boolean branchResolved;
+
+    private final Map<DescribeOptions, CompletableFuture<GitTagDescription>> descriptions = new HashMap<>();
+
+    private final Map<DirtyCheckOptions, CompletableFuture<Boolean>> dirtyStates = new HashMap<>();
+
+    private GitCommit headCommit;
+
+    private final GitRepository repository;
+
+    /**
+     * Creates a new snapshot for the given repository
+     *
+     * @param repository The repository to retrieve information from
+     */
+    public GitRepositorySnapshot(GitRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Returns the description of the {@code HEAD} commit like
+     * {@code git describe} does
+     * <p>
+     * Descriptions are remembered separately for each set of options, so
+     * goals describing the commit differently never see each other's
+     * description.
+     *
+     * @param options The options specifying how the commit should be
+     *        described
+     * @return The description of the {@code HEAD} commit
+     * @throws GitRepositoryException if the description cannot be created
+     * @see GitRepository#describe
+     */
+    public GitTagDescription describe(DescribeOptions options)
+            throws GitRepositoryException {
+        CompletableFuture<GitTagDescription> description;
+        boolean describe = false;
+        synchronized (this) {
+            description = descriptions.get(options);
+            if (description == null) {
+                description = new CompletableFuture<>();
+                descriptions.put(options, description);
+                describe = true;
+            }
+        }
+
+        if (describe) {
+            try {
+                description.complete(repository.describe(options));
+            } catch (GitRepositoryException | RuntimeException e) {
+                synchronized (this) {
+                    descriptions.remove(options);
+                }
+                description.completeExceptionally(e);
+            }
+        }
+
+        return join(description, "Could not describe the HEAD commit.");
+    }
+
+    /**
+     * Returns the abbreviated commit SHA ID of the {@code HEAD} commit
+     *
+     * @return The abbreviated commit ID of the {@code HEAD} commit
+     * @throws GitRepositoryException if the abbreviated commit ID cannot be
+     *         determined
+     * @see GitRepository#getAbbreviatedCommitId()
+     */
+    public synchronized String getAbbreviatedCommitId()
+            throws GitRepositoryException {
+        if (abbreviatedCommitId == null) {
+            abbreviatedCommitId = repository.getAbbreviatedCommitId();
+        }
+
+        return abbreviatedCommitId;
+    }
+
+    /**
+     * Returns the currently checked out branch
+     *
+     * @return The current branch of the Git repository
+     * @throws GitRepositoryException if the current branch cannot be
+     *         determined
+     * @see GitRepository#getBranch
+     */
+    public synchronized String getBranch() throws GitRepositoryException {
+        if (!branchResolved) {
+            branch = repository.getBranch();
+            branchResolved = true;
+        }
+
+        return branch;
+    }
+
+    /**
+     * Returns the {@code HEAD} commit
+     *
+     * @return The {@code HEAD} commit of the Git Repository
+     * @throws GitRepositoryException if the current commit cannot be
+     *         determined
+     * @see GitRepository#getHeadCommit
+     */
+    public synchronized GitCommit getHeadCommit()
+            throws GitRepositoryException {
+        if (headCommit == null) {
+            headCommit = repository.getHeadCommit();
+        }
+
+        return headCommit;
+    }
+
+    /**
+     * Returns whether the worktree of the repository is in a clean state
+     * <p>
+     * If a check with the same options has already been started using
+     * {@link #isDirtyAsync}, this will wait for its result.
+     * <p>
+     * The result of one variant may be used to answer another one: A
+     * worktree that is clean including untracked files is also clean when
+     * ignoring them, while a worktree that is dirty ignoring untracked files
+     * is dirty in either case.
+     *
+     * @param options The options for checking the worktree
+     * @return {@code true} if there are modified files in the repository's
+     *         worktree
+     * @throws GitRepositoryException if an error occurs while checking the
+     *         worktree state
+     * @see GitRepository#isDirty
+     */
+    public boolean isDirty(DirtyCheckOptions options)
+            throws GitRepositoryException {
+        DirtyCheckOptions key = getKey(options);
+        CompletableFuture<Boolean> dirtyState;
+        boolean check = false;
+        synchronized (this) {
+            dirtyState = getDirtyState(key);
+            if (dirtyState == null) {
+                dirtyState = new CompletableFuture<>();
+                dirtyStates.put(key, dirtyState);
+                check = true;
+            }
+        }
+
+        // The worktree is checked without holding the lock, so other goals
+        // sharing this snapshot are not blocked by the check
+        if (check) {
+            try {
+                dirtyState.complete(repository.isDirty(options));
+            } catch (GitRepositoryException | RuntimeException e) {
+                synchronized (this) {
+                    dirtyStates.remove(key);
+                }
+                dirtyState.completeExceptionally(e);
+            }
+        }
+
+        return join(dirtyState, "Could not check the worktree state.");
+    }
+
+    /**
+     * Starts checking whether the worktree of the repository is in a clean
+     * state in the background
+     * <p>
+     * Later calls of {@link #isDirty} with the same options will use the
+     * result of this check.
+     *
+     * @param options The options for checking the worktree
+     * @return A future completing with {@code true} if there are modified
+     *         files in the repository's worktree
+     * @see GitRepository#isDirtyAsync
+     */
+    public synchronized CompletableFuture<Boolean> isDirtyAsync(DirtyCheckOptions options) {
+        DirtyCheckOptions key = getKey(options);
+        CompletableFuture<Boolean> dirtyState = getDirtyState(key);
+        if (dirtyState == null) {
+            dirtyState = repository.isDirtyAsync(options);
+            dirtyStates.put(key, dirtyState);
+        }
+
+        return dirtyState;
+    }
+
+    /**
+     * Returns the key to remember the worktree state for the given options
+     * <p>
+     * Caching and threads do not change the result of a check, so checks
+     * differing only in these share their result.
+     *
+     * @param options The options for checking the worktree
+     * @return The options without caching and threads
+     */
+    private static DirtyCheckOptions getKey(DirtyCheckOptions options) {
+        return options.withCache(false).withThreads(1);
+    }
+
+    /**
+     * Waits for the given result and unwraps errors
+     *
+     * @param future The result to wait for
+     * @param message The message for errors not caused by the repository
+     * @param <T> The type of the result
+     * @return The result
+     * @throws GitRepositoryException if the result could not be retrieved
+     */
+    private static <T> T join(CompletableFuture<T> future, String message)
+            throws GitRepositoryException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof GitRepositoryException) {
+                throw (GitRepositoryException) e.getCause();
+            }
+
+            throw new GitRepositoryException(message, e.getCause());
+        }
+    }
+
+    /**
+     * Returns the known or inferable worktree state for the given options
+     * <p>
+     * This has to be called while holding the lock of this snapshot.
+     *
+     * @param options The key of the options for checking the worktree
+     * @return The worktree state or {@code null} if it has to be checked
+     */
+    private CompletableFuture<Boolean> getDirtyState(DirtyCheckOptions options) {
+        CompletableFuture<Boolean> dirtyState = dirtyStates.get(options);
+
+        if (dirtyState == null) {
+            boolean ignoreUntracked = options.isIgnoreUntracked();
+            CompletableFuture<Boolean> otherState = dirtyStates.get(options.withIgnoreUntracked(!ignoreUntracked));
+
+            // A clean worktree is also clean ignoring untracked files and a
+            // worktree dirty ignoring untracked files is dirty anyway
+            if (otherState != null && otherState.isDone() &&
+                    !otherState.isCompletedExceptionally() &&
+                    otherState.join() != ignoreUntracked) {
+                dirtyState = otherState;
+                dirtyStates.put(options, dirtyState);
+            }
+        }
+
+        return dirtyState;
+    }
+
+}
@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2012-2025, Sebastian Staudt
+ * Copyright (c) 2012-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.git;
@@ -36,6 +36,27 @@ public class GitTagDescription {
         this.nextTagName = nextTagName;
     }
 
+    /**
+     * Returns the abbreviated ID of the described commit
+     *
+     * @return The abbreviated commit ID or {@code null} if the commit is
+     *         tagged
+     */
+    public String getAbbreviatedCommitId() {
+        return abbrevCommitId;
+    }
+
+    /**
+     * Returns the number of commits between the described commit and the
+     * next reachable tag
+     *
+     * @return The distance to the next tag or {@code -1} if no tag is
+     *         reachable
+     */
+    public int getDistance() {
+        return distance;
+    }
+
     /**
      * Returns the name of the next reachable tag
      *
@@ -2,22 +2,30 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2014-2018, Sebastian Staudt
+ * Copyright (c) 2014-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.git;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.AbstractMap;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static java.nio.charset.StandardCharsets.*;
+
 /**
  * An implementation of Git's {@code .mailmap} functionality
  *
@@ -40,6 +48,8 @@ public class MailMap {
 
     boolean exists;
 
+    String id;
+
     Map<String, String> mailToMailMap;
 
     Map<String, String> mailToNameMap;
@@ -76,6 +86,20 @@ public class MailMap {
         return exists;
     }
 
+    /**
+     * Returns the ID the parsed {@code .mailmap} file would have as a Git
+     * blob
+     * <p>
+     * This can be used to detect changes of the mail map, e.g. to invalidate
+     * information computed using it.
+     *
+     * @return The blob ID of the {@code .mailmap} file or {@code null} if
+     *         there is no such file
+     */
+    public String getId() {
+        return id;
+    }
+
     /**
      * Returns the canonical email address for the given name and email address
      * pair
@@ -213,7 +237,14 @@ public class MailMap {
      * @throws IOException if the {@code .mailmap} file cannot be read
      */
     void parseMailMap(File mailMap) throws IOException {
-        try (BufferedReader mailMapReader = new BufferedReader(new FileReader(mailMap))) {
+        byte[] content;
+        try (InputStream mailMapStream = new FileInputStream(mailMap)) {
+            content = mailMapStream.readAllBytes();
+        }
+        id = getBlobId(content);
+
+        try (BufferedReader mailMapReader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(content)))) {
             String line;
             while ((line = mailMapReader.readLine()) != null) {
                 line = line.trim();
@@ -251,4 +282,24 @@ public class MailMap {
         }
     }
 
+    /**
+     * Returns the ID of a Git blob with the given content
+     *
+     * @param content The content of the blob
+     * @return The hexadecimal SHA-1 ID of the blob
+     */
+    static String getBlobId(byte[] content) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        digest.update(("blob " + content.length + "\0").getBytes(US_ASCII));
+        digest.update(content);
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
 }
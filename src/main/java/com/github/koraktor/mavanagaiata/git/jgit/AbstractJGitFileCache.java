@@ -0,0 +1,141 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Properties;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+
+import static java.nio.charset.StandardCharsets.*;
+import static java.nio.file.StandardCopyOption.*;
+import static org.eclipse.jgit.lib.Constants.*;
+
+/**
+ * Base class for caches storing properties in a file inside the Git
+ * directory of a repository
+ *
+ * @author Sebastian Staudt
+ */
+abstract class AbstractJGitFileCache {
+
+    static final String CACHE_DIR = "mavanagaiata";
+
+    final File cacheFile;
+
+    final Repository repository;
+
+    /**
+     * Creates a new cache stored in the Git directory of the given
+     * repository
+     *
+     * @param repository The repository to cache information for
+     * @param name The name of the cache file
+     */
+    AbstractJGitFileCache(Repository repository, String name) {
+        this.cacheFile = new File(new File(repository.getDirectory(), CACHE_DIR), name);
+        this.repository = repository;
+    }
+
+    /**
+     * Returns a hash of the names of all tags and the objects they point to
+     * <p>
+     * Only the refs are read, so this is cheap enough to check whether
+     * information depending on the tags is still valid.
+     *
+     * @param repository The repository to read the tags from
+     * @return The hash of the tags
+     * @throws IOException if the tags cannot be read
+     */
+    static ObjectId hashTags(Repository repository) throws IOException {
+        MessageDigest digest = newMessageDigest();
+        for (Ref tag : repository.getRefDatabase().getRefsByPrefix(R_TAGS)) {
+            digest.update(tag.getName().getBytes(UTF_8));
+            if (tag.getObjectId() != null) {
+                digest.update(tag.getObjectId().name().getBytes(US_ASCII));
+            }
+        }
+
+        return ObjectId.fromRaw(digest.digest());
+    }
+
+    /**
+     * Loads the cached information
+     *
+     * @return The cached information or empty properties if there is none
+     * @throws IOException if the cache cannot be read
+     */
+    Properties load() throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(cacheFile.toPath(), UTF_8)) {
+            properties.load(reader);
+        } catch (NoSuchFileException ignored) {
+            // Nothing has been cached yet
+        }
+
+        return properties;
+    }
+
+    /**
+     * Stores the given information
+     * <p>
+     * The information is written to a temporary file first, so concurrent
+     * builds never read a partially written cache.
+     *
+     * @param properties The information to cache
+     * @throws IOException if the cache cannot be written
+     */
+    void store(Properties properties) throws IOException {
+        Path tempFile = createTempFile();
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempFile, UTF_8)) {
+                properties.store(writer, null);
+            }
+            replaceWith(tempFile);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Creates a temporary file next to the cache file
+     *
+     * @return The path of the temporary file
+     * @throws IOException if the file cannot be created
+     * @see #replaceWith
+     */
+    Path createTempFile() throws IOException {
+        File cacheDir = cacheFile.getParentFile();
+        if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+            throw new IOException("Could not create directory " + cacheDir);
+        }
+
+        return Files.createTempFile(cacheDir.toPath(), cacheFile.getName(), null);
+    }
+
+    /**
+     * Atomically replaces the cache file with the given file
+     *
+     * @param file The completely written temporary file
+     * @throws IOException if the cache file cannot be replaced
+     * @see #createTempFile
+     */
+    void replaceWith(Path file) throws IOException {
+        Files.move(file, cacheFile.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.util.Optional;
+
+import org.eclipse.jgit.internal.storage.commitgraph.CommitGraph;
+import org.eclipse.jgit.lib.ObjectReader;
+
+/**
+ * An object reader providing a specific commit-graph or none at all
+ * <p>
+ * JGit only loads the Bloom filters of the commit-graph if enabled in its
+ * global configuration, i.e. usually never. Walks limited to some paths use
+ * this reader to provide a commit-graph loaded including the Bloom filters,
+ * so most commits not changing the paths can be skipped without comparing
+ * their trees.
+ * <p>
+ * A {@code RevWalk} retaining the commit bodies parses every commit object
+ * even if the commit is found in the commit-graph, and additionally looks up
+ * each parent in the commit-graph. Walks passing the commits to an action
+ * need the bodies anyway, so they use this reader without a commit-graph.
+ *
+ * @author Sebastian Staudt
+ */
+class CommitGraphObjectReader extends ObjectReader.Filter {
+
+    private final CommitGraph commitGraph;
+
+    private final ObjectReader reader;
+
+    /**
+     * Creates a new reader
+     *
+     * @param reader The reader to read objects with
+     * @param commitGraph The commit-graph including the Bloom filters or
+     *        {@code null} to hide the commit-graph of the repository
+     */
+    CommitGraphObjectReader(ObjectReader reader, CommitGraph commitGraph) {
+        this.commitGraph = commitGraph;
+        this.reader = reader;
+    }
+
+    @Override
+    protected ObjectReader delegate() {
+        return reader;
+    }
+
+    @Override
+    public Optional<CommitGraph> getCommitGraph() {
+        return Optional.ofNullable(commitGraph);
+    }
+
+}
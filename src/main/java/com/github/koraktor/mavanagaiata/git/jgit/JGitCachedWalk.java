@@ -0,0 +1,158 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction;
+import com.github.koraktor.mavanagaiata.git.CommitFilter;
+import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
+
+/**
+ * Walks the commit history using the metadata stored in a commit cache
+ * <p>
+ * No commits are read from the object database, so only actions that do not
+ * need the full commit messages can use this walk. Commits are visited in
+ * the same order as by a {@code RevWalk} without sorting, i.e. by descending
+ * commit time, and filtered by {@link CommitFilter#matches}. Filters needing
+ * more than the cached metadata, i.e. the paths changed by the commits or
+ * their full messages, are not supported. Neither is excluding the history
+ * of a ref.
+ *
+ * @author Sebastian Staudt
+ * @see JGitCommitCache
+ */
+class JGitCachedWalk {
+
+    /**
+     * A commit waiting to be visited
+     */
+    private static class PendingCommit {
+
+        final long commitTime;
+
+        final int position;
+
+        final long sequence;
+
+        PendingCommit(int position, long commitTime, long sequence) {
+            this.commitTime = commitTime;
+            this.position = position;
+            this.sequence = sequence;
+        }
+
+    }
+
+    private final JGitCommitCache cache;
+
+    private final PriorityQueue<PendingCommit> pending = new PriorityQueue<>(
+        Comparator.<PendingCommit>comparingLong(commit -> -commit.commitTime)
+            .thenComparingLong(commit -> commit.sequence));
+
+    private final RevWalk revWalk;
+
+    private final BitSet seenPositions = new BitSet();
+
+    private long sequence;
+
+    /**
+     * Returns whether the given filter can be used with a walk over cached
+     * commits
+     *
+     * @param filter The filter to check
+     * @return {@code true} if the cached metadata is sufficient for the
+     *         filter
+     */
+    static boolean supports(CommitFilter filter) {
+        return filter.getExcludedRef() == null && filter.getPaths().isEmpty() &&
+            filter.getSkipMessagePattern() == null;
+    }
+
+    /**
+     * Creates a new walk over the given cache
+     *
+     * @param cache The cache to read the commits from
+     * @param revWalk The walk to look up commit objects with
+     */
+    JGitCachedWalk(JGitCommitCache cache, RevWalk revWalk) {
+        this.cache = cache;
+        this.revWalk = revWalk;
+    }
+
+    /**
+     * Runs the given action for all commits reachable from the given commit
+     *
+     * @param start The commit to start the walk at, it has to be cached
+     * @param action The action to execute for each commit
+     * @throws GitRepositoryException if the action fails
+     * @throws IOException if a commit is not cached
+     */
+    void walk(AnyObjectId start, AbstractCommitWalkAction action)
+            throws GitRepositoryException, IOException {
+        CommitFilter filter = action.getCommitFilter();
+        long since = filter.getSince() == null ? Long.MIN_VALUE :
+            filter.getSince().getTime() / 1000;
+        int visitedCommits = 0;
+
+        int startPosition = cache.find(start);
+        if (startPosition < 0) {
+            throw new IOException("The commit " + start.name() + " is not cached.");
+        }
+
+        add(startPosition);
+        while (!pending.isEmpty()) {
+            PendingCommit pendingCommit = pending.poll();
+
+            // Like a RevWalk, stop at the first commit that is too old
+            if (pendingCommit.commitTime < since) {
+                return;
+            }
+
+            for (int parent : cache.getParents(pendingCommit.position)) {
+                add(parent);
+                if (filter.isFirstParent()) {
+                    break;
+                }
+            }
+
+            JGitCommit commit = cache.getCommit(revWalk, pendingCommit.position);
+            if (filter.matches(commit)) {
+                action.execute(commit);
+                if (action.isStopped()) {
+                    return;
+                }
+            }
+
+            if (++visitedCommits % JGitStreamingWalk.DISPOSE_INTERVAL == 0) {
+                revWalk.dispose();
+            }
+        }
+    }
+
+    /**
+     * Adds the commit at the given position of the cache to the commits to
+     * visit unless it has been seen before
+     *
+     * @param position The position of the commit in the cache
+     */
+    private void add(int position) {
+        if (seenPositions.get(position)) {
+            return;
+        }
+
+        seenPositions.set(position);
+        pending.add(new PendingCommit(position, cache.getCommitTime(position), sequence++));
+    }
+
+}
@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2012-2025, Sebastian Staudt
+ * Copyright (c) 2012-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.git.jgit;
@@ -13,10 +13,17 @@ import java.util.TimeZone;
 import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.revwalk.RevCommit;
 
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction.CommitDetail;
 import com.github.koraktor.mavanagaiata.git.GitCommit;
 
 /**
  * Wrapper around JGit's {@link RevCommit} object to represent a Git commit
+ * <p>
+ * The identities and the message of the commit are only decoded when they
+ * are requested for the first time. Once the raw data of the commit has been
+ * released, details that have not been decoded before are {@code null}. The
+ * committer date is still available then, as it is read from the commit
+ * time of the underlying commit.
  *
  * @author Sebastian Staudt
  */
@@ -24,7 +31,9 @@ class JGitCommit implements GitCommit {
 
     protected PersonIdent author;
     protected RevCommit commit;
-    private final PersonIdent committer;
+    protected PersonIdent committer;
+    private String message;
+    protected String messageSubject;
 
     /**
      * Creates a new instance from a JGit commit object
@@ -33,9 +42,27 @@ class JGitCommit implements GitCommit {
      */
     JGitCommit(RevCommit commit) {
         this.commit = commit;
+    }
 
-        author    = commit.getAuthorIdent();
-        committer = commit.getCommitterIdent();
+    /**
+     * Decodes the given details of the commit and releases its raw data
+     *
+     * @param detail The details of the commit to keep
+     * @see CommitDetail
+     */
+    void detach(CommitDetail detail) {
+        if (detail != CommitDetail.SUBJECT) {
+            getAuthorIdent();
+        }
+        if (detail != CommitDetail.AUTHOR) {
+            getMessageSubject();
+        }
+        if (detail == CommitDetail.MESSAGE) {
+            getCommitterIdent();
+            getMessage();
+        }
+
+        commit.disposeBody();
     }
 
     /**
@@ -55,35 +82,43 @@ class JGitCommit implements GitCommit {
     }
 
     public Date getAuthorDate() {
-        return author.getWhen();
+        PersonIdent author = getAuthorIdent();
+        return author == null ? null : author.getWhen();
     }
 
     public String getAuthorEmailAddress() {
-        return author.getEmailAddress();
+        PersonIdent author = getAuthorIdent();
+        return author == null ? null : author.getEmailAddress();
     }
 
     public String getAuthorName() {
-        return author.getName();
+        PersonIdent author = getAuthorIdent();
+        return author == null ? null : author.getName();
     }
 
     public TimeZone getAuthorTimeZone() {
-        return author.getTimeZone();
+        PersonIdent author = getAuthorIdent();
+        return author == null ? null : author.getTimeZone();
     }
 
     public Date getCommitterDate() {
-        return committer.getWhen();
+        PersonIdent committer = getCommitterIdent();
+        return committer == null ? new Date(commit.getCommitTime() * 1000L) : committer.getWhen();
     }
 
     public String getCommitterEmailAddress() {
-        return committer.getEmailAddress();
+        PersonIdent committer = getCommitterIdent();
+        return committer == null ? null : committer.getEmailAddress();
     }
 
     public String getCommitterName() {
-        return committer.getName();
+        PersonIdent committer = getCommitterIdent();
+        return committer == null ? null : committer.getName();
     }
 
     public TimeZone getCommitterTimeZone() {
-        return committer.getTimeZone();
+        PersonIdent committer = getCommitterIdent();
+        return committer == null ? null : committer.getTimeZone();
     }
 
     public String getId() {
@@ -91,11 +126,47 @@ class JGitCommit implements GitCommit {
     }
 
     public String getMessage() {
-        return commit.getFullMessage();
+        if (message == null && commit.getRawBuffer() != null) {
+            message = commit.getFullMessage();
+        }
+
+        return message;
     }
 
     public String getMessageSubject() {
-        return commit.getShortMessage();
+        if (messageSubject == null && commit.getRawBuffer() != null) {
+            messageSubject = commit.getShortMessage();
+        }
+
+        return messageSubject;
+    }
+
+    /**
+     * Returns the decoded author of the commit
+     *
+     * @return The author of the commit or {@code null} if it has not been
+     *         decoded before the raw data was released
+     */
+    private PersonIdent getAuthorIdent() {
+        if (author == null && commit.getRawBuffer() != null) {
+            author = commit.getAuthorIdent();
+        }
+
+        return author;
+    }
+
+    /**
+     * Returns the decoded committer of the commit
+     *
+     * @return The committer of the commit or {@code null} if it has not been
+     *         decoded before the raw data was released
+     */
+    private PersonIdent getCommitterIdent() {
+        if (committer == null && commit.getRawBuffer() != null) {
+            committer = commit.getCommitterIdent();
+        }
+
+        return committer;
     }
 
     /**
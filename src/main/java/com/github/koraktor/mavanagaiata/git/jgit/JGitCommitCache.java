@@ -0,0 +1,517 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import static java.nio.charset.StandardCharsets.*;
+import static java.nio.file.StandardOpenOption.*;
+import static org.eclipse.jgit.lib.Constants.*;
+
+/**
+ * Stores the metadata of commits in the Git directory, so later builds can
+ * walk the history without reading and decoding the commits again
+ * <p>
+ * For each commit reachable from the cached tip the IDs of its parents, its
+ * author and committer and the subject of its message are stored. The file
+ * is memory-mapped and only read as far as needed. Like in a pack index, the
+ * commit IDs are sorted and indexed by their first byte, so commits are
+ * found without reading the whole file.
+ * <p>
+ * If {@code HEAD} moved forward, only the new commits are read and added.
+ * If the cached tip is no longer an ancestor of {@code HEAD}, e.g. because
+ * the history has been rewritten, the cache is rebuilt. Instances are
+ * immutable, so walks using an instance are not affected by updates.
+ *
+ * @author Sebastian Staudt
+ * @see JGitCachedWalk
+ */
+class JGitCommitCache extends AbstractJGitFileCache {
+
+    /**
+     * A commit read from the cache
+     * <p>
+     * Like a detached {@link JGitCommit}, only the identities and the subject
+     * of the message are available.
+     */
+    static class CachedCommit extends JGitCommit {
+
+        private final boolean mergeCommit;
+
+        CachedCommit(RevCommit commit, PersonIdent author, PersonIdent committer,
+                     String messageSubject, boolean mergeCommit) {
+            super(commit);
+            this.author = author;
+            this.committer = committer;
+            this.mergeCommit = mergeCommit;
+            this.messageSubject = messageSubject;
+        }
+
+        @Override
+        public String getMessage() {
+            return null;
+        }
+
+        @Override
+        public boolean isMergeCommit() {
+            return mergeCommit;
+        }
+
+    }
+
+    /**
+     * A commit to be added to the cache
+     */
+    private static class NewCommit {
+
+        final byte[] data;
+
+        final ObjectId id;
+
+        NewCommit(ObjectId id, byte[] data) {
+            this.data = data;
+            this.id = id;
+        }
+
+    }
+
+    static final String CACHE_FILE = "commits";
+
+    private static final int FANOUT_SIZE = 256 * 4;
+
+    private static final int HEADER_SIZE = 12 + OBJECT_ID_LENGTH;
+
+    private static final int MAGIC = 0x4d564343;
+
+    private static final int VERSION = 1;
+
+    private final ByteBuffer buffer;
+
+    private final int size;
+
+    private final ObjectId tip;
+
+    /**
+     * Opens the cache stored in the Git directory of the given repository
+     * <p>
+     * A missing or invalid cache file results in an empty cache.
+     *
+     * @param repository The repository to cache commits for
+     * @throws IOException if the cache cannot be read
+     */
+    JGitCommitCache(Repository repository) throws IOException {
+        super(repository, CACHE_FILE);
+
+        ByteBuffer buffer = null;
+        try (FileChannel channel = FileChannel.open(cacheFile.toPath(), READ)) {
+            long fileSize = channel.size();
+            if (fileSize >= HEADER_SIZE + FANOUT_SIZE && fileSize <= Integer.MAX_VALUE) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            }
+        } catch (NoSuchFileException ignored) {
+            // Nothing has been cached yet
+        }
+
+        if (buffer == null || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION ||
+                buffer.capacity() < getDataOffset(buffer.getInt(8))) {
+            this.buffer = null;
+            this.size = 0;
+            this.tip = null;
+        } else {
+            this.buffer = buffer;
+            this.size = buffer.getInt(8);
+            this.tip = ObjectId.fromRaw(readBytes(12, OBJECT_ID_LENGTH));
+        }
+    }
+
+    /**
+     * Finds the position of the given commit in the cache
+     *
+     * @param id The ID of the commit
+     * @return The position of the commit or {@code -1} if it is not cached
+     */
+    int find(AnyObjectId id) {
+        if (size == 0) {
+            return -1;
+        }
+
+        int firstByte = id.getFirstByte();
+        int low = firstByte == 0 ? 0 : buffer.getInt(HEADER_SIZE + (firstByte - 1) * 4);
+        int high = buffer.getInt(HEADER_SIZE + firstByte * 4);
+        byte[] rawId = new byte[OBJECT_ID_LENGTH];
+        id.copyRawTo(rawId, 0);
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareId(middle, rawId);
+            if (comparison == 0) {
+                return middle;
+            } else if (comparison < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the cached commit at the given position
+     *
+     * @param revWalk The walk to look up the commit object with
+     * @param position The position of the commit
+     * @return The cached commit
+     */
+    CachedCommit getCommit(RevWalk revWalk, int position) {
+        int offset = getRecordOffset(position);
+        int parentCount = buffer.getInt(offset);
+        offset += 4 + parentCount * OBJECT_ID_LENGTH;
+
+        PersonIdent committer = readIdent(offset);
+        offset = skipIdent(offset);
+        PersonIdent author = readIdent(offset);
+        offset = skipIdent(offset);
+        String subject = readString(offset);
+
+        return new CachedCommit(revWalk.lookupCommit(getObjectId(position)),
+            author, committer, subject, parentCount > 1);
+    }
+
+    /**
+     * Returns the commit time of the commit at the given position
+     *
+     * @param position The position of the commit
+     * @return The commit time in seconds since the epoch
+     */
+    long getCommitTime(int position) {
+        int offset = getRecordOffset(position);
+        offset += 4 + buffer.getInt(offset) * OBJECT_ID_LENGTH;
+
+        return buffer.getLong(offset) / 1000;
+    }
+
+    /**
+     * Returns the ID of the commit at the given position
+     *
+     * @param position The position of the commit
+     * @return The ID of the commit
+     */
+    ObjectId getObjectId(int position) {
+        return ObjectId.fromRaw(readBytes(getIdOffset(position), OBJECT_ID_LENGTH));
+    }
+
+    /**
+     * Returns the positions of the parents of the commit at the given
+     * position
+     *
+     * @param position The position of the commit
+     * @return The positions of the parents of the commit
+     * @throws IOException if a parent is not cached
+     */
+    int[] getParents(int position) throws IOException {
+        int offset = getRecordOffset(position);
+        int[] parents = new int[buffer.getInt(offset)];
+        for (int i = 0; i < parents.length; i++) {
+            ObjectId parentId = ObjectId.fromRaw(readBytes(offset + 4 + i * OBJECT_ID_LENGTH, OBJECT_ID_LENGTH));
+            parents[i] = find(parentId);
+            if (parents[i] < 0) {
+                throw new IOException("The parent " + parentId.name() + " is not cached.");
+            }
+        }
+
+        return parents;
+    }
+
+    /**
+     * Returns the ID of the commit all cached commits are reachable from
+     *
+     * @return The ID of the tip of the cache or {@code null} if the cache is
+     *         empty
+     */
+    ObjectId getTip() {
+        return tip;
+    }
+
+    /**
+     * Returns the number of cached commits
+     *
+     * @return The number of commits in the cache
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Updates the cache, so it contains all commits reachable from the given
+     * commit
+     * <p>
+     * Commits reachable from the current tip are reused if the tip is an
+     * ancestor of the given commit. Otherwise all commits are read again, so
+     * commits of a rewritten history are dropped.
+     *
+     * @param revWalk The walk to read new commits with
+     * @param head The new tip of the cache
+     * @return This cache if it is up-to-date or the updated cache
+     * @throws IOException if the commits cannot be read or the cache cannot
+     *         be written
+     */
+    JGitCommitCache update(RevWalk revWalk, AnyObjectId head) throws IOException {
+        if (head.equals(tip)) {
+            return this;
+        }
+
+        RevCommit headCommit = revWalk.parseCommit(head);
+        RevCommit tipCommit = null;
+        if (tip != null) {
+            try {
+                tipCommit = revWalk.parseCommit(tip);
+                if (!revWalk.isMergedInto(tipCommit, headCommit)) {
+                    tipCommit = null;
+                }
+            } catch (MissingObjectException e) {
+                tipCommit = null;
+            }
+            revWalk.reset();
+        }
+
+        revWalk.markStart(headCommit);
+        if (tipCommit != null) {
+            revWalk.markUninteresting(tipCommit);
+        }
+
+        List<NewCommit> newCommits = new ArrayList<>();
+        for (RevCommit commit : revWalk) {
+            newCommits.add(new NewCommit(commit.copy(), encode(commit)));
+            commit.disposeBody();
+        }
+        newCommits.sort(Comparator.comparing(commit -> commit.id));
+
+        Path tempFile = createTempFile();
+        try {
+            write(tempFile, tipCommit == null ? 0 : size, newCommits, head);
+            replaceWith(tempFile);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+
+        return new JGitCommitCache(repository);
+    }
+
+    /**
+     * Compares the ID at the given position with the given raw ID
+     *
+     * @param position The position of the ID to compare
+     * @param rawId The raw ID to compare with
+     * @return A negative number, zero or a positive number if the ID at the
+     *         given position is less than, equal to or greater than the
+     *         given ID
+     */
+    private int compareId(int position, byte[] rawId) {
+        int offset = getIdOffset(position);
+        for (int i = 0; i < OBJECT_ID_LENGTH; i++) {
+            int comparison = Integer.compare(buffer.get(offset + i) & 0xff, rawId[i] & 0xff);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Encodes the metadata of the given commit
+     *
+     * @param commit The commit to encode
+     * @return The encoded metadata
+     * @throws IOException if the metadata cannot be encoded
+     */
+    private byte[] encode(RevCommit commit) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(commit.getParentCount());
+            byte[] rawId = new byte[OBJECT_ID_LENGTH];
+            for (RevCommit parent : commit.getParents()) {
+                parent.copyRawTo(rawId, 0);
+                out.write(rawId);
+            }
+            writeIdent(out, commit.getCommitterIdent());
+            writeIdent(out, commit.getAuthorIdent());
+            writeString(out, commit.getShortMessage());
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the offset of the records in a cache file with the given
+     * number of commits
+     *
+     * @param size The number of commits
+     * @return The offset of the first record
+     */
+    private static long getDataOffset(int size) {
+        return HEADER_SIZE + FANOUT_SIZE + (long) size * (OBJECT_ID_LENGTH + 4);
+    }
+
+    private int getIdOffset(int position) {
+        return HEADER_SIZE + FANOUT_SIZE + position * OBJECT_ID_LENGTH;
+    }
+
+    private int getRecordOffset(int position) {
+        return (int) getDataOffset(size) + buffer.getInt(getIdOffset(size) + position * 4);
+    }
+
+    /**
+     * Returns the length of the record at the given position
+     *
+     * @param position The position of the record
+     * @return The length of the record in bytes
+     */
+    private int getRecordLength(int position) {
+        int end = position + 1 < size ? getRecordOffset(position + 1) : buffer.capacity();
+
+        return end - getRecordOffset(position);
+    }
+
+    private byte[] readBytes(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+
+        return bytes;
+    }
+
+    private PersonIdent readIdent(int offset) {
+        long when = buffer.getLong(offset);
+        int timeZoneOffset = buffer.getInt(offset + 8);
+        String name = readString(offset + 12);
+        String emailAddress = readString(offset + 16 + buffer.getInt(offset + 12));
+
+        return new PersonIdent(name, emailAddress, when, timeZoneOffset);
+    }
+
+    private String readString(int offset) {
+        return new String(readBytes(offset + 4, buffer.getInt(offset)), UTF_8);
+    }
+
+    /**
+     * Returns the offset following the identity at the given offset
+     *
+     * @param offset The offset of an identity
+     * @return The offset of the data following the identity
+     */
+    private int skipIdent(int offset) {
+        offset += 12;
+        offset += 4 + buffer.getInt(offset);
+
+        return offset + 4 + buffer.getInt(offset);
+    }
+
+    /**
+     * Writes a cache file containing the given number of cached commits and
+     * the given new commits
+     * <p>
+     * Both are sorted by their IDs, so they are merged while writing.
+     *
+     * @param file The file to write to
+     * @param cachedCommits The number of cached commits to keep
+     * @param newCommits The new commits sorted by their IDs
+     * @param head The new tip of the cache
+     * @throws IOException if the file cannot be written
+     */
+    private void write(Path file, int cachedCommits, List<NewCommit> newCommits,
+                       AnyObjectId head) throws IOException {
+        int newSize = cachedCommits + newCommits.size();
+        int[] order = new int[newSize];
+        int[] fanout = new int[256];
+        for (int i = 0, cached = 0, added = 0; i < newSize; i++) {
+            ObjectId id;
+            if (added == newCommits.size() || cached < cachedCommits &&
+                    getObjectId(cached).compareTo(newCommits.get(added).id) < 0) {
+                id = getObjectId(cached);
+                order[i] = cached++;
+            } else {
+                id = newCommits.get(added).id;
+                order[i] = -++added;
+            }
+            fanout[id.getFirstByte()]++;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(newSize);
+            byte[] rawId = new byte[OBJECT_ID_LENGTH];
+            head.copyRawTo(rawId, 0);
+            out.write(rawId);
+
+            int total = 0;
+            for (int count : fanout) {
+                total += count;
+                out.writeInt(total);
+            }
+
+            for (int position : order) {
+                if (position >= 0) {
+                    out.write(readBytes(getIdOffset(position), OBJECT_ID_LENGTH));
+                } else {
+                    newCommits.get(-position - 1).id.copyRawTo(rawId, 0);
+                    out.write(rawId);
+                }
+            }
+
+            int recordOffset = 0;
+            for (int position : order) {
+                out.writeInt(recordOffset);
+                recordOffset += position >= 0 ? getRecordLength(position) :
+                    newCommits.get(-position - 1).data.length;
+            }
+
+            for (int position : order) {
+                if (position >= 0) {
+                    out.write(readBytes(getRecordOffset(position), getRecordLength(position)));
+                } else {
+                    out.write(newCommits.get(-position - 1).data);
+                }
+            }
+        }
+    }
+
+    private static void writeIdent(DataOutputStream out, PersonIdent ident) throws IOException {
+        out.writeLong(ident.getWhen().getTime());
+        out.writeInt(ident.getTimeZoneOffset());
+        writeString(out, ident.getName());
+        writeString(out, ident.getEmailAddress());
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+}
@@ -0,0 +1,234 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.eclipse.jgit.internal.storage.commitgraph.ChangedPathFilter;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.TreeRevFilter;
+import org.eclipse.jgit.revwalk.filter.AndRevFilter;
+import org.eclipse.jgit.revwalk.filter.CommitTimeRevFilter;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import com.github.koraktor.mavanagaiata.git.CommitFilter;
+
+/**
+ * Translates commit filters into JGit's {@code RevFilter}s, so commits can
+ * be skipped before they are decoded
+ *
+ * @author Sebastian Staudt
+ */
+final class JGitCommitFilter {
+
+    /**
+     * Skips commits with a message matching a pattern
+     * <p>
+     * JGit's {@code MessageRevFilter} always matches case-insensitively and
+     * matches the pattern against the whole message, so it cannot be used
+     * for the semantics of {@link CommitFilter#withoutMessages}.
+     */
+    static class SkipMessageRevFilter extends RevFilter {
+
+        private final Pattern pattern;
+
+        SkipMessageRevFilter(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean include(RevWalk walker, RevCommit commit) {
+            return !pattern.matcher(commit.getFullMessage()).find();
+        }
+
+        @Override
+        public RevFilter clone() {
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "SKIP_MESSAGE(\"" + pattern.pattern() + "\")";
+        }
+
+    }
+
+    /**
+     * Matches changes to some paths
+     * <p>
+     * Changes have to be detected by combining a path filter with
+     * {@link TreeFilter#ANY_DIFF}, but JGit only uses the changed-path Bloom
+     * filters of the commit-graph if the tree filter exposes its paths. So
+     * this filter exposes the paths itself.
+     */
+    static class ChangedPathTreeFilter extends TreeFilter {
+
+        private final TreeFilter filter;
+
+        private final List<String> paths;
+
+        ChangedPathTreeFilter(List<String> paths) {
+            this.filter = AndTreeFilter.create(PathFilterGroup.createFromStrings(paths), ANY_DIFF);
+            this.paths = paths;
+        }
+
+        @Override
+        public boolean include(TreeWalk walker) throws IOException {
+            return filter.include(walker);
+        }
+
+        @Override
+        public boolean shouldBeRecursive() {
+            return filter.shouldBeRecursive();
+        }
+
+        @Override
+        public Optional<Set<byte[]>> getPathsBestEffort() {
+            Set<byte[]> rawPaths = new HashSet<>();
+            for (String path : paths) {
+                rawPaths.add(Constants.encode(path));
+            }
+
+            return Optional.of(rawPaths);
+        }
+
+        @Override
+        public TreeFilter clone() {
+            return new ChangedPathTreeFilter(paths);
+        }
+
+        @Override
+        public String toString() {
+            return filter.toString();
+        }
+
+    }
+
+    /**
+     * Matches commits changing some paths, ruling out most other commits
+     * using the changed-path Bloom filters of the commit-graph
+     * <p>
+     * {@link TreeRevFilter} reads the trees of a commit and its parent
+     * before checking the Bloom filter, so it only saves comparing the
+     * trees. This filter checks the Bloom filter first and only passes
+     * commits that may change one of the paths on to the
+     * {@code TreeRevFilter}.
+     */
+    static class ChangedPathRevFilter extends RevFilter {
+
+        private long changedPathFilterNegative;
+
+        private final TreeRevFilter filter;
+
+        private final List<byte[]> paths;
+
+        ChangedPathRevFilter(RevWalk revWalk, List<String> paths) {
+            this.filter = new TreeRevFilter(revWalk, new ChangedPathTreeFilter(paths));
+            this.paths = new ArrayList<>(paths.size());
+            for (String path : paths) {
+                this.paths.add(Constants.encode(path));
+            }
+        }
+
+        /**
+         * Returns the number of commits ruled out by their Bloom filters
+         *
+         * @return The number of commits not changing any of the paths
+         */
+        long getChangedPathFilterNegative() {
+            return changedPathFilterNegative;
+        }
+
+        @Override
+        public boolean include(RevWalk walker, RevCommit commit)
+                throws IOException {
+            if (commit.getParentCount() == 1) {
+                ChangedPathFilter changedPathFilter = commit.getChangedPathFilter(walker);
+                if (changedPathFilter != null &&
+                        paths.stream().noneMatch(changedPathFilter::maybeContains)) {
+                    changedPathFilterNegative ++;
+                    return false;
+                }
+            }
+
+            return filter.include(walker, commit);
+        }
+
+        @Override
+        public boolean requiresCommitBody() {
+            return filter.requiresCommitBody();
+        }
+
+        @Override
+        public RevFilter clone() {
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return filter.toString();
+        }
+
+    }
+
+    private JGitCommitFilter() {}
+
+    /**
+     * Creates a new {@code RevFilter} implementing the given filter
+     * <p>
+     * The time of the oldest commit is checked first, so the walk stops at
+     * the first commit that is too old, even if it does not change any of the
+     * paths. Like a {@code RevWalk} with a tree filter, the paths are checked
+     * for all other commits including merges, so the history is simplified
+     * at merge commits the same way. Unlike with {@link RevWalk#setTreeFilter},
+     * the parents of the visited commits are not rewritten, as actions never
+     * use them.
+     *
+     * @param revWalk The walk to use the filter with
+     * @param filter The filter to translate
+     * @return A new {@code RevFilter} for a single walk
+     */
+    static RevFilter create(RevWalk revWalk, CommitFilter filter) {
+        List<RevFilter> filters = new ArrayList<>();
+
+        if (filter.getSince() != null) {
+            filters.add(CommitTimeRevFilter.after(filter.getSince()));
+        }
+
+        if (!filter.getPaths().isEmpty()) {
+            filters.add(new ChangedPathRevFilter(revWalk, filter.getPaths()));
+        }
+
+        if (filter.isSkipMerges()) {
+            filters.add(RevFilter.NO_MERGES);
+        }
+
+        if (filter.getSkipMessagePattern() != null) {
+            filters.add(new SkipMessageRevFilter(filter.getSkipMessagePattern()));
+        }
+
+        if (filters.isEmpty()) {
+            return RevFilter.ALL;
+        }
+
+        return filters.size() == 1 ? filters.get(0) : AndRevFilter.create(filters);
+    }
+
+}
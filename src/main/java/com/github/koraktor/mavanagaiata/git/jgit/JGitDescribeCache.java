@@ -0,0 +1,112 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Repository;
+
+import com.github.koraktor.mavanagaiata.git.GitTagDescription;
+
+/**
+ * Stores the description of the {@code HEAD} commit in the Git directory,
+ * so later builds can reuse it without walking the commit history
+ * <p>
+ * The description is reused as long as {@code HEAD} points to the same
+ * commit and the tags of the repository did not change. Only the tags are
+ * read for this, the object database is not accessed at all.
+ *
+ * @author Sebastian Staudt
+ */
+class JGitDescribeCache extends AbstractJGitFileCache {
+
+    static final String CACHE_FILE = "describe";
+
+    private static final String ABBREV = "abbrev";
+
+    private static final String DISTANCE = "distance";
+
+    private static final String KEY = "key";
+
+    private static final String TAG = "tag";
+
+    /**
+     * Creates a new cache stored in the Git directory of the given
+     * repository
+     *
+     * @param repository The repository to cache descriptions for
+     */
+    JGitDescribeCache(Repository repository) {
+        super(repository, CACHE_FILE);
+    }
+
+    /**
+     * Creates the key of a description for the given commit and the current
+     * tags of the repository
+     *
+     * @param head The described commit
+     * @param firstParent Whether only first parents are followed for the
+     *        description
+     * @return The key for the description
+     * @throws IOException if the tags cannot be read
+     */
+    String createKey(AnyObjectId head, boolean firstParent) throws IOException {
+        String key = head.name() + " " + hashTags(repository).name();
+
+        return firstParent ? key + " first-parent" : key;
+    }
+
+    /**
+     * Returns the cached description for the given key
+     *
+     * @param key The key of the description
+     * @return The cached description or {@code null} if there is none
+     * @throws IOException if the cache cannot be read
+     */
+    GitTagDescription get(String key) throws IOException {
+        Properties properties = load();
+        if (!key.equals(properties.getProperty(KEY))) {
+            return null;
+        }
+
+        try {
+            return new GitTagDescription(properties.getProperty(ABBREV),
+                properties.getProperty(TAG),
+                Integer.parseInt(properties.getProperty(DISTANCE)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Caches the given description
+     * <p>
+     * Only one description is cached, so this replaces any previously
+     * cached description.
+     *
+     * @param key The key of the description
+     * @param description The description to cache
+     * @throws IOException if the cache cannot be written
+     */
+    void put(String key, GitTagDescription description) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(KEY, key);
+        properties.setProperty(DISTANCE, String.valueOf(description.getDistance()));
+        if (description.getAbbreviatedCommitId() != null) {
+            properties.setProperty(ABBREV, description.getAbbreviatedCommitId());
+        }
+        if (description.getDistance() >= 0) {
+            properties.setProperty(TAG, description.getNextTagName());
+        }
+
+        store(properties);
+    }
+
+}
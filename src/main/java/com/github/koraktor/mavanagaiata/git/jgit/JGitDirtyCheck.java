@@ -0,0 +1,496 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.errors.ConfigInvalidException;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.submodule.SubmoduleWalk;
+import org.eclipse.jgit.submodule.SubmoduleWalk.IgnoreSubmoduleMode;
+import org.eclipse.jgit.treewalk.AbstractTreeIterator;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.WorkingTreeIterator;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.IndexDiffFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.treewalk.filter.SkipWorkTreeFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import static org.eclipse.jgit.lib.Constants.*;
+import static org.eclipse.jgit.submodule.SubmoduleWalk.IgnoreSubmoduleMode.*;
+import static org.eclipse.jgit.treewalk.TreeWalk.OperationType.*;
+
+/**
+ * Checks whether the worktree of a repository differs from its index and
+ * {@code HEAD} tree
+ * <p>
+ * This applies the same rules as JGit's {@code IndexDiff}, but stops at the
+ * first change found instead of collecting all changed paths. So for a dirty
+ * worktree usually only a small part of the worktree has to be scanned.
+ * Untracked directories are not scanned at all if untracked files should be
+ * ignored.
+ * <p>
+ * Optionally, the check can be restricted to some paths of the worktree and
+ * the top-level directories of the worktree can be scanned concurrently on
+ * multiple threads.
+ *
+ * @author Sebastian Staudt
+ * @see org.eclipse.jgit.lib.IndexDiff
+ */
+class JGitDirtyCheck {
+
+    private static final int TREE = 0;
+    private static final int INDEX = 1;
+    private static final int WORKDIR = 2;
+
+    /**
+     * Excludes paths that exist neither in the {@code HEAD} tree nor in the
+     * index, so untracked directories are never entered
+     */
+    private static final TreeFilter TRACKED = new TreeFilter() {
+        @Override
+        public boolean include(TreeWalk walker) {
+            return walker.getRawMode(TREE) != 0 || walker.getRawMode(INDEX) != 0;
+        }
+
+        @Override
+        public boolean shouldBeRecursive() {
+            return false;
+        }
+
+        @Override
+        public TreeFilter clone() {
+            return this;
+        }
+    };
+
+    private IgnoreSubmoduleMode ignoreSubmoduleMode;
+
+    private final boolean ignoreUntracked;
+
+    private TreeFilter pathFilter;
+
+    private final Repository repository;
+
+    private int threads = 1;
+
+    private final AnyObjectId tree;
+
+    /**
+     * Creates a new dirty check for the given repository
+     *
+     * @param repository The repository to check
+     * @param tree The commit or tree to compare the index against, may be
+     *        {@code null} or the zero ID for an unborn branch
+     * @param ignoreUntracked If {@code true}, untracked files in the
+     *        repository will be ignored
+     */
+    JGitDirtyCheck(Repository repository, AnyObjectId tree, boolean ignoreUntracked) {
+        this.ignoreUntracked = ignoreUntracked;
+        this.repository = repository;
+        this.tree = tree;
+    }
+
+    /**
+     * Sets which changes of submodules should be ignored
+     * <p>
+     * By default, the {@code ignore} setting of each submodule in
+     * {@code .gitmodules} is used.
+     *
+     * @param ignoreSubmoduleMode The changes of submodules to ignore or
+     *        {@code null} to use the setting of each submodule
+     */
+    void setIgnoreSubmoduleMode(IgnoreSubmoduleMode ignoreSubmoduleMode) {
+        this.ignoreSubmoduleMode = ignoreSubmoduleMode;
+    }
+
+    /**
+     * Restricts the check to the given paths
+     *
+     * @param paths The paths to check relative to the worktree or an empty
+     *        collection to check the whole worktree
+     */
+    void setPaths(Collection<String> paths) {
+        pathFilter = paths.isEmpty() ? null : PathFilterGroup.createFromStrings(paths);
+    }
+
+    /**
+     * Sets the number of threads used to scan the worktree
+     *
+     * @param threads The number of threads to use, values below {@code 2}
+     *        will scan the worktree on the calling thread
+     */
+    void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Returns whether the worktree or the index of the repository contain
+     * any changes
+     *
+     * @return {@code true} as soon as the first change is found
+     * @throws IOException if the repository cannot be read
+     */
+    boolean isDirty() throws IOException {
+        DirCache dirCache = repository.readDirCache();
+
+        return isWorkTreeDirty(dirCache) || areSubmodulesDirty(dirCache);
+    }
+
+    /**
+     * Checks the submodules registered in the index for a checked out commit
+     * differing from the index or for changes in their own worktree
+     *
+     * @param dirCache The index of the repository
+     * @return {@code true} if a submodule is dirty
+     * @throws IOException if a submodule cannot be read
+     */
+    private boolean areSubmodulesDirty(DirCache dirCache) throws IOException {
+        if (ignoreSubmoduleMode == ALL) {
+            return false;
+        }
+
+        try (SubmoduleWalk submoduleWalk = new SubmoduleWalk(repository)) {
+            submoduleWalk.setTree(new DirCacheIterator(dirCache));
+            if (pathFilter != null) {
+                submoduleWalk.setFilter(pathFilter.clone());
+            }
+
+            while (submoduleWalk.next()) {
+                IgnoreSubmoduleMode ignoreMode = ignoreSubmoduleMode;
+                if (ignoreMode == null) {
+                    try {
+                        ignoreMode = submoduleWalk.getModulesIgnore();
+                    } catch (ConfigInvalidException e) {
+                        throw new IOException("Invalid submodule configuration for " + submoduleWalk.getPath(), e);
+                    }
+                }
+
+                if (ignoreMode == ALL) {
+                    continue;
+                }
+
+                try (Repository submodule = submoduleWalk.getRepository()) {
+                    if (submodule == null) {
+                        continue;
+                    }
+
+                    ObjectId submoduleHead = submodule.resolve(HEAD);
+                    if (submoduleHead != null && !submoduleHead.equals(submoduleWalk.getObjectId())) {
+                        return true;
+                    }
+
+                    if (ignoreMode != DIRTY) {
+                        JGitDirtyCheck submoduleCheck = new JGitDirtyCheck(submodule,
+                            submoduleWalk.getObjectId(), ignoreMode == UNTRACKED);
+                        if (submoduleCheck.isDirty()) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns whether the current entry of the tree walk is a change
+     *
+     * @param treeWalk The tree walk positioned at the entry to check
+     * @return {@code true} if the entry has been added, changed, removed,
+     *         is missing, modified, conflicting or untracked
+     * @throws IOException if the worktree file cannot be read
+     */
+    private boolean isChange(TreeWalk treeWalk) throws IOException {
+        AbstractTreeIterator treeIterator = treeWalk.getTree(TREE, AbstractTreeIterator.class);
+        DirCacheIterator dirCacheIterator = treeWalk.getTree(INDEX, DirCacheIterator.class);
+        WorkingTreeIterator workTreeIterator = treeWalk.getTree(WORKDIR, WorkingTreeIterator.class);
+
+        if (dirCacheIterator == null) {
+            if (treeIterator != null && !isIgnoredGitLink(treeIterator)) {
+                return true;
+            }
+
+            return !ignoreUntracked && workTreeIterator != null &&
+                !workTreeIterator.isEntryIgnored();
+        }
+
+        DirCacheEntry dirCacheEntry = dirCacheIterator.getDirCacheEntry();
+        if (dirCacheEntry != null && dirCacheEntry.getStage() > 0) {
+            return true;
+        }
+
+        boolean ignoredGitLink = isIgnoredGitLink(dirCacheIterator);
+        if (treeIterator == null) {
+            if (!ignoredGitLink) {
+                return true;
+            }
+        } else if (!treeIterator.idEqual(dirCacheIterator) ||
+                treeIterator.getEntryRawMode() != dirCacheIterator.getEntryRawMode()) {
+            if (!ignoredGitLink || !isGitLink(treeIterator)) {
+                return true;
+            }
+        }
+
+        if (workTreeIterator == null) {
+            return !isGitLink(dirCacheIterator) || !ignoredGitLink &&
+                !isUninitializedSubmodule(treeWalk.getPathString());
+        }
+
+        // Comparing a submodule with the index requires opening it
+        if (isGitLink(dirCacheIterator) && isGitLink(workTreeIterator) &&
+                (ignoreSubmoduleMode == ALL || ignoreSubmoduleMode == DIRTY)) {
+            return false;
+        }
+
+        return workTreeIterator.isModified(dirCacheEntry, true, treeWalk.getObjectReader());
+    }
+
+    /**
+     * Returns whether the current entry of the tree walk is a directory that
+     * is neither tracked nor needs to be checked for untracked files
+     *
+     * @param treeWalk The tree walk positioned at the entry to check
+     * @return {@code true} if the directory is untracked and ignored
+     * @throws IOException if the ignore rules cannot be read
+     */
+    private boolean isIgnoredDirectory(TreeWalk treeWalk) throws IOException {
+        WorkingTreeIterator workTreeIterator = treeWalk.getTree(WORKDIR, WorkingTreeIterator.class);
+
+        return treeWalk.getRawMode(TREE) == 0 && treeWalk.getRawMode(INDEX) == 0 &&
+            workTreeIterator != null && workTreeIterator.isEntryIgnored();
+    }
+
+    /**
+     * Walks the {@code HEAD} tree, the index and the worktree until the
+     * first change is found
+     * <p>
+     * If more than one thread should be used, the top-level directories of
+     * the worktree are checked concurrently.
+     *
+     * @param dirCache The index of the repository
+     * @return {@code true} if a change has been found
+     * @throws IOException if the repository or worktree cannot be read
+     */
+    private boolean isWorkTreeDirty(DirCache dirCache) throws IOException {
+        if (threads > 1) {
+            return isWorkTreeDirtyParallel(dirCache);
+        }
+
+        return scan(dirCache, null, new AtomicBoolean());
+    }
+
+    /**
+     * Checks the top-level files of the worktree and afterwards scans the
+     * top-level directories in parallel
+     * <p>
+     * The scan is stopped on all threads as soon as the first change has
+     * been found.
+     *
+     * @param dirCache The index of the repository
+     * @return {@code true} if a change has been found
+     * @throws IOException if the repository or worktree cannot be read
+     */
+    private boolean isWorkTreeDirtyParallel(DirCache dirCache) throws IOException {
+        List<String> directories = new ArrayList<>();
+        try (TreeWalk treeWalk = createTreeWalk(dirCache)) {
+            List<TreeFilter> filters = createFilters();
+            treeWalk.setFilter(filters.size() == 1 ? filters.get(0) : AndTreeFilter.create(filters));
+
+            while (treeWalk.next()) {
+                if (!treeWalk.isSubtree()) {
+                    if (isChange(treeWalk)) {
+                        return true;
+                    }
+                } else if (!isIgnoredDirectory(treeWalk)) {
+                    directories.add(treeWalk.getPathString());
+                }
+            }
+        }
+
+        if (directories.isEmpty()) {
+            return false;
+        }
+
+        AtomicBoolean cancelled = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, directories.size()));
+        try {
+            CompletionService<Boolean> completionService = new ExecutorCompletionService<>(executor);
+            for (String directory : directories) {
+                completionService.submit(() -> scan(dirCache, directory, cancelled));
+            }
+
+            for (int i = 0; i < directories.size(); i++) {
+                if (completionService.take().get()) {
+                    return true;
+                }
+            }
+
+            return false;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while checking the worktree");
+        } finally {
+            cancelled.set(true);
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Walks the {@code HEAD} tree, the index and the worktree recursively
+     * until the first change is found
+     *
+     * @param dirCache The index of the repository
+     * @param path The directory to scan or {@code null} to scan the whole
+     *        worktree
+     * @param cancelled Signals that the scan can be stopped because the
+     *        result is already known
+     * @return {@code true} if a change has been found
+     * @throws IOException if the repository or worktree cannot be read
+     */
+    private boolean scan(DirCache dirCache, String path, AtomicBoolean cancelled)
+            throws IOException {
+        List<TreeFilter> filters = createFilters();
+        if (path != null) {
+            filters.add(0, PathFilter.create(path));
+        }
+        filters.add(new IndexDiffFilter(INDEX, WORKDIR));
+
+        try (TreeWalk treeWalk = createTreeWalk(dirCache)) {
+            treeWalk.setFilter(AndTreeFilter.create(filters));
+            treeWalk.setRecursive(true);
+
+            while (!cancelled.get() && treeWalk.next()) {
+                if (isChange(treeWalk)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Creates the filters shared by all tree walks of this check
+     *
+     * @return A new list of tree filters
+     */
+    private List<TreeFilter> createFilters() {
+        List<TreeFilter> filters = new ArrayList<>(5);
+        if (pathFilter != null) {
+            filters.add(pathFilter.clone());
+        }
+        if (ignoreUntracked) {
+            filters.add(TRACKED);
+        }
+        filters.add(new SkipWorkTreeFilter(INDEX));
+
+        return filters;
+    }
+
+    /**
+     * Creates a new tree walk over the {@code HEAD} tree, the index and the
+     * worktree
+     *
+     * @param dirCache The index of the repository
+     * @return A new tree walk
+     * @throws IOException if the {@code HEAD} tree cannot be read
+     */
+    private TreeWalk createTreeWalk(DirCache dirCache) throws IOException {
+        TreeWalk treeWalk = new TreeWalk(repository);
+        try {
+            treeWalk.setOperationType(CHECKIN_OP);
+
+            if (tree == null || ObjectId.zeroId().equals(tree)) {
+                treeWalk.addTree(new EmptyTreeIterator());
+            } else {
+                try (RevWalk revWalk = new RevWalk(treeWalk.getObjectReader())) {
+                    treeWalk.addTree(revWalk.parseTree(tree));
+                }
+            }
+
+            // Creating an iterator may update the cache tree of the index
+            synchronized (dirCache) {
+                treeWalk.addTree(new DirCacheIterator(dirCache));
+            }
+
+            FileTreeIterator workTreeIterator = new FileTreeIterator(repository);
+            treeWalk.addTree(workTreeIterator);
+            workTreeIterator.setDirCacheIterator(treeWalk, INDEX);
+        } catch (IOException e) {
+            treeWalk.close();
+            throw e;
+        }
+
+        return treeWalk;
+    }
+
+    /**
+     * Returns whether the given path is a submodule that has never been
+     * initialized, i.e. it has no Git directory and an empty worktree
+     *
+     * @param path The path of the submodule
+     * @return {@code true} if the submodule is not initialized
+     */
+    private boolean isUninitializedSubmodule(String path) {
+        File moduleDir = new File(new File(repository.getDirectory(), "modules"), path);
+        if (moduleDir.isDirectory()) {
+            return false;
+        }
+
+        String[] files = new File(repository.getWorkTree(), path).list();
+        return files != null && files.length == 0;
+    }
+
+    /**
+     * Returns whether the current entry of the given iterator is a submodule
+     * that should be ignored completely
+     *
+     * @param iterator The iterator to check
+     * @return {@code true} if the entry is an ignored submodule
+     */
+    private boolean isIgnoredGitLink(AbstractTreeIterator iterator) {
+        return ignoreSubmoduleMode == ALL && isGitLink(iterator);
+    }
+
+    private static boolean isGitLink(AbstractTreeIterator iterator) {
+        return iterator.getEntryRawMode() == FileMode.GITLINK.getBits();
+    }
+}
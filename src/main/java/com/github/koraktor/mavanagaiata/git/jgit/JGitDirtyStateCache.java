@@ -0,0 +1,376 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Config;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.WorkingTreeIterator;
+import org.eclipse.jgit.util.FS;
+
+import com.github.koraktor.mavanagaiata.git.DirtyCheckOptions;
+import com.github.koraktor.mavanagaiata.git.DirtyCheckOptions.IgnoreSubmodules;
+
+import static java.nio.charset.StandardCharsets.*;
+import static java.nio.file.LinkOption.*;
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+import static org.eclipse.jgit.lib.ConfigConstants.*;
+import static org.eclipse.jgit.lib.Constants.*;
+
+/**
+ * Stores the results of dirty checks in the Git directory, so they can be
+ * reused by later builds as long as the repository did not change
+ * <p>
+ * A result is reused if the fingerprint of the repository still matches the
+ * one recorded with the result. The fingerprint consists of the
+ * {@code HEAD} commit, size, modification time and checksum of the index,
+ * the settings and exclude files affecting the check, the sizes and
+ * modification times of all tracked files and the modification times of
+ * the directories containing them. Tracked files have to be checked
+ * separately, as modifying a file does not change the modification time of
+ * its directory. The worktree is never scanned to compute a fingerprint.
+ * <p>
+ * Adding or removing files changes the modification time of the containing
+ * directory. So unless untracked files are ignored, the directories without
+ * tracked files that are not ignored are recorded together with a result
+ * and their modification times are part of its fingerprint, too. These
+ * directories are only searched when a result is recorded, i.e. when the
+ * worktree is checked anyway. New directories change the modification time
+ * of their parent, which is either tracked or recorded.
+ * <p>
+ * Files modified shortly before a check might be modified again without
+ * changing their modification time (the “racy Git” problem). Results are
+ * not recorded if any file or directory has been modified within
+ * {@link #RACY_THRESHOLD} before the check. Repositories with submodules are
+ * never cached unless submodules are ignored completely.
+ *
+ * @author Sebastian Staudt
+ */
+class JGitDirtyStateCache extends AbstractJGitFileCache {
+
+    static final String CACHE_FILE = "dirty-state";
+
+    private static final String[] CORE_SETTINGS = {
+        "autocrlf", "checkstat", "eol", "excludesfile", "filemode",
+        "ignorecase", "symlinks", "trustctime"
+    };
+
+    /**
+     * Files modified within this time (in milliseconds) before a check
+     * might be modified again without changing their timestamp
+     */
+    static final long RACY_THRESHOLD = 2000;
+
+    /**
+     * A fingerprint of the repository state relevant for a dirty check
+     */
+    static class Fingerprint {
+
+        final String id;
+
+        final long lastModified;
+
+        Fingerprint(String id, long lastModified) {
+            this.id = id;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Returns whether files have been modified too shortly before the
+         * given time to rely on their modification times
+         *
+         * @param checkTime The time the dirty check has been started
+         * @return {@code true} if a result for this fingerprint must not be
+         *         recorded
+         */
+        boolean isRacy(long checkTime) {
+            return lastModified > checkTime - RACY_THRESHOLD;
+        }
+
+    }
+
+    /**
+     * Creates a new cache stored in the Git directory of the given
+     * repository
+     *
+     * @param repository The repository to cache dirty states for
+     */
+    JGitDirtyStateCache(Repository repository) {
+        super(repository, CACHE_FILE);
+    }
+
+    /**
+     * Returns a cached result for the given options or runs the given dirty
+     * check and records its result
+     *
+     * @param options The options of the dirty check
+     * @param head The {@code HEAD} commit of the repository
+     * @param dirtyCheck The check to run if there is no usable result
+     * @return {@code true} if the worktree is dirty
+     * @throws IOException if the repository or the cache cannot be read or
+     *         the cache cannot be written
+     */
+    boolean isDirty(DirtyCheckOptions options, AnyObjectId head,
+                    JGitDirtyCheck dirtyCheck) throws IOException {
+        long checkTime = System.currentTimeMillis();
+        DirCache dirCache = repository.readDirCache();
+        Fingerprint fingerprint = createFingerprint(options, head, dirCache);
+        if (fingerprint == null) {
+            return dirtyCheck.isDirty();
+        }
+
+        Properties states = load();
+        // Caching and threads do not change the result, so they are not
+        // part of the key
+        String key = new DirtyCheckOptions(options.isIgnoreUntracked(),
+            options.getPaths(), options.getIgnoreSubmodules()).toString();
+        String state = states.getProperty(key);
+        if (state != null) {
+            String[] lines = state.split("\n");
+            String[] result = lines[0].split(" ");
+            Fingerprint cachedFingerprint = addDirectories(fingerprint,
+                asList(lines).subList(1, lines.length));
+            if (result.length == 2 && result[0].equals(cachedFingerprint.id)) {
+                return Boolean.parseBoolean(result[1]);
+            }
+        }
+
+        Set<String> directories = options.isIgnoreUntracked() ?
+            emptySet() : findUntrackedDirectories(dirCache);
+        fingerprint = addDirectories(fingerprint, directories);
+
+        boolean dirty = dirtyCheck.isDirty();
+        if (!fingerprint.isRacy(checkTime)) {
+            StringBuilder newState = new StringBuilder(fingerprint.id)
+                .append(' ').append(dirty);
+            for (String directory : directories) {
+                newState.append('\n').append(directory);
+            }
+            states.setProperty(key, newState.toString());
+            store(states);
+        }
+
+        return dirty;
+    }
+
+    /**
+     * Creates a fingerprint of the current state of the repository
+     * <p>
+     * The fingerprint does not yet contain any untracked directories.
+     *
+     * @param options The options of the dirty check
+     * @param head The {@code HEAD} commit of the repository
+     * @param dirCache The index of the repository
+     * @return The fingerprint or {@code null} if the state cannot be
+     *         fingerprinted because of submodules
+     * @throws IOException if the repository cannot be read
+     * @see #addDirectories
+     */
+    Fingerprint createFingerprint(DirtyCheckOptions options, AnyObjectId head,
+                                  DirCache dirCache) throws IOException {
+        MessageDigest digest = newMessageDigest();
+        digest.update((head == null ? ObjectId.zeroId() : head).name().getBytes(US_ASCII));
+
+        // The checksum of the index changes with every modification, so its
+        // timestamp does not have to be considered for racy changes
+        File indexFile = repository.getIndexFile();
+        update(digest, indexFile.toPath());
+        digest.update(readChecksum(indexFile));
+
+        Config config = repository.getConfig();
+        for (String setting : CORE_SETTINGS) {
+            digest.update(String.valueOf(config.getString(CONFIG_CORE_SECTION, null, setting)).getBytes(UTF_8));
+        }
+        updateContent(digest, new File(repository.getDirectory(), "info/exclude"));
+        updateContent(digest, new File(repository.getDirectory(), "info/attributes"));
+        String excludesFile = config.getString(CONFIG_CORE_SECTION, null, CONFIG_KEY_EXCLUDESFILE);
+        if (excludesFile != null) {
+            FS fs = repository.getFS();
+            updateContent(digest, excludesFile.startsWith("~/") ?
+                fs.resolve(fs.userHome(), excludesFile.substring(2)) :
+                fs.resolve(null, excludesFile));
+        }
+
+        Path workTree = repository.getWorkTree().toPath();
+        long lastModified = 0;
+        Set<String> directories = new TreeSet<>();
+        directories.add("");
+        for (int i = 0; i < dirCache.getEntryCount(); i++) {
+            DirCacheEntry entry = dirCache.getEntry(i);
+            if (entry.getFileMode() == FileMode.GITLINK &&
+                    options.getIgnoreSubmodules() != IgnoreSubmodules.ALL) {
+                return null;
+            }
+
+            String path = entry.getPathString();
+            digest.update(path.getBytes(UTF_8));
+            lastModified = Math.max(lastModified, update(digest, workTree.resolve(path)));
+
+            int slash = path.lastIndexOf('/');
+            while (slash > 0 && directories.add(path.substring(0, slash))) {
+                slash = path.lastIndexOf('/', slash - 1);
+            }
+        }
+
+        if (!options.isIgnoreUntracked()) {
+            for (String directory : directories) {
+                digest.update(directory.getBytes(UTF_8));
+                lastModified = Math.max(lastModified, update(digest, workTree.resolve(directory)));
+            }
+        }
+
+        return new Fingerprint(ObjectId.fromRaw(digest.digest()).name(), lastModified);
+    }
+
+    /**
+     * Adds the modification times of the given directories to a fingerprint
+     *
+     * @param fingerprint The fingerprint of the tracked files
+     * @param directories The untracked directories to add
+     * @return The combined fingerprint
+     * @throws IOException if the directories cannot be read
+     */
+    Fingerprint addDirectories(Fingerprint fingerprint,
+                               Collection<String> directories)
+            throws IOException {
+        if (directories.isEmpty()) {
+            return fingerprint;
+        }
+
+        MessageDigest digest = newMessageDigest();
+        digest.update(fingerprint.id.getBytes(US_ASCII));
+        Path workTree = repository.getWorkTree().toPath();
+        long lastModified = fingerprint.lastModified;
+        for (String directory : directories) {
+            digest.update(directory.getBytes(UTF_8));
+            lastModified = Math.max(lastModified, update(digest, workTree.resolve(directory)));
+        }
+
+        return new Fingerprint(ObjectId.fromRaw(digest.digest()).name(), lastModified);
+    }
+
+    /**
+     * Returns all directories of the worktree without tracked files that
+     * might contain untracked files
+     * <p>
+     * Directories that are ignored and contain no tracked files are not
+     * entered, like in the dirty check itself.
+     *
+     * @param dirCache The index of the repository
+     * @return The untracked directories that are not ignored
+     * @throws IOException if the worktree cannot be read
+     */
+    Set<String> findUntrackedDirectories(DirCache dirCache) throws IOException {
+        Set<String> directories = new TreeSet<>();
+        try (TreeWalk treeWalk = new TreeWalk(repository)) {
+            treeWalk.addTree(new DirCacheIterator(dirCache));
+            treeWalk.addTree(new FileTreeIterator(repository));
+
+            while (treeWalk.next()) {
+                WorkingTreeIterator workTreeIterator = treeWalk.getTree(1, WorkingTreeIterator.class);
+                if (!treeWalk.isSubtree() || workTreeIterator == null) {
+                    continue;
+                }
+
+                if (treeWalk.getRawMode(0) == 0) {
+                    if (workTreeIterator.isEntryIgnored()) {
+                        continue;
+                    }
+                    directories.add(treeWalk.getPathString());
+                }
+                treeWalk.enterSubtree();
+            }
+        }
+
+        return directories;
+    }
+
+    /**
+     * Reads the trailing checksum of the given index file
+     *
+     * @param indexFile The index file to read
+     * @return The checksum or an empty array if there is no index file
+     * @throws IOException if the index file cannot be read
+     */
+    private static byte[] readChecksum(File indexFile) throws IOException {
+        if (!indexFile.isFile() || indexFile.length() < OBJECT_ID_LENGTH) {
+            return new byte[0];
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(indexFile, "r")) {
+            byte[] checksum = new byte[OBJECT_ID_LENGTH];
+            file.seek(file.length() - OBJECT_ID_LENGTH);
+            file.readFully(checksum);
+            return checksum;
+        }
+    }
+
+    /**
+     * Adds the size and modification time of the given file to the digest
+     *
+     * @param digest The digest to update
+     * @param path The file to add
+     * @return The modification time of the file or {@code 0} if it does not
+     *         exist
+     * @throws IOException if the file cannot be read
+     */
+    private static long update(MessageDigest digest, Path path) throws IOException {
+        long size = -1;
+        long lastModified = 0;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class, NOFOLLOW_LINKS);
+            if (!attributes.isDirectory()) {
+                size = attributes.size();
+            }
+            lastModified = attributes.lastModifiedTime().toMillis();
+        } catch (NoSuchFileException ignored) {
+            // Missing files are part of the fingerprint, too
+        }
+
+        digest.update((" " + size + " " + lastModified + "\n").getBytes(US_ASCII));
+
+        return lastModified;
+    }
+
+    /**
+     * Adds the contents of the given file to the digest
+     *
+     * @param digest The digest to update
+     * @param file The file to add
+     * @throws IOException if the file cannot be read
+     */
+    private static void updateContent(MessageDigest digest, File file)
+            throws IOException {
+        if (file.isFile()) {
+            digest.update(Files.readAllBytes(file.toPath()));
+        }
+        digest.update((byte) 0);
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.util.regex.Pattern;
+
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Stores arbitrary information computed by the mojos in the Git directory
+ * <p>
+ * The cached information is opaque to the repository, so it is up to the
+ * mojos to decide whether it is still valid.
+ *
+ * @author Sebastian Staudt
+ * @see com.github.koraktor.mavanagaiata.git.GitRepository#loadCache
+ */
+class JGitPropertiesCache extends AbstractJGitFileCache {
+
+    static final Pattern NAME_PATTERN = Pattern.compile("[\\w.-]+");
+
+    /**
+     * Creates a new cache with the given name stored in the Git directory of
+     * the given repository
+     *
+     * @param repository The repository to cache information for
+     * @param name The name of the cache
+     * @throws IllegalArgumentException if the name is not a valid file name
+     */
+    JGitPropertiesCache(Repository repository, String name) {
+        super(repository, checkName(name));
+    }
+
+    /**
+     * Checks that the given cache name is a plain file name
+     *
+     * @param name The name to check
+     * @return The name
+     * @throws IllegalArgumentException if the name is not a valid file name
+     */
+    private static String checkName(String name) {
+        if (!NAME_PATTERN.matcher(name).matches()) {
+            throw new IllegalArgumentException(
+                String.format("Invalid cache name \"%s\".", name));
+        }
+
+        return name;
+    }
+
+}
@@ -2,16 +2,32 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2012-2025, Sebastian Staudt
+ * Copyright (c) 2012-2026, Sebastian Staudt
  *               2015, Kay Hannay
  */
 
 package com.github.koraktor.mavanagaiata.git.jgit;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -21,27 +37,44 @@ import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.errors.IncorrectObjectTypeException;
 import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.errors.RevWalkException;
-import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.internal.storage.commitgraph.CommitGraph;
+import org.eclipse.jgit.internal.storage.commitgraph.CommitGraphLoader;
+import org.eclipse.jgit.internal.storage.commitgraph.CommitGraphWriter;
+import org.eclipse.jgit.internal.storage.commitgraph.GraphCommits;
+import org.eclipse.jgit.internal.storage.file.ObjectDirectory;
+import org.eclipse.jgit.internal.storage.file.Pack;
+import org.eclipse.jgit.lib.Config;
+import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefDatabase;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevObject;
 import org.eclipse.jgit.revwalk.RevTag;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
-import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.submodule.SubmoduleWalk.IgnoreSubmoduleMode;
+import org.eclipse.jgit.util.RawParseUtils;
 
 import com.github.koraktor.mavanagaiata.git.AbstractGitRepository;
 import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction;
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction.CommitDetail;
+import com.github.koraktor.mavanagaiata.git.CommitFilter;
+import com.github.koraktor.mavanagaiata.git.CommitWalkOptions;
+import com.github.koraktor.mavanagaiata.git.DescribeOptions;
+import com.github.koraktor.mavanagaiata.git.DirtyCheckOptions;
 import com.github.koraktor.mavanagaiata.git.GitCommit;
 import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
 import com.github.koraktor.mavanagaiata.git.GitTag;
 import com.github.koraktor.mavanagaiata.git.GitTagDescription;
 
 import static java.nio.charset.StandardCharsets.*;
+import static java.nio.file.StandardCopyOption.*;
+import static java.util.Collections.*;
 import static org.apache.commons.io.FileUtils.*;
+import static org.eclipse.jgit.lib.ConfigConstants.*;
 import static org.eclipse.jgit.lib.Constants.*;
 
 /**
@@ -52,16 +85,22 @@ import static org.eclipse.jgit.lib.Constants.*;
  */
 public class JGitRepository extends AbstractGitRepository {
 
+    private static final int CHUNK_ID_BLOOM_FILTER_INDEX = 0x42494458;
     static final String COMMONDIR_FILE = "commondir";
     static final Pattern DESCRIBE_PATTERN = Pattern.compile("(.*)-([1-9][0-9]*)-g([0-9a-f]+)$");
     static final String GITDIR_FILE = "gitdir";
     private static final String INDEX_FILE = "index";
     static final String REF_LINK_PREFIX = "ref: ";
 
+    private CommitGraph changedPathCommitGraph;
+    private long changedPathCommitGraphModified;
     private boolean checked;
+    private JGitCommitCache commits;
     Repository repository;
     RevCommit headCommit;
     ObjectId headObject;
+    Map<String, GitTag> tags;
+    Map<ObjectId, GitTag> tagsById;
 
     /**
      * Creates a new empty instance
@@ -85,6 +124,59 @@ public class JGitRepository extends AbstractGitRepository {
     }
 
     final void buildRepository(File workTree, File gitDir) throws GitRepositoryException {
+        buildRepository(resolveRepository(workTree, gitDir));
+    }
+
+    /**
+     * Opens the JGit repository configured by the given (already resolved)
+     * repository builder
+     *
+     * @param repositoryBuilder The repository builder to use
+     * @throws GitRepositoryException if the repository cannot be opened
+     * @see #resolveRepository
+     */
+    final void buildRepository(FileRepositoryBuilder repositoryBuilder) throws GitRepositoryException {
+        try {
+            repository = repositoryBuilder.build();
+        } catch (IOException e) {
+            throw new GitRepositoryException("Could not initialize repository", e);
+        }
+    }
+
+    /**
+     * Enables reading the commit-graph of the repository unless it has been
+     * configured explicitly
+     * <p>
+     * Git uses the commit-graph by default while JGit does not. With the
+     * commit-graph, walks (including {@code describe}) can look up parents,
+     * commit times and generation numbers without parsing commit objects.
+     * If there is no commit-graph, JGit falls back to reading the commits
+     * from the object database.
+     * <p>
+     * This only changes the configuration in memory, it is never written to
+     * the repository.
+     */
+    void enableCommitGraph() {
+        Config config = repository.getConfig();
+        if (config.getString(CONFIG_CORE_SECTION, null, CONFIG_COMMIT_GRAPH) == null) {
+            config.setBoolean(CONFIG_CORE_SECTION, null, CONFIG_COMMIT_GRAPH, true);
+        }
+    }
+
+    /**
+     * Resolves the actual GIT_DIR, worktree and index file for the given
+     * worktree and or Git directory without opening the repository
+     * <p>
+     * For linked worktrees this will also resolve the {@code HEAD} ref of
+     * the worktree.
+     *
+     * @param workTree The worktree of the repository or {@code null}
+     * @param gitDir The GIT_DIR of the repository or {@code null}
+     * @return A repository builder set up for the resolved repository
+     * @throws GitRepositoryException if the parameters do not match a Git
+     *         repository
+     */
+    final FileRepositoryBuilder resolveRepository(File workTree, File gitDir) throws GitRepositoryException {
         if (gitDir == null && workTree == null) {
             throw new GitRepositoryException("Neither worktree nor GIT_DIR is set.");
         } else {
@@ -104,11 +196,7 @@ public class JGitRepository extends AbstractGitRepository {
             repositoryBuilder.setWorkTree(workTree);
         }
 
-        try {
-            repository = repositoryBuilder.build();
-        } catch (IOException e) {
-            throw new GitRepositoryException("Could not initialize repository", e);
-        }
+        return repositoryBuilder;
     }
 
     @Override
@@ -118,6 +206,8 @@ public class JGitRepository extends AbstractGitRepository {
             throw new GitRepositoryException(path.getAbsolutePath() + " is not a Git repository.");
         }
 
+        enableCommitGraph();
+
         checked = true;
     }
 
@@ -130,14 +220,50 @@ public class JGitRepository extends AbstractGitRepository {
      */
     @Override
     public void close() {
+        super.close();
+
         if (repository != null) {
             repository.close();
             repository = null;
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If enabled, the description is cached in the Git directory and reused
+     * as long as {@code HEAD} and the tags of the repository do not change.
+     */
     @Override
-    public GitTagDescription describe() throws GitRepositoryException {
+    public GitTagDescription describe(DescribeOptions options)
+            throws GitRepositoryException {
+        boolean firstParent = options.isFirstParent();
+        if (!options.isCache()) {
+            return firstParent ? describeHeadFirstParent() : describeHead();
+        }
+
+        try {
+            JGitDescribeCache cache = new JGitDescribeCache(repository);
+            String key = cache.createKey(getHeadObject(), firstParent);
+            GitTagDescription description = cache.get(key);
+            if (description == null) {
+                description = firstParent ? describeHeadFirstParent() : describeHead();
+                cache.put(key, description);
+            }
+
+            return description;
+        } catch (IOException e) {
+            throw new GitRepositoryException("The description could not be cached.", e);
+        }
+    }
+
+    /**
+     * Describes the {@code HEAD} commit using JGit's {@code DescribeCommand}
+     *
+     * @return The description of the {@code HEAD} commit
+     * @throws GitRepositoryException if the commit cannot be described
+     */
+    private GitTagDescription describeHead() throws GitRepositoryException {
         DescribeCommand command = getDescribeCommand();
 
         try {
@@ -172,6 +298,47 @@ public class JGitRepository extends AbstractGitRepository {
         }
     }
 
+    /**
+     * Describes the {@code HEAD} commit only following the first parents of
+     * merge commits
+     * <p>
+     * JGit's {@code DescribeCommand} cannot do this, so the first parents are
+     * followed until a commit with an annotated tag is found, like
+     * {@code git describe --first-parent}.
+     *
+     * @return The description of the {@code HEAD} commit
+     * @throws GitRepositoryException if the commit cannot be described
+     */
+    private GitTagDescription describeHeadFirstParent()
+            throws GitRepositoryException {
+        Map<ObjectId, GitTag> tags = getTagsById();
+
+        try (RevWalk revWalk = getRevWalk()) {
+            revWalk.setRetainBody(false);
+            RevCommit commit = revWalk.parseCommit(getHeadObject());
+            int distance = 0;
+            while (true) {
+                GitTag tag = tags.get(commit);
+                if (tag != null) {
+                    String abbrev = distance == 0 ? null : getAbbreviatedCommitId(getHeadCommit());
+                    return new GitTagDescription(abbrev, tag.getName(), distance);
+                }
+
+                if (commit.getParentCount() == 0) {
+                    break;
+                }
+
+                commit = commit.getParent(0);
+                revWalk.parseHeaders(commit);
+                distance ++;
+            }
+        } catch (IOException e) {
+            throw new GitRepositoryException(e.getMessage());
+        }
+
+        return new GitTagDescription(getAbbreviatedCommitId(getHeadCommit()), null, -1);
+    }
+
     @Override
     public String getHeadRef() {
         return headRef;
@@ -208,17 +375,26 @@ public class JGitRepository extends AbstractGitRepository {
     }
 
     /**
-     * Creates a new JGit {@code IndexDiff} instance for this repository and
-     * worktree
+     * Creates a new dirty check comparing the worktree of this repository
+     * with its index and {@code HEAD}
      *
-     * @return A new index diff
+     * @param options The options for checking the worktree
+     * @return A new dirty check
      * @throws GitRepositoryException if the {@code HEAD} object cannot be
      *         resolved
-     * @throws IOException if the index diff cannot be created
      */
-    IndexDiff createIndexDiff() throws GitRepositoryException, IOException {
-        FileTreeIterator workTreeIterator = new FileTreeIterator(repository);
-        return new IndexDiff(repository, getHeadObject(), workTreeIterator);
+    JGitDirtyCheck createDirtyCheck(DirtyCheckOptions options)
+            throws GitRepositoryException {
+        JGitDirtyCheck dirtyCheck = new JGitDirtyCheck(repository,
+            getHeadObject(), options.isIgnoreUntracked());
+        dirtyCheck.setPaths(options.getPaths());
+        if (options.getIgnoreSubmodules() != null) {
+            dirtyCheck.setIgnoreSubmoduleMode(
+                IgnoreSubmoduleMode.valueOf(options.getIgnoreSubmodules().name()));
+        }
+        dirtyCheck.setThreads(options.getThreads());
+
+        return dirtyCheck;
     }
 
     /**
@@ -230,51 +406,172 @@ public class JGitRepository extends AbstractGitRepository {
         return new FileRepositoryBuilder().readEnvironment();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The tag is looked up using the commit's object ID, so no hexadecimal
+     * representation of the ID has to be created.
+     */
+    @Override
+    public GitTag getTag(GitCommit commit) throws GitRepositoryException {
+        return getTagsById().get(((JGitCommit) commit).commit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The tags are only resolved once per repository instance.
+     */
     @Override
-    public Map<String, GitTag> getTags()
+    public synchronized Map<String, GitTag> getTags()
             throws GitRepositoryException {
+        if (tags != null) {
+            return tags;
+        }
+
         Map<String, GitTag> tags = new HashMap<>();
+        for (Map.Entry<ObjectId, GitTag> tag : getTagsById().entrySet()) {
+            tags.put(tag.getKey().getName(), tag.getValue());
+        }
+
+        this.tags = unmodifiableMap(tags);
+
+        return this.tags;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only the tag refs are read for this, including lightweight tags.
+     */
+    @Override
+    public String getTagsFingerprint() throws GitRepositoryException {
+        try {
+            return AbstractJGitFileCache.hashTags(repository).name();
+        } catch (IOException e) {
+            throw new GitRepositoryException("The tags could not be read.", e);
+        }
+    }
+
+    /**
+     * Returns the annotated tags of this repository by the ID of the tagged
+     * commit
+     * <p>
+     * Tags are resolved using the peeled object IDs stored in
+     * {@code packed-refs}, so only loose tags have to be read from the object
+     * database. Tags of other objects than commits are skipped. Whether a
+     * peeled object is a commit is looked up in the commit-graph if
+     * possible, so only objects missing from the commit-graph have to be
+     * read. Loose tags are peeled using the type recorded in the tag object
+     * instead of {@code RefDatabase#peel()}, which copies the list of loose
+     * refs for every peeled ref.
+     * <p>
+     * Tags are named after their refs, like {@code git describe} does, so
+     * the tag objects do not have to be read. The name recorded in a tag
+     * object only differs from its ref if the tag has been renamed or
+     * fetched into another ref.
+     * <p>
+     * The tags are only resolved once per repository instance.
+     *
+     * @return A map of tags in this repository
+     * @throws GitRepositoryException if the tags cannot be resolved
+     */
+    synchronized Map<ObjectId, GitTag> getTagsById()
+            throws GitRepositoryException {
+        if (tagsById != null) {
+            return tagsById;
+        }
+
+        Map<ObjectId, GitTag> tags = new HashMap<>();
 
         try (RevWalk revWalk = getRevWalk()) {
+            ObjectReader reader = revWalk.getObjectReader();
+            CommitGraph commitGraph = reader.getCommitGraph().orElse(CommitGraph.EMPTY);
             for (Ref tag : repository.getRefDatabase().getRefsByPrefix(R_TAGS)) {
+                RevTag revTag;
+                ObjectId peeledId;
                 try {
-                    RevTag revTag = revWalk.lookupTag(tag.getObjectId());
-                    RevObject object = revWalk.peel(revTag);
-                    if (object instanceof RevCommit) {
-                        tags.put(object.getName(), new JGitTag(revTag));
+                    if (tag.isPeeled()) {
+                        peeledId = tag.getPeeledObjectId();
+                        if (peeledId == null || commitGraph.findGraphPosition(peeledId) < 0 &&
+                                reader.open(peeledId).getType() != OBJ_COMMIT) {
+                            // Ignore lightweight tags or tags of other objects
+                            continue;
+                        }
+                        revTag = revWalk.lookupTag(tag.getObjectId());
+                    } else {
+                        RevObject object = revWalk.parseAny(tag.getObjectId());
+                        if (!(object instanceof RevTag)) {
+                            // Ignore lightweight tags
+                            continue;
+                        }
+                        revTag = (RevTag) object;
+                        object = revTag.getObject();
+                        if (object instanceof RevTag) {
+                            object = revWalk.peel(object);
+                        }
+                        if (!(object instanceof RevCommit)) {
+                            // Ignore tags of other objects
+                            continue;
+                        }
+                        peeledId = object;
                     }
-                } catch (IncorrectObjectTypeException | MissingObjectException ignored) {
-                    // Ignore lightweight tags or tags on missing objects
+                } catch (MissingObjectException ignored) {
+                    // Ignore tags on missing objects
+                    continue;
                 }
+
+                String name = Repository.shortenRefName(tag.getName());
+                tags.put(peeledId.copy(), new JGitTag(revTag, name));
             }
         } catch (IOException e) {
             throw new GitRepositoryException("The tags could not be resolved.", e);
         }
 
-        return tags;
+        tagsById = unmodifiableMap(tags);
+
+        return tagsById;
     }
 
     public File getWorkTree() {
         return repository.getWorkTree();
     }
 
+    @Override
+    public boolean isAncestorOfHead(String commitId) throws GitRepositoryException {
+        if (!ObjectId.isId(commitId) || isOnUnbornBranch()) {
+            return false;
+        }
+
+        try (RevWalk revWalk = getRevWalk()) {
+            // Without bodies, JGit reads the commits from the commit-graph
+            revWalk.setRetainBody(false);
+            RevCommit commit = revWalk.parseCommit(ObjectId.fromString(commitId));
+
+            return revWalk.isMergedInto(commit, revWalk.parseCommit(getHeadObject()));
+        } catch (MissingObjectException | IncorrectObjectTypeException e) {
+            return false;
+        } catch (IOException e) {
+            throw new GitRepositoryException(
+                String.format("Commit \"%s\" could not be checked.", commitId), e);
+        }
+    }
+
     @Override
     public boolean isChecked() {
         return checked;
     }
 
     @Override
-    public boolean isDirty(boolean ignoreUntracked) throws GitRepositoryException {
+    public boolean isDirty(DirtyCheckOptions options) throws GitRepositoryException {
         try {
-            IndexDiff indexDiff = createIndexDiff();
-            indexDiff.diff();
-
-            return !ignoreUntracked && !indexDiff.getUntracked().isEmpty() ||
-                !(indexDiff.getAdded().isEmpty() && indexDiff.getChanged().isEmpty() &&
-                    indexDiff.getRemoved().isEmpty() &&
-                    indexDiff.getMissing().isEmpty() &&
-                    indexDiff.getModified().isEmpty() &&
-                    indexDiff.getConflicting().isEmpty());
+            JGitDirtyCheck dirtyCheck = createDirtyCheck(options);
+            if (options.isCache()) {
+                return new JGitDirtyStateCache(repository)
+                    .isDirty(options, getHeadObject(), dirtyCheck);
+            }
+
+            return dirtyCheck.isDirty();
         } catch (IOException e) {
             throw new GitRepositoryException("Could not create repository diff.", e);
         }
@@ -285,38 +582,385 @@ public class JGitRepository extends AbstractGitRepository {
         return getHeadObject().equals(ObjectId.zeroId());
     }
 
+    @Override
+    public Properties loadCache(String name) throws GitRepositoryException {
+        try {
+            return new JGitPropertiesCache(repository, name).load();
+        } catch (IOException e) {
+            throw new GitRepositoryException(
+                String.format("Cache \"%s\" could not be read.", name), e);
+        }
+    }
+
     @Override
     public void loadTag(GitTag tag) throws GitRepositoryException {
         if (tag.isLoaded()) {
             return;
         }
 
-        JGitTag jgitTag = (JGitTag) tag;
+        try (ObjectReader reader = repository.newObjectReader()) {
+            loadTag(reader, (JGitTag) tag);
+        } catch (IOException e) {
+            throw new GitRepositoryException("Failed to load tag meta data.", e);
+        }
+    }
 
-        try (RevWalk revWalk = getRevWalk()) {
-            revWalk.parseBody(jgitTag.tag);
-            jgitTag.taggerIdent = jgitTag.tag.getTaggerIdent();
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The tags are read using a single object reader in the order they are
+     * stored in the pack files, so reading them does not require random
+     * access.
+     */
+    @Override
+    public void loadTags(Collection<GitTag> tags) throws GitRepositoryException {
+        List<JGitTag> unloadedTags = new ArrayList<>();
+        for (GitTag tag : tags) {
+            if (!tag.isLoaded()) {
+                unloadedTags.add((JGitTag) tag);
+            }
+        }
+
+        if (unloadedTags.isEmpty()) {
+            return;
+        }
+
+        try (ObjectReader reader = repository.newObjectReader()) {
+            sortByPackOffset(unloadedTags);
+            for (JGitTag tag : unloadedTags) {
+                loadTag(reader, tag);
+            }
         } catch (IOException e) {
             throw new GitRepositoryException("Failed to load tag meta data.", e);
-        } finally {
-            jgitTag.tag.disposeBody();
         }
     }
 
+    /**
+     * Reads the tagger of the given tag
+     * <p>
+     * Only the tagger is decoded from the raw tag object, so no
+     * {@code RevWalk} is needed for that.
+     *
+     * @param reader The reader to read the tag with
+     * @param tag The tag to load
+     * @throws IOException if the tag cannot be read
+     */
+    private void loadTag(ObjectReader reader, JGitTag tag) throws IOException {
+        byte[] raw = reader.open(tag.tag, OBJ_TAG).getCachedBytes();
+        int tagger = RawParseUtils.tagger(raw, 0);
+        if (tagger >= 0) {
+            tag.taggerIdent = RawParseUtils.parsePersonIdent(raw, tagger);
+        }
+    }
+
+    /**
+     * Sorts the given tags by their position in the pack files of the
+     * repository
+     * <p>
+     * Loose tags are sorted last.
+     *
+     * @param tags The tags to sort
+     * @throws IOException if a pack index cannot be read
+     */
+    private void sortByPackOffset(List<JGitTag> tags) throws IOException {
+        if (!(repository.getObjectDatabase() instanceof ObjectDirectory)) {
+            return;
+        }
+
+        List<Pack> packs = new ArrayList<>(((ObjectDirectory) repository.getObjectDatabase()).getPacks());
+        Map<JGitTag, long[]> positions = new HashMap<>();
+        for (JGitTag tag : tags) {
+            long[] position = { packs.size(), 0 };
+            for (int i = 0; i < packs.size(); i++) {
+                long offset = packs.get(i).getIndex().findOffset(tag.tag);
+                if (offset >= 0) {
+                    position = new long[] { i, offset };
+                    break;
+                }
+            }
+            positions.put(tag, position);
+        }
+
+        tags.sort(Comparator.<JGitTag>comparingLong(tag -> positions.get(tag)[0])
+            .thenComparingLong(tag -> positions.get(tag)[1]));
+    }
+
     @Override
-    public void walkCommits(AbstractCommitWalkAction action)
-            throws GitRepositoryException {
+    public String resolveCommitId(String ref) throws GitRepositoryException {
+        ObjectId object = resolveRef(ref);
+
         try (RevWalk revWalk = getRevWalk()) {
-            revWalk.markStart(getHeadRevCommit());
+            return revWalk.parseCommit(object).getName();
+        } catch (IOException e) {
+            throw new GitRepositoryException(
+                String.format("Ref \"%s\" could not be resolved.", ref), e);
+        }
+    }
+
+    @Override
+    public void storeCache(String name, Properties properties)
+            throws GitRepositoryException {
+        try {
+            new JGitPropertiesCache(repository, name).store(properties);
+        } catch (IOException e) {
+            throw new GitRepositoryException(
+                String.format("Cache \"%s\" could not be written.", name), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Unless the action needs the full commit messages, only the details
+     * needed by the action are decoded and the raw data of each commit is
+     * released before the action is executed.
+     * <p>
+     * The filter of the action is translated into a {@code RevFilter}, so
+     * skipped commits are never decoded. Walks limited to some paths use the
+     * changed-path Bloom filters of the commit-graph if available. If
+     * streaming walks are enabled, the visited commits are released, too.
+     * Walks excluding the history of a ref always use a {@code RevWalk}, as
+     * they only visit a small part of the history anyway.
+     * <p>
+     * If the commit cache is enabled, walks of actions not needing the full
+     * commit messages use the cached metadata instead, unless the commits
+     * are limited to some paths or skipped by their messages.
+     *
+     * @see JGitCachedWalk
+     * @see JGitStreamingWalk
+     */
+    @Override
+    public void walkCommits(AbstractCommitWalkAction action,
+                            CommitWalkOptions options)
+            throws GitRepositoryException {
+        CommitFilter filter = action.getCommitFilter();
+        if (options.isCommitCache() && action.getCommitDetail() != CommitDetail.MESSAGE &&
+                JGitCachedWalk.supports(filter) && !isOnUnbornBranch()) {
+            try (RevWalk revWalk = getRevWalk()) {
+                new JGitCachedWalk(getCommitCache(), revWalk).walk(getHeadObject(), action);
+                return;
+            } catch (IOException | RevWalkException e) {
+                throw new GitRepositoryException("Could not walk commits.", e);
+            }
+        }
+
+        boolean streaming = options.isStreaming() && filter.getExcludedRef() == null;
+        try (RevWalk revWalk = getRevWalk(filter, streaming)) {
+            if (streaming) {
+                new JGitStreamingWalk(revWalk).walk(getHeadObject(), action);
+                return;
+            }
 
+            // The walk flags and releases its own commits, so the cached
+            // HEAD commit cannot be used as starting point
+            revWalk.setFirstParent(filter.isFirstParent());
+            revWalk.markStart(revWalk.parseCommit(getHeadObject()));
+            if (filter.getExcludedRef() != null) {
+                revWalk.markUninteresting(revWalk.parseCommit(resolveRef(filter.getExcludedRef())));
+            }
+            revWalk.setRevFilter(JGitCommitFilter.create(revWalk, filter));
+
+            CommitDetail detail = action.getCommitDetail();
             for (RevCommit commit : revWalk) {
-                action.execute(new JGitCommit(commit));
+                JGitCommit jgitCommit = new JGitCommit(commit);
+                if (detail != CommitDetail.MESSAGE) {
+                    jgitCommit.detach(detail);
+                }
+                action.execute(jgitCommit);
+                if (action.isStopped()) {
+                    break;
+                }
             }
         } catch (IOException | RevWalkException e) {
             throw new GitRepositoryException("Could not walk commits.", e);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * JGit cannot extend an existing commit-graph, so the commit-graph is
+     * rewritten for all commits reachable from {@code HEAD}, branches and
+     * tags. It is written to a temporary file first, so concurrent builds
+     * never read a partially written commit-graph.
+     */
+    @Override
+    public boolean writeCommitGraph(boolean changedPaths)
+            throws GitRepositoryException {
+        if (!(repository.getObjectDatabase() instanceof ObjectDirectory)) {
+            throw new GitRepositoryException("The commit-graph can only be written for repositories stored on disk.");
+        }
+
+        try (RevWalk revWalk = getRevWalk()) {
+            Set<ObjectId> commits = new HashSet<>();
+            Set<ObjectId> requiredCommits = new HashSet<>();
+            if (!isOnUnbornBranch()) {
+                requiredCommits.add(getHeadObject());
+            }
+            for (Ref ref : repository.getRefDatabase().getRefsByPrefix(R_HEADS, R_TAGS)) {
+                try {
+                    RevObject object = revWalk.peel(revWalk.parseAny(ref.getObjectId()));
+                    if (object instanceof RevCommit) {
+                        commits.add(object);
+                        if (ref.getName().startsWith(R_TAGS)) {
+                            requiredCommits.add(object);
+                        }
+                    }
+                } catch (MissingObjectException ignored) {
+                    // Ignore refs pointing to missing objects
+                }
+            }
+            commits.addAll(requiredCommits);
+
+            File commitGraphFile = new File(((ObjectDirectory) repository.getObjectDatabase()).getDirectory(), INFO_COMMIT_GRAPH);
+            if (commits.isEmpty() ||
+                    isCommitGraphUpToDate(revWalk.getObjectReader(), requiredCommits) &&
+                    (!changedPaths || hasChangedPathFilters(commitGraphFile))) {
+                return false;
+            }
+
+            GraphCommits graphCommits;
+            try (RevWalk graphWalk = getRevWalk()) {
+                graphCommits = GraphCommits.fromWalk(NullProgressMonitor.INSTANCE, commits, graphWalk);
+            }
+
+            File infoDir = commitGraphFile.getParentFile();
+            if (!infoDir.isDirectory() && !infoDir.mkdirs()) {
+                throw new IOException("Could not create directory " + infoDir);
+            }
+            Path tempFile = Files.createTempFile(infoDir.toPath(), commitGraphFile.getName(), null);
+            try {
+                try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                    new CommitGraphWriter(graphCommits, changedPaths)
+                        .write(NullProgressMonitor.INSTANCE, outputStream);
+                }
+                Files.move(tempFile, commitGraphFile.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+
+            return true;
+        } catch (IOException e) {
+            throw new GitRepositoryException("The commit-graph could not be written.", e);
+        }
+    }
+
+    /**
+     * Returns the commit cache of the repository updated for the current
+     * {@code HEAD} commit
+     * <p>
+     * The cache is only read again after {@code HEAD} has changed.
+     *
+     * @return The commit cache containing all commits reachable from
+     *         {@code HEAD}
+     * @throws GitRepositoryException if {@code HEAD} cannot be resolved
+     * @throws IOException if the cache cannot be read or updated
+     * @see JGitCommitCache
+     */
+    synchronized JGitCommitCache getCommitCache()
+            throws GitRepositoryException, IOException {
+        if (commits == null) {
+            commits = new JGitCommitCache(repository);
+        }
+
+        try (RevWalk revWalk = getRevWalk()) {
+            commits = commits.update(revWalk, getHeadObject());
+        }
+
+        return commits;
+    }
+
+    /**
+     * Returns the commit-graph of the repository including its changed-path
+     * Bloom filters
+     * <p>
+     * Like Git, the Bloom filters are read unless
+     * {@code commitGraph.readChangedPaths} is disabled in the configuration
+     * of the repository. The commit-graph is only read again after it has
+     * been changed.
+     *
+     * @return The commit-graph or {@code null} if there is no commit-graph
+     *         with Bloom filters or reading it is disabled
+     * @see CommitGraphObjectReader
+     */
+    synchronized CommitGraph getChangedPathCommitGraph() {
+        Config config = repository.getConfig();
+        if (!(repository.getObjectDatabase() instanceof ObjectDirectory) ||
+                !config.getBoolean(CONFIG_CORE_SECTION, CONFIG_COMMIT_GRAPH, false) ||
+                !config.getBoolean(CONFIG_COMMIT_GRAPH_SECTION, CONFIG_KEY_READ_CHANGED_PATHS, true)) {
+            return null;
+        }
+
+        File commitGraphFile = new File(((ObjectDirectory) repository.getObjectDatabase()).getDirectory(), INFO_COMMIT_GRAPH);
+        long lastModified = commitGraphFile.lastModified();
+        if (lastModified != changedPathCommitGraphModified) {
+            changedPathCommitGraph = null;
+            changedPathCommitGraphModified = lastModified;
+            try {
+                if (hasChangedPathFilters(commitGraphFile)) {
+                    try (InputStream input = new BufferedInputStream(Files.newInputStream(commitGraphFile.toPath()))) {
+                        changedPathCommitGraph = CommitGraphLoader.read(input, true);
+                    }
+                }
+            } catch (IOException e) {
+                // Like JGit, walk without the commit-graph if it is broken
+            }
+        }
+
+        return changedPathCommitGraph;
+    }
+
+    /**
+     * Returns whether the given commit-graph file contains changed-path
+     * Bloom filters
+     * <p>
+     * JGit only loads the Bloom filters if enabled in its global
+     * configuration, so the chunk table of the file is read instead.
+     *
+     * @param commitGraphFile The commit-graph file to read
+     * @return {@code true} if the commit-graph contains Bloom filters
+     * @throws IOException if the commit-graph cannot be read
+     */
+    static boolean hasChangedPathFilters(File commitGraphFile) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(commitGraphFile.toPath())))) {
+            input.skipBytes(6);
+            int chunkCount = input.readUnsignedByte();
+            input.skipBytes(1);
+            for (int i = 0; i < chunkCount; i++) {
+                if (input.readInt() == CHUNK_ID_BLOOM_FILTER_INDEX) {
+                    return true;
+                }
+                input.skipBytes(8);
+            }
+        } catch (EOFException | NoSuchFileException e) {
+            return false;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns whether the existing commit-graph contains all the given
+     * commits
+     *
+     * @param reader The reader to read the commit-graph with
+     * @param commits The commits that have to be contained
+     * @return {@code true} if the commit-graph contains all commits
+     * @throws IOException if the commit-graph cannot be read
+     */
+    private boolean isCommitGraphUpToDate(ObjectReader reader,
+                                          Set<ObjectId> commits)
+            throws IOException {
+        CommitGraph commitGraph = reader.getCommitGraph().orElse(CommitGraph.EMPTY);
+        for (ObjectId commit : commits) {
+            if (commitGraph.findGraphPosition(commit) < 0) {
+                return false;
+            }
+        }
+
+        return commitGraph.getCommitCnt() > 0;
+    }
+
     /**
      * Returns a commit object for {@code HEAD}
      *
@@ -324,7 +968,7 @@ public class JGitRepository extends AbstractGitRepository {
      * @see RevCommit
      * @throws GitRepositoryException if the commit object cannot be retrieved
      */
-    RevCommit getHeadRevCommit() throws GitRepositoryException {
+    synchronized RevCommit getHeadRevCommit() throws GitRepositoryException {
         if (headCommit != null) {
             return headCommit;
         }
@@ -345,7 +989,7 @@ public class JGitRepository extends AbstractGitRepository {
      * @return The currently selected {@code HEAD} object
      * @throws GitRepositoryException if the ref cannot be resolved
      */
-    ObjectId getHeadObject() throws GitRepositoryException {
+    synchronized ObjectId getHeadObject() throws GitRepositoryException {
         if (headObject == null) {
             try {
                 headObject = repository.resolve(headRef);
@@ -363,6 +1007,30 @@ public class JGitRepository extends AbstractGitRepository {
         return headObject;
     }
 
+    /**
+     * Returns the object the given ref points to
+     *
+     * @param ref The name of the ref, e.g. a branch, a tag or a commit ID
+     * @return The object the ref points to
+     * @throws GitRepositoryException if the ref cannot be resolved
+     */
+    private ObjectId resolveRef(String ref) throws GitRepositoryException {
+        ObjectId object;
+        try {
+            object = repository.resolve(ref);
+        } catch (IOException e) {
+            throw new GitRepositoryException(
+                String.format("Ref \"%s\" could not be resolved.", ref), e);
+        }
+
+        if (object == null) {
+            throw new GitRepositoryException(
+                String.format("Ref \"%s\" could not be resolved.", ref));
+        }
+
+        return object;
+    }
+
     /**
      * @return A new JGit {@code RevWalk} instance for this repository
      */
@@ -370,6 +1038,36 @@ public class JGitRepository extends AbstractGitRepository {
         return new RevWalk(repository);
     }
 
+    /**
+     * Returns a new walk for commits matching the given filter
+     * <p>
+     * Walks limited to some paths read the changed-path Bloom filters of the
+     * commit-graph if available. Other walks only read the commit-graph if
+     * requested, as a {@code RevWalk} passing the commits to an action has
+     * to parse the commit objects anyway.
+     *
+     * @param filter The filter for the walked commits
+     * @param commitGraph Whether the walk should read the commit-graph of
+     *        the repository if it does not have changed-path Bloom filters
+     * @return A new JGit {@code RevWalk} instance for this repository
+     * @see CommitGraphObjectReader
+     */
+    RevWalk getRevWalk(CommitFilter filter, boolean commitGraph) {
+        CommitGraph changedPathCommitGraph = filter.getPaths().isEmpty() ? null : getChangedPathCommitGraph();
+        if (changedPathCommitGraph == null && commitGraph) {
+            return getRevWalk();
+        }
+
+        ObjectReader reader = new CommitGraphObjectReader(repository.newObjectReader(), changedPathCommitGraph);
+        return new RevWalk(reader) {
+            @Override
+            public void close() {
+                super.close();
+                reader.close();
+            }
+        };
+    }
+
     private void resolveGitDir(File workTree, FileRepositoryBuilder repositoryBuilder) throws GitRepositoryException {
         File foundGitDir = repositoryBuilder.findGitDir(workTree).getGitDir();
         if (foundGitDir == null) {
@@ -0,0 +1,132 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+
+import com.github.koraktor.mavanagaiata.git.GitRepository;
+import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
+
+/**
+ * A cache for open JGit repositories
+ * <p>
+ * Repositories are identified by their resolved GIT_DIR, worktree, index
+ * file and {@code HEAD} ref. So modules in subdirectories of the same
+ * worktree will share a single repository instance, including its already
+ * resolved {@code HEAD} commit, tags and mail map. Different worktrees of the
+ * same Git repository, or the same worktree used with a different
+ * {@code HEAD} ref, get separate instances.
+ * <p>
+ * Repositories handed out by this cache must not be closed by their users.
+ * Instead, they are closed all at once when the cache is closed.
+ *
+ * @author Sebastian Staudt
+ */
+public class JGitRepositoryCache implements AutoCloseable {
+
+    private final Map<Key, JGitRepository> repositories = new HashMap<>();
+
+    /**
+     * Returns an open repository for the given worktree and or Git directory
+     * <p>
+     * A new repository will be opened if there's no cached repository for
+     * the resolved location yet.
+     *
+     * @param workTree The worktree of the repository or {@code null}
+     * @param gitDir The GIT_DIR of the repository or {@code null}
+     * @param headRef The ref to use as {@code HEAD}
+     * @return The repository for the given location
+     * @throws GitRepositoryException if the parameters do not match a Git
+     *         repository
+     */
+    public synchronized GitRepository getRepository(File workTree, File gitDir, String headRef)
+            throws GitRepositoryException {
+        JGitRepository repository = createRepository();
+        repository.setHeadRef(headRef);
+        FileRepositoryBuilder repositoryBuilder = repository.resolveRepository(workTree, gitDir);
+
+        Key key = new Key(repositoryBuilder, repository.getHeadRef());
+        JGitRepository cachedRepository = repositories.get(key);
+        if (cachedRepository != null) {
+            return cachedRepository;
+        }
+
+        repository.buildRepository(repositoryBuilder);
+        repositories.put(key, repository);
+
+        return repository;
+    }
+
+    /**
+     * Closes all repositories opened by this cache
+     */
+    @Override
+    public synchronized void close() {
+        repositories.values().forEach(JGitRepository::close);
+        repositories.clear();
+    }
+
+    /**
+     * @return A new empty repository instance
+     */
+    JGitRepository createRepository() {
+        return new JGitRepository();
+    }
+
+    /**
+     * @return The number of currently open repositories
+     */
+    synchronized int size() {
+        return repositories.size();
+    }
+
+    /**
+     * Identifies a repository by its resolved locations and {@code HEAD} ref
+     */
+    private static final class Key {
+
+        private final File gitDir;
+        private final String headRef;
+        private final File indexFile;
+        private final File workTree;
+
+        Key(FileRepositoryBuilder repositoryBuilder, String headRef) {
+            this.gitDir = normalize(repositoryBuilder.getGitDir());
+            this.headRef = headRef;
+            this.indexFile = normalize(repositoryBuilder.getIndexFile());
+            this.workTree = normalize(repositoryBuilder.getWorkTree());
+        }
+
+        private static File normalize(File file) {
+            return file == null ? null : file.toPath().toAbsolutePath().normalize().toFile();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) object;
+            return Objects.equals(gitDir, key.gitDir) &&
+                Objects.equals(headRef, key.headRef) &&
+                Objects.equals(indexFile, key.indexFile) &&
+                Objects.equals(workTree, key.workTree);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(gitDir, headRef, indexFile, workTree);
+        }
+    }
+}
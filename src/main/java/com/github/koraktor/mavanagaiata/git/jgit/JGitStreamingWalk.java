@@ -0,0 +1,212 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.eclipse.jgit.errors.StopWalkException;
+import org.eclipse.jgit.internal.storage.commitgraph.CommitGraph;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction;
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction.CommitDetail;
+import com.github.koraktor.mavanagaiata.git.CommitFilter;
+import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
+
+/**
+ * Walks the commit history without keeping the visited commits in memory
+ * <p>
+ * A {@link RevWalk} keeps every commit it has seen, so its memory use grows
+ * with the length of the history. This walk only keeps the commits waiting
+ * to be visited and releases the parsed commits every
+ * {@link #DISPOSE_INTERVAL} commits. Commits already seen are tracked using
+ * a single bit per commit of the commit-graph, so the memory used for very
+ * long histories is bounded by the width of the history,
+ * {@link #DISPOSE_INTERVAL} parsed commits and about 1 MiB for every
+ * 8 million commits. Commits not contained in the commit-graph are tracked
+ * by their IDs. In addition, JGit loads the commit-graph and the pack
+ * indexes completely, which takes about 100 bytes per commit.
+ * {@code JGitStreamingWalkMemoryTest} walks a history whose messages alone
+ * would not fit into the heap.
+ * <p>
+ * Commits are visited in the same order as by a {@code RevWalk} without
+ * sorting, i.e. by descending commit time, and filtered the same way. If
+ * only first parents should be followed, the other parents are never added
+ * to the commits to visit.
+ *
+ * @author Sebastian Staudt
+ */
+class JGitStreamingWalk {
+
+    static final int DISPOSE_INTERVAL = 1000;
+
+    /**
+     * A commit waiting to be visited
+     */
+    private static class PendingCommit {
+
+        final long commitTime;
+
+        final ObjectId id;
+
+        final int position;
+
+        final long sequence;
+
+        PendingCommit(ObjectId id, int position, long commitTime, long sequence) {
+            this.commitTime = commitTime;
+            this.id = id;
+            this.position = position;
+            this.sequence = sequence;
+        }
+
+    }
+
+    private final CommitGraph commitGraph;
+
+    int disposeInterval = DISPOSE_INTERVAL;
+
+    private final PriorityQueue<PendingCommit> pending = new PriorityQueue<>(
+        Comparator.<PendingCommit>comparingLong(commit -> -commit.commitTime)
+            .thenComparingLong(commit -> commit.sequence));
+
+    private final RevWalk revWalk;
+
+    private final BitSet seenPositions = new BitSet();
+
+    private final Set<ObjectId> seenIds = new HashSet<>();
+
+    private long sequence;
+
+    /**
+     * Creates a new walk using the given {@code RevWalk} to parse commits
+     *
+     * @param revWalk The walk to parse commits with
+     * @throws IOException if the commit-graph cannot be read
+     */
+    JGitStreamingWalk(RevWalk revWalk) throws IOException {
+        this.revWalk = revWalk;
+
+        commitGraph = revWalk.getObjectReader().getCommitGraph()
+            .orElse(CommitGraph.EMPTY);
+    }
+
+    /**
+     * Runs the given action for all commits reachable from the given commit
+     *
+     * @param start The commit to start the walk at
+     * @param action The action to execute for each commit
+     * @throws GitRepositoryException if the action fails
+     * @throws IOException if a commit cannot be read
+     */
+    void walk(AnyObjectId start, AbstractCommitWalkAction action)
+            throws GitRepositoryException, IOException {
+        CommitDetail detail = action.getCommitDetail();
+        CommitFilter commitFilter = action.getCommitFilter();
+        RevFilter filter = JGitCommitFilter.create(revWalk, commitFilter);
+        int parsedCommits = 0;
+
+        add(start);
+        while (!pending.isEmpty()) {
+            PendingCommit pendingCommit = pending.poll();
+            RevCommit commit = revWalk.parseCommit(pendingCommit.id);
+
+            // The filter has to run first, as filtering by paths may remove
+            // parents of merge commits
+            boolean include;
+            try {
+                include = filter.include(revWalk, commit);
+            } catch (StopWalkException e) {
+                return;
+            }
+
+            int[] graphParents = pendingCommit.position >= 0 ?
+                commitGraph.getCommitData(pendingCommit.position).getParents() :
+                null;
+            if (graphParents != null && graphParents.length == commit.getParentCount()) {
+                for (int parent : graphParents) {
+                    add(parent);
+                    if (commitFilter.isFirstParent()) {
+                        break;
+                    }
+                }
+            } else if (commitFilter.isFirstParent()) {
+                if (commit.getParentCount() > 0) {
+                    add(commit.getParent(0));
+                }
+            } else {
+                for (RevCommit parent : commit.getParents()) {
+                    add(parent);
+                }
+            }
+
+            if (include) {
+                JGitCommit jgitCommit = new JGitCommit(commit);
+                if (detail != CommitDetail.MESSAGE) {
+                    jgitCommit.detach(detail);
+                }
+                action.execute(jgitCommit);
+                if (action.isStopped()) {
+                    return;
+                }
+            }
+
+            if (++parsedCommits % disposeInterval == 0) {
+                revWalk.dispose();
+            }
+        }
+    }
+
+    /**
+     * Adds the commit at the given position of the commit-graph to the
+     * commits to visit unless it has been seen before
+     *
+     * @param position The position of the commit in the commit-graph
+     */
+    private void add(int position) {
+        if (seenPositions.get(position)) {
+            return;
+        }
+
+        seenPositions.set(position);
+        pending.add(new PendingCommit(commitGraph.getObjectId(position), position,
+            commitGraph.getCommitData(position).getCommitTime(), sequence++));
+    }
+
+    /**
+     * Adds the given commit to the commits to visit unless it has been seen
+     * before
+     *
+     * @param id The ID of the commit
+     * @throws IOException if the commit cannot be read
+     */
+    private void add(AnyObjectId id) throws IOException {
+        int position = commitGraph.findGraphPosition(id);
+        if (position >= 0) {
+            add(position);
+            return;
+        }
+
+        ObjectId commitId = id.copy();
+        if (seenIds.add(commitId)) {
+            RevCommit commit = revWalk.lookupCommit(commitId);
+            revWalk.parseHeaders(commit);
+            pending.add(new PendingCommit(commitId, -1, commit.getCommitTime(), sequence++));
+        }
+    }
+
+}
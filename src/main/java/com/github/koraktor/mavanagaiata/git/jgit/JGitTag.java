@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2012-2018, Sebastian Staudt
+ * Copyright (c) 2012-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.git.jgit;
@@ -24,14 +24,30 @@ class JGitTag implements GitTag {
 
     protected RevTag tag;
 
+    private final String name;
+
     PersonIdent taggerIdent;
 
     /**
-     * Creates a new instance from a JGit tag object
+     * Creates a new instance from a parsed JGit tag object
      *
      * @param tag The tag object to wrap
      */
     JGitTag(RevTag tag) {
+        this(tag, tag.getTagName());
+    }
+
+    /**
+     * Creates a new instance from a JGit tag object and the name of its ref
+     * <p>
+     * The tag object does not have to be parsed, so the tag can be created
+     * without reading it from the object database.
+     *
+     * @param tag The tag object to wrap
+     * @param name The name of the tag
+     */
+    JGitTag(RevTag tag, String name) {
+        this.name = name;
         this.tag = tag;
     }
 
@@ -51,7 +67,7 @@ class JGitTag implements GitTag {
     }
 
     public String getName() {
-        return tag.getTagName();
+        return name;
     }
 
     public TimeZone getTimeZone() {
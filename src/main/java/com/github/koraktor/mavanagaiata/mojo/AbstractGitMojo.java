@@ -2,25 +2,37 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2011-2025, Sebastian Staudt
+ * Copyright (c) 2011-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Properties;
 
 import org.apache.commons.lang3.Strings;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 
+import com.github.koraktor.mavanagaiata.git.CommitWalkOptions;
+import com.github.koraktor.mavanagaiata.git.DescribeOptions;
+import com.github.koraktor.mavanagaiata.git.DirtyCheckOptions;
+import com.github.koraktor.mavanagaiata.git.DirtyCheckOptions.IgnoreSubmodules;
 import com.github.koraktor.mavanagaiata.git.GitRepository;
 import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
 import com.github.koraktor.mavanagaiata.git.jgit.JGitRepository;
+import com.github.koraktor.mavanagaiata.git.jgit.JGitRepositoryCache;
 
+import static java.util.Collections.*;
 import static org.eclipse.jgit.lib.Constants.*;
 
 /**
@@ -55,6 +67,65 @@ abstract class AbstractGitMojo extends AbstractMojo {
                defaultValue = "${project.basedir}")
     File baseDir;
 
+    /**
+     * Whether the metadata of commits should be cached
+     * <p>
+     * If enabled, the IDs, parents, authors, committers and subjects of all
+     * commits are stored in the Git directory. Later builds generating a
+     * changelog or a list of contributors read them from there instead of
+     * reading the whole history again. Only commits added since the last
+     * build have to be read.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.commitCache",
+               defaultValue = "false")
+    boolean commitCache;
+
+    /**
+     * Whether the description of the current commit should be cached
+     * <p>
+     * If enabled, the description is stored in the Git directory and reused
+     * by later builds as long as {@code HEAD} and the tags of the repository
+     * did not change. This avoids walking the commit history in every
+     * module and build.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.describeCache",
+               defaultValue = "false")
+    boolean describeCache;
+
+    /**
+     * Whether only the first parents of merge commits should be followed
+     * while describing the current commit
+     * <p>
+     * Like {@code git describe --first-parent}, this ignores tags on branches
+     * merged into the mainline, so the description only depends on the
+     * releases of the mainline.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.describeFirstParent",
+               defaultValue = "false")
+    boolean describeFirstParent;
+
+    /**
+     * Whether the result of checking the worktree state should be cached
+     * <p>
+     * If enabled, the result is stored in the Git directory and reused by
+     * later builds as long as {@code HEAD}, the index and the tracked files
+     * and directories of the worktree did not change. Each tracked file still
+     * has to be checked for modifications, so this mostly speeds up large
+     * worktrees with files touched without changes, e.g. by switching
+     * branches, which would otherwise be compared by content.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.dirtyCache",
+               defaultValue = "false")
+    boolean dirtyCache;
+
     /**
      * The flag to append to refs if there are changes in the index or working
      * tree
@@ -84,6 +155,56 @@ abstract class AbstractGitMojo extends AbstractMojo {
                defaultValue = "false")
     boolean dirtyIgnoreUntracked;
 
+    /**
+     * Specifies which changes of submodules should be ignored when checking
+     * the worktree state
+     * <p>
+     * Possible values are the same as for
+     * {@code git status --ignore-submodules}:
+     * <ul>
+     * <li>{@code none}: Submodules with untracked or modified files or a
+     * different checked out commit are dirty</li>
+     * <li>{@code untracked}: Untracked files in submodules are ignored</li>
+     * <li>{@code dirty}: Only the checked out commit of submodules is
+     * checked</li>
+     * <li>{@code all}: Submodules are ignored completely</li>
+     * </ul>
+     * <p>
+     * If not set, the {@code ignore} setting of each submodule in
+     * {@code .gitmodules} is used. {@code all} and {@code dirty} avoid
+     * scanning the worktrees of all submodules.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.dirtyIgnoreSubmodules")
+    String dirtyIgnoreSubmodules;
+
+    /**
+     * The paths of the worktree to consider when checking the worktree state
+     * <p>
+     * By default, the whole worktree is checked. In multi-module projects
+     * setting this to {@code ${project.basedir}} will only flag a module as
+     * dirty if there are changes inside the module. As only the given paths
+     * have to be scanned, this also speeds up the check.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.dirtyPaths")
+    File[] dirtyPaths;
+
+    /**
+     * The number of threads to use for checking the worktree state
+     * <p>
+     * With more than one thread, the top-level directories of the worktree
+     * are scanned concurrently. This may speed up the dirty check for large
+     * worktrees on machines with many cores and fast storage.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.dirtyThreads",
+               defaultValue = "1")
+    int dirtyThreads = 1;
+
     /**
      * Specifies if a failed execution of the mojo will stop the build process
      * <p>
@@ -113,6 +234,20 @@ abstract class AbstractGitMojo extends AbstractMojo {
                defaultValue = HEAD)
     String head;
 
+    /**
+     * Specifies if the Git repository should be kept open and shared by all
+     * Mavanagaiata goals of the current Maven session
+     * <p>
+     * This avoids opening the same repository over and over again in
+     * multi-module builds. The repositories will be closed when the Maven
+     * session ends.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.shareRepository",
+               defaultValue = "true")
+    boolean shareRepository = true;
+
     /**
      * Skip the plugin execution
      *
@@ -131,12 +266,34 @@ abstract class AbstractGitMojo extends AbstractMojo {
                defaultValue = "false")
     boolean skipNoGit;
 
+    /**
+     * Whether commit walks should release the visited commits
+     * <p>
+     * If enabled, the memory used for walking the commit history (e.g. for
+     * the changelog or the contributors list) does not grow with the length
+     * of the history. This requires a commit-graph (see the
+     * {@code commit-graph} goal) for very long histories. The commit-graph
+     * is not used if {@code core.commitGraph} is set to {@code false} in the
+     * Git configuration.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.streamingWalk",
+               defaultValue = "false")
+    boolean streamingWalk;
+
     /**
      * The Maven project
      */
     @Parameter(defaultValue = "${project}", readonly = true)
     protected MavenProject project;
 
+    /**
+     * The Maven session
+     */
+    @Parameter(defaultValue = "${session}", readonly = true)
+    MavenSession session;
+
     /**
      * The prefixes to prepend to property keys
      */
@@ -163,7 +320,9 @@ abstract class AbstractGitMojo extends AbstractMojo {
             return;
         }
 
-        try (GitRepository repository = init()) {
+        GitRepository repository = null;
+        try {
+            repository = init();
             if (repository != null) {
                 run(repository);
             }
@@ -173,6 +332,10 @@ abstract class AbstractGitMojo extends AbstractMojo {
             }
 
             throw new MojoExecutionException(e.getMessage(), e);
+        } finally {
+            if (repository != null && getRepositoryCache() == null) {
+                repository.close();
+            }
         }
     }
 
@@ -217,6 +380,10 @@ abstract class AbstractGitMojo extends AbstractMojo {
                 return null;
             }
 
+            if (isDirtyCheckRequired()) {
+                startDirtyCheck(repository);
+            }
+
             return repository;
         } catch (GitRepositoryException e) {
             if (skipNoGit) {
@@ -226,20 +393,164 @@ abstract class AbstractGitMojo extends AbstractMojo {
         }
     }
 
+    /**
+     * Returns the options to use when walking the commit history
+     *
+     * @return The options for walking the history
+     * @see #commitCache
+     * @see #streamingWalk
+     */
+    CommitWalkOptions getCommitWalkOptions() {
+        return new CommitWalkOptions(commitCache, streamingWalk);
+    }
+
+    /**
+     * Returns the options to use when describing the {@code HEAD} commit
+     *
+     * @return The options for describing the {@code HEAD} commit
+     * @see #describeCache
+     * @see #describeFirstParent
+     */
+    DescribeOptions getDescribeOptions() {
+        return new DescribeOptions(describeFirstParent, describeCache);
+    }
+
+    /**
+     * Returns the options to use when checking the worktree state
+     *
+     * @param repository The repository to check
+     * @return The options for checking the worktree
+     * @throws GitRepositoryException if a dirty path cannot be resolved or is
+     *         outside of the worktree
+     * @see #dirtyCache
+     * @see #dirtyIgnoreSubmodules
+     * @see #dirtyIgnoreUntracked
+     * @see #dirtyPaths
+     * @see #dirtyThreads
+     */
+    DirtyCheckOptions getDirtyCheckOptions(GitRepository repository)
+            throws GitRepositoryException {
+        IgnoreSubmodules ignoreSubmodules = null;
+        if (dirtyIgnoreSubmodules != null) {
+            try {
+                ignoreSubmodules = IgnoreSubmodules.valueOf(dirtyIgnoreSubmodules.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new GitRepositoryException(String.format(
+                    "Invalid value \"%s\" for ignoring submodules.",
+                    dirtyIgnoreSubmodules), e);
+            }
+        }
+
+        return new DirtyCheckOptions(dirtyIgnoreUntracked,
+            getWorkTreePaths(repository, dirtyPaths), ignoreSubmodules)
+            .withCache(dirtyCache)
+            .withThreads(dirtyThreads);
+    }
+
+    /**
+     * Resolves the given files relative to the worktree of the repository
+     *
+     * @param repository The repository to resolve the files in
+     * @param files The files to resolve or {@code null}
+     * @return The paths of the files inside the worktree
+     * @throws GitRepositoryException if a file cannot be resolved or is
+     *         outside of the worktree
+     */
+    List<String> getWorkTreePaths(GitRepository repository, File[] files)
+            throws GitRepositoryException {
+        if (files == null || files.length == 0) {
+            return emptyList();
+        }
+
+        List<String> paths = new ArrayList<>(files.length);
+        try {
+            Path workTree = repository.getWorkTree().getCanonicalFile().toPath();
+            for (File file : files) {
+                Path path = workTree.relativize(file.getCanonicalFile().toPath());
+                if (path.startsWith("..")) {
+                    throw new GitRepositoryException(String.format(
+                        "The path %s is not inside the worktree %s",
+                        file, workTree));
+                }
+                paths.add(path.toString());
+            }
+        } catch (IOException e) {
+            throw new GitRepositoryException("The paths could not be resolved.", e);
+        }
+
+        return paths;
+    }
+
+    /**
+     * Returns the repository cache shared by all mojos of the current Maven
+     * session
+     *
+     * @return The repository cache or {@code null} if repositories should
+     *         not be shared
+     * @see #shareRepository
+     */
+    JGitRepositoryCache getRepositoryCache() {
+        if (!shareRepository || session == null) {
+            return null;
+        }
+
+        return SessionRepositoryCache.forSession(session);
+    }
+
     /**
      * Initializes a JGit Repository object for further reference
+     * <p>
+     * If possible, the repository will be taken from the repository cache of
+     * the current Maven session.
      *
      * @return The repository instance
      * @throws GitRepositoryException if retrieving information from the Git
      *         repository fails
+     * @see #getRepositoryCache
      */
     GitRepository initRepository() throws GitRepositoryException {
-        GitRepository repository = new JGitRepository(baseDir, gitDir, head);
+        JGitRepositoryCache repositoryCache = getRepositoryCache();
+
+        GitRepository repository;
+        if (repositoryCache == null) {
+            repository = new JGitRepository(baseDir, gitDir, head);
+        } else {
+            repository = repositoryCache.getRepository(baseDir, gitDir, head);
+        }
         repository.check();
 
         return repository;
     }
 
+    /**
+     * Returns whether this mojo will check the worktree state
+     * <p>
+     * If so, the check is started in the background during initialization,
+     * so it can overlap with the rest of the mojo's work.
+     *
+     * @return {@code true} if the mojo will check the worktree state
+     * @see #init
+     */
+    boolean isDirtyCheckRequired() {
+        return false;
+    }
+
+    /**
+     * Starts checking the worktree state in the background
+     * <p>
+     * Invalid options are ignored here, they will be reported when the mojo
+     * checks the worktree state itself.
+     *
+     * @param repository The repository to check
+     */
+    void startDirtyCheck(GitRepository repository) {
+        try {
+            repository.getSnapshot().isDirtyAsync(getDirtyCheckOptions(repository));
+        } catch (GitRepositoryException e) {
+            getLog().debug("Not checking the worktree state in the background", e);
+        }
+    }
+
     /**
      * Prepares and validates user-supplied parameters
      */
@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2011-2025, Sebastian Staudt
+ * Copyright (c) 2011-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
@@ -12,13 +12,22 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
 
 import org.apache.maven.plugins.annotations.Parameter;
 
+import com.github.koraktor.mavanagaiata.git.GitCommit;
 import com.github.koraktor.mavanagaiata.git.GitRepository;
+import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
 
+import static java.nio.charset.StandardCharsets.*;
 import static java.nio.file.Files.*;
 
 /**
@@ -34,6 +43,12 @@ import static java.nio.file.Files.*;
  */
 abstract class AbstractGitOutputMojo extends AbstractGitMojo {
 
+    private static final String OUTPUT_FINGERPRINT = "fingerprint";
+
+    private static final String OUTPUT_LAST_MODIFIED = "lastModified";
+
+    private static final String OUTPUT_LENGTH = "length";
+
     /**
      * The encoding to use for generated output
      */
@@ -48,6 +63,27 @@ abstract class AbstractGitOutputMojo extends AbstractGitMojo {
                defaultValue = "\nGenerated by Mavanagaiata %s at %s")
     String footer;
 
+    /**
+     * Whether generating the output file should be skipped if it is
+     * up-to-date
+     * <p>
+     * If enabled, a fingerprint of the inputs of the output, i.e. the
+     * {@code HEAD} commit and branch, the tags, the {@code .mailmap}, the
+     * configuration of the mojo and the version of Mavanagaiata, is stored
+     * together with the size and modification time of the output file. As
+     * long as none of these change, later builds neither walk the history
+     * nor touch the output file, so it will not be copied or packaged again.
+     * The footer keeps the time of the last actual update in that case.
+     * <p>
+     * The fingerprint is stored inside the Git directory. Output written to
+     * the console is always generated.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.skipUpToDate",
+               defaultValue = "false")
+    boolean skipUpToDate;
+
     PrintStream printStream;
 
     /**
@@ -91,7 +127,9 @@ abstract class AbstractGitOutputMojo extends AbstractGitMojo {
      * <p>
      * This is {@code System.out} if no output file is given (default).
      * Otherwise the parent directories of {@code outputFile} are created and a
-     * new {@code PrintStream} for that file is created.
+     * new {@code PrintStream} for that file is created. If
+     * {@code skipUpToDate} is enabled, an output file generated from the
+     * same inputs is left untouched.
      *
      * @throws MavanagaiataMojoException if the file specified by
      *         {@code outputFile} cannot be opened for writing or the target
@@ -103,6 +141,23 @@ abstract class AbstractGitOutputMojo extends AbstractGitMojo {
             printStream = System.out;
             generateOutput(repository);
         } else {
+            String fingerprint = null;
+            if (skipUpToDate) {
+                try {
+                    fingerprint = getFingerprint(repository);
+                    if (isUpToDate(repository, fingerprint)) {
+                        getLog().info(String.format("Output file \"%s\" is up-to-date.",
+                            getOutputFile().getAbsolutePath()));
+                        return;
+                    }
+                } catch (GitRepositoryException e) {
+                    throw MavanagaiataMojoException.create(
+                        "Unable to check whether the output file \"%s\" is up-to-date",
+                        e,
+                        getOutputFile().getAbsolutePath());
+                }
+            }
+
             File parentDirectory = getOutputFile().getParentFile();
 
             try {
@@ -122,6 +177,145 @@ abstract class AbstractGitOutputMojo extends AbstractGitMojo {
                                         e,
                                         getOutputFile().getAbsolutePath());
             }
+
+            if (fingerprint != null) {
+                storeFingerprint(repository, fingerprint);
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the cache storing the fingerprint of the output
+     * file
+     *
+     * @return The name of the cache for the output file
+     */
+    String getCacheName() {
+        return "output-" +
+            Integer.toHexString(getOutputFile().getAbsolutePath().hashCode());
+    }
+
+    /**
+     * Returns a fingerprint of all inputs of the generated output
+     *
+     * @param repository The repository the mojo is running in
+     * @return The fingerprint of the inputs or {@code null} if there is
+     *         no commit yet
+     * @throws GitRepositoryException if the inputs cannot be read from the
+     *         repository
+     */
+    String getFingerprint(GitRepository repository)
+            throws GitRepositoryException {
+        if (repository.isOnUnbornBranch()) {
+            return null;
+        }
+
+        GitCommit head = repository.getHeadCommit();
+        List<String> inputs = new ArrayList<>();
+        inputs.add(head.getId());
+        inputs.add(repository.getSnapshot().getBranch());
+        inputs.add(repository.getTagsFingerprint());
+        inputs.add(String.valueOf(repository.getMailMap().getId()));
+        inputs.add(getOutputFile().getAbsolutePath());
+        inputs.addAll(getOutputSettings());
+
+        return hash(String.join("\n", inputs));
+    }
+
+    /**
+     * Returns the configuration of this mojo affecting the generated output
+     * <p>
+     * Mojos have to add all of their parameters changing the output, so it
+     * is regenerated if any of them is changed.
+     *
+     * @return The values of the parameters affecting the output
+     */
+    List<String> getOutputSettings() {
+        List<String> settings = new ArrayList<>();
+        settings.add(String.valueOf(VersionHelper.getVersion()));
+        settings.add(dateFormat);
+        settings.add(encoding);
+        settings.add(footer);
+
+        return settings;
+    }
+
+    /**
+     * Returns the SHA-1 hash of the given string
+     *
+     * @param data The string to hash
+     * @return The hexadecimal hash
+     */
+    static String hash(String data) {
+        byte[] bytes = data.getBytes(UTF_8);
+
+        return hash(bytes, bytes.length);
+    }
+
+    /**
+     * Returns the SHA-1 hash of the beginning of the given data
+     *
+     * @param data The data to hash
+     * @param length The number of bytes to hash
+     * @return The hexadecimal hash
+     */
+    static String hash(byte[] data, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(data, 0, length);
+
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns whether the output file has been generated from the same
+     * inputs before and has not been changed since then
+     *
+     * @param repository The repository the mojo is running in
+     * @param fingerprint The fingerprint of the current inputs
+     * @return {@code true} if the output file is up-to-date
+     * @throws GitRepositoryException if the stored fingerprint cannot be
+     *         read
+     */
+    boolean isUpToDate(GitRepository repository, String fingerprint)
+            throws GitRepositoryException {
+        if (fingerprint == null || !getOutputFile().isFile()) {
+            return false;
+        }
+
+        Properties state = repository.loadCache(getCacheName());
+
+        return state != null &&
+            fingerprint.equals(state.getProperty(OUTPUT_FINGERPRINT)) &&
+            Long.toString(getOutputFile().length()).equals(state.getProperty(OUTPUT_LENGTH)) &&
+            Long.toString(getOutputFile().lastModified()).equals(state.getProperty(OUTPUT_LAST_MODIFIED));
+    }
+
+    /**
+     * Stores the fingerprint of the inputs together with the size and
+     * modification time of the generated output file
+     *
+     * @param repository The repository the mojo is running in
+     * @param fingerprint The fingerprint of the inputs
+     * @throws MavanagaiataMojoException if the fingerprint cannot be stored
+     */
+    void storeFingerprint(GitRepository repository, String fingerprint)
+            throws MavanagaiataMojoException {
+        Properties state = new Properties();
+        state.setProperty(OUTPUT_FINGERPRINT, fingerprint);
+        state.setProperty(OUTPUT_LAST_MODIFIED, Long.toString(getOutputFile().lastModified()));
+        state.setProperty(OUTPUT_LENGTH, Long.toString(getOutputFile().length()));
+
+        try {
+            repository.storeCache(getCacheName(), state);
+        } catch (GitRepositoryException e) {
+            throw MavanagaiataMojoException.create(
+                "Unable to store the fingerprint of the output file \"%s\"",
+                e,
+                getOutputFile().getAbsolutePath());
         }
     }
 
@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2011-2018, Sebastian Staudt
+ * Copyright (c) 2011-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
@@ -35,7 +35,7 @@ public class BranchMojo extends AbstractGitMojo {
      */
     public void run(GitRepository repository) throws MavanagaiataMojoException {
         try {
-            addProperty("branch", repository.getBranch());
+            addProperty("branch", repository.getSnapshot().getBranch());
         } catch(GitRepositoryException e) {
             throw MavanagaiataMojoException.create("Unable to read Git branch", e);
         }
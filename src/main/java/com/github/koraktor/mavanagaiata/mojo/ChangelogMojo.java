@@ -2,14 +2,31 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2011-2025, Sebastian Staudt
+ * Copyright (c) 2011-2026, Sebastian Staudt
  *               2016, Jeff Kreska
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.util.Map;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
 import java.util.regex.Pattern;
 
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -17,6 +34,8 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
 import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction;
+import com.github.koraktor.mavanagaiata.git.CommitFilter;
+import com.github.koraktor.mavanagaiata.git.GitCommit;
 import com.github.koraktor.mavanagaiata.git.GitRepository;
 import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
 import com.github.koraktor.mavanagaiata.git.GitTag;
@@ -37,6 +56,32 @@ import static org.apache.commons.lang3.StringUtils.*;
       threadSafe = true)
 public class ChangelogMojo extends AbstractGitOutputMojo {
 
+    private static final String STATE_BRANCH = "branch";
+
+    private static final String STATE_BRANCH_START = "branchStart";
+
+    private static final String STATE_COMMITS_END = "commitsEnd";
+
+    private static final String STATE_COMMITS_START = "commitsStart";
+
+    private static final String STATE_HASH = "hash";
+
+    private static final String STATE_HEAD = "head";
+
+    private static final String STATE_HEAD_TIME = "headTime";
+
+    private static final String STATE_LENGTH = "length";
+
+    private static final String STATE_OUTPUT_FILE = "outputFile";
+
+    private static final String STATE_SETTINGS = "settings";
+
+    private static final String STATE_TAG = "tag";
+
+    private static final String STATE_TAGS = "tags";
+
+    private static final String STATE_TAGS_START = "tagsStart";
+
     /**
      * Pre-defined base URLs used for links
      */
@@ -51,6 +96,19 @@ public class ChangelogMojo extends AbstractGitOutputMojo {
         }
     }
 
+    /**
+     * Whether only the first parents of merge commits should be followed
+     * <p>
+     * Like {@code git log --first-parent}, the history merged into the
+     * current branch is not walked at all. On a mainline merging all changes
+     * the changelog lists one entry for each merged change.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.changelog.firstParent",
+               defaultValue = "false")
+    boolean firstParent;
+
     /**
      * The format to use while generating the changelog
      *
@@ -73,6 +131,23 @@ public class ChangelogMojo extends AbstractGitOutputMojo {
                defaultValue = "DEFAULT")
     ChangelogFormat.Formats formatTemplate;
 
+    /**
+     * Whether the changelog should be updated incrementally
+     * <p>
+     * If enabled, the state of the generated changelog is stored in the Git
+     * directory. Later builds only read the commits added since then and
+     * insert them in front of the previous changelog. The whole changelog
+     * is generated again if the tags, the branch or the configuration
+     * changed, if the history has been rewritten or if the output file has
+     * been modified. This requires an output file and is not used together
+     * with {@link #maxCommits}, {@link #maxTags} or {@link #sinceRef}.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.changelog.incremental",
+               defaultValue = "false")
+    boolean incremental;
+
     /**
      * The project name for GitHub links
      *
@@ -109,6 +184,31 @@ public class ChangelogMojo extends AbstractGitOutputMojo {
     @Parameter(property = "mavanagaiata.changelog.linkToBaseUrl")
     String linkToBaseUrl;
 
+    /**
+     * The maximum number of commits to list
+     * <p>
+     * The history is only walked until this number of commits has been
+     * listed. {@code 0} lists all commits.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.changelog.maxCommits",
+               defaultValue = "0")
+    int maxCommits;
+
+    /**
+     * The maximum number of tags, i.e. releases, to list
+     * <p>
+     * The history is only walked until the next older tag is reached, so
+     * e.g. the changelog for the last three releases does not depend on the
+     * length of the whole history. {@code 0} lists all tags.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.changelog.maxTags",
+               defaultValue = "0")
+    int maxTags;
+
     /**
      * The file to write the changelog to
      *
@@ -117,6 +217,44 @@ public class ChangelogMojo extends AbstractGitOutputMojo {
     @Parameter(property = "mavanagaiata.changelog.outputFile")
     protected File outputFile;
 
+    /**
+     * The paths to generate the changelog for
+     * <p>
+     * By default, the changelog contains all commits. In multi-module
+     * projects setting this to {@code ${project.basedir}} will generate a
+     * changelog for the module only, i.e. only commits changing files inside
+     * the module are listed. Tags are only listed if the tagged commit
+     * changes one of the paths.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.changelog.paths")
+    File[] paths;
+
+    /**
+     * The date of the oldest commit to list
+     * <p>
+     * This may be a date like {@code 2026-01-31} or a date and time like
+     * {@code 2026-01-31T12:00:00} with an optional offset like
+     * {@code +01:00}. Dates without an offset use the default time zone.
+     * The history is only walked until the first older commit is reached.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.changelog.since")
+    String since;
+
+    /**
+     * The ref, e.g. a tag, whose history should not be listed
+     * <p>
+     * Like {@code git log <sinceRef>..HEAD}, only the commits not reachable
+     * from this ref are listed.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.changelog.sinceRef")
+    String sinceRef;
+
     /**
      * Whether to skip merge commits’ messages
      *
@@ -153,8 +291,49 @@ public class ChangelogMojo extends AbstractGitOutputMojo {
     @Parameter(property = "mavanagaiata.changelog.trimTrailingWhitespace")
     boolean trimTrailingWhitespace;
 
+    private ByteArrayOutputStream buffer;
+
+    private byte[] previousOutput;
+
+    private Date sinceDate;
+
     private Pattern skipCommitsPattern;
 
+    /**
+     * Reads the previous changelog before the output file is overwritten if
+     * the changelog should be updated incrementally
+     *
+     * @throws MavanagaiataMojoException if the repository cannot be
+     *         initialized or the previous changelog cannot be read
+     */
+    @Override
+    protected GitRepository init() throws MavanagaiataMojoException {
+        GitRepository repository = super.init();
+
+        if (repository != null && isIncremental()) {
+            readPreviousOutput();
+        }
+
+        return repository;
+    }
+
+    /**
+     * Reads the previous contents of the output file
+     *
+     * @throws MavanagaiataMojoException if the output file cannot be read
+     */
+    void readPreviousOutput() throws MavanagaiataMojoException {
+        previousOutput = null;
+        try {
+            previousOutput = Files.readAllBytes(outputFile.toPath());
+        } catch (NoSuchFileException ignored) {
+            // There is no previous changelog
+        } catch (IOException e) {
+            throw MavanagaiataMojoException.create("Could not read output file \"%s\".",
+                e, outputFile.getAbsolutePath());
+        }
+    }
+
     /**
      * Walks through the history of the currently checked out branch of the
      * Git repository and builds a changelog from the commits contained in that
@@ -167,20 +346,301 @@ public class ChangelogMojo extends AbstractGitOutputMojo {
     protected void writeOutput(GitRepository repository)
             throws MavanagaiataMojoException {
         try {
-            format.printStream = printStream;
-            format.printHeader();
-
-            ChangelogWalkAction action = new ChangelogWalkAction(repository);
-            action.currentRef = repository.getBranch();
-            repository.walkCommits(action);
+            sinceDate = isBlank(since) ? null : parseDate(since);
+        } catch (DateTimeParseException e) {
+            throw MavanagaiataMojoException.create("Invalid date \"%s\" for since", e, since);
+        }
 
-            format.printSeparator();
-            format.printCompareLink(action.currentRef, null, action.currentRef.equals(repository.getBranch()));
+        try {
+            if (isIncremental()) {
+                writeIncrementalOutput(repository);
+            } else {
+                format.printStream = printStream;
+                writeChangelog(repository, new ChangelogWalkAction(repository));
+            }
         } catch (GitRepositoryException e) {
             throw MavanagaiataMojoException.create("Unable to generate changelog from Git", e);
         }
     }
 
+    /**
+     * Walks through the history and prints the changelog using the given
+     * action
+     *
+     * @param repository The repository to generate the changelog for
+     * @param action The action to walk the history with
+     * @throws GitRepositoryException if the history cannot be read
+     */
+    private void writeChangelog(GitRepository repository, ChangelogWalkAction action)
+            throws GitRepositoryException {
+        format.printHeader();
+
+        action.branchStart = getPosition();
+        action.commitsStart = action.branchStart;
+        action.currentRef = repository.getSnapshot().getBranch();
+        repository.walkCommits(action, getCommitWalkOptions());
+
+        if (!action.lastTagReached) {
+            if (action.tags == 0) {
+                action.commitsEnd = getPosition();
+                action.tagsStart = action.commitsEnd;
+            }
+
+            boolean isBranch = action.currentRef.equals(repository.getSnapshot().getBranch());
+            format.printSeparator();
+            if (isBlank(sinceRef) || action.isStopped()) {
+                format.printCompareLink(action.currentRef, null, isBranch);
+            } else {
+                format.printCompareLink(sinceRef, action.currentRef, isBranch);
+            }
+        }
+    }
+
+    /**
+     * Updates the previous changelog with the commits added since it has
+     * been generated or generates the whole changelog if that is not
+     * possible
+     * <p>
+     * The changelog is rendered into a buffer, so the positions of its
+     * sections can be stored for the next update.
+     *
+     * @param repository The repository to generate the changelog for
+     * @throws GitRepositoryException if the history cannot be read or the
+     *         state of the changelog cannot be stored
+     * @throws MavanagaiataMojoException if the encoding is not supported
+     */
+    private void writeIncrementalOutput(GitRepository repository)
+            throws GitRepositoryException, MavanagaiataMojoException {
+        buffer = new ByteArrayOutputStream();
+        try {
+            format.printStream = new PrintStream(buffer, false, encoding);
+        } catch (UnsupportedEncodingException e) {
+            throw MavanagaiataMojoException.create("Unsupported encoding \"%s\"", e, encoding);
+        }
+
+        ChangelogWalkAction action = new ChangelogWalkAction(repository);
+        GitCommit head = repository.getHeadCommit();
+        String cacheName = "changelog-" +
+            Integer.toHexString(outputFile.getAbsolutePath().hashCode());
+        Properties state = repository.loadCache(cacheName);
+        Properties newState = new Properties();
+        newState.setProperty(STATE_BRANCH, repository.getSnapshot().getBranch());
+        newState.setProperty(STATE_HEAD, head.getId());
+        newState.setProperty(STATE_HEAD_TIME, Long.toString(head.getCommitterDate().getTime()));
+        newState.setProperty(STATE_OUTPUT_FILE, outputFile.getAbsolutePath());
+        newState.setProperty(STATE_SETTINGS, hash(String.join("\n", getOutputSettings())));
+        newState.setProperty(STATE_TAGS, repository.getTagsFingerprint());
+
+        if (!prependNewCommits(repository, state, newState)) {
+            buffer.reset();
+            writeChangelog(repository, action);
+            newState.setProperty(STATE_BRANCH_START, Integer.toString(action.branchStart));
+            newState.setProperty(STATE_COMMITS_START, Integer.toString(action.commitsStart));
+            newState.setProperty(STATE_COMMITS_END, Integer.toString(action.commitsEnd));
+            newState.setProperty(STATE_TAGS_START, Integer.toString(action.tagsStart));
+            if (action.newestTag != null) {
+                newState.setProperty(STATE_TAG, action.newestTag);
+            }
+        }
+
+        format.printStream.flush();
+        newState.setProperty(STATE_LENGTH, Integer.toString(buffer.size()));
+        newState.setProperty(STATE_HASH, hash(buffer.toByteArray(), buffer.size()));
+
+        printStream.write(buffer.toByteArray(), 0, buffer.size());
+        format.printStream = printStream;
+        buffer = null;
+
+        repository.storeCache(cacheName, newState);
+    }
+
+    /**
+     * Renders the commits added since the previous changelog has been
+     * generated and inserts them in front of the previous changelog
+     * <p>
+     * This is only possible if the tags, the branch and the configuration
+     * did not change, the previous changelog is still unmodified and the new
+     * commits neither are tagged nor would be sorted between the commits of
+     * the previous changelog.
+     *
+     * @param repository The repository to generate the changelog for
+     * @param state The state of the previous changelog
+     * @param newState The state of the changelog to generate, the positions
+     *        of its sections are added on success
+     * @return {@code true} if the changelog has been updated incrementally
+     * @throws GitRepositoryException if the history cannot be read
+     */
+    private boolean prependNewCommits(GitRepository repository, Properties state,
+                                      Properties newState)
+            throws GitRepositoryException {
+        if (previousOutput == null || !state.containsKey(STATE_HEAD)) {
+            return false;
+        }
+
+        for (String key : new String[] { STATE_BRANCH, STATE_OUTPUT_FILE, STATE_SETTINGS, STATE_TAGS }) {
+            if (!newState.getProperty(key).equals(state.getProperty(key))) {
+                return false;
+            }
+        }
+
+        int branchStart;
+        int commitsEnd;
+        int commitsStart;
+        int length;
+        int tagsStart;
+        long headTime;
+        try {
+            branchStart = Integer.parseInt(state.getProperty(STATE_BRANCH_START));
+            commitsStart = Integer.parseInt(state.getProperty(STATE_COMMITS_START));
+            commitsEnd = Integer.parseInt(state.getProperty(STATE_COMMITS_END));
+            tagsStart = Integer.parseInt(state.getProperty(STATE_TAGS_START));
+            length = Integer.parseInt(state.getProperty(STATE_LENGTH));
+            headTime = Long.parseLong(state.getProperty(STATE_HEAD_TIME));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+
+        if (branchStart < 0 || commitsStart < branchStart || commitsEnd < commitsStart ||
+                tagsStart < commitsEnd || length < tagsStart || length > previousOutput.length ||
+                !hash(previousOutput, length).equals(state.getProperty(STATE_HASH))) {
+            return false;
+        }
+
+        String previousHead = state.getProperty(STATE_HEAD);
+        if (!repository.isAncestorOfHead(previousHead)) {
+            return false;
+        }
+
+        ChangelogWalkAction action = new ChangelogWalkAction(repository);
+        action.baseCommit = previousHead;
+        action.baseCommitTime = headTime;
+
+        format.printHeader();
+        action.branchStart = getPosition();
+        action.commitsStart = action.branchStart;
+        action.currentRef = repository.getSnapshot().getBranch();
+        if (!previousHead.equals(newState.getProperty(STATE_HEAD))) {
+            repository.walkCommits(action, getCommitWalkOptions());
+        }
+
+        if (action.aborted) {
+            return false;
+        }
+
+        String tag = state.getProperty(STATE_TAG);
+        if (action.commits == 0) {
+            int offset = action.branchStart - branchStart;
+            buffer.write(previousOutput, branchStart, length - branchStart);
+            commitsStart += offset;
+            commitsEnd += offset;
+            tagsStart += offset;
+        } else {
+            buffer.write(previousOutput, commitsStart, commitsEnd - commitsStart);
+            commitsStart = action.commitsStart;
+            commitsEnd = getPosition();
+            if (tag != null) {
+                format.printSeparator();
+                format.printCompareLink(tag, action.currentRef, true);
+            }
+            int offset = getPosition() - tagsStart;
+            buffer.write(previousOutput, tagsStart, length - tagsStart);
+            tagsStart += offset;
+        }
+
+        newState.setProperty(STATE_BRANCH_START, Integer.toString(action.branchStart));
+        newState.setProperty(STATE_COMMITS_START, Integer.toString(commitsStart));
+        newState.setProperty(STATE_COMMITS_END, Integer.toString(commitsEnd));
+        newState.setProperty(STATE_TAGS_START, Integer.toString(tagsStart));
+        if (tag != null) {
+            newState.setProperty(STATE_TAG, tag);
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the number of bytes of the changelog rendered so far
+     *
+     * @return The current position in the rendered changelog or {@code 0} if
+     *         the changelog is not rendered into a buffer
+     */
+    private int getPosition() {
+        if (buffer == null) {
+            return 0;
+        }
+
+        format.printStream.flush();
+
+        return buffer.size();
+    }
+
+    /**
+     * Returns a fingerprint of all inputs of the rendered changelog
+     * <p>
+     * If the changelog is limited to the history since {@link #sinceRef},
+     * the commit this ref points to is part of the inputs, so the changelog
+     * is rendered again if the ref is moved.
+     *
+     * @param repository The repository the mojo is running in
+     * @return The fingerprint of the inputs or {@code null} if there is
+     *         no commit yet
+     * @throws GitRepositoryException if the inputs cannot be read from the
+     *         repository
+     */
+    @Override
+    String getFingerprint(GitRepository repository)
+            throws GitRepositoryException {
+        String fingerprint = super.getFingerprint(repository);
+        if (fingerprint == null || isBlank(sinceRef)) {
+            return fingerprint;
+        }
+
+        return hash(fingerprint + "\n" + repository.resolveCommitId(sinceRef));
+    }
+
+    /**
+     * Returns the configuration affecting the rendered changelog
+     *
+     * @return The values of the parameters affecting the changelog
+     */
+    @Override
+    List<String> getOutputSettings() {
+        List<String> settings = super.getOutputSettings();
+        settings.addAll(Arrays.asList(format.baseUrl, format.branch,
+            format.branchLink, format.branchOnlyLink, format.commitPrefix,
+            String.valueOf(format.createLinks), format.dateFormat,
+            String.valueOf(format.escapeHtml), format.header, format.separator,
+            format.tag, format.tagLink, String.valueOf(firstParent),
+            String.valueOf(maxCommits), String.valueOf(maxTags),
+            Arrays.toString(paths), since, sinceRef, skipCommitsMatching,
+            String.valueOf(skipMergeCommits), String.valueOf(skipTagged),
+            String.valueOf(trimTrailingWhitespace)));
+
+        return settings;
+    }
+
+    /**
+     * Returns whether the changelog only covers a part of the history
+     *
+     * @return {@code true} if the changelog is bounded by tags, commits,
+     *         a date, a ref or paths
+     */
+    boolean isBounded() {
+        return maxCommits > 0 || maxTags > 0 || isNotBlank(since) ||
+            isNotBlank(sinceRef) || (paths != null && paths.length > 0);
+    }
+
+    /**
+     * Returns whether the changelog should be updated incrementally
+     *
+     * @return {@code true} if incremental updates are enabled and possible
+     *         with the current configuration
+     */
+    boolean isIncremental() {
+        return incremental && outputFile != null && maxCommits == 0 &&
+            maxTags == 0 && isBlank(sinceRef);
+    }
+
     /**
      * Returns the output file for the generated changelog
      *
@@ -211,6 +671,34 @@ public class ChangelogMojo extends AbstractGitOutputMojo {
         }
     }
 
+    /**
+     * Parses a date with an optional time and offset in ISO 8601 format
+     *
+     * @param date The date to parse
+     * @return The parsed date
+     * @throws DateTimeParseException if the date cannot be parsed
+     */
+    static Date parseDate(String date) {
+        DateTimeFormatter formatter = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE)
+            .optionalStart()
+            .appendLiteral('T')
+            .append(DateTimeFormatter.ISO_LOCAL_TIME)
+            .optionalStart()
+            .appendOffsetId()
+            .toFormatter();
+        TemporalAccessor dateTime = formatter.parseBest(date.trim(),
+            OffsetDateTime::from, LocalDateTime::from, LocalDate::from);
+
+        if (dateTime instanceof OffsetDateTime) {
+            return Date.from(((OffsetDateTime) dateTime).toInstant());
+        } else if (dateTime instanceof LocalDateTime) {
+            return Date.from(((LocalDateTime) dateTime).atZone(ZoneId.systemDefault()).toInstant());
+        }
+
+        return Date.from(((LocalDate) dateTime).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
     /**
      * Sets the output file for the generated changelog
      *
@@ -222,50 +710,137 @@ public class ChangelogMojo extends AbstractGitOutputMojo {
 
     class ChangelogWalkAction extends AbstractCommitWalkAction {
 
+        private boolean aborted;
+        private String baseCommit;
+        private long baseCommitTime;
+        private int branchStart;
+        private int commits;
+        private int commitsEnd;
+        private int commitsStart;
         private String currentRef;
         private boolean firstCommit = true;
+        private boolean lastTagReached;
+        private String newestTag;
+        private int tags;
+        private boolean tagsLoaded;
+        private int tagsStart;
         private final GitRepository repository;
-        private final Map<String, GitTag> tags;
+        private final List<String> workTreePaths;
 
         ChangelogWalkAction(GitRepository repository) throws GitRepositoryException {
             this.repository = repository;
-            tags = repository.getTags();
+            workTreePaths = getWorkTreePaths(repository, paths);
         }
 
-        protected void run() throws GitRepositoryException {
-            if (skipCommitsPattern != null && skipCommitsPattern.matcher(currentCommit.getMessage()).find()) {
-                return;
+        @Override
+        public CommitDetail getCommitDetail() {
+            return CommitDetail.SUBJECT;
+        }
+
+        @Override
+        public CommitFilter getCommitFilter() {
+            CommitFilter filter = CommitFilter.ALL.withPaths(workTreePaths);
+            if (firstParent) {
+                filter = filter.withFirstParent();
+            }
+            if (skipCommitsPattern != null) {
+                filter = filter.withoutMessages(skipCommitsPattern);
+            }
+            if (skipMergeCommits) {
+                filter = filter.withoutMerges();
             }
+            if (sinceDate != null) {
+                filter = filter.withSince(sinceDate);
+            }
+            if (baseCommit != null) {
+                filter = filter.withoutHistoryOf(baseCommit);
+            } else if (isNotBlank(sinceRef)) {
+                filter = filter.withoutHistoryOf(sinceRef);
+            }
+
+            return filter;
+        }
 
-            if (skipMergeCommits && currentCommit.isMergeCommit()) {
+        /**
+         * Loads the metadata of the given tag
+         * <p>
+         * If the changelog covers the whole history, all tags are loaded in
+         * a single pass once the first tag is reached. Otherwise only the
+         * tags actually reached are loaded, so changelogs bounded by tags,
+         * commits, dates, refs or paths do not read every tag of the
+         * repository.
+         *
+         * @param tag The tag reached by the walk
+         * @throws GitRepositoryException if the tag cannot be loaded
+         */
+        private void loadTag(GitTag tag) throws GitRepositoryException {
+            if (isBounded()) {
+                repository.loadTag(tag);
+            } else if (!tagsLoaded) {
+                repository.loadTags(repository.getTags().values());
+                tagsLoaded = true;
+            }
+        }
+
+        protected void run() throws GitRepositoryException {
+            GitTag currentTag = repository.getTag(currentCommit);
+
+            // New commits can only be prepended to a previous changelog if
+            // they belong to the current branch and are newer than the
+            // commits already listed
+            if (baseCommit != null && (currentTag != null ||
+                    currentCommit.getCommitterDate().getTime() < baseCommitTime)) {
+                aborted = true;
+                stop();
                 return;
             }
 
             boolean firstLine = firstCommit;
             firstCommit = false;
 
-            if (tags.containsKey(currentCommit.getId())) {
+            if (currentTag != null) {
                 String lastRef = currentRef;
-                GitTag currentTag = tags.get(currentCommit.getId());
                 currentRef = currentTag.getName();
 
+                if (tags == 0) {
+                    commitsEnd = getPosition();
+                }
+
                 format.printSeparator();
 
                 if (!firstLine) {
-                    format.printCompareLink(currentRef, lastRef, lastRef.equals(repository.getBranch()));
+                    format.printCompareLink(currentRef, lastRef, lastRef.equals(repository.getSnapshot().getBranch()));
+                }
+
+                if (tags == 0) {
+                    newestTag = currentRef;
+                    tagsStart = getPosition();
                 }
 
-                repository.loadTag(currentTag);
+                if (maxTags > 0 && tags == maxTags) {
+                    lastTagReached = true;
+                    stop();
+                    return;
+                }
+                tags ++;
+
+                loadTag(currentTag);
                 format.printTag(currentTag);
 
                 if (skipTagged) {
                     return;
                 }
             } else if (firstLine) {
-                format.printBranch(repository.getBranch());
+                format.printBranch(repository.getSnapshot().getBranch());
+                commitsStart = getPosition();
             }
 
             format.printCommit(currentCommit, trimTrailingWhitespace);
+
+            commits ++;
+            if (maxCommits > 0 && commits == maxCommits) {
+                stop();
+            }
         }
 
     }
@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2016-2019, Sebastian Staudt
+ * Copyright (c) 2016-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
@@ -15,6 +15,7 @@ import org.apache.maven.plugins.annotations.Parameter;
 
 import com.github.koraktor.mavanagaiata.git.GitRepository;
 import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
+import com.github.koraktor.mavanagaiata.git.GitRepositorySnapshot;
 
 import static org.eclipse.jgit.lib.Constants.*;
 
@@ -73,6 +74,11 @@ public class CheckMojo extends AbstractGitMojo {
         return super.init();
     }
 
+    @Override
+    boolean isDirtyCheckRequired() {
+        return checkClean || checkTag;
+    }
+
     /**
      * Compiles the commit message check regex
      */
@@ -93,10 +99,11 @@ public class CheckMojo extends AbstractGitMojo {
         }
 
         try {
-            checkBranch(repository);
-            checkCommitMessage(repository);
-            checkClean(repository);
-            checkTag(repository);
+            GitRepositorySnapshot snapshot = repository.getSnapshot();
+            checkBranch(snapshot);
+            checkCommitMessage(snapshot);
+            checkClean(repository, snapshot);
+            checkTag(repository, snapshot);
         } catch (GitRepositoryException e) {
             throw new MavanagaiataMojoException("Error while checking repository.", e);
         }
@@ -105,29 +112,30 @@ public class CheckMojo extends AbstractGitMojo {
     /**
      * Checks if the branch matches the configured name
      *
-     * @param repository The repository instance to check
+     * @param snapshot The repository snapshot to check
      * @see #checkBranch
      * @throws CheckMojoException if the branch does not match
      * @throws GitRepositoryException if the current branch cannot be retrieved
      */
-    private void checkBranch(GitRepository repository)
+    private void checkBranch(GitRepositorySnapshot snapshot)
             throws CheckMojoException, GitRepositoryException {
-        if (checkBranch != null && !repository.getBranch().equals(checkBranch)) {
-            throw new CheckMojoException(CheckMojoException.Type.WRONG_BRANCH, repository.getBranch(), checkBranch);
+        if (checkBranch != null && !snapshot.getBranch().equals(checkBranch)) {
+            throw new CheckMojoException(CheckMojoException.Type.WRONG_BRANCH, snapshot.getBranch(), checkBranch);
         }
     }
 
     /**
      * Checks if the worktree is in a clean state
      *
-     * @param repository The repository instance to check
+     * @param repository The repository to check
+     * @param snapshot The repository snapshot to check
      * @see #checkClean
      * @throws CheckMojoException if the worktree is not clean
      * @throws GitRepositoryException if the worktree state cannot be retrieved
      */
-    private void checkClean(GitRepository repository)
+    private void checkClean(GitRepository repository, GitRepositorySnapshot snapshot)
             throws CheckMojoException, GitRepositoryException{
-        if (checkClean && repository.isDirty(dirtyIgnoreUntracked)) {
+        if (checkClean && snapshot.isDirty(getDirtyCheckOptions(repository))) {
             throw new CheckMojoException(CheckMojoException.Type.UNCLEAN);
         }
     }
@@ -135,14 +143,14 @@ public class CheckMojo extends AbstractGitMojo {
     /**
      * Checks if commit message matches the configured pattern
      *
-     * @param repository The repository instance to check
+     * @param snapshot The repository snapshot to check
      * @see #checkCommitMessage
      * @throws CheckMojoException if the commit message does not match
      * @throws GitRepositoryException if the current commit cannot be retrieved
      */
-    private void checkCommitMessage(GitRepository repository)
+    private void checkCommitMessage(GitRepositorySnapshot snapshot)
             throws GitRepositoryException, CheckMojoException {
-        if (commitMessagePattern != null && !commitMessagePattern.matcher(repository.getHeadCommit().getMessage()).find()) {
+        if (commitMessagePattern != null && !commitMessagePattern.matcher(snapshot.getHeadCommit().getMessage()).find()) {
             throw new CheckMojoException(CheckMojoException.Type.WRONG_COMMIT_MSG, checkCommitMessage);
         }
     }
@@ -150,19 +158,20 @@ public class CheckMojo extends AbstractGitMojo {
     /**
      * Checks if the current {@code HEAD} is tagged
      *
-     * @param repository The repository instance to check
+     * @param repository The repository to check
+     * @param snapshot The repository snapshot to check
      * @see #checkTag
      * @throws CheckMojoException if {@code HEAD} is not tagged
      * @throws GitRepositoryException if the commit cannot be described
      */
-    private void checkTag(GitRepository repository)
+    private void checkTag(GitRepository repository, GitRepositorySnapshot snapshot)
             throws GitRepositoryException, CheckMojoException {
         if (checkTag) {
-            if (!repository.describe().isTagged()) {
+            if (!snapshot.describe(getDescribeOptions()).isTagged()) {
                 throw new CheckMojoException(CheckMojoException.Type.UNTAGGED);
             }
 
-            if (!checkClean && repository.isDirty(dirtyIgnoreUntracked)) {
+            if (!checkClean && snapshot.isDirty(getDirtyCheckOptions(repository))) {
                 getLog().warn("The current commit (`" + head +
                     "`) is tagged, but the worktree is unclean. This " +
                     "is probably undesirable.");
@@ -0,0 +1,70 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.mojo;
+
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import com.github.koraktor.mavanagaiata.git.GitRepository;
+import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
+
+/**
+ * This goal writes the commit-graph of the Git repository like
+ * {@code git commit-graph write} does
+ * <p>
+ * The commit-graph speeds up walking the commit history, e.g. for the
+ * {@code changelog}, {@code contributors} and {@code tag} goals. This is
+ * useful for build agents reusing clones, where Git itself usually never
+ * writes the commit-graph. If the existing commit-graph already contains
+ * the current commit and all tagged commits, nothing is written.
+ * <p>
+ * All goals read the commit-graph unless {@code core.commitGraph} is set to
+ * {@code false} in the Git configuration, e.g. using
+ * {@code git config core.commitGraph false}. The setting is never changed by
+ * this plugin.
+ *
+ * @author Sebastian Staudt
+ * @since 1.2.0
+ */
+@Mojo(name = "commit-graph",
+      defaultPhase = LifecyclePhase.VALIDATE,
+      threadSafe = true)
+public class CommitGraphMojo extends AbstractGitMojo {
+
+    /**
+     * Whether changed-path Bloom filters should be written, too
+     * <p>
+     * These speed up walking the history of specific paths, but take
+     * considerably longer to write.
+     */
+    @Parameter(property = "mavanagaiata.commitGraph.changedPaths",
+               defaultValue = "true")
+    boolean changedPaths = true;
+
+    /**
+     * Writes the commit-graph if it is missing or outdated
+     *
+     * @throws MavanagaiataMojoException if the commit-graph cannot be
+     *         written
+     */
+    @Override
+    protected void run(GitRepository repository)
+            throws MavanagaiataMojoException {
+        try {
+            if (repository.writeCommitGraph(changedPaths)) {
+                getLog().info("Wrote the commit-graph of the repository.");
+            } else {
+                getLog().debug("The commit-graph of the repository is up-to-date.");
+            }
+        } catch (GitRepositoryException e) {
+            throw MavanagaiataMojoException.create("Unable to write the commit-graph", e);
+        }
+    }
+
+}
@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2011-2018, Sebastian Staudt
+ * Copyright (c) 2011-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
@@ -17,6 +17,7 @@ import org.eclipse.jgit.revwalk.RevCommit;
 import com.github.koraktor.mavanagaiata.git.GitCommit;
 import com.github.koraktor.mavanagaiata.git.GitRepository;
 import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
+import com.github.koraktor.mavanagaiata.git.GitRepositorySnapshot;
 
 /**
  * This goal provides the full ID of the current Git commit in the
@@ -38,6 +39,11 @@ import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
       threadSafe = true)
 public class CommitMojo extends AbstractGitMojo {
 
+    @Override
+    boolean isDirtyCheckRequired() {
+        return true;
+    }
+
     /**
      * The ID (full and abbreviated) of the current Git commit out Git branch
      * is retrieved using a JGit Repository instance
@@ -49,8 +55,9 @@ public class CommitMojo extends AbstractGitMojo {
      */
     public void run(GitRepository repository) throws MavanagaiataMojoException {
         try {
-            GitCommit commit = repository.getHeadCommit();
-            String abbrevId  = repository.getAbbreviatedCommitId();
+            GitRepositorySnapshot snapshot = repository.getSnapshot();
+            GitCommit commit = snapshot.getHeadCommit();
+            String abbrevId  = snapshot.getAbbreviatedCommitId();
             String shaId     = commit.getId();
             boolean isDirty  = false;
 
@@ -60,7 +67,7 @@ public class CommitMojo extends AbstractGitMojo {
             dateFormat.setTimeZone(commit.getCommitterTimeZone());
             String commitDate = dateFormat.format(commit.getCommitterDate());
 
-            if (repository.isDirty(dirtyIgnoreUntracked)) {
+            if (snapshot.isDirty(getDirtyCheckOptions(repository))) {
                 isDirty = true;
 
                 if (dirtyFlag != null) {
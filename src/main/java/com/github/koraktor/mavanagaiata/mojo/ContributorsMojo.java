@@ -2,17 +2,20 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2011-2025, Sebastian Staudt
+ * Copyright (c) 2011-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 
 import org.apache.commons.lang3.Strings;
 import org.apache.commons.text.translate.CharSequenceTranslator;
@@ -22,12 +25,14 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
 import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction;
+import com.github.koraktor.mavanagaiata.git.CommitFilter;
 import com.github.koraktor.mavanagaiata.git.GitCommit;
 import com.github.koraktor.mavanagaiata.git.GitRepository;
 import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
 import com.github.koraktor.mavanagaiata.git.MailMap;
 
 import static java.util.Comparator.*;
+import static org.apache.commons.lang3.StringUtils.*;
 import static org.apache.commons.text.StringEscapeUtils.*;
 
 /**
@@ -52,6 +57,32 @@ public class ContributorsMojo extends AbstractGitOutputMojo {
 
     private static final CharSequenceTranslator MARKDOWN_TRANSLATOR = new LookupTranslator(MARKDOWN_TRANSLATION_MAP);
 
+    static final String CACHE_NAME = "contributors";
+
+    private static final String CACHE_CONTRIBUTOR = "contributor.";
+
+    private static final String CACHE_CONTRIBUTORS = "contributors";
+
+    private static final String CACHE_HEAD = "head";
+
+    private static final String CACHE_MAILMAP = "mailmap";
+
+    private static final String CACHE_PATHS = "paths";
+
+    /**
+     * Whether the contributors should be cached
+     * <p>
+     * If enabled, the contributors are stored in the Git directory together
+     * with the {@code HEAD} commit they have been read for. Later builds
+     * only read the commits added since then. The whole history is read
+     * again if it has been rewritten or the {@code .mailmap} changed.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.contributors.cache",
+               defaultValue = "false")
+    boolean cache;
+
     /**
      * The string to prepend to every contributor name
      */
@@ -82,6 +113,18 @@ public class ContributorsMojo extends AbstractGitOutputMojo {
     @Parameter(property = "mavanagaiata.contributors.outputFile")
     File outputFile;
 
+    /**
+     * The paths to list the contributors of
+     * <p>
+     * By default, the authors of all commits are listed. In multi-module
+     * projects setting this to {@code ${project.basedir}} will only list the
+     * authors of commits changing files inside the module.
+     *
+     * @since 1.2.0
+     */
+    @Parameter(property = "mavanagaiata.contributors.paths")
+    File[] paths;
+
     /**
      * Whether the number of contributions should be listed
      */
@@ -120,6 +163,23 @@ public class ContributorsMojo extends AbstractGitOutputMojo {
         super.initConfiguration();
     }
 
+    /**
+     * Returns the configuration affecting the list of contributors
+     *
+     * @return The values of the parameters affecting the list of
+     *         contributors
+     */
+    @Override
+    List<String> getOutputSettings() {
+        List<String> settings = super.getOutputSettings();
+        settings.addAll(Arrays.asList(contributorPrefix,
+            String.valueOf(escapeHtml), String.valueOf(escapeMarkdown), header,
+            Arrays.toString(paths), String.valueOf(showCounts),
+            String.valueOf(showEmail), sort));
+
+        return settings;
+    }
+
     /**
      * Walks through the history of the currently checked out branch of the
      * Git repository and builds a list of contributors from the authors of the
@@ -132,12 +192,7 @@ public class ContributorsMojo extends AbstractGitOutputMojo {
     protected void writeOutput(GitRepository repository)
             throws MavanagaiataMojoException {
         try {
-            mailMap = repository.getMailMap();
-
-            ContributorsWalkAction action = new ContributorsWalkAction();
-            repository.walkCommits(action);
-
-            List<Contributor> contributors = action.getContributors();
+            List<Contributor> contributors = readContributors(repository);
             switch (sort) {
                 case "date":
                     contributors.sort(comparing(Contributor::getFirstCommitDate));
@@ -166,6 +221,49 @@ public class ContributorsMojo extends AbstractGitOutputMojo {
         }
     }
 
+    /**
+     * Reads the contributors from the history of the current branch
+     * <p>
+     * If caching is enabled and the cached contributors are still valid,
+     * only the commits added since they have been cached are read.
+     *
+     * @param repository The repository to read the contributors from
+     * @return The contributors of the current branch
+     * @throws GitRepositoryException if the history or the cache cannot be
+     *         read or the cache cannot be written
+     */
+    List<Contributor> readContributors(GitRepository repository)
+            throws GitRepositoryException {
+        mailMap = repository.getMailMap();
+
+        ContributorsWalkAction action = new ContributorsWalkAction(repository);
+        if (!cache || repository.isOnUnbornBranch()) {
+            repository.walkCommits(action, getCommitWalkOptions());
+            return action.getContributors();
+        }
+
+        String cacheName = action.getCacheName();
+        String head = repository.getHeadCommit().getId();
+        Properties cachedProperties = repository.loadCache(cacheName);
+        String cachedHead = cachedProperties.getProperty(CACHE_HEAD);
+        Map<String, Contributor> cachedContributors = action.loadCache(cachedProperties);
+        if (cachedContributors != null && head.equals(cachedHead)) {
+            return new ArrayList<>(cachedContributors.values());
+        }
+
+        if (cachedContributors != null && repository.isAncestorOfHead(cachedHead)) {
+            action.baseCommit = cachedHead;
+            repository.walkCommits(action, getCommitWalkOptions());
+            action.addContributors(cachedContributors.values());
+        } else {
+            repository.walkCommits(action, getCommitWalkOptions());
+        }
+
+        repository.storeCache(cacheName, action.createCache(head));
+
+        return action.getContributors();
+    }
+
     /**
      * Returns an escaped form of the contributor name
      * <p>
@@ -207,7 +305,121 @@ public class ContributorsMojo extends AbstractGitOutputMojo {
 
     class ContributorsWalkAction extends AbstractCommitWalkAction {
 
+        String baseCommit;
         HashMap<String, Contributor> contributors = new HashMap<>();
+        private final List<String> workTreePaths;
+
+        ContributorsWalkAction(GitRepository repository) throws GitRepositoryException {
+            workTreePaths = getWorkTreePaths(repository, paths);
+        }
+
+        /**
+         * Adds the given contributors, e.g. of older commits, to the
+         * contributors found by this action
+         *
+         * @param olderContributors The contributors to add
+         */
+        void addContributors(Collection<Contributor> olderContributors) {
+            for (Contributor olderContributor : olderContributors) {
+                Contributor contributor = contributors.putIfAbsent(
+                    olderContributor.emailAddress, olderContributor);
+                if (contributor != null) {
+                    contributor.addContributions(olderContributor);
+                }
+            }
+        }
+
+        /**
+         * Creates the information to cache for the contributors found by
+         * this action
+         *
+         * @param head The ID of the commit the contributors have been read
+         *        for
+         * @return The contributors together with the commit and the state of
+         *         the mail map
+         */
+        Properties createCache(String head) {
+            Properties properties = new Properties();
+            properties.setProperty(CACHE_HEAD, head);
+            properties.setProperty(CACHE_MAILMAP, defaultString(mailMap.getId()));
+            properties.setProperty(CACHE_PATHS, String.join("\n", workTreePaths));
+            properties.setProperty(CACHE_CONTRIBUTORS, Integer.toString(contributors.size()));
+
+            int i = 0;
+            for (Contributor contributor : contributors.values()) {
+                String prefix = CACHE_CONTRIBUTOR + i++ + '.';
+                properties.setProperty(prefix + "count", contributor.count.toString());
+                properties.setProperty(prefix + "date", Long.toString(contributor.firstCommitDate.getTime()));
+                properties.setProperty(prefix + "email", contributor.emailAddress);
+                properties.setProperty(prefix + "name", contributor.name);
+            }
+
+            return properties;
+        }
+
+        /**
+         * Returns the name of the cache for the contributors of the paths
+         * of this action
+         *
+         * @return The name of the cache
+         */
+        String getCacheName() {
+            if (workTreePaths.isEmpty()) {
+                return CACHE_NAME;
+            }
+
+            return CACHE_NAME + '-' +
+                Integer.toHexString(String.join("\n", workTreePaths).hashCode());
+        }
+
+        /**
+         * Reads the contributors from the given cached information
+         *
+         * @param properties The cached information
+         * @return The cached contributors or {@code null} if they have been
+         *         read for other paths or another mail map or if the cache
+         *         is invalid
+         */
+        Map<String, Contributor> loadCache(Properties properties) {
+            if (!properties.containsKey(CACHE_HEAD) ||
+                    !defaultString(mailMap.getId()).equals(properties.getProperty(CACHE_MAILMAP)) ||
+                    !String.join("\n", workTreePaths).equals(properties.getProperty(CACHE_PATHS))) {
+                return null;
+            }
+
+            try {
+                int count = Integer.parseInt(properties.getProperty(CACHE_CONTRIBUTORS));
+                Map<String, Contributor> cachedContributors = new HashMap<>(count);
+                for (int i = 0; i < count; i++) {
+                    String prefix = CACHE_CONTRIBUTOR + i + '.';
+                    Contributor contributor = new Contributor(
+                        properties.getProperty(prefix + "email"),
+                        properties.getProperty(prefix + "name"),
+                        Integer.parseInt(properties.getProperty(prefix + "count")),
+                        new Date(Long.parseLong(properties.getProperty(prefix + "date"))));
+                    if (contributor.emailAddress == null || contributor.name == null) {
+                        return null;
+                    }
+                    cachedContributors.put(contributor.emailAddress, contributor);
+                }
+
+                return cachedContributors;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public CommitDetail getCommitDetail() {
+            return CommitDetail.AUTHOR;
+        }
+
+        @Override
+        public CommitFilter getCommitFilter() {
+            CommitFilter filter = CommitFilter.ALL.withPaths(workTreePaths);
+
+            return baseCommit == null ? filter : filter.withoutHistoryOf(baseCommit);
+        }
 
         List<Contributor> getContributors() {
             return new ArrayList<>(contributors.values());
@@ -231,6 +443,13 @@ public class ContributorsMojo extends AbstractGitOutputMojo {
         Date firstCommitDate;
         String name;
 
+        Contributor(String emailAddress, String name, int count, Date firstCommitDate) {
+            this.count = count;
+            this.emailAddress = emailAddress;
+            this.firstCommitDate = firstCommitDate;
+            this.name = name;
+        }
+
         Contributor(MailMap mailMap, GitCommit commit) {
             firstCommitDate = commit.getAuthorDate();
 
@@ -251,6 +470,14 @@ public class ContributorsMojo extends AbstractGitOutputMojo {
             }
         }
 
+        void addContributions(Contributor contributor) {
+            count += contributor.count;
+
+            if (contributor.firstCommitDate.before(firstCommitDate)) {
+                firstCommitDate = contributor.firstCommitDate;
+            }
+        }
+
         Integer getCount() {
             return count;
         }
@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2012-2025, Sebastian Staudt
+ * Copyright (c) 2012-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
@@ -34,6 +34,7 @@ import org.apache.maven.shared.filtering.MavenFilteringException;
 
 import com.github.koraktor.mavanagaiata.git.GitRepository;
 import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
+import com.github.koraktor.mavanagaiata.git.GitRepositorySnapshot;
 import com.github.koraktor.mavanagaiata.git.GitTagDescription;
 
 import static java.nio.file.Files.*;
@@ -94,6 +95,11 @@ public class InfoClassMojo extends AbstractGitMojo {
     @Parameter(property = "mavanagaiata.info-class.templatePath")
     private File templateFile;
 
+    @Override
+    boolean isDirtyCheckRequired() {
+        return true;
+    }
+
     /**
      * Returns an input stream for the template source file for the info class
      * <p>
@@ -159,12 +165,13 @@ public class InfoClassMojo extends AbstractGitMojo {
 
     MapBasedValueSource getValueSource(GitRepository repository)
             throws GitRepositoryException {
-        GitTagDescription description = repository.describe();
+        GitRepositorySnapshot snapshot = repository.getSnapshot();
+        GitTagDescription description = snapshot.describe(getDescribeOptions());
 
-        String abbrevId  = repository.getAbbreviatedCommitId();
-        String shaId     = repository.getHeadCommit().getId();
+        String abbrevId  = snapshot.getAbbreviatedCommitId();
+        String shaId     = snapshot.getHeadCommit().getId();
         String describe  = description.toString();
-        boolean isDirty  = repository.isDirty(dirtyIgnoreUntracked);
+        boolean isDirty  = snapshot.isDirty(getDirtyCheckOptions(repository));
 
         if (isDirty && dirtyFlag != null) {
             abbrevId += dirtyFlag;
@@ -173,7 +180,7 @@ public class InfoClassMojo extends AbstractGitMojo {
         }
 
         HashMap<String, String> values = new HashMap<>();
-        values.put("BRANCH", repository.getBranch());
+        values.put("BRANCH", snapshot.getBranch());
         values.put("CLASS_NAME", className);
         values.put("COMMIT_ABBREV", abbrevId);
         values.put("COMMIT_SHA", shaId);
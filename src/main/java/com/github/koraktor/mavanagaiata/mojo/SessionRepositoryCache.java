@@ -0,0 +1,208 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.mojo;
+
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.SessionData;
+
+import com.github.koraktor.mavanagaiata.git.jgit.JGitRepositoryCache;
+
+/**
+ * Binds a repository cache to the lifetime of a Maven session
+ * <p>
+ * The cache is stored in the session data of the Maven session, so all
+ * mojo executions of all projects in a reactor build share the same open
+ * repositories. The execution listener of the session is wrapped to close
+ * the cached repositories when the session ends.
+ *
+ * @author Sebastian Staudt
+ * @since 1.2.0
+ */
+class SessionRepositoryCache implements ExecutionListener {
+
+    private static final Object SESSION_DATA_KEY = SessionRepositoryCache.class;
+
+    private final ExecutionListener delegate;
+
+    private final JGitRepositoryCache repositoryCache;
+
+    /**
+     * Returns the repository cache for the given Maven session
+     * <p>
+     * The cache will be created on first use.
+     *
+     * @param session The current Maven session
+     * @return The repository cache of the session
+     */
+    static JGitRepositoryCache forSession(MavenSession session) {
+        SessionData sessionData = session.getRepositorySession().getData();
+
+        synchronized (sessionData) {
+            SessionRepositoryCache cache = (SessionRepositoryCache) sessionData.get(SESSION_DATA_KEY);
+            if (cache == null) {
+                MavenExecutionRequest request = session.getRequest();
+                cache = new SessionRepositoryCache(request.getExecutionListener());
+                request.setExecutionListener(cache);
+                sessionData.set(SESSION_DATA_KEY, cache);
+            }
+
+            return cache.repositoryCache;
+        }
+    }
+
+    /**
+     * Creates a new cache wrapping the given execution listener
+     *
+     * @param delegate The original execution listener of the session
+     */
+    SessionRepositoryCache(ExecutionListener delegate) {
+        this(delegate, new JGitRepositoryCache());
+    }
+
+    /**
+     * Creates a new instance for the given execution listener and repository
+     * cache
+     *
+     * @param delegate The original execution listener of the session
+     * @param repositoryCache The repository cache to close at the end of the
+     *        session
+     */
+    SessionRepositoryCache(ExecutionListener delegate, JGitRepositoryCache repositoryCache) {
+        this.delegate = delegate;
+        this.repositoryCache = repositoryCache;
+    }
+
+    /**
+     * Closes all cached repositories before notifying the original listener
+     *
+     * @param event The execution event
+     */
+    @Override
+    public void sessionEnded(ExecutionEvent event) {
+        repositoryCache.close();
+
+        if (delegate != null) {
+            delegate.sessionEnded(event);
+        }
+    }
+
+    @Override
+    public void projectDiscoveryStarted(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.projectDiscoveryStarted(event);
+        }
+    }
+
+    @Override
+    public void sessionStarted(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.sessionStarted(event);
+        }
+    }
+
+    @Override
+    public void projectSkipped(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.projectSkipped(event);
+        }
+    }
+
+    @Override
+    public void projectStarted(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.projectStarted(event);
+        }
+    }
+
+    @Override
+    public void projectSucceeded(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.projectSucceeded(event);
+        }
+    }
+
+    @Override
+    public void projectFailed(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.projectFailed(event);
+        }
+    }
+
+    @Override
+    public void mojoSkipped(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.mojoSkipped(event);
+        }
+    }
+
+    @Override
+    public void mojoStarted(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.mojoStarted(event);
+        }
+    }
+
+    @Override
+    public void mojoSucceeded(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.mojoSucceeded(event);
+        }
+    }
+
+    @Override
+    public void mojoFailed(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.mojoFailed(event);
+        }
+    }
+
+    @Override
+    public void forkStarted(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkStarted(event);
+        }
+    }
+
+    @Override
+    public void forkSucceeded(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkSucceeded(event);
+        }
+    }
+
+    @Override
+    public void forkFailed(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkFailed(event);
+        }
+    }
+
+    @Override
+    public void forkedProjectStarted(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkedProjectStarted(event);
+        }
+    }
+
+    @Override
+    public void forkedProjectSucceeded(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkedProjectSucceeded(event);
+        }
+    }
+
+    @Override
+    public void forkedProjectFailed(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkedProjectFailed(event);
+        }
+    }
+}
@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2011-2018, Sebastian Staudt
+ * Copyright (c) 2011-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
@@ -12,6 +12,7 @@ import org.apache.maven.plugins.annotations.Mojo;
 
 import com.github.koraktor.mavanagaiata.git.GitRepository;
 import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
+import com.github.koraktor.mavanagaiata.git.GitRepositorySnapshot;
 import com.github.koraktor.mavanagaiata.git.GitTagDescription;
 
 /**
@@ -30,6 +31,11 @@ import com.github.koraktor.mavanagaiata.git.GitTagDescription;
       threadSafe = true)
 public class TagMojo extends AbstractGitMojo {
 
+    @Override
+    boolean isDirtyCheckRequired() {
+        return dirtyFlag != null;
+    }
+
     /**
      * This will first read all tags and walk the commit hierarchy down from
      * HEAD until it finds one of the tags. The name of that tag is written
@@ -42,10 +48,11 @@ public class TagMojo extends AbstractGitMojo {
      */
     public void run(GitRepository repository) throws MavanagaiataMojoException {
         try {
-            GitTagDescription description = repository.describe();
+            GitRepositorySnapshot snapshot = repository.getSnapshot();
+            GitTagDescription description = snapshot.describe(getDescribeOptions());
             String describe = description.toString();
             if (dirtyFlag != null &&
-                    repository.isDirty(dirtyIgnoreUntracked)) {
+                    snapshot.isDirty(getDirtyCheckOptions(repository))) {
                 describe += dirtyFlag;
             }
 
@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2012-2020, Sebastian Staudt
+ * Copyright (c) 2012-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.git;
@@ -36,4 +36,24 @@ class AbstractCommitWalkActionTest {
         verify(action).run();
     }
 
+    @DisplayName("should need the full commit messages by default")
+    @Test
+    void testGetCommitDetail() {
+        AbstractCommitWalkAction action = new GenericCommitWalkAction();
+
+        assertThat(action.getCommitDetail(), is(AbstractCommitWalkAction.CommitDetail.MESSAGE));
+    }
+
+    @DisplayName("should not be stopped by default")
+    @Test
+    void testStop() {
+        AbstractCommitWalkAction action = new GenericCommitWalkAction();
+
+        assertThat(action.isStopped(), is(false));
+
+        action.stop();
+
+        assertThat(action.isStopped(), is(true));
+    }
+
 }
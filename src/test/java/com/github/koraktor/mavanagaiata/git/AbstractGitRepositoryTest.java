@@ -2,23 +2,37 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2012-2025, Sebastian Staudt
+ * Copyright (c) 2012-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.git;
 
 import java.io.File;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Sebastian Staudt
@@ -32,9 +46,7 @@ class AbstractGitRepositoryTest {
 
         public void check() {}
 
-        public void close() {}
-
-        public GitTagDescription describe() {
+        public GitTagDescription describe(DescribeOptions options) {
             return null;
         }
 
@@ -62,12 +74,22 @@ class AbstractGitRepositoryTest {
             return null;
         }
 
+        @Override
+        public String getTagsFingerprint() {
+            return null;
+        }
+
+        @Override
+        public boolean isAncestorOfHead(String commitId) {
+            return false;
+        }
+
         @Override
         public boolean isChecked() {
             return false;
         }
 
-        public boolean isDirty(boolean dirtyCheckLoose) {
+        public boolean isDirty(DirtyCheckOptions options) {
             return false;
         }
 
@@ -76,10 +98,27 @@ class AbstractGitRepositoryTest {
             return false;
         }
 
+        @Override
+        public Properties loadCache(String name) {
+            return new Properties();
+        }
+
         @Override
         public void loadTag(GitTag tag) {}
 
-        public void  walkCommits(AbstractCommitWalkAction action) {}
+        @Override
+        public String resolveCommitId(String ref) {
+            return null;
+        }
+
+        @Override
+        public void storeCache(String name, Properties properties) {}
+
+        public void  walkCommits(AbstractCommitWalkAction action, CommitWalkOptions options) {}
+
+        public boolean writeCommitGraph(boolean changedPaths) {
+            return false;
+        }
 
     }
 
@@ -113,4 +152,112 @@ class AbstractGitRepositoryTest {
             verifyNoMoreInteractions(repo.mailMap);
         }
     }
+
+    @DisplayName("should provide a single snapshot")
+    @Test
+    void testGetSnapshot() {
+        try (GitRepository repo = new GenericGitRepository()) {
+            GitRepositorySnapshot snapshot = repo.getSnapshot();
+
+            assertThat(snapshot, is(notNullValue()));
+            assertThat(repo.getSnapshot(), is(sameInstance(snapshot)));
+        }
+    }
+
+    @DisplayName("should check the worktree state in the background")
+    @Test
+    void testIsDirtyAsync() {
+        try (GitRepository repo = new GenericGitRepository()) {
+            assertThat(repo.isDirtyAsync(new DirtyCheckOptions(false)).join(), is(false));
+        }
+    }
+
+    @DisplayName("should check the worktree state on a named background thread")
+    @Test
+    void testIsDirtyAsyncThread() {
+        AtomicReference<Thread> checkThread = new AtomicReference<>();
+        try (GitRepository repo = new GenericGitRepository() {
+            @Override
+            public boolean isDirty(DirtyCheckOptions options) {
+                checkThread.set(Thread.currentThread());
+                return true;
+            }
+        }) {
+            assertThat(repo.isDirtyAsync(new DirtyCheckOptions(false)).join(), is(true));
+            assertThat(repo.isDirtyAsync(new DirtyCheckOptions(true)).join(), is(true));
+
+            assertThat(checkThread.get().getName(), is(equalTo("mavanagaiata-dirty-check")));
+            assertThat(checkThread.get().isDaemon(), is(true));
+        }
+    }
+
+    @DisplayName("should stop background checks when closing the repository")
+    @Test
+    void testCloseStopsBackgroundChecks() throws Exception {
+        CountDownLatch checkStarted = new CountDownLatch(1);
+        CountDownLatch checkReleased = new CountDownLatch(1);
+        AtomicBoolean checkFinished = new AtomicBoolean();
+        AtomicInteger checks = new AtomicInteger();
+        GitRepository repo = new GenericGitRepository() {
+            @Override
+            public boolean isDirty(DirtyCheckOptions options) {
+                checks.incrementAndGet();
+                checkStarted.countDown();
+                try {
+                    checkReleased.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                checkFinished.set(true);
+                return false;
+            }
+        };
+
+        CompletableFuture<Boolean> runningCheck = repo.isDirtyAsync(new DirtyCheckOptions(false));
+        CompletableFuture<Boolean> pendingCheck = repo.isDirtyAsync(new DirtyCheckOptions(true));
+        checkStarted.await();
+
+        Thread closeThread = new Thread(repo::close);
+        closeThread.start();
+        closeThread.join(100);
+        assertThat(closeThread.isAlive(), is(true));
+
+        checkReleased.countDown();
+        closeThread.join();
+
+        assertThat(checkFinished.get(), is(true));
+        assertThat(checks.get(), is(1));
+        assertThat(runningCheck.isCancelled(), is(true));
+        assertThat(pendingCheck.isCancelled(), is(true));
+    }
+
+    @DisplayName("should look up the tag of a commit by its ID")
+    @Test
+    void testGetTag() throws Exception {
+        try (GitRepository repo = spy(new GenericGitRepository())) {
+            GitCommit commit = mock(GitCommit.class);
+            GitCommit taggedCommit = mock(GitCommit.class);
+            GitTag tag = mock(GitTag.class);
+            when(commit.getId()).thenReturn("cafebabe");
+            when(taggedCommit.getId()).thenReturn("deadbeef");
+            doReturn(singletonMap("deadbeef", tag)).when(repo).getTags();
+
+            assertThat(repo.getTag(commit), is(nullValue()));
+            assertThat(repo.getTag(taggedCommit), is(sameInstance(tag)));
+        }
+    }
+
+    @DisplayName("should load multiple tags one by one")
+    @Test
+    void testLoadTags() throws Exception {
+        try (GitRepository repo = spy(new GenericGitRepository())) {
+            GitTag tag1 = mock(GitTag.class);
+            GitTag tag2 = mock(GitTag.class);
+
+            repo.loadTags(asList(tag1, tag2));
+
+            verify(repo).loadTag(tag1);
+            verify(repo).loadTag(tag2);
+        }
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git;
+
+import java.util.Date;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Sebastian Staudt
+ */
+@DisplayName("CommitFilter")
+class CommitFilterTest {
+
+    @DisplayName("should match all commits by default")
+    @Test
+    void testAll() {
+        GitCommit commit = mockCommit(true, "Message");
+
+        assertThat(CommitFilter.ALL.isAll(), is(true));
+        assertThat(CommitFilter.ALL.matches(commit), is(true));
+    }
+
+    @DisplayName("should skip merge commits")
+    @Test
+    void testWithoutMerges() {
+        CommitFilter filter = CommitFilter.ALL.withoutMerges();
+
+        assertThat(filter, is(not(sameInstance(CommitFilter.ALL))));
+        assertThat(filter.isAll(), is(false));
+        assertThat(filter.isSkipMerges(), is(true));
+        assertThat(filter.matches(mockCommit(false, "Message")), is(true));
+        assertThat(filter.matches(mockCommit(true, "Message")), is(false));
+    }
+
+    @DisplayName("should skip commits with matching messages")
+    @Test
+    void testWithoutMessages() {
+        CommitFilter filter = CommitFilter.ALL.withoutMessages(Pattern.compile("^\\[ci skip\\]$", Pattern.MULTILINE));
+
+        assertThat(filter.matches(mockCommit(false, "Message")), is(true));
+        assertThat(filter.matches(mockCommit(false, "Message\n\n[ci skip]")), is(false));
+        assertThat(filter.matches(mockCommit(false, "Message\n\n[CI SKIP]")), is(true));
+    }
+
+    @DisplayName("should skip commits older than the given time")
+    @Test
+    void testWithSince() {
+        GitCommit commit = mockCommit(false, "Message");
+
+        assertThat(CommitFilter.ALL.withSince(new Date(1000000000000L)).matches(commit), is(true));
+        assertThat(CommitFilter.ALL.withSince(new Date(1275131880000L)).matches(commit), is(true));
+        assertThat(CommitFilter.ALL.withSince(new Date(1300000000000L)).matches(commit), is(false));
+        assertThat(CommitFilter.ALL.withSince(null).isAll(), is(true));
+    }
+
+    @DisplayName("should normalize the paths to match")
+    @Test
+    void testWithPaths() {
+        CommitFilter filter = CommitFilter.ALL.withPaths(asList("api/", "/core", "module\\src"));
+
+        assertThat(filter.isAll(), is(false));
+        assertThat(filter.getPaths(), is(equalTo(asList("api", "core", "module/src"))));
+        assertThat(filter.matches(mockCommit(false, "Message")), is(true));
+
+        assertThat(CommitFilter.ALL.withPaths(asList("api", "")).isAll(), is(true));
+        assertThat(CommitFilter.ALL.withPaths(emptyList()).isAll(), is(true));
+    }
+
+    @DisplayName("should only follow first parents")
+    @Test
+    void testWithFirstParent() {
+        CommitFilter filter = CommitFilter.ALL.withFirstParent();
+
+        assertThat(CommitFilter.ALL.isFirstParent(), is(false));
+        assertThat(filter.isAll(), is(false));
+        assertThat(filter.isFirstParent(), is(true));
+        assertThat(filter.withoutMerges().isFirstParent(), is(true));
+        assertThat(filter.matches(mockCommit(true, "Message")), is(true));
+    }
+
+    @DisplayName("should exclude the history of a ref")
+    @Test
+    void testWithoutHistoryOf() {
+        CommitFilter filter = CommitFilter.ALL.withoutHistoryOf("v1.0.0");
+
+        assertThat(CommitFilter.ALL.getExcludedRef(), is(nullValue()));
+        assertThat(filter.isAll(), is(false));
+        assertThat(filter.getExcludedRef(), is(equalTo("v1.0.0")));
+        assertThat(filter.withoutMerges().getExcludedRef(), is(equalTo("v1.0.0")));
+        assertThat(filter.matches(mockCommit(false, "Message")), is(true));
+    }
+
+    private GitCommit mockCommit(boolean merge, String message) {
+        GitCommit commit = mock(GitCommit.class);
+        when(commit.getCommitterDate()).thenReturn(new Date(1275131880000L));
+        when(commit.getMessage()).thenReturn(message);
+        when(commit.isMergeCommit()).thenReturn(merge);
+
+        return commit;
+    }
+
+}
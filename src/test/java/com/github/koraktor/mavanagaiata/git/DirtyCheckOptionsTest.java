@@ -0,0 +1,107 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git;
+
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.koraktor.mavanagaiata.git.DirtyCheckOptions.IgnoreSubmodules;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+/**
+ * @author Sebastian Staudt
+ */
+@DisplayName("DirtyCheckOptions")
+class DirtyCheckOptionsTest {
+
+    @DisplayName("should check the whole worktree by default")
+    @Test
+    void testDefault() {
+        DirtyCheckOptions options = new DirtyCheckOptions(true);
+
+        assertThat(options.isIgnoreUntracked(), is(true));
+        assertThat(options.getPaths().isEmpty(), is(true));
+        assertThat(options.getIgnoreSubmodules(), is(nullValue()));
+        assertThat(options.isCache(), is(false));
+        assertThat(options.getThreads(), is(1));
+    }
+
+    @DisplayName("should normalize paths")
+    @Test
+    void testPaths() {
+        DirtyCheckOptions options = new DirtyCheckOptions(false, asList("module\\src/", "/api", "api"));
+
+        assertThat(options.getPaths(), is(equalTo(new TreeSet<>(asList("api", "module/src")))));
+    }
+
+    @DisplayName("should check the whole worktree if it is included in the paths")
+    @Test
+    void testPathsWorktree() {
+        DirtyCheckOptions options = new DirtyCheckOptions(false, asList("module", ""));
+
+        assertThat(options.getPaths().isEmpty(), is(true));
+        assertThat(options, is(equalTo(new DirtyCheckOptions(false))));
+    }
+
+    @DisplayName("should be comparable")
+    @Test
+    void testEquals() {
+        DirtyCheckOptions options = new DirtyCheckOptions(false, asList("module"));
+
+        assertThat(options, is(equalTo(new DirtyCheckOptions(false, asList("module/")))));
+        assertThat(options.hashCode(), is(equalTo(new DirtyCheckOptions(false, asList("module/")).hashCode())));
+        assertThat(options, is(not(equalTo(new DirtyCheckOptions(true, asList("module"))))));
+        assertThat(options, is(not(equalTo(new DirtyCheckOptions(false)))));
+        assertThat(options, is(not(equalTo(new DirtyCheckOptions(false, asList("module"), IgnoreSubmodules.ALL)))));
+    }
+
+    @DisplayName("should provide options with different handling of untracked files")
+    @Test
+    void testWithIgnoreUntracked() {
+        DirtyCheckOptions options = new DirtyCheckOptions(false, asList("module"));
+
+        assertThat(options.withIgnoreUntracked(false), is(sameInstance(options)));
+        assertThat(options.withIgnoreUntracked(true), is(equalTo(new DirtyCheckOptions(true, asList("module")))));
+    }
+
+    @DisplayName("should keep the submodule changes to ignore")
+    @Test
+    void testWithIgnoreUntrackedIgnoreSubmodules() {
+        DirtyCheckOptions options = new DirtyCheckOptions(false, emptyList(), IgnoreSubmodules.DIRTY);
+
+        assertThat(options.withIgnoreUntracked(true).getIgnoreSubmodules(), is(IgnoreSubmodules.DIRTY));
+    }
+
+    @DisplayName("should provide options checking the worktree differently")
+    @Test
+    void testWithCacheAndThreads() {
+        DirtyCheckOptions options = new DirtyCheckOptions(false, asList("module"));
+        DirtyCheckOptions cachedOptions = options.withCache(true).withThreads(4);
+
+        assertThat(options.withCache(false), is(sameInstance(options)));
+        assertThat(options.withThreads(1), is(sameInstance(options)));
+        assertThat(cachedOptions.isCache(), is(true));
+        assertThat(cachedOptions.getThreads(), is(4));
+        assertThat(cachedOptions.getPaths(), is(equalTo(options.getPaths())));
+        assertThat(cachedOptions.withIgnoreUntracked(true).isCache(), is(true));
+        assertThat(cachedOptions.withIgnoreUntracked(true).getThreads(), is(4));
+        assertThat(cachedOptions, is(not(equalTo(options))));
+        assertThat(cachedOptions, is(equalTo(options.withThreads(4).withCache(true))));
+    }
+
+}
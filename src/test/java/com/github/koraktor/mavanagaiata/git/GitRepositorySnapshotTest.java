@@ -0,0 +1,292 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Sebastian Staudt
+ */
+@DisplayName("GitRepositorySnapshot")
+class GitRepositorySnapshotTest {
+
+    private GitRepository repository;
+
+    private GitRepositorySnapshot snapshot;
+
+    @BeforeEach
+    void setup() {
+        repository = mock(GitRepository.class);
+        snapshot = new GitRepositorySnapshot(repository);
+    }
+
+    @DisplayName("should describe the HEAD commit only once")
+    @Test
+    void testDescribe() throws Exception {
+        GitTagDescription description = mock(GitTagDescription.class);
+        when(repository.describe(DescribeOptions.DEFAULT)).thenReturn(description);
+
+        assertThat(snapshot.describe(DescribeOptions.DEFAULT), is(sameInstance(description)));
+        assertThat(snapshot.describe(DescribeOptions.DEFAULT), is(sameInstance(description)));
+
+        verify(repository).describe(DescribeOptions.DEFAULT);
+    }
+
+    @DisplayName("should describe the HEAD commit once per mode")
+    @Test
+    void testDescribeFirstParent() throws Exception {
+        GitTagDescription description = mock(GitTagDescription.class);
+        GitTagDescription firstParentDescription = mock(GitTagDescription.class);
+        DescribeOptions firstParent = new DescribeOptions(true, false);
+        when(repository.describe(DescribeOptions.DEFAULT)).thenReturn(description);
+        when(repository.describe(firstParent)).thenReturn(firstParentDescription);
+
+        assertThat(snapshot.describe(DescribeOptions.DEFAULT), is(sameInstance(description)));
+        assertThat(snapshot.describe(firstParent), is(sameInstance(firstParentDescription)));
+        assertThat(snapshot.describe(new DescribeOptions(true, false)), is(sameInstance(firstParentDescription)));
+        assertThat(snapshot.describe(DescribeOptions.DEFAULT), is(sameInstance(description)));
+
+        verify(repository).describe(DescribeOptions.DEFAULT);
+        verify(repository).describe(firstParent);
+    }
+
+    @DisplayName("should describe the HEAD commit again after an error")
+    @Test
+    void testDescribeError() throws Exception {
+        GitTagDescription description = mock(GitTagDescription.class);
+        GitRepositoryException exception = new GitRepositoryException("");
+        when(repository.describe(DescribeOptions.DEFAULT))
+            .thenThrow(exception)
+            .thenReturn(description);
+
+        GitRepositoryException e = assertThrows(GitRepositoryException.class,
+            () -> snapshot.describe(DescribeOptions.DEFAULT));
+        assertThat(e, is(sameInstance(exception)));
+        assertThat(snapshot.describe(DescribeOptions.DEFAULT), is(sameInstance(description)));
+
+        verify(repository, times(2)).describe(DescribeOptions.DEFAULT);
+    }
+
+    @DisplayName("should abbreviate the HEAD commit only once")
+    @Test
+    void testGetAbbreviatedCommitId() throws Exception {
+        when(repository.getAbbreviatedCommitId()).thenReturn("deadbeef");
+
+        assertThat(snapshot.getAbbreviatedCommitId(), is(equalTo("deadbeef")));
+        assertThat(snapshot.getAbbreviatedCommitId(), is(equalTo("deadbeef")));
+
+        verify(repository).getAbbreviatedCommitId();
+    }
+
+    @DisplayName("should resolve the branch only once")
+    @Test
+    void testGetBranch() throws Exception {
+        when(repository.getBranch()).thenReturn("master");
+
+        assertThat(snapshot.getBranch(), is(equalTo("master")));
+        assertThat(snapshot.getBranch(), is(equalTo("master")));
+
+        verify(repository).getBranch();
+    }
+
+    @DisplayName("should resolve a detached HEAD only once")
+    @Test
+    void testGetBranchDetached() throws Exception {
+        assertThat(snapshot.getBranch(), is(nullValue()));
+        assertThat(snapshot.getBranch(), is(nullValue()));
+
+        verify(repository).getBranch();
+    }
+
+    @DisplayName("should resolve the HEAD commit only once")
+    @Test
+    void testGetHeadCommit() throws Exception {
+        GitCommit commit = mock(GitCommit.class);
+        when(repository.getHeadCommit()).thenReturn(commit);
+
+        assertThat(snapshot.getHeadCommit(), is(sameInstance(commit)));
+        assertThat(snapshot.getHeadCommit(), is(sameInstance(commit)));
+
+        verify(repository).getHeadCommit();
+    }
+
+    @DisplayName("should check the worktree state only once")
+    @Test
+    void testIsDirty() throws Exception {
+        DirtyCheckOptions options = new DirtyCheckOptions(false);
+        DirtyCheckOptions optionsIgnoreUntracked = new DirtyCheckOptions(true);
+        when(repository.isDirty(options)).thenReturn(true);
+        when(repository.isDirty(optionsIgnoreUntracked)).thenReturn(false);
+
+        assertThat(snapshot.isDirty(options), is(true));
+        assertThat(snapshot.isDirty(new DirtyCheckOptions(false)), is(true));
+        assertThat(snapshot.isDirty(optionsIgnoreUntracked), is(false));
+        assertThat(snapshot.isDirty(new DirtyCheckOptions(true)), is(false));
+
+        verify(repository).isDirty(options);
+        verify(repository).isDirty(optionsIgnoreUntracked);
+    }
+
+    @DisplayName("should check the worktree state only once for different threads and caching")
+    @Test
+    void testIsDirtyThreadsAndCache() throws Exception {
+        DirtyCheckOptions options = new DirtyCheckOptions(false).withThreads(4);
+        when(repository.isDirty(options)).thenReturn(true);
+
+        assertThat(snapshot.isDirty(options), is(true));
+        assertThat(snapshot.isDirty(new DirtyCheckOptions(false)), is(true));
+        assertThat(snapshot.isDirty(new DirtyCheckOptions(false).withCache(true)), is(true));
+
+        verify(repository).isDirty(options);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @DisplayName("should not block other requests while checking the worktree state")
+    @Test
+    void testIsDirtyConcurrent() throws Exception {
+        DirtyCheckOptions options = new DirtyCheckOptions(false);
+        CountDownLatch checkStarted = new CountDownLatch(1);
+        CountDownLatch checkFinished = new CountDownLatch(1);
+        when(repository.getBranch()).thenReturn("master");
+        when(repository.isDirty(options)).thenAnswer(invocation -> {
+            checkStarted.countDown();
+            assertTrue(checkFinished.await(10, SECONDS));
+            return true;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> dirtyState = executor.submit(() -> snapshot.isDirty(options));
+            assertTrue(checkStarted.await(10, SECONDS));
+            Future<Boolean> otherDirtyState = executor.submit(() -> snapshot.isDirty(options.withThreads(2)));
+
+            assertThat(snapshot.getBranch(), is(equalTo("master")));
+            assertThat(dirtyState.isDone(), is(false));
+
+            checkFinished.countDown();
+
+            assertThat(dirtyState.get(10, SECONDS), is(true));
+            assertThat(otherDirtyState.get(10, SECONDS), is(true));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(repository).isDirty(options);
+    }
+
+    @DisplayName("should check the worktree state again after an error")
+    @Test
+    void testIsDirtyError() throws Exception {
+        DirtyCheckOptions options = new DirtyCheckOptions(false);
+        when(repository.isDirty(options))
+            .thenThrow(new GitRepositoryException(""))
+            .thenReturn(false);
+
+        assertThrows(GitRepositoryException.class, () -> snapshot.isDirty(options));
+        assertThat(snapshot.isDirty(options), is(false));
+
+        verify(repository, times(2)).isDirty(options);
+    }
+
+    @DisplayName("should wait for a worktree check started in the background")
+    @Test
+    void testIsDirtyAsync() throws Exception {
+        DirtyCheckOptions options = new DirtyCheckOptions(false);
+        CompletableFuture<Boolean> dirtyState = new CompletableFuture<>();
+        when(repository.isDirtyAsync(options)).thenReturn(dirtyState);
+
+        assertThat(snapshot.isDirtyAsync(options), is(sameInstance(dirtyState)));
+        assertThat(snapshot.isDirtyAsync(new DirtyCheckOptions(false)), is(sameInstance(dirtyState)));
+
+        dirtyState.complete(true);
+
+        assertThat(snapshot.isDirty(options), is(true));
+
+        verify(repository).isDirtyAsync(options);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @DisplayName("should report errors of a worktree check started in the background")
+    @Test
+    void testIsDirtyAsyncError() {
+        DirtyCheckOptions options = new DirtyCheckOptions(false);
+        GitRepositoryException exception = new GitRepositoryException("");
+        CompletableFuture<Boolean> dirtyState = new CompletableFuture<>();
+        dirtyState.completeExceptionally(new CompletionException(exception));
+        when(repository.isDirtyAsync(options)).thenReturn(dirtyState);
+
+        snapshot.isDirtyAsync(options);
+
+        GitRepositoryException e = assertThrows(GitRepositoryException.class,
+            () -> snapshot.isDirty(options));
+        assertThat(e, is(sameInstance(exception)));
+    }
+
+    @DisplayName("should check the worktree state once per set of paths")
+    @Test
+    void testIsDirtyPaths() throws Exception {
+        DirtyCheckOptions options = new DirtyCheckOptions(false);
+        DirtyCheckOptions optionsModule = new DirtyCheckOptions(false, singletonList("module"));
+        when(repository.isDirty(options)).thenReturn(true);
+        when(repository.isDirty(optionsModule)).thenReturn(false);
+
+        assertThat(snapshot.isDirty(options), is(true));
+        assertThat(snapshot.isDirty(optionsModule), is(false));
+        assertThat(snapshot.isDirty(new DirtyCheckOptions(false, singletonList("module"))), is(false));
+
+        verify(repository).isDirty(options);
+        verify(repository).isDirty(optionsModule);
+    }
+
+    @DisplayName("should infer a clean state ignoring untracked files from a clean worktree")
+    @Test
+    void testIsDirtyCleanWorktree() throws Exception {
+        DirtyCheckOptions options = new DirtyCheckOptions(false);
+        when(repository.isDirty(options)).thenReturn(false);
+
+        assertThat(snapshot.isDirty(options), is(false));
+        assertThat(snapshot.isDirty(new DirtyCheckOptions(true)), is(false));
+
+        verify(repository).isDirty(options);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @DisplayName("should infer a dirty worktree from a dirty state ignoring untracked files")
+    @Test
+    void testIsDirtyIgnoringUntracked() throws Exception {
+        DirtyCheckOptions options = new DirtyCheckOptions(true);
+        when(repository.isDirty(options)).thenReturn(true);
+
+        assertThat(snapshot.isDirty(options), is(true));
+        assertThat(snapshot.isDirty(new DirtyCheckOptions(false)), is(true));
+
+        verify(repository).isDirty(options);
+        verifyNoMoreInteractions(repository);
+    }
+
+}
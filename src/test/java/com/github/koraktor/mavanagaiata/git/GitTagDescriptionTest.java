@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2012-2019, Sebastian Staudt
+ * Copyright (c) 2012-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.git;
@@ -22,6 +22,8 @@ class GitTagDescriptionTest {
     void test() {
         GitTagDescription description = new GitTagDescription("deadbeef", "1.0.0", 3);
 
+        assertThat(description.getAbbreviatedCommitId(), is(equalTo("deadbeef")));
+        assertThat(description.getDistance(), is(3));
         assertThat(description.getNextTagName(), is(equalTo("1.0.0")));
         assertThat(description.isTagged(), is(false));
         assertThat(description.toString(), is(equalTo("1.0.0-3-gdeadbeef")));
@@ -32,6 +34,7 @@ class GitTagDescriptionTest {
     void testNoTag() {
         GitTagDescription description = new GitTagDescription("deadbeef", null, -1);
 
+        assertThat(description.getDistance(), is(-1));
         assertThat(description.getNextTagName(), is(equalTo("")));
         assertThat(description.isTagged(), is(false));
         assertThat(description.toString(), is(equalTo("deadbeef")));
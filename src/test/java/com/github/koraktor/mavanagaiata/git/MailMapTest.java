@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2014-2025, Sebastian Staudt
+ * Copyright (c) 2014-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.git;
@@ -148,6 +148,7 @@ class MailMapTest {
 
         mailMap.parseMailMap(mailMapFile);
 
+        assertThat(mailMap.getId(), is(equalTo("c51ff7a04ef199027ab3e8c32bb4046ce8ec6f03")));
         assertThat(mailMap.mailToMailMap.size(), is(1));
         assertThat(mailMap.mailToMailMap.get("oldmail@example.com"), is(equalTo("newmail@example.com")));
         assertThat(mailMap.mailToNameMap.size(), is(1));
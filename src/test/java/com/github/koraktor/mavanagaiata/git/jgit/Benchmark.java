@@ -0,0 +1,224 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.internal.storage.file.ObjectDirectory;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * A minimal harness for timing operations on generated repositories
+ * <p>
+ * Benchmarks are plain programs, so they never slow down the tests and need
+ * no additional dependencies. They can be run after compiling the tests:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.github.koraktor.mavanagaiata.git.jgit.JGitDirtyCheckBenchmark
+ * </pre>
+ * Each operation is run a few times to warm up the JIT and is then measured
+ * repeatedly. The median time and the memory allocated by a single run are
+ * reported. The number of runs can be changed using the system properties
+ * {@code benchmark.warmups} and {@code benchmark.iterations}. The size of
+ * the generated repositories can be changed using the properties documented
+ * by each benchmark.
+ *
+ * @author Sebastian Staudt
+ */
+final class Benchmark implements AutoCloseable {
+
+    /**
+     * An operation to measure
+     */
+    @FunctionalInterface
+    interface Operation {
+
+        /**
+         * Runs the operation once
+         *
+         * @return The result of the operation, so it cannot be optimized
+         *         away
+         * @throws Exception if the operation fails
+         */
+        Object run() throws Exception;
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int iterations = Integer.getInteger("benchmark.iterations", 10);
+
+    private final int warmups = Integer.getInteger("benchmark.warmups", 3);
+
+    private final File directory;
+
+    /**
+     * Creates a new benchmark using a temporary directory for its
+     * repositories
+     *
+     * @param name The name of the benchmark
+     * @throws IOException if the temporary directory cannot be created
+     */
+    Benchmark(String name) throws IOException {
+        directory = Files.createTempDirectory("mavanagaiata-benchmark").toFile();
+
+        System.out.printf("%s (%d warmups, %d iterations, Java %s)%n", name,
+            warmups, iterations, System.getProperty("java.version"));
+    }
+
+    /**
+     * Returns the value of an integer system property
+     *
+     * @param name The name of the property
+     * @param defaultValue The value to use if the property is not set
+     * @return The value of the property
+     */
+    static int getSize(String name, int defaultValue) {
+        return Integer.getInteger("benchmark." + name, defaultValue);
+    }
+
+    /**
+     * Returns a new directory for a generated repository
+     *
+     * @param name The name of the directory
+     * @return The new directory
+     * @throws IOException if the directory cannot be created
+     */
+    File createDirectory(String name) throws IOException {
+        File workTree = new File(directory, name);
+        Files.createDirectories(workTree.toPath());
+
+        return workTree;
+    }
+
+    /**
+     * Creates a new repository with a worktree
+     * <p>
+     * History is best generated using {@link #newPackInserter}, so it does
+     * not have to be committed file by file.
+     *
+     * @param name The name of the worktree
+     * @return The new repository, it has to be closed by the caller
+     * @throws Exception if the repository cannot be created
+     */
+    Repository createRepository(String name) throws Exception {
+        return Git.init().setDirectory(createDirectory(name)).call().getRepository();
+    }
+
+    /**
+     * Returns an inserter writing all objects into a single pack
+     * <p>
+     * This is much faster than writing loose objects and matches the
+     * layout of real repositories. The objects are only visible after the
+     * inserter has been flushed.
+     *
+     * @param repository The repository to insert objects into
+     * @return A new pack inserter
+     */
+    static ObjectInserter newPackInserter(Repository repository) {
+        return ((ObjectDirectory) repository.getObjectDatabase()).newPackInserter();
+    }
+
+    /**
+     * Inserts a new commit
+     *
+     * @param inserter The inserter to use
+     * @param tree The tree of the commit
+     * @param author The author and committer of the commit
+     * @param message The message of the commit
+     * @param parents The parents of the commit
+     * @return The ID of the new commit
+     * @throws IOException if the commit cannot be inserted
+     */
+    static ObjectId insertCommit(ObjectInserter inserter, ObjectId tree,
+                                 PersonIdent author, String message,
+                                 ObjectId... parents) throws IOException {
+        CommitBuilder commit = new CommitBuilder();
+        commit.setAuthor(author);
+        commit.setCommitter(author);
+        commit.setMessage(message);
+        commit.setParentIds(parents);
+        commit.setTreeId(tree);
+
+        return inserter.insert(commit);
+    }
+
+    /**
+     * Points the given ref to the given object
+     *
+     * @param repository The repository to update
+     * @param ref The name of the ref
+     * @param id The new target of the ref
+     * @throws IOException if the ref cannot be updated
+     */
+    static void updateRef(Repository repository, String ref, ObjectId id)
+            throws IOException {
+        RefUpdate refUpdate = repository.updateRef(ref);
+        refUpdate.setNewObjectId(id);
+        RefUpdate.Result result = refUpdate.forceUpdate();
+        if (result != RefUpdate.Result.NEW && result != RefUpdate.Result.FORCED) {
+            throw new IOException("Could not update " + ref + ": " + result);
+        }
+    }
+
+    /**
+     * Measures the given operation and prints the results
+     *
+     * @param label The label for the results
+     * @param operation The operation to measure
+     * @return The result of the last run of the operation
+     * @throws Exception if the operation fails
+     */
+    Object measure(String label, Operation operation) throws Exception {
+        Object result = null;
+        for (int i = 0; i < warmups; i ++) {
+            result = operation.run();
+        }
+
+        long[] times = new long[iterations];
+        long[] allocations = new long[iterations];
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < iterations; i ++) {
+            long allocated = THREADS.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            result = operation.run();
+            times[i] = System.nanoTime() - start;
+            allocations[i] = THREADS.getThreadAllocatedBytes(threadId) - allocated;
+        }
+        Arrays.sort(times);
+        Arrays.sort(allocations);
+
+        System.out.printf("  %-48s %10.2f ms %12.1f KB  (%s)%n", label,
+            times[iterations / 2] / 1e6, allocations[iterations / 2] / 1024.0,
+            result);
+
+        return result;
+    }
+
+    /**
+     * Deletes all generated repositories
+     *
+     * @throws IOException if the repositories cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        FileUtils.deleteDirectory(directory);
+    }
+}
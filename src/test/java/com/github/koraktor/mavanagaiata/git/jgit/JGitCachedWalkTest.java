@@ -0,0 +1,203 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FileUtils;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction;
+import com.github.koraktor.mavanagaiata.git.CommitFilter;
+
+import static java.util.Collections.*;
+import static org.eclipse.jgit.lib.Constants.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.core.Is.*;
+import static org.hamcrest.core.IsEqual.*;
+
+/**
+ * @author Sebastian Staudt
+ */
+@DisplayName("JGitCachedWalk")
+class JGitCachedWalkTest {
+
+    private Git git;
+
+    private long time = 1_000_000_000L;
+
+    private File workTree;
+
+    @BeforeEach
+    void setup() throws Exception {
+        workTree = Files.createTempDirectory("mavanagaiata-cached-walk").toFile();
+        git = Git.init().setDirectory(workTree).call();
+
+        RevCommit base = commit("Initial commit", "John Doe", 0);
+        commit("Second commit", "Jane Doe", 10);
+        commit("Third commit", "John Doe", 0);
+        git.checkout().setCreateBranch(true).setName("feature").setStartPoint(base).call();
+        commit("Feature commit", "Jane Doe", 5);
+        commit("Second feature commit", "John Doe", 0);
+        git.checkout().setName(MASTER).call();
+        git.merge().setCommit(false).include(git.getRepository().resolve("feature")).call();
+        commit("Merge", "Jane Doe", 2);
+        commit("Fourth commit", "John Doe", 1);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        git.close();
+        FileUtils.deleteDirectory(workTree);
+    }
+
+    @DisplayName("should only support filters not needing more than the cached metadata")
+    @Test
+    void testSupports() {
+        assertThat(JGitCachedWalk.supports(CommitFilter.ALL.withoutMerges()
+            .withSince(new Date()).withFirstParent()), is(true));
+        assertThat(JGitCachedWalk.supports(CommitFilter.ALL.withoutHistoryOf("1.0.0")), is(false));
+        assertThat(JGitCachedWalk.supports(CommitFilter.ALL.withPaths(singletonList("api"))), is(false));
+        assertThat(JGitCachedWalk.supports(CommitFilter.ALL.withoutMessages(Pattern.compile("skip"))), is(false));
+    }
+
+    @DisplayName("should visit commits in the same order as a RevWalk")
+    @Test
+    void testWalk() throws Exception {
+        assertThat(cachedWalk(CommitFilter.ALL), is(equalTo(revWalk(CommitFilter.ALL))));
+    }
+
+    @DisplayName("should filter commits the same way as a RevWalk")
+    @Test
+    void testWalkFiltered() throws Exception {
+        CommitFilter filter = CommitFilter.ALL.withoutMerges();
+
+        List<ObjectId> commits = cachedWalk(filter);
+
+        assertThat(commits.size(), is(6));
+        assertThat(commits, is(equalTo(revWalk(filter))));
+    }
+
+    @DisplayName("should stop at the first commit that is too old")
+    @Test
+    void testWalkSince() throws Exception {
+        CommitFilter filter = CommitFilter.ALL
+            .withSince(new Date((1_000_000_000L + 12) * 1000));
+
+        List<ObjectId> commits = cachedWalk(filter);
+
+        assertThat(commits.size(), is(4));
+        assertThat(commits, is(equalTo(revWalk(filter))));
+    }
+
+    @DisplayName("should only follow first parents")
+    @Test
+    void testWalkFirstParent() throws Exception {
+        CommitFilter filter = CommitFilter.ALL.withFirstParent();
+
+        List<ObjectId> commits = cachedWalk(filter);
+
+        assertThat(commits.size(), is(5));
+        assertThat(commits, is(equalTo(revWalk(filter))));
+    }
+
+    @DisplayName("should stop once the action has been stopped")
+    @Test
+    void testWalkStopped() throws Exception {
+        Repository repository = git.getRepository();
+        List<ObjectId> commits = new ArrayList<>();
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            JGitCommitCache cache = new JGitCommitCache(repository)
+                .update(revWalk, repository.resolve(HEAD));
+            new JGitCachedWalk(cache, revWalk).walk(repository.resolve(HEAD), new AbstractCommitWalkAction() {
+                @Override
+                protected void run() {
+                    commits.add(ObjectId.fromString(currentCommit.getId()));
+                    if (commits.size() == 2) {
+                        stop();
+                    }
+                }
+            });
+        }
+
+        assertThat(commits, is(equalTo(revWalk(CommitFilter.ALL).subList(0, 2))));
+    }
+
+    private AbstractCommitWalkAction collect(List<ObjectId> commits, CommitFilter filter) {
+        return new AbstractCommitWalkAction() {
+            @Override
+            public CommitDetail getCommitDetail() {
+                return CommitDetail.AUTHOR;
+            }
+
+            @Override
+            public CommitFilter getCommitFilter() {
+                return filter;
+            }
+
+            @Override
+            protected void run() {
+                commits.add(ObjectId.fromString(currentCommit.getId()));
+            }
+        };
+    }
+
+    private RevCommit commit(String message, String name, int timeOffset) throws Exception {
+        time += timeOffset;
+        PersonIdent ident = new PersonIdent(name,
+            name.toLowerCase().replace(' ', '.') + "@example.com", time * 1000, 0);
+
+        return git.commit().setMessage(message).setAuthor(ident)
+            .setCommitter(ident).setSign(false).call();
+    }
+
+    private List<ObjectId> cachedWalk(CommitFilter filter) throws Exception {
+        Repository repository = git.getRepository();
+        List<ObjectId> commits = new ArrayList<>();
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            JGitCommitCache cache = new JGitCommitCache(repository)
+                .update(revWalk, repository.resolve(HEAD));
+            revWalk.reset();
+            new JGitCachedWalk(cache, revWalk).walk(repository.resolve(HEAD), collect(commits, filter));
+        }
+
+        return commits;
+    }
+
+    private List<ObjectId> revWalk(CommitFilter filter) throws Exception {
+        Repository repository = git.getRepository();
+        List<ObjectId> commits = new ArrayList<>();
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            revWalk.setFirstParent(filter.isFirstParent());
+            revWalk.markStart(revWalk.parseCommit(repository.resolve(HEAD)));
+            revWalk.setRevFilter(JGitCommitFilter.create(revWalk, filter));
+            for (RevCommit commit : revWalk) {
+                commits.add(commit.copy());
+            }
+        }
+
+        return commits;
+    }
+
+}
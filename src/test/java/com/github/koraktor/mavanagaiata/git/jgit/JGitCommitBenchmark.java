@@ -0,0 +1,149 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.util.function.ToIntFunction;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.TreeFormatter;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction;
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction.CommitDetail;
+import com.github.koraktor.mavanagaiata.git.CommitWalkOptions;
+import com.github.koraktor.mavanagaiata.git.GitCommit;
+
+import static org.eclipse.jgit.lib.Constants.*;
+
+/**
+ * Compares the allocations of lazily and eagerly decoded commits
+ * <p>
+ * A linear history of {@code benchmark.commits} commits (default: 100,000)
+ * by 50 different authors is generated. It is walked for a changelog, which
+ * only needs the subjects, and for the contributors, which only need the
+ * authors. Each workload is run with commits decoding both identities when
+ * they are created, like {@code JGitCommit} did before, with lazily decoded
+ * commits and using {@code JGitRepository#walkCommits()}.
+ * <p>
+ * {@code walkCommits()} releases the raw data of each commit after decoding
+ * the {@link CommitDetail details} requested by the action, i.e. only the
+ * subjects for the changelog and only the authors for the contributors.
+ *
+ * @author Sebastian Staudt
+ * @see Benchmark
+ */
+class JGitCommitBenchmark {
+
+    /**
+     * A commit decoding both identities when it is created
+     */
+    private static class EagerCommit extends JGitCommit {
+
+        EagerCommit(RevCommit commit) {
+            super(commit);
+
+            author = commit.getAuthorIdent();
+            committer = commit.getCommitterIdent();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int commits = Benchmark.getSize("commits", 100_000);
+
+        try (Benchmark benchmark = new Benchmark("Commit decoding with " + commits + " commits");
+             Repository repository = benchmark.createRepository("history")) {
+            createHistory(repository, commits);
+
+            try (JGitRepository jgitRepository = new JGitRepository(repository.getWorkTree(), null, HEAD)) {
+                jgitRepository.check();
+
+                measure(benchmark, jgitRepository, "changelog", CommitDetail.SUBJECT,
+                    commit -> commit.getMessageSubject().length());
+                measure(benchmark, jgitRepository, "contributors", CommitDetail.AUTHOR,
+                    commit -> commit.getAuthorName().length() +
+                        commit.getAuthorEmailAddress().length() +
+                        (int) commit.getAuthorDate().getTime());
+            }
+        }
+    }
+
+    private static void createHistory(Repository repository, int commits)
+            throws Exception {
+        long time = System.currentTimeMillis() - commits * 60_000L;
+        ObjectId head;
+        try (ObjectInserter inserter = Benchmark.newPackInserter(repository)) {
+            ObjectId tree = inserter.insert(new TreeFormatter());
+            head = Benchmark.insertCommit(inserter, tree, author(0, time), message(0));
+            for (int i = 1; i < commits; i ++) {
+                head = Benchmark.insertCommit(inserter, tree,
+                    author(i, time + i * 60_000L), message(i), head);
+            }
+            inserter.flush();
+        }
+        Benchmark.updateRef(repository, R_HEADS + MASTER, head);
+    }
+
+    private static PersonIdent author(int i, long time) {
+        return new PersonIdent("Author " + i % 50, "author" + i % 50 + "@example.com", time, 0);
+    }
+
+    private static String message(int i) {
+        return "Change " + i + "\n\n" +
+            "A longer description of the change, which is part of the\n" +
+            "message but not of its subject.\n";
+    }
+
+    private static void measure(Benchmark benchmark, JGitRepository repository,
+                                String workload, CommitDetail detail,
+                                ToIntFunction<GitCommit> work) throws Exception {
+        System.out.println(" " + workload);
+
+        benchmark.measure("eager identities", () -> {
+            int result = 0;
+            try (RevWalk revWalk = repository.getRevWalk()) {
+                revWalk.markStart(revWalk.parseCommit(repository.getHeadObject()));
+                for (RevCommit commit : revWalk) {
+                    result += work.applyAsInt(new EagerCommit(commit));
+                }
+            }
+
+            return result;
+        });
+        benchmark.measure("lazy identities", () -> {
+            int result = 0;
+            try (RevWalk revWalk = repository.getRevWalk()) {
+                revWalk.markStart(revWalk.parseCommit(repository.getHeadObject()));
+                for (RevCommit commit : revWalk) {
+                    result += work.applyAsInt(new JGitCommit(commit));
+                }
+            }
+
+            return result;
+        });
+        benchmark.measure("walkCommits", () -> {
+            int[] result = new int[1];
+            repository.walkCommits(new AbstractCommitWalkAction() {
+                @Override
+                public CommitDetail getCommitDetail() {
+                    return detail;
+                }
+
+                @Override
+                protected void run() {
+                    result[0] += work.applyAsInt(currentCommit);
+                }
+            }, CommitWalkOptions.DEFAULT);
+
+            return result[0];
+        });
+    }
+}
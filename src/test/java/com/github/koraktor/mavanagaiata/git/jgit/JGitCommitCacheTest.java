@@ -0,0 +1,178 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.eclipse.jgit.lib.Constants.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.core.Is.*;
+import static org.hamcrest.core.IsEqual.*;
+import static org.hamcrest.core.IsNull.*;
+import static org.hamcrest.core.IsSame.*;
+
+/**
+ * @author Sebastian Staudt
+ */
+@DisplayName("JGitCommitCache")
+class JGitCommitCacheTest {
+
+    private Git git;
+
+    private RevCommit head;
+
+    private File workTree;
+
+    @BeforeEach
+    void setup() throws Exception {
+        workTree = Files.createTempDirectory("mavanagaiata-commit-cache").toFile();
+        git = Git.init().setDirectory(workTree).call();
+
+        RevCommit base = commit("Initial commit", 1000);
+        git.checkout().setCreateBranch(true).setName("feature").setStartPoint(base).call();
+        commit("Feature commit", 2000);
+        git.checkout().setName(MASTER).call();
+        commit("Second commit\n\nWith a message body", 3000);
+        git.merge().include(git.getRepository().resolve("feature"))
+            .setMessage("Merge feature").call();
+        head = git.getRepository().parseCommit(git.getRepository().resolve(HEAD));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        git.close();
+        FileUtils.deleteDirectory(workTree);
+    }
+
+    @DisplayName("should be empty if nothing has been cached")
+    @Test
+    void testEmpty() throws Exception {
+        JGitCommitCache cache = new JGitCommitCache(git.getRepository());
+
+        assertThat(cache.size(), is(0));
+        assertThat(cache.getTip(), is(nullValue()));
+        assertThat(cache.find(head), is(-1));
+    }
+
+    @DisplayName("should cache the metadata of all commits")
+    @Test
+    void testUpdate() throws Exception {
+        JGitCommitCache cache = update(new JGitCommitCache(git.getRepository()));
+
+        assertThat(cache.size(), is(4));
+        assertThat(cache.getTip(), is(equalTo(head)));
+        assertThat(new JGitCommitCache(git.getRepository()).size(), is(4));
+
+        try (RevWalk revWalk = new RevWalk(git.getRepository())) {
+            revWalk.markStart(revWalk.parseCommit(head));
+            for (RevCommit commit : revWalk) {
+                int position = cache.find(commit);
+                JGitCommit cachedCommit = cache.getCommit(revWalk, position);
+
+                assertThat(cache.getObjectId(position), is(equalTo(commit)));
+                assertThat(cache.getCommitTime(position), is((long) commit.getCommitTime()));
+                assertThat(cache.getParents(position).length, is(commit.getParentCount()));
+                for (int i = 0; i < commit.getParentCount(); i++) {
+                    assertThat(cache.getObjectId(cache.getParents(position)[i]), is(equalTo(commit.getParent(i))));
+                }
+                assertThat(cachedCommit.getId(), is(equalTo(commit.getName())));
+                assertThat(cachedCommit.getAuthorName(), is(equalTo(commit.getAuthorIdent().getName())));
+                assertThat(cachedCommit.getAuthorEmailAddress(), is(equalTo(commit.getAuthorIdent().getEmailAddress())));
+                assertThat(cachedCommit.getAuthorDate(), is(equalTo(commit.getAuthorIdent().getWhen())));
+                assertThat(cachedCommit.getAuthorTimeZone(), is(equalTo(commit.getAuthorIdent().getTimeZone())));
+                assertThat(cachedCommit.getCommitterName(), is(equalTo(commit.getCommitterIdent().getName())));
+                assertThat(cachedCommit.getCommitterDate(), is(equalTo(commit.getCommitterIdent().getWhen())));
+                assertThat(cachedCommit.getMessageSubject(), is(equalTo(commit.getShortMessage())));
+                assertThat(cachedCommit.getMessage(), is(nullValue()));
+                assertThat(cachedCommit.isMergeCommit(), is(commit.getParentCount() > 1));
+            }
+        }
+
+        assertThat(update(cache), is(sameInstance(cache)));
+    }
+
+    @DisplayName("should only add new commits")
+    @Test
+    void testUpdateExtend() throws Exception {
+        JGitCommitCache cache = update(new JGitCommitCache(git.getRepository()));
+
+        head = commit("Third commit", 4000);
+        JGitCommitCache updatedCache = update(cache);
+
+        assertThat(updatedCache.size(), is(5));
+        assertThat(updatedCache.getTip(), is(equalTo(head)));
+        try (RevWalk revWalk = new RevWalk(git.getRepository())) {
+            for (int i = 0; i < cache.size(); i++) {
+                int position = updatedCache.find(cache.getObjectId(i));
+                assertThat(updatedCache.getCommit(revWalk, position).getMessageSubject(),
+                    is(equalTo(cache.getCommit(revWalk, i).getMessageSubject())));
+            }
+            assertThat(updatedCache.getCommit(revWalk, updatedCache.find(head)).getMessageSubject(),
+                is(equalTo("Third commit")));
+        }
+    }
+
+    @DisplayName("should be rebuilt if the history has been rewritten")
+    @Test
+    void testUpdateRewritten() throws Exception {
+        JGitCommitCache cache = update(new JGitCommitCache(git.getRepository()));
+
+        git.reset().setMode(ResetCommand.ResetType.HARD).setRef(HEAD + "~1").call();
+        head = commit("Amended merge", 4000);
+        cache = update(cache);
+
+        assertThat(cache.size(), is(3));
+        assertThat(cache.getTip(), is(equalTo(head)));
+    }
+
+    @DisplayName("should ignore invalid cache files")
+    @Test
+    void testInvalid() throws Exception {
+        File cacheFile = new File(git.getRepository().getDirectory(), "mavanagaiata/" + JGitCommitCache.CACHE_FILE);
+        FileUtils.writeStringToFile(cacheFile, "invalid", UTF_8);
+
+        assertThat(new JGitCommitCache(git.getRepository()).size(), is(0));
+
+        FileUtils.writeByteArrayToFile(cacheFile, new byte[2048]);
+
+        assertThat(new JGitCommitCache(git.getRepository()).size(), is(0));
+        assertThat(update(new JGitCommitCache(git.getRepository())).size(), is(4));
+    }
+
+    private RevCommit commit(String message, long time) throws Exception {
+        PersonIdent ident = new PersonIdent("John Doe", "john.doe@example.com",
+            time * 1000, 60);
+
+        return git.commit().setMessage(message).setAuthor(ident)
+            .setCommitter(ident).setSign(false).call();
+    }
+
+    private JGitCommitCache update(JGitCommitCache cache) throws Exception {
+        Repository repository = git.getRepository();
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            return cache.update(revWalk, repository.resolve(HEAD));
+        }
+    }
+
+}
@@ -0,0 +1,245 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FileUtils;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.koraktor.mavanagaiata.git.CommitFilter;
+
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
+import static org.eclipse.jgit.lib.Constants.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.core.Is.*;
+import static org.hamcrest.core.IsEqual.*;
+
+/**
+ * @author Sebastian Staudt
+ */
+@DisplayName("JGitCommitFilter")
+class JGitCommitFilterTest {
+
+    private Git git;
+
+    private File workTree;
+
+    @BeforeEach
+    void setup() throws Exception {
+        workTree = Files.createTempDirectory("mavanagaiata-commit-filter").toFile();
+        git = Git.init().setDirectory(workTree).call();
+
+        RevCommit base = commit("Initial commit", "John Doe", 1000, "api/A.java");
+        commit("Second commit\n\n[ci skip]", "Jane Doe", 2000, "core/B.java");
+        git.checkout().setCreateBranch(true).setName("feature").setStartPoint(base).call();
+        commit("Feature commit", "John Doe", 3000, "api/C.java");
+        git.checkout().setName(MASTER).call();
+        git.merge().setCommit(false).include(git.getRepository().resolve("feature")).call();
+        commit("Merge", "Jane Doe", 4000, null);
+        commit("Fourth commit", "John Doe", 5000, "core/D.java");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        git.close();
+        FileUtils.deleteDirectory(workTree);
+    }
+
+    @DisplayName("should match all commits by default")
+    @Test
+    void testAll() throws Exception {
+        try (RevWalk revWalk = new RevWalk(git.getRepository())) {
+            assertThat(JGitCommitFilter.create(revWalk, CommitFilter.ALL), is(RevFilter.ALL));
+        }
+        assertFilter(CommitFilter.ALL, "Fourth commit", "Merge", "Feature commit",
+            "Second commit", "Initial commit");
+    }
+
+    @DisplayName("should skip merge commits")
+    @Test
+    void testWithoutMerges() throws Exception {
+        assertFilter(CommitFilter.ALL.withoutMerges(), "Fourth commit",
+            "Feature commit", "Second commit", "Initial commit");
+    }
+
+    @DisplayName("should skip commits with matching messages")
+    @Test
+    void testWithoutMessages() throws Exception {
+        assertFilter(CommitFilter.ALL.withoutMessages(Pattern.compile("^\\[ci skip\\]$", Pattern.MULTILINE)),
+            "Fourth commit", "Merge", "Feature commit", "Initial commit");
+        assertFilter(CommitFilter.ALL.withoutMessages(Pattern.compile("commit")),
+            "Merge");
+    }
+
+    @DisplayName("should skip commits older than the given time")
+    @Test
+    void testWithSince() throws Exception {
+        assertFilter(CommitFilter.ALL.withSince(new Date(2000000)),
+            "Fourth commit", "Merge", "Feature commit", "Second commit");
+        assertFilter(CommitFilter.ALL.withSince(new Date(3500000)),
+            "Fourth commit", "Merge");
+    }
+
+    @DisplayName("should combine filters")
+    @Test
+    void testCombined() throws Exception {
+        assertFilter(CommitFilter.ALL.withoutMerges()
+                .withoutMessages(Pattern.compile("^\\[ci skip\\]$", Pattern.MULTILINE))
+                .withSince(new Date(2000000)),
+            "Fourth commit", "Feature commit");
+    }
+
+    @DisplayName("should only match commits changing the given paths")
+    @Test
+    void testWithPaths() throws Exception {
+        assertFilter(CommitFilter.ALL.withPaths(singletonList("api")),
+            "Feature commit", "Initial commit");
+        assertFilter(CommitFilter.ALL.withPaths(singletonList("core/")),
+            "Fourth commit", "Second commit");
+        assertFilter(CommitFilter.ALL.withPaths(asList("api/A.java", "core/D.java")),
+            "Fourth commit", "Initial commit");
+        assertFilter(CommitFilter.ALL.withPaths(singletonList("")),
+            "Fourth commit", "Merge", "Feature commit", "Second commit",
+            "Initial commit");
+    }
+
+    @DisplayName("should stop at the first commit that is too old even if it does not change the paths")
+    @Test
+    void testWithPathsAndCommitTime() throws Exception {
+        ObjectId merge = git.getRepository().resolve(HEAD + "~1");
+        commit("Fifth commit", "Jane Doe", 6000, "core/E.java");
+        commit("Sixth commit", "John Doe", 7000, "api/F.java");
+        CommitFilter filter = CommitFilter.ALL.withPaths(singletonList("api"))
+            .withSince(new Date(6500000));
+
+        assertFilter(filter, "Sixth commit");
+
+        try (RevWalk revWalk = new RevWalk(git.getRepository())) {
+            revWalk.markStart(revWalk.parseCommit(git.getRepository().resolve(HEAD)));
+            revWalk.setRevFilter(JGitCommitFilter.create(revWalk, filter));
+            List<String> subjects = new ArrayList<>();
+            for (RevCommit commit : revWalk) {
+                subjects.add(commit.getShortMessage());
+            }
+
+            assertThat(subjects, is(equalTo(singletonList("Sixth commit"))));
+            assertThat("The merge commit should not be parsed",
+                revWalk.lookupCommit(merge).getCommitTime(), is(0));
+        }
+    }
+
+    @DisplayName("should use changed-path Bloom filters to match paths")
+    @Test
+    void testWithPathsChangedPathFilters() throws Exception {
+        CommitFilter filter = CommitFilter.ALL.withPaths(singletonList("api"));
+        try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+            repository.check();
+            repository.writeCommitGraph(true);
+
+            try (RevWalk revWalk = repository.getRevWalk(filter, false)) {
+                JGitCommitFilter.ChangedPathRevFilter revFilter =
+                    (JGitCommitFilter.ChangedPathRevFilter) JGitCommitFilter.create(revWalk, filter);
+                revWalk.markStart(revWalk.parseCommit(repository.getHeadObject()));
+                revWalk.setRevFilter(revFilter);
+                List<String> subjects = new ArrayList<>();
+                for (RevCommit commit : revWalk) {
+                    subjects.add(commit.getShortMessage());
+                }
+
+                assertThat(subjects, is(equalTo(asList("Feature commit", "Initial commit"))));
+                assertThat(revFilter.getChangedPathFilterNegative(), is(1L));
+            }
+        }
+    }
+
+    @DisplayName("should only read the commit-graph for walks benefiting from it")
+    @Test
+    void testCommitGraphUsage() throws Exception {
+        try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+            repository.check();
+            repository.writeCommitGraph(true);
+
+            try (RevWalk revWalk = repository.getRevWalk(CommitFilter.ALL, false)) {
+                assertThat(revWalk.getObjectReader().getCommitGraph().isPresent(), is(false));
+            }
+            try (RevWalk revWalk = repository.getRevWalk(CommitFilter.ALL, true)) {
+                assertThat(revWalk.getObjectReader().getCommitGraph().isPresent(), is(true));
+            }
+            try (RevWalk revWalk = repository.getRevWalk(CommitFilter.ALL.withPaths(singletonList("api")), false)) {
+                assertThat(revWalk.getObjectReader().getCommitGraph().isPresent(), is(true));
+            }
+        }
+    }
+
+    private void assertFilter(CommitFilter filter, String... subjects) throws Exception {
+        Repository repository = git.getRepository();
+        List<String> filteredSubjects = new ArrayList<>();
+        List<String> matchingSubjects = new ArrayList<>();
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            revWalk.markStart(revWalk.parseCommit(repository.resolve(HEAD)));
+            if (!filter.getPaths().isEmpty()) {
+                revWalk.setTreeFilter(AndTreeFilter.create(
+                    PathFilterGroup.createFromStrings(filter.getPaths()),
+                    TreeFilter.ANY_DIFF));
+            }
+            for (RevCommit commit : revWalk) {
+                if (filter.matches(new JGitCommit(commit))) {
+                    matchingSubjects.add(commit.getShortMessage());
+                }
+            }
+
+            revWalk.reset();
+            revWalk.setTreeFilter(TreeFilter.ALL);
+            revWalk.markStart(revWalk.parseCommit(repository.resolve(HEAD)));
+            revWalk.setRevFilter(JGitCommitFilter.create(revWalk, filter));
+            for (RevCommit commit : revWalk) {
+                filteredSubjects.add(commit.getShortMessage());
+            }
+        }
+
+        assertThat(filteredSubjects, is(equalTo(asList(subjects))));
+        assertThat("CommitFilter disagrees", matchingSubjects, is(equalTo(asList(subjects))));
+    }
+
+    private RevCommit commit(String message, String name, long time, String path) throws Exception {
+        if (path != null) {
+            FileUtils.writeStringToFile(new File(workTree, path), message, UTF_8);
+            git.add().addFilepattern(path).call();
+        }
+
+        PersonIdent ident = new PersonIdent(name,
+            name.toLowerCase().replace(' ', '@') + ".example.com", time * 1000, 0);
+
+        return git.commit().setMessage(message).setAuthor(ident)
+            .setCommitter(ident).setSign(false).call();
+    }
+
+}
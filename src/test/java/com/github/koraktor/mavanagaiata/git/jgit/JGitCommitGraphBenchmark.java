@@ -0,0 +1,137 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.TagBuilder;
+import org.eclipse.jgit.lib.TreeFormatter;
+
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction;
+import com.github.koraktor.mavanagaiata.git.CommitWalkOptions;
+import com.github.koraktor.mavanagaiata.git.DescribeOptions;
+
+import static org.eclipse.jgit.lib.Constants.*;
+
+/**
+ * Compares history walks with and without a commit-graph
+ * <p>
+ * A history of {@code benchmark.commits} commits (default: 100,000) is
+ * generated, merging a side branch every 100 commits. The only annotated
+ * tag is on the root commit, so describing {@code HEAD} has to walk the
+ * whole history. The same operations are measured before and after the
+ * commit-graph has been written.
+ * <p>
+ * All operations scale linearly with the number of commits, so the default
+ * keeps a run at about two minutes. Use {@code -Dbenchmark.commits=500000}
+ * for histories as long as the largest repositories using this plugin.
+ *
+ * @author Sebastian Staudt
+ * @see Benchmark
+ */
+class JGitCommitGraphBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int commits = Benchmark.getSize("commits", 100_000);
+
+        try (Benchmark benchmark = new Benchmark("History walks with " + commits + " commits");
+             Repository repository = benchmark.createRepository("history")) {
+            ObjectId root = createHistory(repository, commits);
+
+            measure(benchmark, repository, root, "without commit-graph");
+
+            try (JGitRepository jgitRepository = new JGitRepository(repository.getWorkTree(), null, HEAD)) {
+                jgitRepository.check();
+                jgitRepository.writeCommitGraph(false);
+            }
+
+            measure(benchmark, repository, root, "with commit-graph");
+        }
+    }
+
+    private static ObjectId createHistory(Repository repository, int commits)
+            throws Exception {
+        long time = System.currentTimeMillis() - commits * 60_000L;
+        ObjectId root;
+        ObjectId head;
+        try (ObjectInserter inserter = Benchmark.newPackInserter(repository)) {
+            ObjectId tree = inserter.insert(new TreeFormatter());
+            root = Benchmark.insertCommit(inserter, tree, author(time), "Commit 0");
+            head = root;
+            ObjectId side = root;
+            for (int i = 1; i < commits; i ++) {
+                PersonIdent author = author(time + i * 60_000L);
+                if (i % 100 == 0) {
+                    head = Benchmark.insertCommit(inserter, tree, author, "Merge " + i, head, side);
+                    side = head;
+                } else if (i % 10 == 0) {
+                    side = Benchmark.insertCommit(inserter, tree, author, "Side commit " + i, side);
+                } else {
+                    head = Benchmark.insertCommit(inserter, tree, author, "Commit " + i, head);
+                }
+            }
+
+            TagBuilder tag = new TagBuilder();
+            tag.setObjectId(root, OBJ_COMMIT);
+            tag.setTag("0.1.0");
+            tag.setTagger(author(time));
+            tag.setMessage("Version 0.1.0");
+            ObjectId tagId = inserter.insert(tag);
+            inserter.flush();
+
+            Benchmark.updateRef(repository, R_TAGS + "0.1.0", tagId);
+        }
+        Benchmark.updateRef(repository, R_HEADS + MASTER, head);
+
+        return root;
+    }
+
+    private static PersonIdent author(long time) {
+        return new PersonIdent("Sebastian Staudt", "koraktor@gmail.com", time, 0);
+    }
+
+    private static void measure(Benchmark benchmark, Repository repository,
+                                ObjectId root, String state) throws Exception {
+        System.out.println(" " + state);
+
+        try (JGitRepository jgitRepository = new JGitRepository(repository.getWorkTree(), null, HEAD)) {
+            jgitRepository.check();
+
+            benchmark.measure("walkCommits (subjects)",
+                () -> walk(jgitRepository, CommitWalkOptions.DEFAULT));
+            benchmark.measure("walkCommits (subjects, streaming)",
+                () -> walk(jgitRepository, new CommitWalkOptions(false, true)));
+            benchmark.measure("describe",
+                () -> jgitRepository.describe(DescribeOptions.DEFAULT));
+            benchmark.measure("describe (first parent)",
+                () -> jgitRepository.describe(new DescribeOptions(true, false)));
+            benchmark.measure("isAncestorOfHead (root commit)",
+                () -> jgitRepository.isAncestorOfHead(root.name()));
+        }
+    }
+
+    private static int walk(JGitRepository repository, CommitWalkOptions options)
+            throws Exception {
+        int[] length = new int[1];
+        repository.walkCommits(new AbstractCommitWalkAction() {
+            @Override
+            public CommitDetail getCommitDetail() {
+                return CommitDetail.SUBJECT;
+            }
+
+            @Override
+            protected void run() {
+                length[0] += currentCommit.getMessageSubject().length();
+            }
+        }, options);
+
+        return length[0];
+    }
+}
@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2012-2025, Sebastian Staudt
+ * Copyright (c) 2012-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.git.jgit;
@@ -15,10 +15,14 @@ import org.eclipse.jgit.revwalk.RevCommit;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction.CommitDetail;
+
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
 
 @DisplayName("JGitCommit")
 class JGitCommitTest {
@@ -54,6 +58,63 @@ class JGitCommitTest {
         assertThat(commit, is(not(equalTo(authorDate))));
     }
 
+    @DisplayName("should decode the identities and the message only once")
+    @Test
+    void testCached() {
+        RevCommit rawCommit = RevCommit.parse(("tree 4b825dc642cb6eb9a060e54bf8d69288fbee4904\n" +
+            "author John Doe <john.doe@example.com> 1162580880 +0000\n" +
+            "committer Sebastian Staudt <koraktor@gmail.com> 1275131880 +0200\n" +
+            "\n" +
+            "Commit subject\n\nFull message.").getBytes());
+
+        JGitCommit commit = new JGitCommit(rawCommit);
+
+        assertThat(commit.author, is(nullValue()));
+        assertThat(commit.getAuthorName(), is(sameInstance(commit.getAuthorName())));
+        assertThat(commit.getCommitterName(), is(sameInstance(commit.getCommitterName())));
+        assertThat(commit.getMessage(), is(sameInstance(commit.getMessage())));
+        assertThat(commit.getMessageSubject(), is(sameInstance(commit.getMessageSubject())));
+    }
+
+    @DisplayName("should keep only the requested details after releasing the raw data")
+    @Test
+    void testDetach() {
+        RevCommit rawCommit = RevCommit.parse(("tree 4b825dc642cb6eb9a060e54bf8d69288fbee4904\n" +
+            "author John Doe <john.doe@example.com> 1162580880 +0000\n" +
+            "committer Sebastian Staudt <koraktor@gmail.com> 1275131880 +0200\n" +
+            "\n" +
+            "Commit subject\n\nFull message.").getBytes());
+
+        JGitCommit commit = new JGitCommit(rawCommit);
+        commit.detach(CommitDetail.AUTHOR);
+
+        assertThat(rawCommit.getRawBuffer(), is(nullValue()));
+        assertThat(commit.getAuthorName(), is(equalTo("John Doe")));
+        assertThat(commit.getCommitterDate(), is(equalTo(new Date(1275131880000L))));
+        assertThat(commit.getCommitterName(), is(nullValue()));
+        assertThat(commit.getId(), is(equalTo("518a7e6955ee38ecab34254e0796860bc679cfee")));
+        assertThat(commit.getMessage(), is(nullValue()));
+        assertThat(commit.getMessageSubject(), is(nullValue()));
+
+        rawCommit = RevCommit.parse(("tree 4b825dc642cb6eb9a060e54bf8d69288fbee4904\n" +
+            "author John Doe <john.doe@example.com> 1162580880 +0000\n" +
+            "committer Sebastian Staudt <koraktor@gmail.com> 1275131880 +0200\n" +
+            "\n" +
+            "Commit subject\n\nFull message.").getBytes());
+
+        commit = new JGitCommit(rawCommit);
+        commit.detach(CommitDetail.SUBJECT);
+
+        assertThat(rawCommit.getRawBuffer(), is(nullValue()));
+        assertThat(commit.author, is(nullValue()));
+        assertThat(commit.committer, is(nullValue()));
+        assertThat(commit.getAuthorName(), is(nullValue()));
+        assertThat(commit.getCommitterDate(), is(equalTo(new Date(1275131880000L))));
+        assertThat(commit.getCommitterName(), is(nullValue()));
+        assertThat(commit.getMessage(), is(nullValue()));
+        assertThat(commit.getMessageSubject(), is(equalTo("Commit subject")));
+    }
+
     @DisplayName("should recognize merge commits")
     @Test
     void testMergeCommit() {
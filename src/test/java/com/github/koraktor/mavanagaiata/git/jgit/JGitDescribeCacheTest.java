@@ -0,0 +1,126 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.koraktor.mavanagaiata.git.GitTagDescription;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.core.Is.*;
+import static org.hamcrest.core.IsEqual.*;
+import static org.hamcrest.core.IsNot.*;
+import static org.hamcrest.core.IsNull.*;
+
+/**
+ * @author Sebastian Staudt
+ */
+@DisplayName("JGitDescribeCache")
+class JGitDescribeCacheTest {
+
+    private JGitDescribeCache cache;
+
+    private Git git;
+
+    private ObjectId head;
+
+    private File workTree;
+
+    @BeforeEach
+    void setup() throws Exception {
+        workTree = Files.createTempDirectory("mavanagaiata-describe-cache").toFile();
+        git = Git.init().setDirectory(workTree).call();
+        head = git.commit().setMessage("Commit").setSign(false).call();
+        cache = new JGitDescribeCache(git.getRepository());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        git.close();
+        FileUtils.deleteDirectory(workTree);
+    }
+
+    @DisplayName("should return nothing if nothing has been cached")
+    @Test
+    void testEmpty() throws Exception {
+        assertThat(cache.get(cache.createKey(head, false)), is(nullValue()));
+    }
+
+    @DisplayName("should return a cached description")
+    @Test
+    void testDescription() throws Exception {
+        String key = cache.createKey(head, false);
+        cache.put(key, new GitTagDescription("deadbeef", "1.0.0", 3));
+
+        assertThat(cache.get(key).toString(), is(equalTo("1.0.0-3-gdeadbeef")));
+    }
+
+    @DisplayName("should return a cached description of a tagged commit")
+    @Test
+    void testTagged() throws Exception {
+        String key = cache.createKey(head, false);
+        cache.put(key, new GitTagDescription(null, "1.0.0", 0));
+
+        GitTagDescription description = cache.get(key);
+        assertThat(description.isTagged(), is(true));
+        assertThat(description.toString(), is(equalTo("1.0.0")));
+    }
+
+    @DisplayName("should return a cached description of an untagged commit")
+    @Test
+    void testUntagged() throws Exception {
+        String key = cache.createKey(head, false);
+        cache.put(key, new GitTagDescription("deadbeef", null, -1));
+
+        GitTagDescription description = cache.get(key);
+        assertThat(description.getNextTagName(), is(equalTo("")));
+        assertThat(description.toString(), is(equalTo("deadbeef")));
+    }
+
+    @DisplayName("should not return a description for another commit")
+    @Test
+    void testHeadChanged() throws Exception {
+        cache.put(cache.createKey(head, false), new GitTagDescription("deadbeef", null, -1));
+
+        ObjectId newHead = git.commit().setMessage("Commit").setSign(false).call();
+
+        assertThat(cache.get(cache.createKey(newHead, false)), is(nullValue()));
+    }
+
+    @DisplayName("should not return a description after the tags have changed")
+    @Test
+    void testTagsChanged() throws Exception {
+        String key = cache.createKey(head, false);
+        cache.put(key, new GitTagDescription("deadbeef", null, -1));
+
+        git.tag().setName("1.0.0").setMessage("1.0.0").setSigned(false).call();
+
+        assertThat(cache.createKey(head, false), is(not(equalTo(key))));
+        assertThat(cache.get(cache.createKey(head, false)), is(nullValue()));
+    }
+
+    @DisplayName("should not return a description using another mode")
+    @Test
+    void testFirstParentChanged() throws Exception {
+        cache.put(cache.createKey(head, false), new GitTagDescription("deadbeef", null, -1));
+
+        assertThat(cache.get(cache.createKey(head, true)), is(nullValue()));
+    }
+
+}
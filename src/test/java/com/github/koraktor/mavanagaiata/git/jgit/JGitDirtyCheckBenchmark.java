@@ -0,0 +1,119 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+
+import com.github.koraktor.mavanagaiata.git.DirtyCheckOptions;
+
+import static org.eclipse.jgit.lib.Constants.*;
+
+/**
+ * Compares the early-exit dirty check with a full {@code IndexDiff} and a
+ * result reused from the {@link JGitDirtyStateCache}
+ * <p>
+ * A worktree with {@code benchmark.files} files (default: 20,000) in
+ * directories of 100 files each is checked while it is clean, after
+ * modifying the first or the last file, after adding an untracked file and
+ * after touching all files without changing them.
+ * The {@code IndexDiff} is evaluated like {@code JGitRepository#isDirty()}
+ * did before the dirty check was added. The result of the cache has been
+ * recorded by the first warmup, so only the fingerprint is computed.
+ *
+ * @author Sebastian Staudt
+ * @see Benchmark
+ */
+class JGitDirtyCheckBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int files = Benchmark.getSize("files", 20_000);
+
+        try (Benchmark benchmark = new Benchmark("Dirty check with " + files + " files");
+             Git git = Git.init().setDirectory(benchmark.createDirectory("worktree")).call()) {
+            Repository repository = git.getRepository();
+            File workTree = repository.getWorkTree();
+
+            // Old modification times prevent racily clean index entries,
+            // which would have to be compared by content, and allow caching
+            // the results
+            long modified = System.currentTimeMillis() - 60_000;
+            for (int i = 0; i < files; i ++) {
+                File file = getFile(workTree, i);
+                FileUtils.writeStringToFile(file, "File " + i, StandardCharsets.UTF_8);
+                file.setLastModified(modified);
+                file.getParentFile().setLastModified(modified);
+            }
+            workTree.setLastModified(modified);
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("Add files").setSign(false).call();
+            ObjectId head = repository.resolve(HEAD);
+
+            measure(benchmark, repository, head, "clean");
+
+            File firstFile = getFile(workTree, 0);
+            FileUtils.writeStringToFile(firstFile, "Changed", StandardCharsets.UTF_8);
+            firstFile.setLastModified(modified + 1000);
+            measure(benchmark, repository, head, "first file modified");
+            git.checkout().setAllPaths(true).call();
+
+            File lastFile = getFile(workTree, files - 1);
+            FileUtils.writeStringToFile(lastFile, "Changed", StandardCharsets.UTF_8);
+            lastFile.setLastModified(modified + 1000);
+            measure(benchmark, repository, head, "last file modified");
+            git.checkout().setAllPaths(true).call();
+
+            FileUtils.writeStringToFile(new File(workTree, "untracked"), "Untracked", StandardCharsets.UTF_8);
+            workTree.setLastModified(modified);
+            measure(benchmark, repository, head, "untracked file");
+            new File(workTree, "untracked").delete();
+            workTree.setLastModified(modified);
+
+            // Files touched without changes, e.g. by switching branches,
+            // have to be compared by content
+            for (int i = 0; i < files; i ++) {
+                getFile(workTree, i).setLastModified(modified + 1000);
+            }
+            measure(benchmark, repository, head, "all files touched");
+        }
+    }
+
+    private static File getFile(File workTree, int i) {
+        return new File(workTree, String.format("dir-%04d/file-%04d", i / 100, i % 100));
+    }
+
+    private static void measure(Benchmark benchmark, Repository repository,
+                                ObjectId head, String state) throws Exception {
+        System.out.println(" " + state);
+
+        benchmark.measure("IndexDiff", () -> {
+            IndexDiff indexDiff = new IndexDiff(repository, head, new FileTreeIterator(repository));
+            indexDiff.diff();
+
+            return !indexDiff.getUntracked().isEmpty() ||
+                !(indexDiff.getAdded().isEmpty() && indexDiff.getChanged().isEmpty() &&
+                    indexDiff.getRemoved().isEmpty() &&
+                    indexDiff.getMissing().isEmpty() &&
+                    indexDiff.getModified().isEmpty() &&
+                    indexDiff.getConflicting().isEmpty());
+        });
+        benchmark.measure("JGitDirtyCheck",
+            () -> new JGitDirtyCheck(repository, head, false).isDirty());
+        benchmark.measure("JGitDirtyStateCache (cached result)",
+            () -> new JGitDirtyStateCache(repository).isDirty(new DirtyCheckOptions(false),
+                head, new JGitDirtyCheck(repository, head, false)));
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.submodule.SubmoduleWalk.IgnoreSubmoduleMode;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.Collections.*;
+import static org.eclipse.jgit.lib.Constants.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.core.Is.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JGitDirtyCheck")
+class JGitDirtyCheckTest {
+
+    private Git git;
+
+    private File workTree;
+
+    @BeforeEach
+    void setup() throws Exception {
+        workTree = Files.createTempDirectory("mavanagaiata-dirty").toFile();
+        git = Git.init().setDirectory(workTree).call();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        git.close();
+        FileUtils.deleteDirectory(workTree);
+    }
+
+    @DisplayName("should detect a clean worktree")
+    @Test
+    void testClean() throws Exception {
+        writeFile("file", "content");
+        commit();
+
+        assertDirty(false, false);
+        assertDirty(false, true);
+    }
+
+    @DisplayName("should detect a clean unborn branch")
+    @Test
+    void testCleanUnborn() throws Exception {
+        assertDirty(false, false);
+        assertDirty(false, true);
+    }
+
+    @DisplayName("should detect files added to the index of an unborn branch")
+    @Test
+    void testAddedUnborn() throws Exception {
+        writeFile("file", "content");
+        git.add().addFilepattern("file").call();
+
+        assertDirty(true, false);
+        assertDirty(true, true);
+    }
+
+    @DisplayName("should detect files added to the index")
+    @Test
+    void testAdded() throws Exception {
+        writeFile("file", "content");
+        commit();
+        writeFile("added", "content");
+        git.add().addFilepattern("added").call();
+
+        assertDirty(true, false);
+        assertDirty(true, true);
+    }
+
+    @DisplayName("should detect files changed in the index")
+    @Test
+    void testChanged() throws Exception {
+        writeFile("file", "content");
+        commit();
+        writeFile("file", "changed content");
+        git.add().addFilepattern("file").call();
+
+        assertDirty(true, false);
+        assertDirty(true, true);
+    }
+
+    @DisplayName("should detect files removed from the index")
+    @Test
+    void testRemoved() throws Exception {
+        writeFile("file", "content");
+        commit();
+        git.rm().addFilepattern("file").call();
+
+        assertDirty(true, false);
+        assertDirty(true, true);
+    }
+
+    @DisplayName("should detect files missing from the worktree")
+    @Test
+    void testMissing() throws Exception {
+        writeFile("dir/file", "content");
+        commit();
+        FileUtils.deleteDirectory(new File(workTree, "dir"));
+
+        assertDirty(true, false);
+        assertDirty(true, true);
+    }
+
+    @DisplayName("should detect modified files")
+    @Test
+    void testModified() throws Exception {
+        writeFile("dir/file", "content");
+        commit();
+        writeFile("dir/file", "CONTENT");
+
+        assertDirty(true, false);
+        assertDirty(true, true);
+    }
+
+    @DisplayName("should detect untracked files")
+    @Test
+    void testUntracked() throws Exception {
+        writeFile("file", "content");
+        commit();
+        writeFile("untracked/dir/file", "content");
+
+        assertDirty(true, false);
+        assertDirty(false, true);
+    }
+
+    @DisplayName("should not consider ignored files")
+    @Test
+    void testIgnored() throws Exception {
+        writeFile(".gitignore", "/target/\n");
+        commit();
+        writeFile("target/file", "content");
+
+        assertDirty(false, false);
+        assertDirty(false, true);
+    }
+
+    @DisplayName("should detect changes in nested directories")
+    @Test
+    void testNested() throws Exception {
+        writeFile("file", "content");
+        for (int i = 0; i < 10; i++) {
+            writeFile("module" + i + "/src/main/file", "content");
+        }
+        commit();
+
+        assertDirty(false, false);
+
+        writeFile("module7/src/main/file", "changed content");
+
+        assertDirty(true, false);
+        assertDirty(true, true);
+    }
+
+    @DisplayName("should only consider changes inside the given paths")
+    @Test
+    void testPaths() throws Exception {
+        writeFile("file", "content");
+        writeFile("module1/file", "content");
+        writeFile("module2/file", "content");
+        commit();
+        writeFile("file", "changed content");
+        writeFile("module1/file", "changed content");
+        writeFile("module2/untracked", "content");
+
+        assertDirty(false, false, "module3");
+        assertDirty(true, false, "module1");
+        assertDirty(true, false, "module2");
+        assertDirty(false, true, "module2");
+    }
+
+    @DisplayName("should ignore the configured changes of submodules")
+    @Test
+    void testSubmodules() throws Exception {
+        File subTree = Files.createTempDirectory("mavanagaiata-dirty-sub").toFile();
+        try (Git sub = Git.init().setDirectory(subTree).call()) {
+            FileUtils.writeStringToFile(new File(subTree, "file"), "content", UTF_8);
+            sub.add().addFilepattern("file").call();
+            sub.commit().setMessage("Commit").setSign(false).call();
+
+            writeFile("file", "content");
+            git.submoduleAdd().setPath("sub").setURI(subTree.toURI().toString()).call().close();
+            commit();
+
+            assertDirty(false, false);
+            assertDirty(false, false, IgnoreSubmoduleMode.NONE);
+
+            writeFile("sub/untracked", "content");
+
+            assertDirty(true, false, IgnoreSubmoduleMode.NONE);
+            assertDirty(true, true, IgnoreSubmoduleMode.NONE);
+            assertDirty(false, false, IgnoreSubmoduleMode.UNTRACKED);
+
+            writeFile("sub/file", "changed content");
+
+            assertDirty(true, true, IgnoreSubmoduleMode.NONE);
+            assertDirty(true, false, IgnoreSubmoduleMode.UNTRACKED);
+            assertDirty(false, false, IgnoreSubmoduleMode.DIRTY);
+            assertDirty(false, false, IgnoreSubmoduleMode.ALL);
+
+            try (Git submodule = Git.open(new File(workTree, "sub"))) {
+                submodule.commit().setAll(true).setMessage("Change").setSign(false).call();
+            }
+
+            assertDirty(true, false, IgnoreSubmoduleMode.DIRTY);
+            assertDirty(false, false, IgnoreSubmoduleMode.ALL);
+        } finally {
+            FileUtils.deleteDirectory(subTree);
+        }
+    }
+
+    private void assertDirty(boolean dirty, boolean ignoreUntracked, IgnoreSubmoduleMode mode) throws IOException {
+        Repository repository = git.getRepository();
+        ObjectId head = repository.resolve(HEAD);
+
+        JGitDirtyCheck dirtyCheck = new JGitDirtyCheck(repository, head, ignoreUntracked);
+        dirtyCheck.setIgnoreSubmoduleMode(mode);
+        assertThat(dirtyCheck.isDirty(), is(dirty));
+
+        IndexDiff indexDiff = new IndexDiff(repository, head, new FileTreeIterator(repository));
+        if (mode != null) {
+            indexDiff.setIgnoreSubmoduleMode(mode);
+        }
+        assertThat("IndexDiff disagrees", isDirty(indexDiff, ignoreUntracked), is(dirty));
+    }
+
+    private void assertDirty(boolean dirty, boolean ignoreUntracked, String path) throws IOException {
+        Repository repository = git.getRepository();
+        JGitDirtyCheck dirtyCheck = new JGitDirtyCheck(repository, repository.resolve(HEAD), ignoreUntracked);
+        dirtyCheck.setPaths(singletonList(path));
+
+        assertThat(dirtyCheck.isDirty(), is(dirty));
+
+        dirtyCheck.setThreads(4);
+        assertThat("Parallel check disagrees", dirtyCheck.isDirty(), is(dirty));
+    }
+
+    private void assertDirty(boolean dirty, boolean ignoreUntracked) throws IOException {
+        Repository repository = git.getRepository();
+        ObjectId head = repository.resolve(HEAD);
+
+        JGitDirtyCheck dirtyCheck = new JGitDirtyCheck(repository, head, ignoreUntracked);
+        assertThat(dirtyCheck.isDirty(), is(dirty));
+
+        dirtyCheck.setThreads(4);
+        assertThat("Parallel check disagrees", dirtyCheck.isDirty(), is(dirty));
+
+        IndexDiff indexDiff = new IndexDiff(repository, head, new FileTreeIterator(repository));
+        assertThat("IndexDiff disagrees", isDirty(indexDiff, ignoreUntracked), is(dirty));
+    }
+
+    private boolean isDirty(IndexDiff indexDiff, boolean ignoreUntracked) throws IOException {
+        indexDiff.diff();
+        return !ignoreUntracked && !indexDiff.getUntracked().isEmpty() ||
+            !(indexDiff.getAdded().isEmpty() && indexDiff.getChanged().isEmpty() &&
+                indexDiff.getRemoved().isEmpty() &&
+                indexDiff.getMissing().isEmpty() &&
+                indexDiff.getModified().isEmpty() &&
+                indexDiff.getConflicting().isEmpty());
+    }
+
+    private void commit() throws Exception {
+        git.add().addFilepattern(".").call();
+        git.commit().setMessage("Commit").setSign(false).call();
+    }
+
+    private void writeFile(String path, String content) throws IOException {
+        File file = new File(workTree, path);
+        assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        FileUtils.writeStringToFile(file, content, UTF_8);
+    }
+
+}
@@ -0,0 +1,302 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.io.FileUtils;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.lib.Repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.koraktor.mavanagaiata.git.DirtyCheckOptions;
+
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.Arrays.*;
+import static org.eclipse.jgit.lib.Constants.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.core.Is.*;
+import static org.hamcrest.core.IsEqual.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Sebastian Staudt
+ */
+@DisplayName("JGitDirtyStateCache")
+class JGitDirtyStateCacheTest {
+
+    static class CountingDirtyCheck extends JGitDirtyCheck {
+
+        int checks;
+
+        CountingDirtyCheck(Repository repository, boolean ignoreUntracked) throws IOException {
+            super(repository, repository.resolve(HEAD), ignoreUntracked);
+        }
+
+        @Override
+        boolean isDirty() throws IOException {
+            checks++;
+            return super.isDirty();
+        }
+    }
+
+    private Git git;
+
+    private File workTree;
+
+    @BeforeEach
+    void setup() throws Exception {
+        workTree = Files.createTempDirectory("mavanagaiata-dirty-cache").toFile();
+        git = Git.init().setDirectory(workTree).call();
+
+        writeFile("file", "content");
+        writeFile("dir/file", "content");
+        git.add().addFilepattern(".").call();
+        git.commit().setMessage("Commit").setSign(false).call();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        git.close();
+        FileUtils.deleteDirectory(workTree);
+    }
+
+    @DisplayName("should reuse the result if nothing changed")
+    @Test
+    void testReuse() throws Exception {
+        makeOld();
+
+        assertDirty(false, 1);
+        assertDirty(false, 0);
+        assertThat(new JGitDirtyStateCache(git.getRepository()).cacheFile.isFile(), is(true));
+    }
+
+    @DisplayName("should cache results for different options separately")
+    @Test
+    void testOptions() throws Exception {
+        writeFile("untracked", "content");
+        makeOld();
+
+        assertDirty(true, false, 1);
+        assertDirty(false, true, 1);
+        assertDirty(true, false, 0);
+        assertDirty(false, true, 0);
+    }
+
+    @DisplayName("should check again after a tracked file has been modified")
+    @Test
+    void testModified() throws Exception {
+        makeOld();
+        assertDirty(false, 1);
+
+        writeFile("dir/file", "CONTENT");
+        setLastModified(new File(workTree, "dir/file"), 20_000);
+
+        assertDirty(true, 1);
+        assertDirty(true, 0);
+    }
+
+    @DisplayName("should check again after an untracked file has been added")
+    @Test
+    void testUntracked() throws Exception {
+        makeOld();
+        assertDirty(false, 1);
+
+        writeFile("dir/untracked", "content");
+
+        assertDirty(true, 1);
+    }
+
+    @DisplayName("should check again after an untracked file has been added to a directory without tracked files")
+    @Test
+    void testUntrackedNewDirectory() throws Exception {
+        assertTrue(new File(workTree, "new/dir").mkdirs());
+        makeOld();
+        assertDirty(false, 1);
+
+        writeFile("new/dir/untracked", "content");
+
+        assertDirty(true, 1);
+    }
+
+    @DisplayName("should check again after an untracked file has been added to a directory with only ignored files")
+    @Test
+    void testUntrackedDirectoryWithIgnoredFiles() throws Exception {
+        writeFile(".gitignore", "*.log\n");
+        git.add().addFilepattern(".gitignore").call();
+        git.commit().setMessage("Ignore files").setSign(false).call();
+        writeFile("logs/dir/file.log", "content");
+        makeOld();
+        assertDirty(false, 1);
+        assertDirty(false, 0);
+
+        writeFile("logs/dir/untracked", "content");
+
+        assertDirty(true, 1);
+    }
+
+    @DisplayName("should not consider files added to ignored directories")
+    @Test
+    void testUntrackedIgnoredDirectory() throws Exception {
+        writeFile(".gitignore", "ignored/\n");
+        git.add().addFilepattern(".gitignore").call();
+        git.commit().setMessage("Ignore files").setSign(false).call();
+        assertTrue(new File(workTree, "ignored").mkdir());
+        makeOld();
+        assertDirty(false, 1);
+
+        writeFile("ignored/dir/file", "content");
+
+        assertDirty(false, 0);
+    }
+
+    @DisplayName("should only search untracked directories when recording a result")
+    @Test
+    void testUntrackedDirectoriesRecorded() throws Exception {
+        assertTrue(new File(workTree, "new/dir").mkdirs());
+        makeOld();
+        Repository repository = git.getRepository();
+        int[] searches = new int[1];
+        JGitDirtyStateCache cache = new JGitDirtyStateCache(repository) {
+            @Override
+            Set<String> findUntrackedDirectories(DirCache dirCache) throws IOException {
+                searches[0]++;
+                return super.findUntrackedDirectories(dirCache);
+            }
+        };
+        DirtyCheckOptions options = new DirtyCheckOptions(false);
+
+        assertThat(cache.isDirty(options, repository.resolve(HEAD), new CountingDirtyCheck(repository, false)), is(false));
+        assertThat(searches[0], is(1));
+        assertThat(new JGitDirtyStateCache(repository).findUntrackedDirectories(repository.readDirCache()),
+            is(equalTo(new TreeSet<>(asList("new", "new/dir")))));
+
+        CountingDirtyCheck dirtyCheck = new CountingDirtyCheck(repository, false);
+        assertThat(cache.isDirty(options, repository.resolve(HEAD), dirtyCheck), is(false));
+        assertThat(dirtyCheck.checks, is(0));
+        assertThat(searches[0], is(1));
+
+        assertThat(cache.isDirty(options.withIgnoreUntracked(true), repository.resolve(HEAD), new CountingDirtyCheck(repository, true)), is(false));
+        assertThat(searches[0], is(1));
+    }
+
+    @DisplayName("should check again after the index has changed")
+    @Test
+    void testIndex() throws Exception {
+        writeFile("dir/file", "CONTENT");
+        makeOld();
+        assertDirty(true, 1);
+
+        git.add().addFilepattern("dir/file").call();
+        makeOld();
+
+        assertDirty(true, 1);
+    }
+
+    @DisplayName("should check again after HEAD has changed")
+    @Test
+    void testHead() throws Exception {
+        writeFile("dir/file", "CONTENT");
+        makeOld();
+        assertDirty(true, 1);
+
+        git.commit().setAll(true).setMessage("Change").setSign(false).call();
+        makeOld();
+
+        assertDirty(false, 1);
+    }
+
+    @DisplayName("should not record results for recently modified files")
+    @Test
+    void testRacy() throws Exception {
+        makeOld();
+        setLastModified(new File(workTree, "dir/file"), JGitDirtyStateCache.RACY_THRESHOLD / 2);
+
+        assertDirty(false, 1);
+        assertDirty(false, 1);
+    }
+
+    @DisplayName("should detect changes to racily clean files not changing their size and timestamp")
+    @Test
+    void testRacyUnchangedTimestamp() throws Exception {
+        makeOld();
+        File file = new File(workTree, "dir/file");
+        long lastModified = System.currentTimeMillis() - JGitDirtyStateCache.RACY_THRESHOLD / 2;
+        assertTrue(file.setLastModified(lastModified));
+
+        assertDirty(false, 1);
+
+        writeFile("dir/file", "CONTENT");
+        assertTrue(file.setLastModified(lastModified));
+
+        assertDirty(true, 1);
+    }
+
+    @DisplayName("should detect racily modified directories")
+    @Test
+    void testRacyDirectory() throws Exception {
+        makeOld();
+        setLastModified(new File(workTree, "dir"), JGitDirtyStateCache.RACY_THRESHOLD / 2);
+
+        assertDirty(false, 1);
+        assertDirty(false, 1);
+    }
+
+    private void assertDirty(boolean dirty, int checks) throws IOException {
+        assertDirty(dirty, false, checks);
+    }
+
+    private void assertDirty(boolean dirty, boolean ignoreUntracked, int checks) throws IOException {
+        Repository repository = git.getRepository();
+        CountingDirtyCheck dirtyCheck = new CountingDirtyCheck(repository, ignoreUntracked);
+        JGitDirtyStateCache cache = new JGitDirtyStateCache(repository);
+
+        assertThat(cache.isDirty(new DirtyCheckOptions(ignoreUntracked), repository.resolve(HEAD), dirtyCheck), is(dirty));
+        assertThat(dirtyCheck.checks, is(checks));
+    }
+
+    private void makeOld() {
+        makeOld(workTree);
+    }
+
+    private void makeOld(File file) {
+        if (file.isDirectory()) {
+            File[] files = file.listFiles();
+            if (files != null) {
+                for (File child : files) {
+                    if (!child.getName().equals(DOT_GIT)) {
+                        makeOld(child);
+                    }
+                }
+            }
+        }
+
+        setLastModified(file, 60_000);
+    }
+
+    private void setLastModified(File file, long age) {
+        assertTrue(file.setLastModified(System.currentTimeMillis() - age));
+    }
+
+    private void writeFile(String path, String content) throws IOException {
+        File file = new File(workTree, path);
+        assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        FileUtils.writeStringToFile(file, content, UTF_8);
+    }
+
+}
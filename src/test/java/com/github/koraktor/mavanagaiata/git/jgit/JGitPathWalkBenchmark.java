@@ -0,0 +1,155 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.TreeFormatter;
+
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction;
+import com.github.koraktor.mavanagaiata.git.CommitFilter;
+import com.github.koraktor.mavanagaiata.git.CommitWalkOptions;
+
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.Collections.*;
+import static org.eclipse.jgit.lib.Constants.*;
+
+/**
+ * Compares history walks of a single module of a monorepo
+ * <p>
+ * A history of {@code benchmark.commits} commits (default: 20,000) is
+ * generated for {@code benchmark.modules} modules (default: 50) with 10
+ * files each. Every commit changes a single file of one of the modules. The
+ * history of one module is walked without a path filter, as every module
+ * did before the paths could be limited, and with a path filter before and
+ * after writing a commit-graph with and without changed-path Bloom filters.
+ *
+ * @author Sebastian Staudt
+ * @see Benchmark
+ */
+class JGitPathWalkBenchmark {
+
+    private static final int FILES = 10;
+
+    public static void main(String[] args) throws Exception {
+        int commits = Benchmark.getSize("commits", 20_000);
+        int modules = Benchmark.getSize("modules", 50);
+
+        try (Benchmark benchmark = new Benchmark("Walks of one of " + modules +
+                " modules with " + commits + " commits");
+             Repository repository = benchmark.createRepository("monorepo")) {
+            createHistory(repository, commits, modules);
+
+            try (JGitRepository jgitRepository = new JGitRepository(repository.getWorkTree(), null, HEAD)) {
+                jgitRepository.check();
+
+                System.out.println(" without commit-graph");
+                benchmark.measure("unfiltered walk", () -> walk(jgitRepository, CommitFilter.ALL));
+                measure(benchmark, jgitRepository);
+
+                jgitRepository.writeCommitGraph(false);
+                System.out.println(" with commit-graph");
+                measure(benchmark, jgitRepository);
+
+                jgitRepository.writeCommitGraph(true);
+                System.out.println(" with commit-graph and changed-path Bloom filters");
+                measure(benchmark, jgitRepository);
+            }
+        }
+    }
+
+    private static void createHistory(Repository repository, int commits,
+                                      int modules) throws Exception {
+        long time = System.currentTimeMillis() - commits * 60_000L;
+        ObjectId head = null;
+        try (ObjectInserter inserter = Benchmark.newPackInserter(repository)) {
+            ObjectId[][] files = new ObjectId[modules][FILES];
+            ObjectId[] moduleTrees = new ObjectId[modules];
+            for (int module = 0; module < modules; module ++) {
+                for (int file = 0; file < FILES; file ++) {
+                    files[module][file] = insertBlob(inserter, module + "/" + file);
+                }
+                moduleTrees[module] = insertTree(inserter, files[module]);
+            }
+
+            for (int i = 0; i < commits; i ++) {
+                int module = i * 7 % modules;
+                int file = i % FILES;
+                files[module][file] = insertBlob(inserter, "Change " + i);
+                moduleTrees[module] = insertTree(inserter, files[module]);
+
+                TreeFormatter tree = new TreeFormatter();
+                for (int j = 0; j < modules; j ++) {
+                    tree.append(moduleName(j), FileMode.TREE, moduleTrees[j]);
+                }
+
+                PersonIdent author = new PersonIdent("Sebastian Staudt",
+                    "koraktor@gmail.com", time + i * 60_000L, 0);
+                String message = "Change " + file + " of " + moduleName(module);
+                if (head == null) {
+                    head = Benchmark.insertCommit(inserter, inserter.insert(tree), author, message);
+                } else {
+                    head = Benchmark.insertCommit(inserter, inserter.insert(tree), author, message, head);
+                }
+            }
+            inserter.flush();
+        }
+        Benchmark.updateRef(repository, R_HEADS + MASTER, head);
+    }
+
+    private static ObjectId insertBlob(ObjectInserter inserter, String content)
+            throws Exception {
+        return inserter.insert(OBJ_BLOB, content.getBytes(UTF_8));
+    }
+
+    private static ObjectId insertTree(ObjectInserter inserter, ObjectId[] files)
+            throws Exception {
+        TreeFormatter tree = new TreeFormatter();
+        for (int file = 0; file < files.length; file ++) {
+            tree.append("file-" + file, FileMode.REGULAR_FILE, files[file]);
+        }
+
+        return inserter.insert(tree);
+    }
+
+    private static String moduleName(int module) {
+        return String.format("module-%03d", module);
+    }
+
+    private static void measure(Benchmark benchmark, JGitRepository repository)
+            throws Exception {
+        CommitFilter filter = CommitFilter.ALL.withPaths(singletonList(moduleName(0)));
+        benchmark.measure("path walk", () -> walk(repository, filter));
+    }
+
+    private static int walk(JGitRepository repository, CommitFilter filter)
+            throws Exception {
+        int[] commits = new int[1];
+        repository.walkCommits(new AbstractCommitWalkAction() {
+            @Override
+            public CommitDetail getCommitDetail() {
+                return CommitDetail.AUTHOR;
+            }
+
+            @Override
+            public CommitFilter getCommitFilter() {
+                return filter;
+            }
+
+            @Override
+            protected void run() {
+                commits[0] ++;
+            }
+        }, CommitWalkOptions.DEFAULT);
+
+        return commits[0];
+    }
+}
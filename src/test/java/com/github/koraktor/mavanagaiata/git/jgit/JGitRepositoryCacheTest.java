@@ -0,0 +1,167 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+
+import org.eclipse.jgit.api.Git;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction;
+import com.github.koraktor.mavanagaiata.git.CommitWalkOptions;
+import com.github.koraktor.mavanagaiata.git.GitRepository;
+import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
+
+import static java.util.Arrays.*;
+import static org.eclipse.jgit.lib.Constants.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.core.Is.*;
+import static org.hamcrest.core.IsEqual.*;
+import static org.hamcrest.core.IsNot.*;
+import static org.hamcrest.core.IsNull.*;
+import static org.hamcrest.core.IsSame.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JGitRepositoryCache")
+class JGitRepositoryCacheTest {
+
+    private JGitRepositoryCache cache;
+
+    private File workTree;
+
+    @BeforeEach
+    void setup() throws Exception {
+        workTree = Files.createTempDirectory("mavanagaiata-cache").toFile();
+        Git.init().setDirectory(workTree).call().close();
+
+        cache = new JGitRepositoryCache();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        cache.close();
+        FileUtils.deleteDirectory(workTree);
+    }
+
+    @DisplayName("should share repositories for the same location")
+    @Test
+    void testSameRepository() throws Exception {
+        GitRepository repository = cache.getRepository(workTree, null, HEAD);
+
+        assertThat(cache.getRepository(workTree, null, HEAD), is(sameInstance(repository)));
+        assertThat(cache.size(), is(1));
+    }
+
+    @DisplayName("should share repositories for subdirectories of the worktree")
+    @Test
+    void testSubdirectory() throws Exception {
+        File module = new File(workTree, "module");
+        assertTrue(module.mkdir());
+
+        GitRepository repository = cache.getRepository(workTree, null, HEAD);
+
+        assertThat(cache.getRepository(module, null, HEAD), is(sameInstance(repository)));
+        assertThat(cache.size(), is(1));
+    }
+
+    @DisplayName("should not share repositories for different worktrees")
+    @Test
+    void testDifferentWorkTree() throws Exception {
+        File gitDir = new File(workTree, DOT_GIT);
+        File otherWorkTree = Files.createTempDirectory("mavanagaiata-cache").toFile();
+        try {
+            GitRepository repository = cache.getRepository(workTree, gitDir, HEAD);
+
+            assertThat(cache.getRepository(otherWorkTree, gitDir, HEAD), is(not(sameInstance(repository))));
+            assertThat(cache.size(), is(2));
+        } finally {
+            FileUtils.deleteDirectory(otherWorkTree);
+        }
+    }
+
+    @DisplayName("should not share repositories for different head refs")
+    @Test
+    void testDifferentHeadRef() throws Exception {
+        GitRepository repository = cache.getRepository(workTree, null, HEAD);
+
+        assertThat(cache.getRepository(workTree, null, R_HEADS + MASTER), is(not(sameInstance(repository))));
+        assertThat(cache.size(), is(2));
+    }
+
+    @DisplayName("should walk the history of shared repositories repeatedly")
+    @Test
+    void testSharedRepositoryWalk() throws Exception {
+        try (Git git = Git.open(workTree)) {
+            git.commit().setMessage("Initial commit").setSign(false).call();
+            git.commit().setMessage("Second commit").setSign(false).call();
+            git.commit().setMessage("Third commit").setSign(false).call();
+        }
+
+        List<String> subjects = new ArrayList<>();
+        AbstractCommitWalkAction action = new AbstractCommitWalkAction() {
+            @Override
+            public CommitDetail getCommitDetail() {
+                return CommitDetail.SUBJECT;
+            }
+
+            @Override
+            protected void run() {
+                subjects.add(currentCommit.getMessageSubject());
+            }
+        };
+
+        List<String> history = asList("Third commit", "Second commit", "Initial commit");
+        for (CommitWalkOptions options : asList(CommitWalkOptions.DEFAULT,
+                new CommitWalkOptions(false, true), new CommitWalkOptions(true, false))) {
+            for (int i = 0; i < 2; i ++) {
+                GitRepository repository = cache.getRepository(workTree, null, HEAD);
+                repository.check();
+                assertThat(repository.getHeadCommit().getMessageSubject(), is(equalTo("Third commit")));
+
+                subjects.clear();
+                repository.walkCommits(action, options);
+
+                assertThat(subjects, is(equalTo(history)));
+                assertThat(repository.getHeadCommit().getMessage(), is(equalTo("Third commit")));
+            }
+        }
+
+        assertThat(cache.size(), is(1));
+    }
+
+    @DisplayName("should close all repositories")
+    @Test
+    void testClose() throws Exception {
+        JGitRepository repository = (JGitRepository) cache.getRepository(workTree, null, HEAD);
+
+        cache.close();
+
+        assertThat(repository.repository, is(nullValue()));
+        assertThat(cache.size(), is(0));
+    }
+
+    @DisplayName("should not cache invalid locations")
+    @Test
+    void testInvalidLocation() {
+        GitRepositoryException e = assertThrows(GitRepositoryException.class,
+            () -> cache.getRepository(null, null, HEAD));
+
+        assertThat(e.getMessage(), is("Neither worktree nor GIT_DIR is set."));
+        assertThat(cache.size(), is(0));
+    }
+
+}
@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2012-2025, Sebastian Staudt
+ * Copyright (c) 2012-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.git.jgit;
@@ -12,11 +12,14 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
 import java.util.Random;
 import java.util.TimeZone;
 
@@ -25,25 +28,40 @@ import org.apache.commons.io.FileUtils;
 import org.mockito.InOrder;
 
 import org.eclipse.jgit.api.DescribeCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.MergeCommand;
 import org.eclipse.jgit.errors.CorruptObjectException;
-import org.eclipse.jgit.errors.IncorrectObjectTypeException;
 import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.internal.storage.commitgraph.CommitGraph;
 import org.eclipse.jgit.lib.AbbreviatedObjectId;
-import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.AnyObjectId;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefDatabase;
+import org.eclipse.jgit.lib.RefUpdate;
 import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.TagBuilder;
 import org.eclipse.jgit.revwalk.RevCommit;
-import org.eclipse.jgit.revwalk.RevObject;
 import org.eclipse.jgit.revwalk.RevTag;
 import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileBasedConfig;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.util.FS;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction;
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction.CommitDetail;
+import com.github.koraktor.mavanagaiata.git.CommitFilter;
+import com.github.koraktor.mavanagaiata.git.CommitWalkOptions;
+import com.github.koraktor.mavanagaiata.git.DescribeOptions;
+import com.github.koraktor.mavanagaiata.git.DirtyCheckOptions;
 import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
 import com.github.koraktor.mavanagaiata.git.GitTag;
 import com.github.koraktor.mavanagaiata.git.GitTagDescription;
@@ -51,10 +69,14 @@ import com.github.koraktor.mavanagaiata.git.GitTagDescription;
 import static com.github.koraktor.mavanagaiata.git.jgit.JGitRepository.*;
 import static java.util.Arrays.*;
 import static java.util.Collections.*;
+import static org.eclipse.jgit.lib.ConfigConstants.*;
 import static org.eclipse.jgit.lib.Constants.*;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.core.Is.*;
 import static org.hamcrest.core.IsEqual.*;
+import static org.hamcrest.core.IsNot.*;
+import static org.hamcrest.core.IsNull.*;
+import static org.hamcrest.core.IsSame.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -245,33 +267,62 @@ class JGitRepositoryTest {
         this.repository.check();
     }
 
+    @DisplayName("should enable reading the commit-graph")
+    @Test
+    void testCheckEnablesCommitGraph() throws GitRepositoryException {
+        FileBasedConfig config = new FileBasedConfig(null, FS.DETECTED);
+        when(this.repo.getConfig()).thenReturn(config);
+        when(this.repo.getObjectDatabase().exists()).thenReturn(true);
+
+        this.repository.check();
+
+        assertThat(config.getBoolean(CONFIG_CORE_SECTION, CONFIG_COMMIT_GRAPH, false), is(true));
+    }
+
+    @DisplayName("should not enable reading the commit-graph if disabled explicitly")
+    @Test
+    void testCheckCommitGraphDisabled() throws GitRepositoryException {
+        FileBasedConfig config = new FileBasedConfig(null, FS.DETECTED);
+        config.setBoolean(CONFIG_CORE_SECTION, null, CONFIG_COMMIT_GRAPH, false);
+        when(this.repo.getConfig()).thenReturn(config);
+        when(this.repo.getObjectDatabase().exists()).thenReturn(true);
+
+        this.repository.check();
+
+        assertThat(config.getBoolean(CONFIG_CORE_SECTION, CONFIG_COMMIT_GRAPH, true), is(false));
+    }
+
+    @DisplayName("should not enable reading the commit-graph if disabled in the user configuration")
+    @Test
+    void testCheckCommitGraphDisabledGlobally() throws GitRepositoryException {
+        FileBasedConfig userConfig = new FileBasedConfig(null, FS.DETECTED);
+        userConfig.setBoolean(CONFIG_CORE_SECTION, null, CONFIG_COMMIT_GRAPH, false);
+        FileBasedConfig config = new FileBasedConfig(userConfig, null, FS.DETECTED);
+        when(this.repo.getConfig()).thenReturn(config);
+        when(this.repo.getObjectDatabase().exists()).thenReturn(true);
+
+        this.repository.check();
+
+        assertThat(config.getBoolean(CONFIG_CORE_SECTION, CONFIG_COMMIT_GRAPH, true), is(false));
+        assertThat(config.toText(), is(equalTo("")));
+    }
+
     @DisplayName("should be able to check if the worktree is in a clean state")
     @Test
     void testClean() throws Exception {
-        IndexDiff indexDiff = this.mockIndexDiff();
-        when(indexDiff.getAdded()).thenReturn(emptySet());
-        when(indexDiff.getChanged()).thenReturn(emptySet());
-        when(indexDiff.getRemoved()).thenReturn(emptySet());
-        when(indexDiff.getMissing()).thenReturn(emptySet());
-        when(indexDiff.getModified()).thenReturn(emptySet());
-        when(indexDiff.getConflicting()).thenReturn(emptySet());
-        when(indexDiff.getUntracked()).thenReturn(emptySet());
+        JGitDirtyCheck dirtyCheck = this.mockDirtyCheck(false);
+        when(dirtyCheck.isDirty()).thenReturn(false);
 
-        assertThat(this.repository.isDirty(false), is(false));
+        assertThat(this.repository.isDirty(new DirtyCheckOptions(false)), is(false));
     }
 
     @DisplayName("should be able to check if the worktree is in a clean state ignoring untracked filed")
     @Test
     void testCleanIgnoreUntracked() throws Exception {
-        IndexDiff indexDiff = this.mockIndexDiff();
-        when(indexDiff.getAdded()).thenReturn(emptySet());
-        when(indexDiff.getChanged()).thenReturn(emptySet());
-        when(indexDiff.getRemoved()).thenReturn(emptySet());
-        when(indexDiff.getMissing()).thenReturn(emptySet());
-        when(indexDiff.getModified()).thenReturn(emptySet());
-        when(indexDiff.getConflicting()).thenReturn(emptySet());
+        JGitDirtyCheck dirtyCheck = this.mockDirtyCheck(true);
+        when(dirtyCheck.isDirty()).thenReturn(false);
 
-        assertThat(this.repository.isDirty(true), is(false));
+        assertThat(this.repository.isDirty(new DirtyCheckOptions(true)), is(false));
     }
 
     @DisplayName("should close the underlying JGit repository and RevWalk")
@@ -300,7 +351,7 @@ class JGitRepositoryTest {
         repository.headObject = mock(ObjectId.class);
         doReturn(describeCommand).when(repository).getDescribeCommand();
 
-        GitTagDescription description = repository.describe();
+        GitTagDescription description = repository.describe(DescribeOptions.DEFAULT);
         assertThat(description.getNextTagName(), is(equalTo("2.0.0")));
         assertThat(description.toString(), is(equalTo("2.0.0")));
 
@@ -317,7 +368,7 @@ class JGitRepositoryTest {
         repository.headObject = mock(ObjectId.class);
         doReturn(describeCommand).when(repository).getDescribeCommand();
 
-        GitTagDescription description = repository.describe();
+        GitTagDescription description = repository.describe(DescribeOptions.DEFAULT);
         assertThat(description.getNextTagName(), is(equalTo("2.0.0")));
         assertThat(description.toString(), is(equalTo("2.0.0-2-gdeadbeef")));
 
@@ -339,7 +390,7 @@ class JGitRepositoryTest {
         repository.headObject = mock(ObjectId.class);
         doReturn(describeCommand).when(repository).getDescribeCommand();
 
-        GitTagDescription description = repository.describe();
+        GitTagDescription description = repository.describe(DescribeOptions.DEFAULT);
         assertThat(description.getNextTagName(), is(equalTo("")));
         assertThat(description.toString(), is(equalTo(abbrevId.name())));
 
@@ -480,62 +531,140 @@ class JGitRepositoryTest {
     @Test
     void testGetTags() throws Exception {
         try (RevWalk revWalk = mockRevWalk()) {
+            RefDatabase refDatabase = repo.getRefDatabase();
             Ref tagRef1 = mock(Ref.class);
             Ref tagRef2 = mock(Ref.class);
             Ref tagRef3 = mock(Ref.class);
             Ref tagRef4 = mock(Ref.class);
             List<Ref> tagRefs = asList(tagRef1, tagRef2, tagRef3, tagRef4);
-            when(repo.getRefDatabase().getRefsByPrefix(R_TAGS)).thenReturn(tagRefs);
+            when(refDatabase.getRefsByPrefix(R_TAGS)).thenReturn(tagRefs);
 
             RevTag rawTag1 = createRawTag();
             RevTag rawTag2 = createRawTag();
-            RevTag rawTag3 = createRawTag();
-            RevTag rawTag4 = createRawTag();
             RevCommit commit1 = createCommit();
-            RevObject commit2 = createCommit();
+            RevCommit commit2 = createCommit();
+            ObjectReader reader = mock(ObjectReader.class);
+            ObjectLoader commitLoader = mock(ObjectLoader.class);
+            when(revWalk.getObjectReader()).thenReturn(reader);
+            when(reader.getCommitGraph()).thenReturn(Optional.empty());
+            when(reader.open(any(AnyObjectId.class))).thenReturn(commitLoader);
+            when(commitLoader.getType()).thenReturn(OBJ_COMMIT);
+            when(tagRef1.isPeeled()).thenReturn(true);
+            when(tagRef1.getName()).thenReturn(R_TAGS + "1.0.0");
             when(tagRef1.getObjectId()).thenReturn(rawTag1);
+            when(tagRef1.getPeeledObjectId()).thenReturn(commit1);
             when(revWalk.lookupTag(rawTag1)).thenReturn(rawTag1);
-            when(revWalk.peel(rawTag1)).thenReturn(commit1);
+            when(tagRef2.getName()).thenReturn(R_TAGS + "2.0.0");
             when(tagRef2.getObjectId()).thenReturn(rawTag2);
-            when(revWalk.lookupTag(rawTag2)).thenReturn(rawTag2);
-            when(revWalk.peel(rawTag2)).thenReturn(commit2);
-            when(tagRef3.getObjectId()).thenReturn(rawTag3);
-            when(revWalk.lookupTag(rawTag3)).thenReturn(rawTag3);
-            when(revWalk.peel(rawTag3)).thenThrow(new MissingObjectException(rawTag3, OBJ_TAG));
-            when(tagRef3.getObjectId()).thenReturn(rawTag4);
-            when(revWalk.lookupTag(rawTag4)).thenReturn(rawTag4);
-            when(revWalk.peel(rawTag4)).thenThrow(new IncorrectObjectTypeException(rawTag4, OBJ_TAG));
+            when(revWalk.parseAny(rawTag2)).thenReturn(rawTag2);
+            when(tagRef3.isPeeled()).thenReturn(true);
+            when(tagRef4.getObjectId()).thenReturn(commit2);
+            when(revWalk.parseAny(commit2)).thenThrow(new MissingObjectException(commit2, OBJ_COMMIT));
 
             Map<String, GitTag> tags = new HashMap<>();
             JGitTag tag1 = new JGitTag(rawTag1);
             tags.put(commit1.name(), tag1);
             JGitTag tag2 = new JGitTag(rawTag2);
-            tags.put(commit2.name(), tag2);
+            tags.put(rawTag2.getObject().name(), tag2);
 
-            assertThat(repository.getTags(), is(equalTo(tags)));
+            Map<String, GitTag> repositoryTags = repository.getTags();
+            assertThat(repositoryTags, is(equalTo(tags)));
+            assertThat(repositoryTags.get(commit1.name()).getName(), is(equalTo("1.0.0")));
+            assertThat(repositoryTags.get(rawTag2.getObject().name()).getName(), is(equalTo("2.0.0")));
+
+            verify(refDatabase, never()).peel(any());
+            verify(revWalk, never()).peel(any());
+        }
+    }
+
+    @DisplayName("should get packed and loose tags without reading packed tags")
+    @Test
+    void testGetTagsPacked() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-tags").toFile();
+        try (Git git = Git.init().setDirectory(workTree).call()) {
+            RevCommit commit1 = git.commit().setMessage("Initial commit").setSign(false).call();
+            git.tag().setName("1.0.0").setMessage("1.0.0").setSigned(false).call();
+            git.tag().setName("lightweight").setAnnotated(false).call();
+            git.packRefs().setAll(true).call();
+            RevCommit commit2 = git.commit().setMessage("Second commit").setSign(false).call();
+            RevCommit commit3 = git.commit().setMessage("Untagged commit").setSign(false).call();
+            git.tag().setObjectId(commit2).setName("2.0.0").setMessage("2.0.0").setSigned(false).call();
+
+            try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                repository.check();
+
+                Map<String, GitTag> tags = repository.getTags();
+
+                assertThat(tags.size(), is(2));
+                assertThat(tags.get(commit1.name()).getName(), is(equalTo("1.0.0")));
+                assertThat(tags.get(commit2.name()).getName(), is(equalTo("2.0.0")));
+                assertThat(repository.getTag(new JGitCommit(commit1)), is(sameInstance(tags.get(commit1.name()))));
+                assertThat(repository.getTag(new JGitCommit(commit2)), is(sameInstance(tags.get(commit2.name()))));
+                assertThat(repository.getTag(new JGitCommit(commit3)), is(nullValue()));
+
+                GitTag tag = tags.get(commit1.name());
+                assertThat(tag.isLoaded(), is(false));
+                repository.loadTag(tag);
+                assertThat(tag.isLoaded(), is(true));
+            }
+        } finally {
+            FileUtils.deleteDirectory(workTree);
+        }
+    }
+
+    @DisplayName("should skip tags of other objects than commits and name tags after their refs")
+    @Test
+    void testGetTagsNonCommitsAndRenamed() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-tags").toFile();
+        try (Git git = Git.init().setDirectory(workTree).call()) {
+            RevCommit commit = git.commit().setMessage("Initial commit").setSign(false).call();
+            Repository repo = git.getRepository();
+            try (ObjectInserter inserter = repo.newObjectInserter()) {
+                ObjectId blob = inserter.insert(OBJ_BLOB, "Blob".getBytes(StandardCharsets.UTF_8));
+                updateTagRef(repo, "blob", insertTag(inserter, blob, OBJ_BLOB, "blob"));
+                updateTagRef(repo, "tree", insertTag(inserter, commit.getTree(), OBJ_TREE, "tree"));
+                updateTagRef(repo, "v1.0.0", insertTag(inserter, commit, OBJ_COMMIT, "1.0.0"));
+                inserter.flush();
+            }
+            git.tag().setName("lightweight").setAnnotated(false).call();
+
+            for (boolean packed : new boolean[] { false, true }) {
+                if (packed) {
+                    git.packRefs().setAll(true).call();
+                }
+
+                try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                    repository.check();
+
+                    Map<String, GitTag> tags = repository.getTags();
+
+                    assertThat(tags.size(), is(1));
+                    assertThat(tags.get(commit.name()).getName(), is(equalTo("v1.0.0")));
+                }
+            }
+        } finally {
+            FileUtils.deleteDirectory(workTree);
         }
     }
 
     @DisplayName("should be able to check if the worktree is dirty")
     @Test
     void testIsDirty() throws Exception {
-        IndexDiff indexDiff = this.mockIndexDiff();
-        HashSet<String> untracked = new HashSet<>();
-        untracked.add("somefile");
-        when(indexDiff.getUntracked()).thenReturn(untracked);
+        JGitDirtyCheck dirtyCheck = this.mockDirtyCheck(false);
+        when(dirtyCheck.isDirty()).thenReturn(true);
 
-        assertThat(this.repository.isDirty(false), is(true));
+        assertThat(this.repository.isDirty(new DirtyCheckOptions(false)), is(true));
     }
 
     @DisplayName("should handle errors while checking if the worktree is dirty")
     @Test
     void testIsDirtyFailure() throws Exception {
         Throwable exception = new IOException();
-        repository = spy(repository);
-        doThrow(exception).when(repository).createIndexDiff();
+        JGitDirtyCheck dirtyCheck = this.mockDirtyCheck(false);
+        when(dirtyCheck.isDirty()).thenThrow(exception);
 
         GitRepositoryException e = assertThrows(GitRepositoryException.class,
-            () -> repository.isDirty(false));
+            () -> repository.isDirty(new DirtyCheckOptions(false)));
         assertThat(e.getCause(), is(exception));
         assertThat(e.getMessage(), is(equalTo("Could not create repository diff.")));
     }
@@ -543,12 +672,10 @@ class JGitRepositoryTest {
     @DisplayName("should be able to check if the worktree dirty ignoring untracked files")
     @Test
     void testIsDirtyIgnoreUntracked() throws Exception {
-        IndexDiff indexDiff = this.mockIndexDiff();
-        HashSet<String> added = new HashSet<>();
-        added.add("somefile");
-        when(indexDiff.getAdded()).thenReturn(added);
+        JGitDirtyCheck dirtyCheck = this.mockDirtyCheck(true);
+        when(dirtyCheck.isDirty()).thenReturn(true);
 
-        assertThat(this.repository.isDirty(true), is(true));
+        assertThat(this.repository.isDirty(new DirtyCheckOptions(true)), is(true));
     }
 
     @DisplayName("should know if HEAD is on an unborn branch")
@@ -562,15 +689,20 @@ class JGitRepositoryTest {
     @DisplayName("should be able to read information from a tag")
     @Test
     void testLoadTag() throws Exception {
-        RevTag rawTag = RevTag.parse(("object 4b825dc642cb6eb9a060e54bf8d69288fbee4904\n" +
+        byte[] rawTagData = ("object 4b825dc642cb6eb9a060e54bf8d69288fbee4904\n" +
             "type commit\n" +
             "tag 1.0.0\n" +
             "tagger Sebastian Staudt <koraktor@gmail.com> 1275131880 +0200\n" +
             "\n" +
-            "Version 1.0.0\n").getBytes());
+            "Version 1.0.0\n").getBytes();
+        RevTag rawTag = RevTag.parse(rawTagData);
         Date tagDate = new Date(1275131880000L);
 
-        RevWalk revWalk = mockRevWalk();
+        ObjectReader reader = mock(ObjectReader.class);
+        ObjectLoader loader = mock(ObjectLoader.class);
+        when(repo.newObjectReader()).thenReturn(reader);
+        when(reader.open(rawTag, OBJ_TAG)).thenReturn(loader);
+        when(loader.getCachedBytes()).thenReturn(rawTagData);
         JGitTag tag = new JGitTag(rawTag);
 
         repository.loadTag(tag);
@@ -578,24 +710,244 @@ class JGitRepositoryTest {
         assertThat(tag.getDate(), is(equalTo(tagDate)));
         assertThat(tag.getTimeZone(), is(equalTo(TimeZone.getTimeZone("GMT+0200"))));
 
-        verify(revWalk).parseBody(rawTag);
+        verify(reader).close();
+    }
+
+    @DisplayName("should be able to load multiple tags at once")
+    @Test
+    void testLoadTags() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-tags").toFile();
+        try (Git git = Git.init().setDirectory(workTree).call()) {
+            for (int i = 1; i <= 3; i++) {
+                git.commit().setMessage("Commit " + i).setSign(false).call();
+                git.tag().setName(i + ".0.0").setMessage(i + ".0.0").setSigned(false).call();
+            }
+            git.gc().call();
+            git.commit().setMessage("Commit 4").setSign(false).call();
+            git.tag().setName("4.0.0").setMessage("4.0.0").setSigned(false).call();
+
+            try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                repository.check();
+
+                Collection<GitTag> tags = repository.getTags().values();
+                repository.loadTags(tags);
+
+                assertThat(tags.size(), is(4));
+                for (GitTag tag : tags) {
+                    assertThat(tag.isLoaded(), is(true));
+                    assertThat(tag.getDate(), is(notNullValue()));
+                }
+            }
+        } finally {
+            FileUtils.deleteDirectory(workTree);
+        }
+    }
+
+    @DisplayName("should reuse a cached description")
+    @Test
+    void testDescribeCached() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-describe").toFile();
+        try (Git git = Git.init().setDirectory(workTree).call()) {
+            git.commit().setMessage("Initial commit").setSign(false).call();
+            git.tag().setName("1.0.0").setMessage("1.0.0").setSigned(false).call();
+
+            JGitRepository repository = spy(new JGitRepository(workTree, null, HEAD));
+            try {
+                DescribeOptions options = new DescribeOptions(false, true);
+
+                assertThat(repository.describe(options).toString(), is(equalTo("1.0.0")));
+                assertThat(repository.describe(options).toString(), is(equalTo("1.0.0")));
+
+                verify(repository).getDescribeCommand();
+            } finally {
+                repository.close();
+            }
+        } finally {
+            FileUtils.deleteDirectory(workTree);
+        }
+    }
+
+    @DisplayName("should be able to describe only following first parents")
+    @Test
+    void testDescribeFirstParent() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-describe").toFile();
+        try (Git git = Git.init().setDirectory(workTree).call()) {
+            createMergedHistory(git);
+
+            try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                repository.check();
+
+                assertThat(repository.describe(DescribeOptions.DEFAULT).getNextTagName(), is(equalTo("2.0.0-rc")));
+
+                GitTagDescription description = repository.describe(new DescribeOptions(true, false));
+
+                assertThat(description.getNextTagName(), is(equalTo("1.0.0")));
+                assertThat(description.getDistance(), is(2));
+                assertThat(description.getAbbreviatedCommitId(), is(equalTo(repository.getAbbreviatedCommitId())));
+
+                DescribeOptions options = new DescribeOptions(true, true);
+                assertThat(repository.describe(options).toString(), is(equalTo(description.toString())));
+                assertThat(repository.describe(options).toString(), is(equalTo(description.toString())));
+            }
+        } finally {
+            FileUtils.deleteDirectory(workTree);
+        }
+    }
+
+    @DisplayName("should check whether commits are ancestors of HEAD")
+    @Test
+    void testIsAncestorOfHead() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-ancestor").toFile();
+        try (Git git = Git.init().setDirectory(workTree).call()) {
+            createMergedHistory(git);
+            Repository gitRepository = git.getRepository();
+
+            try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                repository.check();
+
+                assertThat(repository.isAncestorOfHead(gitRepository.resolve(HEAD).name()), is(true));
+                assertThat(repository.isAncestorOfHead(gitRepository.resolve("feature").name()), is(true));
+                assertThat(repository.isAncestorOfHead(gitRepository.resolve("1.0.0^{commit}").name()), is(true));
+                assertThat(repository.isAncestorOfHead(ObjectId.zeroId().name()), is(false));
+                assertThat(repository.isAncestorOfHead("invalid"), is(false));
+            }
+
+            git.checkout().setName("feature").call();
+
+            try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                repository.check();
+
+                assertThat(repository.isAncestorOfHead(gitRepository.resolve(MASTER).name()), is(false));
+            }
+        } finally {
+            FileUtils.deleteDirectory(workTree);
+        }
+    }
+
+    @DisplayName("should resolve refs to commit IDs")
+    @Test
+    void testResolveCommitId() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-resolve").toFile();
+        try (Git git = Git.init().setDirectory(workTree).call()) {
+            createMergedHistory(git);
+            Repository gitRepository = git.getRepository();
+
+            try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                repository.check();
+
+                String tagCommit = gitRepository.resolve("1.0.0^{commit}").name();
+                assertThat(gitRepository.resolve("1.0.0").name(), is(not(equalTo(tagCommit))));
+                assertThat(repository.resolveCommitId("1.0.0"), is(equalTo(tagCommit)));
+                assertThat(repository.resolveCommitId("feature"), is(equalTo(gitRepository.resolve("feature").name())));
+                assertThat(repository.resolveCommitId(tagCommit), is(equalTo(tagCommit)));
+
+                GitRepositoryException e = assertThrows(GitRepositoryException.class,
+                    () -> repository.resolveCommitId("invalid"));
+                assertThat(e.getMessage(), is(equalTo("Ref \"invalid\" could not be resolved.")));
+            }
+        } finally {
+            FileUtils.deleteDirectory(workTree);
+        }
+    }
+
+    @DisplayName("should create a fingerprint of the tags")
+    @Test
+    void testGetTagsFingerprint() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-tags").toFile();
+        try (Git git = Git.init().setDirectory(workTree).call()) {
+            createMergedHistory(git);
+
+            String fingerprint;
+            try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                repository.check();
+
+                fingerprint = repository.getTagsFingerprint();
+            }
+
+            try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                repository.check();
+
+                assertThat(repository.getTagsFingerprint(), is(equalTo(fingerprint)));
+            }
+
+            git.tag().setName("lightweight").setAnnotated(false).call();
+
+            try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                repository.check();
+
+                assertThat(repository.getTagsFingerprint(), is(not(equalTo(fingerprint))));
+            }
+        } finally {
+            FileUtils.deleteDirectory(workTree);
+        }
+    }
+
+    @DisplayName("should store cached information in the Git directory")
+    @Test
+    void testLoadAndStoreCache() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-cache").toFile();
+        try (Git git = Git.init().setDirectory(workTree).call()) {
+            try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                repository.check();
+
+                assertThat(repository.loadCache("test").isEmpty(), is(true));
+
+                Properties properties = new Properties();
+                properties.setProperty("key", "value");
+                repository.storeCache("test", properties);
+
+                assertThat(new File(git.getRepository().getDirectory(), "mavanagaiata/test").isFile(), is(true));
+                assertThat(repository.loadCache("test"), is(equalTo(properties)));
+                assertThrows(IllegalArgumentException.class, () -> repository.loadCache("../test"));
+            }
+        } finally {
+            FileUtils.deleteDirectory(workTree);
+        }
+    }
+
+    @DisplayName("should write the commit-graph if it is outdated")
+    @Test
+    void testWriteCommitGraph() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-commit-graph").toFile();
+        try (Git git = Git.init().setDirectory(workTree).call()) {
+            git.commit().setMessage("Initial commit").setSign(false).call();
+
+            try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                repository.check();
+
+                assertThat(repository.writeCommitGraph(true), is(true));
+                assertThat(new File(git.getRepository().getDirectory(), "objects/" + INFO_COMMIT_GRAPH).isFile(), is(true));
+                assertThat(repository.writeCommitGraph(true), is(false));
+
+                git.commit().setMessage("Second commit").setSign(false).call();
+                git.tag().setName("1.0.0").setMessage("1.0.0").setSigned(false).call();
+
+                assertThat(repository.writeCommitGraph(false), is(true));
+                assertThat(repository.writeCommitGraph(false), is(false));
+                assertThat(repository.writeCommitGraph(true), is(true));
+            }
+        } finally {
+            FileUtils.deleteDirectory(workTree);
+        }
     }
 
     @DisplayName("should allow walking the HEAD’s history with a CommitWalkAction")
     @Test
     void testWalkCommits() throws Exception {
         AbstractCommitWalkAction action = mock(AbstractCommitWalkAction.class);
+        when(action.getCommitDetail()).thenReturn(CommitDetail.MESSAGE);
+        when(action.getCommitFilter()).thenReturn(CommitFilter.ALL);
         RevWalk revWalk = mockRevWalk();
 
         RevCommit head = this.createCommit();
         RevCommit head_1 = this.createCommit();
         repository.headObject = mock(ObjectId.class);
-        repository.headCommit = head;
+        when(revWalk.parseCommit(repository.headObject)).thenReturn(head);
 
         when(revWalk.iterator()).
             thenReturn(asList(head, head_1).iterator());
 
-        this.repository.walkCommits(action);
+        this.repository.walkCommits(action, CommitWalkOptions.DEFAULT);
 
         JGitCommit commit1 = new JGitCommit(head);
         JGitCommit commit2 = new JGitCommit(head_1);
@@ -607,19 +959,307 @@ class JGitRepositoryTest {
         inOrder.verifyNoMoreInteractions();
     }
 
+    @DisplayName("should release the raw commit data if an action does not need the messages")
+    @Test
+    void testWalkCommitsAuthor() throws Exception {
+        AbstractCommitWalkAction action = mock(AbstractCommitWalkAction.class);
+        when(action.getCommitDetail()).thenReturn(CommitDetail.AUTHOR);
+        when(action.getCommitFilter()).thenReturn(CommitFilter.ALL);
+        RevWalk revWalk = mockRevWalk();
+
+        RevCommit head = this.createCommit();
+        RevCommit head_1 = this.createCommit();
+        repository.headObject = mock(ObjectId.class);
+        when(revWalk.parseCommit(repository.headObject)).thenReturn(head);
+
+        when(revWalk.iterator()).
+            thenReturn(asList(head, head_1).iterator());
+
+        this.repository.walkCommits(action, CommitWalkOptions.DEFAULT);
+
+        verify(action).execute(new JGitCommit(head));
+        verify(action).execute(new JGitCommit(head_1));
+        assertThat(head.getRawBuffer(), is(nullValue()));
+        assertThat(head_1.getRawBuffer(), is(nullValue()));
+    }
+
+    @DisplayName("should be able to walk the history repeatedly")
+    @Test
+    void testWalkCommitsRepeatedly() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-walk").toFile();
+        try (Git git = Git.init().setDirectory(workTree).call()) {
+            git.commit().setMessage("Initial commit").setSign(false).call();
+            git.commit().setMessage("Second commit").setSign(false).call();
+
+            try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                repository.check();
+
+                List<String> subjects = new ArrayList<>();
+                AbstractCommitWalkAction action = new AbstractCommitWalkAction() {
+                    @Override
+                    public CommitDetail getCommitDetail() {
+                        return CommitDetail.SUBJECT;
+                    }
+
+                    @Override
+                    protected void run() {
+                        subjects.add(currentCommit.getMessageSubject());
+                    }
+                };
+
+                repository.walkCommits(action, CommitWalkOptions.DEFAULT);
+                repository.walkCommits(action, CommitWalkOptions.DEFAULT);
+
+                assertThat(subjects, is(equalTo(asList("Second commit", "Initial commit", "Second commit", "Initial commit"))));
+                assertThat(repository.getHeadCommit().getMessage(), is(equalTo("Second commit")));
+            }
+        } finally {
+            FileUtils.deleteDirectory(workTree);
+        }
+    }
+
+    @DisplayName("should be able to walk the history of some paths")
+    @Test
+    void testWalkCommitsPaths() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-walk").toFile();
+        try (Git git = Git.init().setDirectory(workTree).call()) {
+            for (String path : asList("api/A.java", "core/B.java", "api/C.java", "README.md")) {
+                File file = new File(workTree, path);
+                FileUtils.writeStringToFile(file, path, StandardCharsets.UTF_8);
+                git.add().addFilepattern(".").call();
+                git.commit().setMessage("Add " + path).setSign(false).call();
+            }
+
+            try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                repository.check();
+
+                List<String> subjects = new ArrayList<>();
+                AbstractCommitWalkAction action = new AbstractCommitWalkAction() {
+                    @Override
+                    public CommitDetail getCommitDetail() {
+                        return CommitDetail.SUBJECT;
+                    }
+
+                    @Override
+                    public CommitFilter getCommitFilter() {
+                        return CommitFilter.ALL.withPaths(singletonList("api"));
+                    }
+
+                    @Override
+                    protected void run() {
+                        subjects.add(currentCommit.getMessageSubject());
+                    }
+                };
+
+                assertThat(repository.getChangedPathCommitGraph(), is(nullValue()));
+                repository.walkCommits(action, CommitWalkOptions.DEFAULT);
+
+                repository.writeCommitGraph(true);
+                CommitGraph commitGraph = repository.getChangedPathCommitGraph();
+                assertThat(commitGraph.getChangedPathFilter(0), is(notNullValue()));
+                assertThat(repository.getChangedPathCommitGraph(), is(sameInstance(commitGraph)));
+                repository.walkCommits(action, CommitWalkOptions.DEFAULT);
+
+                repository.walkCommits(action, new CommitWalkOptions(false, true));
+
+                assertThat(subjects, is(equalTo(asList(
+                    "Add api/C.java", "Add api/A.java",
+                    "Add api/C.java", "Add api/A.java",
+                    "Add api/C.java", "Add api/A.java"))));
+            }
+        } finally {
+            FileUtils.deleteDirectory(workTree);
+        }
+    }
+
+    @DisplayName("should be able to walk the history using cached commits")
+    @Test
+    void testWalkCommitsCached() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-walk").toFile();
+        try (Git git = Git.init().setDirectory(workTree).call()) {
+            createMergedHistory(git);
+
+            try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                repository.check();
+
+                List<String> subjects = new ArrayList<>();
+                class SubjectWalkAction extends AbstractCommitWalkAction {
+                    private final CommitDetail detail;
+
+                    SubjectWalkAction(CommitDetail detail) {
+                        this.detail = detail;
+                    }
+
+                    @Override
+                    public CommitDetail getCommitDetail() {
+                        return detail;
+                    }
+
+                    @Override
+                    protected void run() {
+                        subjects.add(currentCommit.getMessageSubject());
+                    }
+                }
+
+                File cacheFile = new File(git.getRepository().getDirectory(), "mavanagaiata/" + JGitCommitCache.CACHE_FILE);
+                CommitWalkOptions options = new CommitWalkOptions(true, false);
+                repository.walkCommits(new SubjectWalkAction(CommitDetail.MESSAGE), options);
+                assertThat(cacheFile.exists(), is(false));
+
+                repository.walkCommits(new SubjectWalkAction(CommitDetail.SUBJECT), options);
+                assertThat(cacheFile.exists(), is(true));
+                assertThat(repository.getCommitCache().size(), is(5));
+
+                assertThat(subjects.subList(5, 10), is(equalTo(subjects.subList(0, 5))));
+            }
+        } finally {
+            FileUtils.deleteDirectory(workTree);
+        }
+    }
+
+    @DisplayName("should be able to walk only the newest part of the history")
+    @Test
+    void testWalkCommitsBounded() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-walk").toFile();
+        try (Git git = Git.init().setDirectory(workTree).call()) {
+            for (int i = 1; i <= 5; i ++) {
+                git.commit().setMessage("Commit " + i).setAllowEmpty(true).setSign(false).call();
+                if (i == 2) {
+                    git.tag().setName("v1").setSigned(false).call();
+                }
+            }
+
+            try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                repository.check();
+
+                List<String> subjects = new ArrayList<>();
+                class BoundedWalkAction extends AbstractCommitWalkAction {
+                    private final String excludedRef;
+                    private final int maxCommits;
+
+                    BoundedWalkAction(String excludedRef, int maxCommits) {
+                        this.excludedRef = excludedRef;
+                        this.maxCommits = maxCommits;
+                    }
+
+                    @Override
+                    public CommitFilter getCommitFilter() {
+                        return excludedRef == null ? CommitFilter.ALL :
+                            CommitFilter.ALL.withoutHistoryOf(excludedRef);
+                    }
+
+                    @Override
+                    protected void run() {
+                        subjects.add(currentCommit.getMessageSubject());
+                        if (subjects.size() == maxCommits) {
+                            stop();
+                        }
+                    }
+                }
+
+                for (boolean streamingWalk : new boolean[] { false, true }) {
+                    CommitWalkOptions options = new CommitWalkOptions(false, streamingWalk);
+
+                    subjects.clear();
+                    repository.walkCommits(new BoundedWalkAction("v1", 0), options);
+                    assertThat(subjects, is(equalTo(asList("Commit 5", "Commit 4", "Commit 3"))));
+
+                    subjects.clear();
+                    repository.walkCommits(new BoundedWalkAction(null, 2), options);
+                    assertThat(subjects, is(equalTo(asList("Commit 5", "Commit 4"))));
+                }
+
+                GitRepositoryException e = assertThrows(GitRepositoryException.class,
+                    () -> repository.walkCommits(new BoundedWalkAction("v2", 0), CommitWalkOptions.DEFAULT));
+                assertThat(e.getMessage(), is(equalTo("Ref \"v2\" could not be resolved.")));
+            }
+        } finally {
+            FileUtils.deleteDirectory(workTree);
+        }
+    }
+
+    @DisplayName("should be able to walk only the first parents")
+    @Test
+    void testWalkCommitsFirstParent() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-walk").toFile();
+        try (Git git = Git.init().setDirectory(workTree).call()) {
+            createMergedHistory(git);
+
+            try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+                repository.check();
+
+                List<String> subjects = new ArrayList<>();
+                AbstractCommitWalkAction action = new AbstractCommitWalkAction() {
+                    @Override
+                    public CommitFilter getCommitFilter() {
+                        return CommitFilter.ALL.withFirstParent();
+                    }
+
+                    @Override
+                    protected void run() {
+                        subjects.add(currentCommit.getMessageSubject());
+                    }
+                };
+
+                repository.walkCommits(action, CommitWalkOptions.DEFAULT);
+
+                repository.writeCommitGraph(false);
+                repository.walkCommits(action, new CommitWalkOptions(false, true));
+
+                assertThat(subjects, is(equalTo(asList(
+                    "Merge feature", "Main commit", "Initial commit",
+                    "Merge feature", "Main commit", "Initial commit"))));
+            }
+        } finally {
+            FileUtils.deleteDirectory(workTree);
+        }
+    }
+
     @DisplayName("should allow getting the worktree")
     @Test
     void testGetWorktree() {
         assertThat(repository.getWorkTree(), is(equalTo(repo.getWorkTree())));
     }
 
-    private IndexDiff mockIndexDiff() throws Exception {
+    private void createMergedHistory(Git git) throws Exception {
+        RevCommit initial = git.commit().setMessage("Initial commit").setSign(false).call();
+        git.tag().setName("1.0.0").setMessage("1.0.0").setSigned(false).call();
+        git.checkout().setCreateBranch(true).setName("feature").setStartPoint(initial).call();
+        git.commit().setMessage("Feature commit 1").setSign(false).call();
+        git.tag().setName("2.0.0-rc").setMessage("2.0.0-rc").setSigned(false).call();
+        git.commit().setMessage("Feature commit 2").setSign(false).call();
+        git.checkout().setName(MASTER).call();
+        git.commit().setMessage("Main commit").setSign(false).call();
+        git.merge().include(git.getRepository().resolve("feature"))
+            .setFastForward(MergeCommand.FastForwardMode.NO_FF)
+            .setMessage("Merge feature").call();
+    }
+
+    private JGitDirtyCheck mockDirtyCheck(boolean ignoreUntracked) throws Exception {
         repository = spy(repository);
 
-        IndexDiff indexDiff = mock(IndexDiff.class);
-        doReturn(indexDiff).when(repository).createIndexDiff();
+        JGitDirtyCheck dirtyCheck = mock(JGitDirtyCheck.class);
+        doReturn(dirtyCheck).when(repository).createDirtyCheck(new DirtyCheckOptions(ignoreUntracked));
+
+        return dirtyCheck;
+    }
+
+    private static ObjectId insertTag(ObjectInserter inserter, ObjectId object,
+                                      int type, String name) throws IOException {
+        TagBuilder tag = new TagBuilder();
+        tag.setObjectId(object, type);
+        tag.setTag(name);
+        tag.setTagger(new PersonIdent("Sebastian Staudt", "koraktor@gmail.com"));
+        tag.setMessage(name);
+
+        return inserter.insert(tag);
+    }
 
-        return indexDiff;
+    private static void updateTagRef(Repository repo, String name, ObjectId tag)
+            throws IOException {
+        RefUpdate refUpdate = repo.updateRef(R_TAGS + name);
+        refUpdate.setNewObjectId(tag);
+        assertThat(refUpdate.update(), is(RefUpdate.Result.NEW));
     }
 
     private RevWalk mockRevWalk() {
@@ -627,6 +1267,7 @@ class JGitRepositoryTest {
 
         RevWalk revWalk = mock(RevWalk.class);
         doReturn(revWalk).when(repository).getRevWalk();
+        doReturn(revWalk).when(repository).getRevWalk(any(CommitFilter.class), anyBoolean());
 
         return revWalk;
     }
@@ -0,0 +1,115 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.internal.storage.file.ObjectDirectory;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.TreeFormatter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction;
+import com.github.koraktor.mavanagaiata.git.CommitWalkOptions;
+
+import static org.eclipse.jgit.lib.Constants.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.core.Is.*;
+
+/**
+ * Walks a long history in a small heap
+ * <p>
+ * This test runs in a separate Surefire execution limited to 32 MiB of heap.
+ * Each of the generated commits has a message of about 900 bytes. A plain
+ * {@code RevWalk} keeps the messages of all commits, i.e. about 45 MiB, and
+ * runs out of memory, while the streaming walk releases them regularly.
+ *
+ * @author Sebastian Staudt
+ */
+@DisplayName("JGitStreamingWalk in a small heap")
+class JGitStreamingWalkMemoryTest {
+
+    private static final int COMMITS = 50_000;
+
+    private static final String MESSAGE_BODY = "A longer description of the change, wrapped at 72 characters as usual.\n"
+        .repeat(12);
+
+    private File workTree;
+
+    @BeforeEach
+    void setup() throws Exception {
+        workTree = Files.createTempDirectory("mavanagaiata-streaming-walk").toFile();
+
+        try (Repository repository = Git.init().setDirectory(workTree).call().getRepository();
+             ObjectInserter inserter = ((ObjectDirectory) repository.getObjectDatabase()).newPackInserter()) {
+            ObjectId tree = inserter.insert(new TreeFormatter());
+            ObjectId head = null;
+            for (int i = 0; i < COMMITS; i ++) {
+                PersonIdent ident = new PersonIdent("John Doe",
+                    "john.doe@example.com", 1_000_000_000_000L + i * 1000L, 0);
+                CommitBuilder commit = new CommitBuilder();
+                commit.setAuthor(ident);
+                commit.setCommitter(ident);
+                commit.setMessage("Commit " + i + "\n\n" + MESSAGE_BODY);
+                if (head != null) {
+                    commit.setParentId(head);
+                }
+                commit.setTreeId(tree);
+                head = inserter.insert(commit);
+            }
+            inserter.flush();
+
+            RefUpdate refUpdate = repository.updateRef(R_HEADS + MASTER);
+            refUpdate.setNewObjectId(head);
+            assertThat(refUpdate.forceUpdate(), is(RefUpdate.Result.NEW));
+        }
+
+        try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+            repository.check();
+            repository.writeCommitGraph(false);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        FileUtils.deleteDirectory(workTree);
+    }
+
+    @DisplayName("should walk a long history with full messages")
+    @Test
+    void testWalk() throws Exception {
+        int[] commits = new int[1];
+        try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+            repository.check();
+            repository.walkCommits(new AbstractCommitWalkAction() {
+                @Override
+                protected void run() {
+                    if (currentCommit.getMessage().endsWith(MESSAGE_BODY)) {
+                        commits[0] ++;
+                    }
+                }
+            }, new CommitWalkOptions(false, true));
+        }
+
+        assertThat(commits[0], is(COMMITS));
+    }
+
+}
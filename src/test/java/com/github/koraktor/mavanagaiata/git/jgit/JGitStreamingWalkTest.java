@@ -0,0 +1,220 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FileUtils;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction;
+import com.github.koraktor.mavanagaiata.git.CommitFilter;
+
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.Collections.*;
+import static org.eclipse.jgit.lib.ConfigConstants.*;
+import static org.eclipse.jgit.lib.Constants.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.core.Is.*;
+import static org.hamcrest.core.IsEqual.*;
+
+/**
+ * @author Sebastian Staudt
+ */
+@DisplayName("JGitStreamingWalk")
+class JGitStreamingWalkTest {
+
+    static class CountingRevWalk extends RevWalk {
+
+        int disposals;
+
+        CountingRevWalk(Repository repository) {
+            super(repository);
+        }
+
+        @Override
+        public void dispose() {
+            disposals++;
+            super.dispose();
+        }
+    }
+
+    private Git git;
+
+    private long time = 1_000_000_000L;
+
+    private File workTree;
+
+    @BeforeEach
+    void setup() throws Exception {
+        workTree = Files.createTempDirectory("mavanagaiata-streaming-walk").toFile();
+        git = Git.init().setDirectory(workTree).call();
+        git.getRepository().getConfig().setBoolean(CONFIG_CORE_SECTION, null, CONFIG_COMMIT_GRAPH, true);
+
+        RevCommit base = commit("Initial commit", 0);
+        commit("Second commit", 10);
+        commit("Third commit", 0);
+        git.checkout().setCreateBranch(true).setName("feature").setStartPoint(base).call();
+        commit("Feature commit", 5, "feature/A.java");
+        commit("Second feature commit", 0, "feature/B.java");
+        git.checkout().setName(MASTER).call();
+        git.merge().setCommit(false).include(git.getRepository().resolve("feature")).call();
+        commit("Merge", 2);
+        commit("Fourth commit", 1);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        git.close();
+        FileUtils.deleteDirectory(workTree);
+    }
+
+    @DisplayName("should visit commits in the same order as a RevWalk")
+    @Test
+    void testWalk() throws Exception {
+        assertThat(streamingWalk(CommitFilter.ALL), is(equalTo(revWalk(CommitFilter.ALL))));
+    }
+
+    @DisplayName("should filter commits the same way as a RevWalk")
+    @Test
+    void testWalkFiltered() throws Exception {
+        CommitFilter filter = CommitFilter.ALL.withoutMerges()
+            .withoutMessages(Pattern.compile("^Second"));
+
+        List<ObjectId> commits = streamingWalk(filter);
+
+        assertThat(commits.size(), is(4));
+        assertThat(commits, is(equalTo(revWalk(filter))));
+    }
+
+    @DisplayName("should filter commits by path the same way as a RevWalk")
+    @Test
+    void testWalkPaths() throws Exception {
+        CommitFilter filter = CommitFilter.ALL.withPaths(singletonList("feature"));
+
+        List<ObjectId> commits = streamingWalk(filter);
+
+        assertThat(commits.size(), is(2));
+        assertThat(commits, is(equalTo(revWalk(filter))));
+
+        try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+            repository.check();
+            repository.writeCommitGraph(true);
+        }
+
+        assertThat(streamingWalk(filter), is(equalTo(commits)));
+    }
+
+    @DisplayName("should visit commits in the same order as a RevWalk using a commit-graph")
+    @Test
+    void testWalkCommitGraph() throws Exception {
+        try (JGitRepository repository = new JGitRepository(workTree, null, HEAD)) {
+            repository.check();
+            repository.writeCommitGraph(false);
+        }
+
+        commit("Fifth commit", 0);
+        commit("Sixth commit", -5);
+
+        assertThat(streamingWalk(CommitFilter.ALL), is(equalTo(revWalk(CommitFilter.ALL))));
+    }
+
+    @DisplayName("should release visited commits regularly")
+    @Test
+    void testDispose() throws Exception {
+        Repository repository = git.getRepository();
+        try (CountingRevWalk revWalk = new CountingRevWalk(repository)) {
+            JGitStreamingWalk walk = new JGitStreamingWalk(revWalk);
+            walk.disposeInterval = 2;
+            List<ObjectId> commits = new ArrayList<>();
+            walk.walk(repository.resolve(HEAD), collect(commits, CommitFilter.ALL));
+
+            assertThat(commits.size(), is(7));
+            assertThat(revWalk.disposals, is(3));
+        }
+    }
+
+    private AbstractCommitWalkAction collect(List<ObjectId> commits, CommitFilter filter) {
+        return new AbstractCommitWalkAction() {
+            @Override
+            public CommitDetail getCommitDetail() {
+                return CommitDetail.AUTHOR;
+            }
+
+            @Override
+            public CommitFilter getCommitFilter() {
+                return filter;
+            }
+
+            @Override
+            protected void run() {
+                commits.add(ObjectId.fromString(currentCommit.getId()));
+            }
+        };
+    }
+
+    private RevCommit commit(String message, int timeOffset) throws Exception {
+        return commit(message, timeOffset, null);
+    }
+
+    private RevCommit commit(String message, int timeOffset, String path) throws Exception {
+        if (path != null) {
+            FileUtils.writeStringToFile(new File(workTree, path), message, UTF_8);
+            git.add().addFilepattern(path).call();
+        }
+
+        time += timeOffset;
+        PersonIdent ident = new PersonIdent("John Doe", "john.doe@example.com",
+            time * 1000, 0);
+
+        return git.commit().setMessage(message).setAuthor(ident)
+            .setCommitter(ident).setSign(false).call();
+    }
+
+    private List<ObjectId> revWalk(CommitFilter filter) throws Exception {
+        Repository repository = git.getRepository();
+        List<ObjectId> commits = new ArrayList<>();
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            revWalk.markStart(revWalk.parseCommit(repository.resolve(HEAD)));
+            revWalk.setRevFilter(JGitCommitFilter.create(revWalk, filter));
+            for (RevCommit commit : revWalk) {
+                commits.add(commit.copy());
+            }
+        }
+
+        return commits;
+    }
+
+    private List<ObjectId> streamingWalk(CommitFilter filter) throws Exception {
+        Repository repository = git.getRepository();
+        List<ObjectId> commits = new ArrayList<>();
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            JGitStreamingWalk walk = new JGitStreamingWalk(revWalk);
+            walk.disposeInterval = 2;
+            walk.walk(repository.resolve(HEAD), collect(commits, filter));
+        }
+
+        return commits;
+    }
+
+}
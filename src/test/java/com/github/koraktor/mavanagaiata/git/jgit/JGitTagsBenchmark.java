@@ -0,0 +1,177 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.git.jgit;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.TagBuilder;
+import org.eclipse.jgit.lib.TreeFormatter;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevTag;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import com.github.koraktor.mavanagaiata.git.GitTag;
+
+import static org.eclipse.jgit.lib.Constants.*;
+
+/**
+ * Compares resolving the tags by their peeled refs with reading every tag
+ * object
+ * <p>
+ * A history of {@code benchmark.tags} commits (default: 18,000) is
+ * generated and tagged step by step. With 1,000, 5,000 and all tags, the
+ * tags are resolved while their refs are loose, after packing the refs and
+ * after writing a commit-graph. Reading every tag object is done like
+ * {@code JGitRepository#getTags()} did before the peeled IDs from
+ * {@code packed-refs} were used. Each run opens the repository again, so
+ * no tags are cached between runs.
+ *
+ * @author Sebastian Staudt
+ * @see Benchmark
+ */
+class JGitTagsBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int tags = Benchmark.getSize("tags", 18_000);
+
+        try (Benchmark benchmark = new Benchmark("Tag resolution with up to " + tags + " tags");
+             Repository repository = benchmark.createRepository("tags")) {
+            long time = System.currentTimeMillis() - tags * 60_000L;
+            ObjectId[] commits = createHistory(repository, tags, time);
+            File commitGraph = new File(repository.getDirectory(), "objects/" + INFO_COMMIT_GRAPH);
+
+            int tagged = 0;
+            for (int count : new int[] { 1_000, 5_000, tags }) {
+                if (count <= tagged || count > tags) {
+                    continue;
+                }
+
+                createTags(repository, commits, tagged, count, time);
+                tagged = count;
+
+                measure(benchmark, repository, count + " tags, loose refs");
+
+                Git.wrap(repository).packRefs().setAll(true).call();
+                measure(benchmark, repository, count + " tags, packed refs");
+
+                try (JGitRepository jgitRepository = new JGitRepository(repository.getWorkTree(), null, HEAD)) {
+                    jgitRepository.check();
+                    jgitRepository.writeCommitGraph(false);
+                }
+                measure(benchmark, repository, count + " tags, packed refs and commit-graph");
+
+                if (!commitGraph.delete()) {
+                    throw new IllegalStateException("Could not delete " + commitGraph);
+                }
+            }
+        }
+    }
+
+    private static ObjectId[] createHistory(Repository repository, int commits,
+                                            long time) throws Exception {
+        ObjectId[] history = new ObjectId[commits];
+        try (ObjectInserter inserter = Benchmark.newPackInserter(repository)) {
+            ObjectId tree = inserter.insert(new TreeFormatter());
+            ObjectId head = null;
+            for (int i = 0; i < commits; i ++) {
+                PersonIdent author = author(time + i * 60_000L);
+                if (head == null) {
+                    head = Benchmark.insertCommit(inserter, tree, author, "Commit " + i);
+                } else {
+                    head = Benchmark.insertCommit(inserter, tree, author, "Commit " + i, head);
+                }
+                history[i] = head;
+            }
+            inserter.flush();
+        }
+        Benchmark.updateRef(repository, R_HEADS + MASTER, history[commits - 1]);
+
+        return history;
+    }
+
+    private static void createTags(Repository repository, ObjectId[] commits,
+                                   int from, int to, long time) throws Exception {
+        ObjectId[] tags = new ObjectId[to - from];
+        try (ObjectInserter inserter = Benchmark.newPackInserter(repository)) {
+            for (int i = from; i < to; i ++) {
+                TagBuilder tag = new TagBuilder();
+                tag.setObjectId(commits[i], OBJ_COMMIT);
+                tag.setTag(tagName(i));
+                tag.setTagger(author(time + i * 60_000L));
+                tag.setMessage("Version " + tagName(i));
+                tags[i - from] = inserter.insert(tag);
+            }
+            inserter.flush();
+        }
+
+        for (int i = from; i < to; i ++) {
+            Benchmark.updateRef(repository, R_TAGS + tagName(i), tags[i - from]);
+        }
+    }
+
+    private static String tagName(int i) {
+        return String.format("%d.%d.%d", i / 1000, i / 10 % 100, i % 10);
+    }
+
+    private static PersonIdent author(long time) {
+        return new PersonIdent("Sebastian Staudt", "koraktor@gmail.com", time, 0);
+    }
+
+    private static void measure(Benchmark benchmark, Repository repository,
+                                String state) throws Exception {
+        System.out.println(" " + state);
+
+        File workTree = repository.getWorkTree();
+        benchmark.measure("reading tag objects", () -> {
+            try (JGitRepository jgitRepository = new JGitRepository(workTree, null, HEAD)) {
+                jgitRepository.check();
+
+                return readTagObjects(jgitRepository).size();
+            }
+        });
+        benchmark.measure("peeled refs (getTags)", () -> {
+            try (JGitRepository jgitRepository = new JGitRepository(workTree, null, HEAD)) {
+                jgitRepository.check();
+
+                return jgitRepository.getTagsById().size();
+            }
+        });
+    }
+
+    private static Map<String, GitTag> readTagObjects(JGitRepository repository)
+            throws Exception {
+        Map<String, GitTag> tags = new HashMap<>();
+
+        try (RevWalk revWalk = repository.getRevWalk()) {
+            for (Ref tag : repository.repository.getRefDatabase().getRefsByPrefix(R_TAGS)) {
+                try {
+                    RevTag revTag = revWalk.lookupTag(tag.getObjectId());
+                    RevObject object = revWalk.peel(revTag);
+                    if (object instanceof RevCommit) {
+                        tags.put(object.getName(), new JGitTag(revTag));
+                    }
+                } catch (IncorrectObjectTypeException | MissingObjectException ignored) {
+                    // Ignore lightweight tags or tags on missing objects
+                }
+            }
+        }
+
+        return tags;
+    }
+}
@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2011-2018, Sebastian Staudt
+ * Copyright (c) 2011-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
@@ -13,8 +13,13 @@ import java.io.File;
 import java.nio.file.Files;
 import java.util.Properties;
 
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.eclipse.aether.DefaultSessionData;
+
+import org.eclipse.jgit.api.Git;
 
 import org.mockito.InOrder;
 
@@ -22,9 +27,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.github.koraktor.mavanagaiata.git.CommitWalkOptions;
+import com.github.koraktor.mavanagaiata.git.DescribeOptions;
+import com.github.koraktor.mavanagaiata.git.DirtyCheckOptions;
+import com.github.koraktor.mavanagaiata.git.DirtyCheckOptions.IgnoreSubmodules;
 import com.github.koraktor.mavanagaiata.git.GitRepository;
 import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
+import com.github.koraktor.mavanagaiata.git.GitRepositorySnapshot;
 
+import static java.util.Arrays.*;
+import static java.util.Collections.*;
 import static org.eclipse.jgit.lib.Constants.*;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.core.Is.*;
@@ -155,6 +167,29 @@ class AbstractGitMojoTest extends MojoAbstractTest<AbstractGitMojo> {
         assertThat(mojo.init(), is(notNullValue()));
     }
 
+    @DisplayName("should start checking the worktree state if required")
+    @Test
+    void testInitStartDirtyCheck() throws Exception {
+        GitRepositorySnapshot snapshot = mock(GitRepositorySnapshot.class);
+        doReturn(repository).when(this.mojo).initRepository();
+        doReturn(true).when(this.mojo).isDirtyCheckRequired();
+        when(repository.getSnapshot()).thenReturn(snapshot);
+
+        mojo.init();
+
+        verify(snapshot).isDirtyAsync(new DirtyCheckOptions(false));
+    }
+
+    @DisplayName("should not check the worktree state in the background if not required")
+    @Test
+    void testInitNoDirtyCheck() throws Exception {
+        doReturn(repository).when(this.mojo).initRepository();
+
+        mojo.init();
+
+        verify(repository, never()).getSnapshot();
+    }
+
     @DisplayName("should handle errors while initializing")
     @Test
     void testInitError() throws Exception {
@@ -199,6 +234,135 @@ class AbstractGitMojoTest extends MojoAbstractTest<AbstractGitMojo> {
         assertThat(repository.isChecked(), is(true));
     }
 
+    @DisplayName("should share repositories during a Maven session")
+    @Test
+    void testInitRepositoryShared() throws Exception {
+        File baseDir = Files.createTempDirectory("mavanagaiata-tests-baseDir").toFile();
+        FileUtils.forceDeleteOnExit(baseDir);
+        Git.init().setDirectory(baseDir).call().close();
+
+        MavenSession session = mock(MavenSession.class, RETURNS_DEEP_STUBS);
+        when(session.getRepositorySession().getData()).thenReturn(new DefaultSessionData());
+        when(session.getRequest()).thenReturn(new DefaultMavenExecutionRequest());
+
+        mojo.baseDir = baseDir;
+        mojo.session = session;
+
+        GitRepository repository = mojo.initRepository();
+
+        assertThat(mojo.initRepository(), is(sameInstance(repository)));
+        assertThat(repository.isChecked(), is(true));
+
+        mojo.getRepositoryCache().close();
+    }
+
+    @DisplayName("should not share repositories if disabled")
+    @Test
+    void testInitRepositoryNotShared() {
+        mojo.session = mock(MavenSession.class);
+        mojo.shareRepository = false;
+
+        assertThat(mojo.getRepositoryCache(), is(nullValue()));
+    }
+
+    @DisplayName("should close the repository if it is not shared")
+    @Test
+    void testExecuteClosesRepository() throws Exception {
+        doReturn(repository).when(mojo).initRepository();
+
+        mojo.execute();
+
+        verify(repository).close();
+    }
+
+    @DisplayName("should check the whole worktree by default")
+    @Test
+    void testGetDirtyCheckOptions() throws Exception {
+        mojo.dirtyIgnoreUntracked = true;
+
+        assertThat(mojo.getDirtyCheckOptions(repository), is(equalTo(new DirtyCheckOptions(true))));
+    }
+
+    @DisplayName("should resolve dirty paths relative to the worktree")
+    @Test
+    void testGetDirtyCheckOptionsPaths() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-tests-workTree").toFile();
+        FileUtils.forceDeleteOnExit(workTree);
+        when(repository.getWorkTree()).thenReturn(workTree);
+
+        mojo.dirtyPaths = new File[] { new File(workTree, "module"), new File(workTree, "api/src") };
+
+        assertThat(mojo.getDirtyCheckOptions(repository),
+            is(equalTo(new DirtyCheckOptions(false, asList("api/src", "module")))));
+    }
+
+    @DisplayName("should parse the submodule changes to ignore")
+    @Test
+    void testGetDirtyCheckOptionsIgnoreSubmodules() throws Exception {
+        mojo.dirtyIgnoreSubmodules = "dirty";
+
+        assertThat(mojo.getDirtyCheckOptions(repository),
+            is(equalTo(new DirtyCheckOptions(false, emptyList(), IgnoreSubmodules.DIRTY))));
+    }
+
+    @DisplayName("should fail for invalid submodule changes to ignore")
+    @Test
+    void testGetDirtyCheckOptionsIgnoreSubmodulesInvalid() {
+        mojo.dirtyIgnoreSubmodules = "some";
+
+        GitRepositoryException e = assertThrows(GitRepositoryException.class,
+            () -> mojo.getDirtyCheckOptions(repository));
+        assertThat(e.getMessage(), is(equalTo("Invalid value \"some\" for ignoring submodules.")));
+    }
+
+    @DisplayName("should not allow dirty paths outside of the worktree")
+    @Test
+    void testGetDirtyCheckOptionsOutsideWorktree() throws Exception {
+        File workTree = Files.createTempDirectory("mavanagaiata-tests-workTree").toFile();
+        FileUtils.forceDeleteOnExit(workTree);
+        when(repository.getWorkTree()).thenReturn(workTree);
+
+        mojo.dirtyPaths = new File[] { workTree.getParentFile() };
+
+        GitRepositoryException e = assertThrows(GitRepositoryException.class,
+            () -> mojo.getDirtyCheckOptions(repository));
+        assertThat(e.getMessage(), is(equalTo(String.format(
+            "The path %s is not inside the worktree %s",
+            workTree.getParentFile(), workTree.getCanonicalFile()))));
+    }
+
+    @DisplayName("should check the worktree using the configured cache and threads")
+    @Test
+    void testGetDirtyCheckOptionsCacheAndThreads() throws Exception {
+        mojo.dirtyCache = true;
+        mojo.dirtyThreads = 4;
+
+        assertThat(mojo.getDirtyCheckOptions(repository),
+            is(equalTo(new DirtyCheckOptions(false).withCache(true).withThreads(4))));
+    }
+
+    @DisplayName("should describe HEAD using the configured options")
+    @Test
+    void testGetDescribeOptions() {
+        assertThat(mojo.getDescribeOptions(), is(equalTo(DescribeOptions.DEFAULT)));
+
+        mojo.describeCache = true;
+        mojo.describeFirstParent = true;
+
+        assertThat(mojo.getDescribeOptions(), is(equalTo(new DescribeOptions(true, true))));
+    }
+
+    @DisplayName("should walk the history using the configured options")
+    @Test
+    void testGetCommitWalkOptions() {
+        assertThat(mojo.getCommitWalkOptions(), is(equalTo(CommitWalkOptions.DEFAULT)));
+
+        mojo.commitCache = true;
+        mojo.streamingWalk = true;
+
+        assertThat(mojo.getCommitWalkOptions(), is(equalTo(new CommitWalkOptions(true, true))));
+    }
+
     @DisplayName("should ignore non-existant repositories when skipNoGit is set")
     @Test
     void testSkipNoGit() throws Exception{
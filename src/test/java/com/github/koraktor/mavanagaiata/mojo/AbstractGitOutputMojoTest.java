@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2012-2025, Sebastian Staudt
+ * Copyright (c) 2012-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
@@ -12,19 +12,26 @@ import java.io.PrintStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import com.github.koraktor.mavanagaiata.git.GitRepository;
+import com.github.koraktor.mavanagaiata.git.GitRepositorySnapshot;
 
+import static java.nio.charset.StandardCharsets.*;
 import static java.nio.file.Files.*;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.core.Is.*;
 import static org.hamcrest.core.IsEqual.*;
 import static org.hamcrest.core.IsInstanceOf.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -149,6 +156,122 @@ class AbstractGitOutputMojoTest extends MojoAbstractTest<AbstractGitOutputMojo>
         verify(mojo.printStream).flush();
     }
 
+    @DisplayName("should skip generating an up-to-date output file")
+    @Test
+    void testSkipUpToDate() throws Exception {
+        File outputFile = createUpToDateOutputFile();
+
+        mojo.run(repository);
+
+        verify(mojo, times(1)).writeOutput(repository);
+        assertThat(readString(outputFile.toPath()), is(equalTo("Output 1" + System.lineSeparator())));
+    }
+
+    @DisplayName("should regenerate the output file if its inputs changed")
+    @Test
+    void testSkipUpToDateChangedInputs() throws Exception {
+        File outputFile = createUpToDateOutputFile();
+
+        when(repository.getHeadCommit().getId()).thenReturn("cafebabe");
+        mojo.run(repository);
+
+        verify(mojo, times(2)).writeOutput(repository);
+        assertThat(readString(outputFile.toPath()), is(equalTo("Output 2" + System.lineSeparator())));
+
+        mojo.footer = "Footer";
+        mojo.run(repository);
+
+        verify(mojo, times(3)).writeOutput(repository);
+    }
+
+    @DisplayName("should regenerate the output file if it has been modified or deleted")
+    @Test
+    void testSkipUpToDateModifiedOutput() throws Exception {
+        File outputFile = createUpToDateOutputFile();
+
+        writeString(outputFile.toPath(), "Modified output", UTF_8);
+        mojo.run(repository);
+
+        verify(mojo, times(2)).writeOutput(repository);
+        assertThat(readString(outputFile.toPath()), is(equalTo("Output 2" + System.lineSeparator())));
+
+        delete(outputFile.toPath());
+        mojo.run(repository);
+
+        verify(mojo, times(3)).writeOutput(repository);
+        assertThat(outputFile.exists(), is(true));
+    }
+
+    @DisplayName("should always generate the output file if skipping is disabled")
+    @Test
+    void testSkipUpToDateDisabled() throws Exception {
+        createUpToDateOutputFile();
+
+        mojo.skipUpToDate = false;
+        mojo.run(repository);
+
+        verify(mojo, times(2)).writeOutput(repository);
+        verify(repository, times(1)).storeCache(anyString(), any(Properties.class));
+    }
+
+    @DisplayName("should always generate the output on an unborn branch")
+    @Test
+    void testSkipUpToDateUnbornBranch() throws Exception {
+        File outputFile = createUpToDateOutputFile();
+        String cacheName = mojo.getCacheName();
+
+        when(repository.isOnUnbornBranch()).thenReturn(true);
+        mojo.run(repository);
+
+        verify(mojo, times(2)).writeOutput(repository);
+        verify(repository, times(1)).storeCache(eq(cacheName), any(Properties.class));
+        assertThat(outputFile.exists(), is(true));
+    }
+
+    @DisplayName("should include the configuration of the mojo in the output settings")
+    @Test
+    void testGetOutputSettings() {
+        mojo.encoding = "UTF-8";
+        mojo.footer = "Footer";
+
+        List<String> settings = mojo.getOutputSettings();
+
+        assertThat(settings, is(equalTo(List.of(String.valueOf(VersionHelper.getVersion()),
+            "MM/dd/yyyy hh:mm a Z", "UTF-8", "Footer"))));
+    }
+
+    /**
+     * Generates an output file with skipping up-to-date output enabled and
+     * the fingerprint stored in a map
+     */
+    private File createUpToDateOutputFile() throws Exception {
+        Path outputDir = createTempDirectory(null);
+        outputDir.toFile().deleteOnExit();
+        File outputFile = new File(outputDir.toString(), "output");
+        outputFile.deleteOnExit();
+
+        Map<String, Properties> caches = new HashMap<>();
+        repository = mock(GitRepository.class, RETURNS_DEEP_STUBS);
+        when(repository.getSnapshot()).thenAnswer(invocation -> new GitRepositorySnapshot(repository));
+        when(repository.isOnUnbornBranch()).thenReturn(false);
+        when(repository.getHeadCommit().getId()).thenReturn("deadbeef");
+        when(repository.loadCache(anyString()))
+            .thenAnswer(invocation -> caches.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> caches.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(repository).storeCache(anyString(), any(Properties.class));
+
+        mojo = spy(mojo);
+        mojo.encoding = "UTF-8";
+        mojo.skipUpToDate = true;
+        mojo.setOutputFile(outputFile);
+        mojo.run(repository);
+
+        verify(mojo).writeOutput(repository);
+        assertThat(readString(outputFile.toPath()), is(equalTo("Output 1" + System.lineSeparator())));
+
+        return outputFile;
+    }
+
     static class GenericAbstractGitOutputMojo extends AbstractGitOutputMojo {
 
         File outputFile;
@@ -161,7 +284,11 @@ class AbstractGitOutputMojoTest extends MojoAbstractTest<AbstractGitOutputMojo>
             this.outputFile = outputFile;
         }
 
-        protected void writeOutput(GitRepository repository) {}
+        int runs;
+
+        protected void writeOutput(GitRepository repository) {
+            printStream.println("Output " + ++runs);
+        }
 
     }
 
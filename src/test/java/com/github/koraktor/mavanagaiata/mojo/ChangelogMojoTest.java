@@ -2,31 +2,46 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2011-2018, Sebastian Staudt
+ * Copyright (c) 2011-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Properties;
 import java.util.TimeZone;
 
+import org.apache.commons.io.FileUtils;
+
+import org.mockito.ArgumentCaptor;
 import org.mockito.stubbing.Answer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction.CommitDetail;
+import com.github.koraktor.mavanagaiata.git.CommitFilter;
 import com.github.koraktor.mavanagaiata.git.GitCommit;
 import com.github.koraktor.mavanagaiata.git.GitTag;
 
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.Collections.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.*;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsInstanceOf.*;
+import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -41,6 +56,7 @@ class ChangelogMojoTest extends GitOutputMojoAbstractTest<ChangelogMojo> {
     private static GitCommit mockCommit(String id, String message) {
         GitCommit commit = mock(GitCommit.class);
         when(commit.getId()).thenReturn(id);
+        when(commit.getCommitterDate()).thenReturn(new Date(1275131880000L));
         when(commit.getMessage()).thenReturn(message);
         when(commit.getMessageSubject()).thenReturn(message.split("\\n\\n")[0]);
         return commit;
@@ -82,13 +98,21 @@ class ChangelogMojoTest extends GitOutputMojoAbstractTest<ChangelogMojo> {
 
         when(repository.getBranch()).thenReturn("master");
         when(repository.getTags()).thenReturn(tags);
+        when(repository.getTagsFingerprint()).thenReturn("e69de29bb2d1d6434b8b29ae775ad8c2e48c5391");
+        when(repository.getTag(any(GitCommit.class))).thenAnswer(invocation ->
+            repository.getTags().get(((GitCommit) invocation.getArgument(0)).getId()));
         doAnswer((Answer<ChangelogMojo.ChangelogWalkAction>) invocation -> {
             ChangelogMojo.ChangelogWalkAction walkAction = ((ChangelogMojo.ChangelogWalkAction) invocation.getArguments()[0]);
             for (GitCommit commit : ChangelogMojoTest.this.mockCommits) {
-                walkAction.execute(commit);
+                if (walkAction.getCommitFilter().matches(commit)) {
+                    walkAction.execute(commit);
+                    if (walkAction.isStopped()) {
+                        break;
+                    }
+                }
             }
             return walkAction;
-        }).when(repository).walkCommits(any(ChangelogMojo.ChangelogWalkAction.class));
+        }).when(repository).walkCommits(any(ChangelogMojo.ChangelogWalkAction.class), any());
     }
 
     @DisplayName("should handle errors while generating the changelog")
@@ -260,6 +284,331 @@ class ChangelogMojoTest extends GitOutputMojoAbstractTest<ChangelogMojo> {
         assertOutputLine("");
         assertOutputLine("Footer");
         assertOutputLine(null);
+
+        verify(repository).loadTags(repository.getTags().values());
+        verify(repository, never()).loadTag(any());
+    }
+
+    @DisplayName("should only need the subjects of commits")
+    @Test
+    void testGetCommitDetail() throws Exception {
+        mojo.initConfiguration();
+
+        assertThat(mojo.new ChangelogWalkAction(repository).getCommitDetail(), is(CommitDetail.SUBJECT));
+    }
+
+    @DisplayName("should let the repository skip commits")
+    @Test
+    void testGetCommitFilter() throws Exception {
+        mojo.initConfiguration();
+        assertThat(mojo.new ChangelogWalkAction(repository).getCommitFilter().isAll(), is(true));
+
+        mojo.skipCommitsMatching = "\\[ci skip\\]";
+        mojo.skipMergeCommits = true;
+        mojo.initConfiguration();
+        CommitFilter filter = mojo.new ChangelogWalkAction(repository).getCommitFilter();
+
+        assertThat(filter.getSkipMessagePattern().pattern(), is(equalTo("\\[ci skip\\]")));
+        assertThat(filter.isSkipMerges(), is(true));
+        assertThat(filter.getPaths().isEmpty(), is(true));
+
+        File workTree = Files.createTempDirectory("mavanagaiata-tests-workTree").toFile();
+        FileUtils.forceDeleteOnExit(workTree);
+        when(repository.getWorkTree()).thenReturn(workTree);
+        mojo.paths = new File[] { new File(workTree, "module") };
+        filter = mojo.new ChangelogWalkAction(repository).getCommitFilter();
+
+        assertThat(filter.getPaths(), is(equalTo(singletonList("module"))));
+        assertThat(filter.getExcludedRef(), is(nullValue()));
+        assertThat(filter.getSince(), is(nullValue()));
+        assertThat(filter.isFirstParent(), is(false));
+
+        mojo.firstParent = true;
+        mojo.since = "2026-01-31T12:00:00Z";
+        mojo.sinceRef = "1.0.0";
+        mojo.generateOutput(repository);
+        filter = mojo.new ChangelogWalkAction(repository).getCommitFilter();
+
+        assertThat(filter.getExcludedRef(), is(equalTo("1.0.0")));
+        assertThat(filter.isFirstParent(), is(true));
+        assertThat(filter.getSince(), is(equalTo(new Date(1769860800000L))));
+    }
+
+    @DisplayName("should stop walking after the given number of commits")
+    @Test
+    void testMaxCommits() throws Exception {
+        mojo.maxCommits = 4;
+        mojo.initConfiguration();
+        mojo.generateOutput(repository);
+
+        assertOutputLine("Changelog");
+        assertOutputLine("=========");
+        assertOutputLine("");
+        assertOutputLine("Commits on branch \"master\"");
+        assertOutputLine("");
+        assertOutputLine(" * 8th commit");
+        assertOutputLine(" * 7th commit");
+        assertOutputLine("");
+        assertOutputLine("Version 2.0.0 – 05/29/2010 01:18 PM +0200");
+        assertOutputLine("");
+        assertOutputLine(" * 6th commit");
+        assertOutputLine(" * 5th commit");
+        assertOutputLine("");
+        assertOutputLine("Footer");
+        assertOutputLine(null);
+
+        verify(repository, never()).getTag(mockCommits.get(4));
+    }
+
+    @DisplayName("should stop walking at the tag after the given number of tags")
+    @Test
+    void testMaxTags() throws Exception {
+        ChangelogDefaultFormat format = new ChangelogDefaultFormat();
+        format.separator = "\n";
+        format.tagLink = "Git history for %s: %s";
+
+        mojo.format = format;
+        mojo.linkToProject = "mavanagaiata";
+        mojo.linkToUser = "koraktor";
+        mojo.maxTags = 1;
+        mojo.initConfiguration();
+        mojo.generateOutput(repository);
+
+        assertOutputLine("Changelog");
+        assertOutputLine("=========");
+        assertOutputLine("");
+        assertOutputLine("Commits on branch \"master\"");
+        assertOutputLine("");
+        assertOutputLine(" * 8th commit");
+        assertOutputLine(" * 7th commit");
+        assertOutputLine("");
+        assertOutputLine("See Git history for changes in the \"master\" branch since version 2.0.0 at: https://github.com/koraktor/mavanagaiata/compare/2.0.0...master");
+        assertOutputLine("");
+        assertOutputLine("Version 2.0.0 – 05/29/2010 01:18 PM +0200");
+        assertOutputLine("");
+        assertOutputLine(" * 6th commit");
+        assertOutputLine(" * 5th commit");
+        assertOutputLine(" * 4th commit");
+        assertOutputLine("");
+        assertOutputLine("Git history for 2.0.0: https://github.com/koraktor/mavanagaiata/compare/1.0.0...2.0.0");
+        assertOutputLine("");
+        assertOutputLine("Footer");
+        assertOutputLine(null);
+
+        verify(repository, never()).getTag(mockCommits.get(6));
+        verify(repository).loadTag(repository.getTags().get("06cee865ab7f006a58be39f1d46f01dcb1880105"));
+        verify(repository, never()).loadTag(repository.getTags().get("5979a86e9bb091fc792529bee68ed222000ebc7e"));
+        verify(repository, never()).loadTags(any());
+    }
+
+    @DisplayName("should link the history since the given ref")
+    @Test
+    void testSinceRef() throws Exception {
+        mockCommits = mockCommits.subList(0, 5);
+
+        ChangelogDefaultFormat format = new ChangelogDefaultFormat();
+        format.separator = "\n";
+        format.tagLink = "Git history for %s: %s";
+
+        mojo.format = format;
+        mojo.linkToProject = "mavanagaiata";
+        mojo.linkToUser = "koraktor";
+        mojo.sinceRef = "1.0.0";
+        mojo.initConfiguration();
+        mojo.generateOutput(repository);
+
+        assertOutputLine("Changelog");
+        assertOutputLine("=========");
+        assertOutputLine("");
+        assertOutputLine("Commits on branch \"master\"");
+        assertOutputLine("");
+        assertOutputLine(" * 8th commit");
+        assertOutputLine(" * 7th commit");
+        assertOutputLine("");
+        assertOutputLine("See Git history for changes in the \"master\" branch since version 2.0.0 at: https://github.com/koraktor/mavanagaiata/compare/2.0.0...master");
+        assertOutputLine("");
+        assertOutputLine("Version 2.0.0 – 05/29/2010 01:18 PM +0200");
+        assertOutputLine("");
+        assertOutputLine(" * 6th commit");
+        assertOutputLine(" * 5th commit");
+        assertOutputLine(" * 4th commit");
+        assertOutputLine("");
+        assertOutputLine("Git history for 2.0.0: https://github.com/koraktor/mavanagaiata/compare/1.0.0...2.0.0");
+        assertOutputLine("");
+        assertOutputLine("Footer");
+        assertOutputLine(null);
+    }
+
+    @DisplayName("should only render new commits if the changelog is updated incrementally")
+    @Test
+    void testIncremental() throws Exception {
+        File outputFile = File.createTempFile("mavanagaiata-tests-changelog", ".txt");
+        FileUtils.forceDeleteOnExit(outputFile);
+        ChangelogDefaultFormat format = new ChangelogDefaultFormat();
+        format.tagLink = "Git history for %s: %s";
+        mojo.format = format;
+        mojo.incremental = true;
+        mojo.linkToProject = "mavanagaiata";
+        mojo.linkToUser = "koraktor";
+        mojo.outputFile = outputFile;
+        mojo.initConfiguration();
+
+        GitCommit oldHead = mockCommits.get(0);
+        when(repository.getHeadCommit()).thenReturn(oldHead);
+        when(repository.loadCache(anyString())).thenReturn(new Properties());
+        String fullChangelog = generateChangelog();
+
+        ArgumentCaptor<Properties> state = ArgumentCaptor.forClass(Properties.class);
+        verify(repository).storeCache(anyString(), state.capture());
+        assertThat(state.getValue().getProperty("head"), is(equalTo(oldHead.getId())));
+
+        GitCommit newHead = mockCommit("c1d2e8ae0d2a3a7b1a7fbb1b4e2f3e2b6b5a4c3d", "9th commit");
+        when(newHead.getCommitterDate()).thenReturn(new Date(1275131940000L));
+        when(repository.getHeadCommit()).thenReturn(newHead);
+        when(repository.isAncestorOfHead(oldHead.getId())).thenReturn(true);
+        when(repository.loadCache(anyString())).thenReturn(state.getValue());
+        mockCommits = singletonList(newHead);
+
+        mojo.readPreviousOutput();
+        String incrementalChangelog = generateChangelog();
+
+        ArgumentCaptor<ChangelogMojo.ChangelogWalkAction> action =
+            ArgumentCaptor.forClass(ChangelogMojo.ChangelogWalkAction.class);
+        verify(repository, times(2)).walkCommits(action.capture(), any());
+        assertThat(action.getValue().getCommitFilter().getExcludedRef(), is(equalTo(oldHead.getId())));
+        verify(repository, times(2)).storeCache(anyString(), state.capture());
+        assertThat(state.getValue().getProperty("head"), is(equalTo(newHead.getId())));
+
+        int branchEnd = fullChangelog.indexOf(" * 8th commit");
+        assertThat(incrementalChangelog, is(equalTo(fullChangelog.substring(0, branchEnd) +
+            " * 9th commit" + System.lineSeparator() + fullChangelog.substring(branchEnd))));
+    }
+
+    @DisplayName("should render the whole changelog if it cannot be updated incrementally")
+    @Test
+    void testIncrementalFullRebuild() throws Exception {
+        File outputFile = File.createTempFile("mavanagaiata-tests-changelog", ".txt");
+        FileUtils.forceDeleteOnExit(outputFile);
+        mojo.incremental = true;
+        mojo.outputFile = outputFile;
+        mojo.initConfiguration();
+
+        when(repository.getHeadCommit()).thenReturn(mockCommits.get(0));
+        when(repository.loadCache(anyString())).thenReturn(new Properties());
+        String fullChangelog = generateChangelog();
+
+        ArgumentCaptor<Properties> state = ArgumentCaptor.forClass(Properties.class);
+        verify(repository).storeCache(anyString(), state.capture());
+        when(repository.loadCache(anyString())).thenReturn(state.getValue());
+
+        GitCommit newHead = mockCommit("c1d2e8ae0d2a3a7b1a7fbb1b4e2f3e2b6b5a4c3d", "9th commit");
+        when(repository.getHeadCommit()).thenReturn(newHead);
+        mockCommits = new ArrayList<>(mockCommits);
+        mockCommits.add(0, newHead);
+        mojo.readPreviousOutput();
+
+        String changelog = generateChangelog();
+
+        int branchEnd = fullChangelog.indexOf(" * 8th commit");
+        assertThat(changelog, is(equalTo(fullChangelog.substring(0, branchEnd) +
+            " * 9th commit" + System.lineSeparator() + fullChangelog.substring(branchEnd))));
+
+        ArgumentCaptor<ChangelogMojo.ChangelogWalkAction> action =
+            ArgumentCaptor.forClass(ChangelogMojo.ChangelogWalkAction.class);
+        verify(repository, times(2)).walkCommits(action.capture(), any());
+        assertThat(action.getValue().getCommitFilter().getExcludedRef(), is(nullValue()));
+    }
+
+    @DisplayName("should know whether the changelog only covers a part of the history")
+    @Test
+    void testIsBounded() {
+        assertThat(mojo.isBounded(), is(false));
+
+        mojo.maxCommits = 1;
+        assertThat(mojo.isBounded(), is(true));
+
+        mojo.maxCommits = 0;
+        mojo.since = "2010-05-29";
+        assertThat(mojo.isBounded(), is(true));
+
+        mojo.since = null;
+        mojo.sinceRef = "1.0.0";
+        assertThat(mojo.isBounded(), is(true));
+
+        mojo.sinceRef = null;
+        mojo.paths = new File[0];
+        assertThat(mojo.isBounded(), is(false));
+
+        mojo.paths = new File[] { new File("module") };
+        assertThat(mojo.isBounded(), is(true));
+    }
+
+    @DisplayName("should only update the changelog incrementally if possible")
+    @Test
+    void testIsIncremental() {
+        assertThat(mojo.isIncremental(), is(false));
+
+        mojo.incremental = true;
+        assertThat(mojo.isIncremental(), is(false));
+
+        mojo.outputFile = new File("CHANGELOG");
+        assertThat(mojo.isIncremental(), is(true));
+
+        mojo.maxTags = 1;
+        assertThat(mojo.isIncremental(), is(false));
+
+        mojo.maxTags = 0;
+        mojo.sinceRef = "1.0.0";
+        assertThat(mojo.isIncremental(), is(false));
+    }
+
+    @DisplayName("should regenerate the changelog if the ref it starts at is moved")
+    @Test
+    void testFingerprintSinceRef() throws Exception {
+        mojo.outputFile = new File("CHANGELOG");
+        when(repository.getHeadCommit()).thenReturn(mockCommits.get(0));
+        String fingerprint = mojo.getFingerprint(repository);
+
+        mojo.sinceRef = "1.0.0";
+        when(repository.resolveCommitId("1.0.0")).thenReturn("5979a86e9bb091fc792529bee68ed222000ebc7e");
+        String sinceRefFingerprint = mojo.getFingerprint(repository);
+
+        assertThat(sinceRefFingerprint, is(not(equalTo(fingerprint))));
+        assertThat(mojo.getFingerprint(repository), is(equalTo(sinceRefFingerprint)));
+
+        when(repository.resolveCommitId("1.0.0")).thenReturn("b3b28176c1a05b76fb9231abe2f2cbbf15a86118");
+
+        assertThat(mojo.getFingerprint(repository), is(not(equalTo(sinceRefFingerprint))));
+    }
+
+    @DisplayName("should parse dates with optional times and offsets")
+    @Test
+    void testParseDate() {
+        TimeZone timeZone = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("GMT+1"));
+
+            assertThat(ChangelogMojo.parseDate("2026-01-31"), is(equalTo(new Date(1769814000000L))));
+            assertThat(ChangelogMojo.parseDate("2026-01-31T12:00"), is(equalTo(new Date(1769857200000L))));
+            assertThat(ChangelogMojo.parseDate("2026-01-31T12:00:00+02:00"), is(equalTo(new Date(1769853600000L))));
+        } finally {
+            TimeZone.setDefault(timeZone);
+        }
+
+        assertThrows(DateTimeParseException.class, () -> ChangelogMojo.parseDate("31.01.2026"));
+    }
+
+    @DisplayName("should fail for invalid dates")
+    @Test
+    void testInvalidSince() {
+        mojo.since = "yesterday";
+        mojo.initConfiguration();
+
+        MavanagaiataMojoException e = assertThrows(MavanagaiataMojoException.class,
+            () -> mojo.generateOutput(repository));
+
+        assertThat(e.getMessage(), is(equalTo("Invalid date \"yesterday\" for since")));
+        assertThat(e.getCause(), is(instanceOf(DateTimeParseException.class)));
     }
 
     @DisplayName("should be able to generate a changelog skipping commits matching a pattern")
@@ -375,4 +724,14 @@ class ChangelogMojoTest extends GitOutputMojoAbstractTest<ChangelogMojo> {
         assertOutputLine(null);
     }
 
+    private String generateChangelog() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        mojo.footer = "";
+        mojo.printStream = new PrintStream(output, true, UTF_8);
+        mojo.generateOutput(repository);
+        Files.write(mojo.outputFile.toPath(), output.toByteArray());
+
+        return output.toString(UTF_8);
+    }
+
 }
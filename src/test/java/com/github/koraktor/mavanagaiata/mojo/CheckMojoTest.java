@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2016-2018, Sebastian Staudt
+ * Copyright (c) 2016-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
@@ -12,6 +12,7 @@ import org.apache.maven.plugin.logging.Log;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.github.koraktor.mavanagaiata.git.DirtyCheckOptions;
 import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
 
 import static org.eclipse.jgit.lib.Constants.*;
@@ -65,12 +66,25 @@ class CheckMojoTest extends MojoAbstractTest<CheckMojo> {
         mojo.run(repository);
     }
 
+    @DisplayName("should ignore the dirty check options if the worktree is not checked")
+    @Test
+    void testDirtyCheckOptionsUnused() throws Exception {
+        mojo.checkBranch = "production";
+        mojo.dirtyIgnoreSubmodules = "invalid";
+
+        when(repository.getBranch()).thenReturn("production");
+
+        mojo.run(repository);
+
+        verify(repository, never()).isDirty(any());
+    }
+
     @DisplayName("should fail when the worktree is dirty")
     @Test
     void testCheckCleanFailed() throws Exception {
         mojo.checkClean = true;
 
-        when(repository.isDirty(false)).thenReturn(true);
+        when(repository.isDirty(new DirtyCheckOptions(false))).thenReturn(true);
 
         CheckMojoException e = assertThrows(CheckMojoException.class,
             () -> mojo.run(repository));
@@ -83,7 +97,7 @@ class CheckMojoTest extends MojoAbstractTest<CheckMojo> {
     void testCheckCleanSuccess() throws Exception {
         mojo.checkClean = true;
 
-        when(repository.isDirty(false)).thenReturn(false);
+        when(repository.isDirty(new DirtyCheckOptions(false))).thenReturn(false);
 
         mojo.run(repository);
     }
@@ -118,7 +132,7 @@ class CheckMojoTest extends MojoAbstractTest<CheckMojo> {
     void testCheckTagFailed() throws Exception {
         mojo.checkTag = true;
 
-        when(repository.describe().isTagged()).thenReturn(false);
+        when(repository.describe(any()).isTagged()).thenReturn(false);
 
         CheckMojoException e = assertThrows(CheckMojoException.class,
             () -> mojo.run(repository));
@@ -131,7 +145,7 @@ class CheckMojoTest extends MojoAbstractTest<CheckMojo> {
     void testCheckTagSuccess() throws Exception {
         mojo.checkTag = true;
 
-        when(repository.describe().isTagged()).thenReturn(true);
+        when(repository.describe(any()).isTagged()).thenReturn(true);
 
         mojo.run(repository);
     }
@@ -143,8 +157,8 @@ class CheckMojoTest extends MojoAbstractTest<CheckMojo> {
         mojo.setLog(log);
         mojo.checkTag = true;
 
-        when(repository.describe().isTagged()).thenReturn(true);
-        when(repository.isDirty(false)).thenReturn(true);
+        when(repository.describe(any()).isTagged()).thenReturn(true);
+        when(repository.isDirty(new DirtyCheckOptions(false))).thenReturn(true);
 
         mojo.run(repository);
 
@@ -156,7 +170,7 @@ class CheckMojoTest extends MojoAbstractTest<CheckMojo> {
     @Test
     void testGenericFailure() throws Exception {
         Throwable exception = new GitRepositoryException("");
-        when(repository.describe()).thenThrow(exception);
+        when(repository.describe(any())).thenThrow(exception);
         mojo.checkTag = true;
 
         MavanagaiataMojoException e = assertThrows(MavanagaiataMojoException.class,
@@ -175,4 +189,19 @@ class CheckMojoTest extends MojoAbstractTest<CheckMojo> {
         assertThat(mojo.commitMessagePattern.pattern(), is(equalTo(mojo.checkCommitMessage)));
     }
 
+    @DisplayName("should only check the worktree state in the background if required")
+    @Test
+    void testIsDirtyCheckRequired() {
+        mojo.checkClean = false;
+        mojo.checkTag = false;
+        assertThat(mojo.isDirtyCheckRequired(), is(false));
+
+        mojo.checkTag = true;
+        assertThat(mojo.isDirtyCheckRequired(), is(true));
+
+        mojo.checkClean = true;
+        mojo.checkTag = false;
+        assertThat(mojo.isDirtyCheckRequired(), is(true));
+    }
+
 }
@@ -0,0 +1,47 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.mojo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Sebastian Staudt
+ */
+@DisplayName("CommitGraphMojo")
+class CommitGraphMojoTest extends MojoAbstractTest<CommitGraphMojo> {
+
+    @DisplayName("should handle errors")
+    @Test
+    void testError() {
+        super.testError("Unable to write the commit-graph");
+    }
+
+    @DisplayName("should write the commit-graph with changed paths")
+    @Test
+    void testResult() throws Exception {
+        when(repository.writeCommitGraph(true)).thenReturn(true);
+
+        mojo.run(repository);
+
+        verify(repository).writeCommitGraph(true);
+    }
+
+    @DisplayName("should write the commit-graph without changed paths")
+    @Test
+    void testResultWithoutChangedPaths() throws Exception {
+        mojo.changedPaths = false;
+
+        mojo.run(repository);
+
+        verify(repository).writeCommitGraph(false);
+    }
+
+}
@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2011-2018, Sebastian Staudt
+ * Copyright (c) 2011-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.github.koraktor.mavanagaiata.git.DirtyCheckOptions;
 import com.github.koraktor.mavanagaiata.git.GitCommit;
 
 import static org.mockito.Mockito.mock;
@@ -63,7 +64,7 @@ class CommitMojoTest extends MojoAbstractTest<CommitMojo> {
     @DisplayName("should use custom dirty flags")
     @Test
     void testCustomDirtyFlag() throws Exception {
-        when(this.repository.isDirty(this.mojo.dirtyIgnoreUntracked)).thenReturn(true);
+        when(this.repository.isDirty(new DirtyCheckOptions(this.mojo.dirtyIgnoreUntracked))).thenReturn(true);
 
         this.mojo.dirtyFlag = "*";
         mojo.run(repository);
@@ -78,7 +79,7 @@ class CommitMojoTest extends MojoAbstractTest<CommitMojo> {
     @DisplayName("should be able to check if the worktree is dirty")
     @Test
     void testDirtyWorktree() throws Exception {
-        when(this.repository.isDirty(this.mojo.dirtyIgnoreUntracked)).thenReturn(true);
+        when(this.repository.isDirty(new DirtyCheckOptions(this.mojo.dirtyIgnoreUntracked))).thenReturn(true);
 
         mojo.run(repository);
 
@@ -93,7 +94,7 @@ class CommitMojoTest extends MojoAbstractTest<CommitMojo> {
     @DisplayName("should not add a dirty flag if it’s null")
     @Test
     void testDisabledDirtyFlag() throws Exception {
-        when(this.repository.isDirty(this.mojo.dirtyIgnoreUntracked)).thenReturn(true);
+        when(this.repository.isDirty(new DirtyCheckOptions(this.mojo.dirtyIgnoreUntracked))).thenReturn(true);
 
         this.mojo.dirtyFlag = "null";
         this.mojo.prepareParameters();
@@ -2,13 +2,20 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2011-2019, Sebastian Staudt
+ * Copyright (c) 2011-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.util.Date;
+import java.util.List;
+import java.util.Properties;
 
+import org.apache.commons.io.FileUtils;
+
+import org.mockito.ArgumentCaptor;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
@@ -16,12 +23,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.github.koraktor.mavanagaiata.git.AbstractCommitWalkAction.CommitDetail;
+import com.github.koraktor.mavanagaiata.git.CommitFilter;
 import com.github.koraktor.mavanagaiata.git.GitCommit;
 import com.github.koraktor.mavanagaiata.git.MailMap;
 
+import static java.util.Collections.*;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.core.Is.*;
 import static org.hamcrest.core.IsEqual.*;
+import static org.hamcrest.core.IsNot.*;
+import static org.hamcrest.core.IsNull.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -72,7 +84,7 @@ class ContributorsMojoTest extends GitOutputMojoAbstractTest<ContributorsMojo> {
                 when(commit.getAuthorDate()).thenReturn(new Date(dateCounter ++));
                 return commit;
             }
-        }).when(this.repository).walkCommits(any(ContributorsMojo.ContributorsWalkAction.class));
+        }).when(this.repository).walkCommits(any(ContributorsMojo.ContributorsWalkAction.class), any());
     }
 
     @DisplayName("should handle errors")
@@ -81,6 +93,155 @@ class ContributorsMojoTest extends GitOutputMojoAbstractTest<ContributorsMojo> {
         super.testError("Unable to read contributors from Git");
     }
 
+    @DisplayName("should only need the authors of commits")
+    @Test
+    void testGetCommitDetail() throws Exception {
+        ContributorsMojo.ContributorsWalkAction action = mojo.new ContributorsWalkAction(repository);
+
+        assertThat(action.getCommitDetail(), is(CommitDetail.AUTHOR));
+    }
+
+    @DisplayName("should let the repository skip commits outside of the paths")
+    @Test
+    void testGetCommitFilter() throws Exception {
+        assertThat(mojo.new ContributorsWalkAction(repository).getCommitFilter().isAll(), is(true));
+
+        File workTree = Files.createTempDirectory("mavanagaiata-tests-workTree").toFile();
+        FileUtils.forceDeleteOnExit(workTree);
+        when(repository.getWorkTree()).thenReturn(workTree);
+        mojo.paths = new File[] { new File(workTree, "module") };
+
+        CommitFilter filter = mojo.new ContributorsWalkAction(repository).getCommitFilter();
+
+        assertThat(filter.getPaths(), is(equalTo(singletonList("module"))));
+    }
+
+    @DisplayName("should cache the contributors")
+    @Test
+    void testCache() throws Exception {
+        GitCommit head = mock(GitCommit.class);
+        when(head.getId()).thenReturn("head");
+        when(repository.getHeadCommit()).thenReturn(head);
+        when(repository.loadCache(ContributorsMojo.CACHE_NAME)).thenReturn(new Properties());
+        mojo.cache = true;
+
+        List<ContributorsMojo.Contributor> contributors = mojo.readContributors(repository);
+
+        ArgumentCaptor<Properties> cache = ArgumentCaptor.forClass(Properties.class);
+        verify(repository).storeCache(eq(ContributorsMojo.CACHE_NAME), cache.capture());
+        assertThat(contributors.size(), is(5));
+        assertThat(cache.getValue().getProperty("head"), is(equalTo("head")));
+        assertThat(cache.getValue().getProperty("contributors"), is(equalTo("5")));
+
+        reset(repository);
+        when(repository.getMailMap()).thenReturn(mock(MailMap.class));
+        when(repository.getHeadCommit()).thenReturn(head);
+        when(repository.loadCache(ContributorsMojo.CACHE_NAME)).thenReturn(cache.getValue());
+
+        List<ContributorsMojo.Contributor> cachedContributors = mojo.readContributors(repository);
+
+        verify(repository, never()).walkCommits(any(), any());
+        verify(repository, never()).storeCache(any(), any());
+        assertThat(cachedContributors.size(), is(5));
+        for (ContributorsMojo.Contributor contributor : contributors) {
+            ContributorsMojo.Contributor cachedContributor = cachedContributors.stream()
+                .filter(c -> c.emailAddress.equals(contributor.emailAddress))
+                .findFirst().orElse(null);
+            assertThat(cachedContributor, is(notNullValue()));
+            assertThat(cachedContributor.count, is(equalTo(contributor.count)));
+            assertThat(cachedContributor.firstCommitDate, is(equalTo(contributor.firstCommitDate)));
+            assertThat(cachedContributor.name, is(equalTo(contributor.name)));
+        }
+    }
+
+    @DisplayName("should only read new commits if the contributors are cached")
+    @Test
+    void testCacheIncremental() throws Exception {
+        GitCommit head = mock(GitCommit.class);
+        when(head.getId()).thenReturn("head");
+        when(repository.getHeadCommit()).thenReturn(head);
+        when(repository.isAncestorOfHead("cached")).thenReturn(true);
+        when(repository.loadCache(ContributorsMojo.CACHE_NAME)).thenReturn(createCache("cached"));
+        mojo.cache = true;
+        mojo.sort = "count";
+        mojo.initConfiguration();
+        mojo.generateOutput(repository);
+
+        ArgumentCaptor<ContributorsMojo.ContributorsWalkAction> action =
+            ArgumentCaptor.forClass(ContributorsMojo.ContributorsWalkAction.class);
+        verify(repository).walkCommits(action.capture(), any());
+        assertThat(action.getValue().getCommitFilter().getExcludedRef(), is(equalTo("cached")));
+
+        ArgumentCaptor<Properties> cache = ArgumentCaptor.forClass(Properties.class);
+        verify(repository).storeCache(eq(ContributorsMojo.CACHE_NAME), cache.capture());
+        assertThat(cache.getValue().getProperty("head"), is(equalTo("head")));
+        assertThat(cache.getValue().getProperty("contributors"), is(equalTo("6")));
+
+        assertOutputLine("Contributors");
+        assertOutputLine("============");
+        assertOutputLine("");
+        assertOutputLine(" * Sebastian Staudt (5)");
+        assertOutputLine(" * Jane Doe (4)");
+        assertOutputLine(" * Joe Average (2)");
+        assertOutputLine(" * John Doe (1)");
+        assertOutputLine(" * Markdown [Breaker] (1)");
+        assertOutputLine(" * HTML <Breaker> (1)");
+        assertOutputLine("Footer");
+        assertOutputLine(null);
+    }
+
+    @DisplayName("should read all commits if the cached contributors are invalid")
+    @Test
+    void testCacheInvalid() throws Exception {
+        GitCommit head = mock(GitCommit.class);
+        when(head.getId()).thenReturn("head");
+        when(repository.getHeadCommit()).thenReturn(head);
+        when(repository.loadCache(ContributorsMojo.CACHE_NAME)).thenReturn(createCache("cached"));
+        mojo.cache = true;
+
+        assertThat(mojo.readContributors(repository).size(), is(5));
+
+        when(repository.isAncestorOfHead("cached")).thenReturn(true);
+        when(repository.getMailMap().getId()).thenReturn("changed");
+
+        assertThat(mojo.readContributors(repository).size(), is(5));
+
+        Properties cache = createCache("cached");
+        cache.setProperty("contributor.0.count", "invalid");
+        when(repository.getMailMap().getId()).thenReturn(null);
+        when(repository.loadCache(ContributorsMojo.CACHE_NAME)).thenReturn(cache);
+
+        assertThat(mojo.readContributors(repository).size(), is(5));
+
+        ArgumentCaptor<ContributorsMojo.ContributorsWalkAction> action =
+            ArgumentCaptor.forClass(ContributorsMojo.ContributorsWalkAction.class);
+        verify(repository, atLeastOnce()).walkCommits(action.capture(), any());
+        for (ContributorsMojo.ContributorsWalkAction walkAction : action.getAllValues()) {
+            assertThat(walkAction.getCommitFilter().getExcludedRef(), is(nullValue()));
+        }
+    }
+
+    @DisplayName("should use separate caches for different paths")
+    @Test
+    void testGetCacheName() throws Exception {
+        assertThat(mojo.new ContributorsWalkAction(repository).getCacheName(),
+            is(equalTo(ContributorsMojo.CACHE_NAME)));
+
+        File workTree = Files.createTempDirectory("mavanagaiata-tests-workTree").toFile();
+        FileUtils.forceDeleteOnExit(workTree);
+        when(repository.getWorkTree()).thenReturn(workTree);
+        mojo.paths = new File[] { new File(workTree, "module") };
+
+        String cacheName = mojo.new ContributorsWalkAction(repository).getCacheName();
+
+        assertThat(cacheName.startsWith(ContributorsMojo.CACHE_NAME + "-"), is(true));
+
+        mojo.paths = new File[] { new File(workTree, "other-module") };
+
+        assertThat(mojo.new ContributorsWalkAction(repository).getCacheName(),
+            is(not(equalTo(cacheName))));
+    }
+
     @DisplayName("should allow configuration of the sort order")
     @Test
     void testInitConfiguration() {
@@ -242,4 +403,23 @@ class ContributorsMojoTest extends GitOutputMojoAbstractTest<ContributorsMojo> {
         assertOutputLine("Footer");
         assertOutputLine(null);
     }
+
+    private Properties createCache(String head) {
+        Properties cache = new Properties();
+        cache.setProperty("head", head);
+        cache.setProperty("mailmap", "");
+        cache.setProperty("paths", "");
+        cache.setProperty("contributors", "2");
+        cache.setProperty("contributor.0.count", "2");
+        cache.setProperty("contributor.0.date", "0");
+        cache.setProperty("contributor.0.email", "koraktor@gmail.com");
+        cache.setProperty("contributor.0.name", "Sebastian Staudt");
+        cache.setProperty("contributor.1.count", "4");
+        cache.setProperty("contributor.1.date", "0");
+        cache.setProperty("contributor.1.email", "jane.doe@example.com");
+        cache.setProperty("contributor.1.name", "Jane Doe");
+
+        return cache;
+    }
+
 }
@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2012-2018, Sebastian Staudt
+ * Copyright (c) 2012-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
@@ -23,6 +23,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.github.koraktor.mavanagaiata.git.DirtyCheckOptions;
 import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
 import com.github.koraktor.mavanagaiata.git.GitTagDescription;
 
@@ -67,7 +68,7 @@ class InfoClassMojoTest extends MojoAbstractTest<InfoClassMojo> {
         GitTagDescription description = mock(GitTagDescription.class);
         when(description.getNextTagName()).thenReturn("v1.2.3");
         when(description.toString()).thenReturn("v1.2.3-4-gdeadbeef");
-        when(repository.describe()).thenReturn(description);
+        when(repository.describe(any())).thenReturn(description);
         when(repository.getBranch()).thenReturn("master");
         when(repository.getHeadCommit().getId()).thenReturn("deadbeefdeadbeefdeadbeefdeadbeef");
 
@@ -93,7 +94,7 @@ class InfoClassMojoTest extends MojoAbstractTest<InfoClassMojo> {
     @Test
     void testFailureRepository() throws Exception {
         Throwable exception = new GitRepositoryException("");
-        when(repository.describe()).thenThrow(exception);
+        when(repository.describe(any())).thenThrow(exception);
 
         MavanagaiataMojoException e = assertThrows(MavanagaiataMojoException.class,
             () -> mojo.run(repository));
@@ -122,7 +123,7 @@ class InfoClassMojoTest extends MojoAbstractTest<InfoClassMojo> {
     @DisplayName("should handle dirty worktrees")
     @Test
     void testGetValueSourceDirty() throws Exception {
-        when(repository.isDirty(mojo.dirtyIgnoreUntracked)).thenReturn(true);
+        when(repository.isDirty(new DirtyCheckOptions(mojo.dirtyIgnoreUntracked))).thenReturn(true);
 
         mojo.prepareParameters();
         MapBasedValueSource valueSource = mojo.getValueSource(repository);
@@ -144,7 +145,7 @@ class InfoClassMojoTest extends MojoAbstractTest<InfoClassMojo> {
     @DisplayName("should handle ignore dirty worktrees if configured")
     @Test
     void testGetValueSourceDisabledDirtyFlag() throws Exception {
-        when(repository.isDirty(mojo.dirtyIgnoreUntracked)).thenReturn(true);
+        when(repository.isDirty(new DirtyCheckOptions(mojo.dirtyIgnoreUntracked))).thenReturn(true);
 
         mojo.dirtyFlag = "null";
         mojo.prepareParameters();
@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2011-2018, Sebastian Staudt
+ * Copyright (c) 2011-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
@@ -19,6 +19,7 @@ import org.junit.jupiter.api.BeforeEach;
 
 import com.github.koraktor.mavanagaiata.git.GitRepository;
 import com.github.koraktor.mavanagaiata.git.GitRepositoryException;
+import com.github.koraktor.mavanagaiata.git.GitRepositorySnapshot;
 import com.github.koraktor.mavanagaiata.git.jgit.JGitRepository;
 
 import static org.eclipse.jgit.lib.Constants.*;
@@ -63,6 +64,7 @@ public abstract class MojoAbstractTest<T extends AbstractGitMojo> {
         when(project.getProperties()).thenReturn(this.projectProperties);
 
         this.repository = mock(GitRepository.class, RETURNS_DEEP_STUBS);
+        when(repository.getSnapshot()).thenAnswer(invocation -> new GitRepositorySnapshot(repository));
 
         @SuppressWarnings("unchecked")
         Class<T> mojoClass = ((Class<T>)((ParameterizedType) this.getClass()
@@ -0,0 +1,85 @@
+/*
+ * This code is free software; you can redistribute it and/or modify it under
+ * the terms of the new BSD License.
+ *
+ * Copyright (c) 2026, Sebastian Staudt
+ */
+
+package com.github.koraktor.mavanagaiata.mojo;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.DefaultSessionData;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.koraktor.mavanagaiata.git.jgit.JGitRepositoryCache;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.core.Is.*;
+import static org.hamcrest.core.IsInstanceOf.*;
+import static org.hamcrest.core.IsSame.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Sebastian Staudt
+ */
+@DisplayName("SessionRepositoryCache")
+class SessionRepositoryCacheTest {
+
+    private ExecutionListener listener;
+
+    private MavenExecutionRequest request;
+
+    private MavenSession session;
+
+    @BeforeEach
+    void setup() {
+        listener = mock(ExecutionListener.class);
+        request = new DefaultMavenExecutionRequest();
+        request.setExecutionListener(listener);
+
+        session = mock(MavenSession.class, RETURNS_DEEP_STUBS);
+        when(session.getRepositorySession().getData()).thenReturn(new DefaultSessionData());
+        when(session.getRequest()).thenReturn(request);
+    }
+
+    @DisplayName("should provide a single cache per session")
+    @Test
+    void testForSession() {
+        JGitRepositoryCache cache = SessionRepositoryCache.forSession(session);
+
+        assertThat(SessionRepositoryCache.forSession(session), is(sameInstance(cache)));
+        assertThat(request.getExecutionListener(), is(instanceOf(SessionRepositoryCache.class)));
+    }
+
+    @DisplayName("should delegate execution events to the original listener")
+    @Test
+    void testDelegate() {
+        SessionRepositoryCache.forSession(session);
+        ExecutionEvent event = mock(ExecutionEvent.class);
+
+        request.getExecutionListener().mojoStarted(event);
+        request.getExecutionListener().sessionEnded(event);
+
+        verify(listener).mojoStarted(event);
+        verify(listener).sessionEnded(event);
+    }
+
+    @DisplayName("should close the cached repositories when the session ends")
+    @Test
+    void testSessionEnded() {
+        JGitRepositoryCache cache = mock(JGitRepositoryCache.class);
+        SessionRepositoryCache sessionCache = new SessionRepositoryCache(null, cache);
+
+        sessionCache.sessionEnded(mock(ExecutionEvent.class));
+
+        verify(cache).close();
+    }
+
+}
@@ -2,7 +2,7 @@
  * This code is free software; you can redistribute it and/or modify it under
  * the terms of the new BSD License.
  *
- * Copyright (c) 2011-2018, Sebastian Staudt
+ * Copyright (c) 2011-2026, Sebastian Staudt
  */
 
 package com.github.koraktor.mavanagaiata.mojo;
@@ -11,8 +11,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.github.koraktor.mavanagaiata.git.DirtyCheckOptions;
 import com.github.koraktor.mavanagaiata.git.GitTagDescription;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -30,7 +32,7 @@ class TagMojoTest extends MojoAbstractTest<TagMojo> {
         GitTagDescription description = mock(GitTagDescription.class);
         when(description.getNextTagName()).thenReturn("2.0.0");
         when(description.toString()).thenReturn("2.0.0-2-gdeadbeef");
-        when(repository.describe()).thenReturn(description);
+        when(repository.describe(any())).thenReturn(description);
     }
 
     @DisplayName("should handle errors")
@@ -51,7 +53,7 @@ class TagMojoTest extends MojoAbstractTest<TagMojo> {
     @DisplayName("should add custom dirty flags to the description")
     @Test
     void testCustomDirtyFlag() throws Exception {
-        when(repository.isDirty(mojo.dirtyIgnoreUntracked)).thenReturn(true);
+        when(repository.isDirty(new DirtyCheckOptions(mojo.dirtyIgnoreUntracked))).thenReturn(true);
 
         mojo.dirtyFlag = "*";
         mojo.run(repository);
@@ -63,7 +65,7 @@ class TagMojoTest extends MojoAbstractTest<TagMojo> {
     @DisplayName("should add a flag to the description if the worktree is dirty")
     @Test
     void testDirty() throws Exception {
-        when(repository.isDirty(mojo.dirtyIgnoreUntracked)).thenReturn(true);
+        when(repository.isDirty(new DirtyCheckOptions(mojo.dirtyIgnoreUntracked))).thenReturn(true);
 
         mojo.run(repository);
 
@@ -74,7 +76,7 @@ class TagMojoTest extends MojoAbstractTest<TagMojo> {
     @DisplayName("should not add a flag to the description if configured")
     @Test
     void testDisabledDirtyFlag() throws Exception {
-        when(repository.isDirty(mojo.dirtyIgnoreUntracked)).thenReturn(true);
+        when(repository.isDirty(new DirtyCheckOptions(mojo.dirtyIgnoreUntracked))).thenReturn(true);
 
         mojo.dirtyFlag = "null";
         mojo.prepareParameters();
@@ -84,4 +86,15 @@ class TagMojoTest extends MojoAbstractTest<TagMojo> {
         assertProperty("2.0.0", "tag.name");
     }
 
+    @DisplayName("should only check the worktree state in the background with a dirty flag")
+    @Test
+    void testIsDirtyCheckRequired() {
+        assertThat(mojo.isDirtyCheckRequired(), is(true));
+
+        mojo.dirtyFlag = "null";
+        mojo.prepareParameters();
+
+        assertThat(mojo.isDirtyCheckRequired(), is(false));
+    }
+
 }